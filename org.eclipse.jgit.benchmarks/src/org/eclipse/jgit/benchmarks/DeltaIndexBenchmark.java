@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.internal.storage.pack.DeltaIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Thread)
+public class DeltaIndexBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		/** Size of the base blob in KiB. */
+		@Param({ "4", "64", "1024" })
+		int size;
+
+		/** Percentage of lines modified in the target blob. */
+		@Param({ "1", "10" })
+		int edits;
+
+		byte[] base;
+
+		byte[] target;
+
+		DeltaIndex index;
+
+		@Setup
+		public void setupBenchmark() {
+			// Source-code like text, so hash chains and match lengths
+			// resemble those of typical blobs in a repository.
+			Random rnd = new Random(42);
+			List<String> lines = new ArrayList<>();
+			int len = 0;
+			while (len < size * 1024) {
+				String line = line(rnd);
+				lines.add(line);
+				len += line.length();
+			}
+			base = String.join("", lines).getBytes(StandardCharsets.UTF_8);
+
+			for (int i = 0; i < lines.size(); i++) {
+				if (rnd.nextInt(100) < edits) {
+					switch (rnd.nextInt(3)) {
+					case 0:
+						lines.set(i, line(rnd));
+						break;
+					case 1:
+						lines.add(i, line(rnd));
+						break;
+					default:
+						lines.remove(i);
+						break;
+					}
+				}
+			}
+			target = String.join("", lines).getBytes(StandardCharsets.UTF_8);
+			index = new DeltaIndex(base);
+		}
+
+		private static String line(Random rnd) {
+			StringBuilder b = new StringBuilder();
+			int indent = rnd.nextInt(4);
+			for (int i = 0; i < indent; i++) {
+				b.append('\t');
+			}
+			String[] words = { "final", "int", "return", "this", "byte[]",
+					"if", "(", ")", "{", "}", "=", "ptr", "src", "res", ";",
+					"for", "hash", "len", "+", "null" };
+			int n = 2 + rnd.nextInt(10);
+			for (int i = 0; i < n; i++) {
+				b.append(words[rnd.nextInt(words.length)]).append(' ');
+			}
+			return b.append('\n').toString();
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode({ Mode.AverageTime })
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+	@Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+	@Fork(1)
+	public void testCreateIndex(Blackhole blackhole, BenchmarkState state) {
+		blackhole.consume(new DeltaIndex(state.base));
+	}
+
+	@Benchmark
+	@BenchmarkMode({ Mode.AverageTime })
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+	@Measurement(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+	@Fork(1)
+	public void testEncode(Blackhole blackhole, BenchmarkState state)
+			throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(
+				state.target.length);
+		state.index.encode(out, state.target);
+		blackhole.consume(out.size());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(DeltaIndexBenchmark.class.getSimpleName())
+				.forks(1).jvmArgs("-ea").build();
+		new Runner(opt).run();
+	}
+}
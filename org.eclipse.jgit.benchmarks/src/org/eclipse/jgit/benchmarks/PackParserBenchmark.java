@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.pack.PackWriter;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.eclipse.jgit.transport.PackParser;
+import org.eclipse.jgit.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Thread)
+public class PackParserBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		/** Number of threads resolving deltas. */
+		@Param({ "1", "2", "4", "0" })
+		int threads;
+
+		/** Whether to resolve deltas while the pack is received. */
+		@Param({ "false", "true" })
+		boolean streaming;
+
+		/** Number of files, each one the base of a delta chain. */
+		@Param({ "200" })
+		int files;
+
+		/** Number of revisions of each file. */
+		@Param({ "50" })
+		int revisions;
+
+		byte[] pack;
+
+		Path testDir;
+
+		FileRepository repo;
+
+		@Setup
+		public void setupBenchmark() throws Exception {
+			// A synthetic history where every file is edited many times,
+			// so the pack consists of many independent delta trees.
+			Random rnd = new Random(42);
+			try (TestRepository<InMemoryRepository> t = new TestRepository<>(
+					new InMemoryRepository(
+							new DfsRepositoryDescription("src")))) {
+				StringBuilder[] content = new StringBuilder[files];
+				for (int f = 0; f < files; f++) {
+					content[f] = new StringBuilder();
+					for (int line = 0; line < 500; line++) {
+						content[f].append(Long.toHexString(rnd.nextLong()))
+								.append('\n');
+					}
+				}
+				RevCommit tip = null;
+				for (int rev = 0; rev < revisions; rev++) {
+					TestRepository<InMemoryRepository>.CommitBuilder cb = t
+							.commit();
+					if (tip != null) {
+						cb.parent(tip);
+					}
+					for (int f = 0; f < files; f++) {
+						int at = rnd.nextInt(content[f].length());
+						content[f].insert(at,
+								Long.toHexString(rnd.nextLong()) + '\n');
+						cb.add("f" + f, content[f].toString());
+					}
+					tip = cb.create();
+				}
+
+				InMemoryRepository src = t.getRepository();
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				try (PackWriter pw = new PackWriter(new PackConfig(src),
+						src.newObjectReader())) {
+					pw.preparePack(NullProgressMonitor.INSTANCE,
+							Collections.singleton(tip.copy()),
+							PackWriter.NONE);
+					pw.writePack(NullProgressMonitor.INSTANCE,
+							NullProgressMonitor.INSTANCE, out);
+				}
+				pack = out.toByteArray();
+			}
+
+			testDir = Files.createTempDirectory("packparser");
+			repo = new FileRepository(testDir.resolve(".git").toFile());
+			repo.create(true);
+		}
+
+		@TearDown
+		public void teardown() throws IOException {
+			repo.close();
+			FileUtils.delete(testDir.toFile(),
+					FileUtils.RECURSIVE | FileUtils.RETRY);
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode({ Mode.AverageTime })
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+	@Measurement(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+	@Fork(1)
+	public void testParse(Blackhole blackhole, BenchmarkState state)
+			throws IOException {
+		// Once the pack exists in the repository the parsed copy is
+		// discarded, so every invocation indexes the full pack again.
+		try (ObjectInserter ins = state.repo.newObjectInserter()) {
+			PackParser p = ins.newPackParser(
+					new ByteArrayInputStream(state.pack));
+			p.setDeltaResolutionThreads(state.threads);
+			p.setStreamingDeltaResolution(state.streaming);
+			p.parse(NullProgressMonitor.INSTANCE);
+			blackhole.consume(p.getReceivedPackStatistics());
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(PackParserBenchmark.class.getSimpleName())
+				.forks(1).jvmArgs("-ea").build();
+		new Runner(opt).run();
+	}
+}
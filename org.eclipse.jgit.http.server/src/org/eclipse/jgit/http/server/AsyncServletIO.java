@@ -0,0 +1,525 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.server;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.eclipse.jgit.lib.Repository;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static jakarta.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+import static org.eclipse.jgit.http.server.GitSmartHttpTools.sendError;
+import static org.eclipse.jgit.http.server.ServletUtils.ATTRIBUTE_HANDLER;
+import static org.eclipse.jgit.http.server.ServletUtils.ATTRIBUTE_REPOSITORY;
+import static org.eclipse.jgit.http.server.ServletUtils.getRepository;
+
+/**
+ * Runs a smart service request on an executor using non-blocking servlet I/O.
+ * <p>
+ * The container thread only starts asynchronous processing and returns. The
+ * service runs on the executor and reads and writes through blocking streams,
+ * which are fed by a {@link ReadListener} and drained by a
+ * {@link WriteListener} on the container streams. At most {@link #BUFFER}
+ * bytes are buffered in each direction; beyond that the service thread waits
+ * for the client, so a slow client never holds a container thread.
+ */
+class AsyncServletIO {
+	/** Number of bytes buffered in each direction. */
+	private static final int BUFFER = 256 * 1024;
+
+	/** Size of the blocks written to the container. */
+	private static final int BLOCK = 32 * 1024;
+
+	/** A service run on the executor. */
+	interface Task {
+		/**
+		 * Serve the request.
+		 *
+		 * @param req
+		 *            request reading the body through the buffer.
+		 * @param rsp
+		 *            response writing the body through the buffer.
+		 */
+		void run(HttpServletRequest req, HttpServletResponse rsp);
+	}
+
+	/**
+	 * Start serving a request asynchronously.
+	 * <p>
+	 * The repository and the handler stored in the request attributes stay
+	 * available to the task after the filter chain returned.
+	 *
+	 * @param req
+	 *            the request, which must support asynchronous processing.
+	 * @param rsp
+	 *            the response.
+	 * @param executor
+	 *            executor running the task.
+	 * @param task
+	 *            the service.
+	 * @throws IOException
+	 *             the executor rejected the task and the error could not be
+	 *             sent.
+	 */
+	static void start(HttpServletRequest req, HttpServletResponse rsp,
+			Executor executor, Task task) throws IOException {
+		Repository db = getRepository(req);
+		AsyncContext ctx = req.startAsync(req, rsp);
+		// The services enforce their own timeouts.
+		ctx.setTimeout(0);
+		AsyncServletIO io = new AsyncServletIO(ctx, req, rsp);
+		io.input.start();
+
+		db.incrementOpen();
+		try {
+			executor.execute(() -> {
+				try {
+					task.run(io.request, io.response);
+				} finally {
+					db.close();
+					io.finish();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			db.close();
+			try {
+				sendError(req, rsp, SC_SERVICE_UNAVAILABLE);
+			} finally {
+				ctx.complete();
+			}
+		}
+	}
+
+	private final AsyncContext ctx;
+
+	private final Input input;
+
+	private final Output output;
+
+	private final HttpServletRequest request;
+
+	private final HttpServletResponse response;
+
+	private boolean completed;
+
+	private AsyncServletIO(AsyncContext ctx, HttpServletRequest req,
+			HttpServletResponse rsp) throws IOException {
+		this.ctx = ctx;
+		input = new Input(req.getInputStream());
+		output = new Output(rsp);
+		request = new Request(req, input);
+		response = new Response(rsp, output);
+	}
+
+	private void finish() {
+		if (!output.finish()) {
+			complete();
+		}
+	}
+
+	private synchronized void complete() {
+		if (!completed) {
+			completed = true;
+			ctx.complete();
+		}
+	}
+
+	/** Keeps the attributes the filter chain removes once it returns. */
+	private static class Request extends HttpServletRequestWrapper {
+		private final ServletInputStream in;
+
+		private final Object repository;
+
+		private final Object handler;
+
+		Request(HttpServletRequest req, ServletInputStream in) {
+			super(req);
+			this.in = in;
+			repository = req.getAttribute(ATTRIBUTE_REPOSITORY);
+			handler = req.getAttribute(ATTRIBUTE_HANDLER);
+		}
+
+		@Override
+		public Object getAttribute(String name) {
+			if (ATTRIBUTE_REPOSITORY.equals(name)) {
+				return repository;
+			} else if (ATTRIBUTE_HANDLER.equals(name)) {
+				return handler;
+			}
+			return super.getAttribute(name);
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			return in;
+		}
+	}
+
+	private static class Response extends HttpServletResponseWrapper {
+		private final Output out;
+
+		Response(HttpServletResponse rsp, Output out) {
+			super(rsp);
+			this.out = out;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			out.open();
+			return out;
+		}
+
+		@Override
+		public boolean isCommitted() {
+			// Once non-blocking output started the response can no longer
+			// be reset to send an error instead.
+			return out.isOpen() || super.isCommitted();
+		}
+	}
+
+	/** Blocking stream of the request body, filled by the container. */
+	private static class Input extends ServletInputStream
+			implements ReadListener {
+		private final ServletInputStream in;
+
+		private final byte[] buf = new byte[BLOCK];
+
+		private final Deque<byte[]> blocks = new ArrayDeque<>();
+
+		private int buffered;
+
+		private byte[] current;
+
+		private int pos;
+
+		/** Reading paused because the buffer was full. */
+		private boolean paused;
+
+		private boolean eof;
+
+		private Throwable failed;
+
+		Input(ServletInputStream in) {
+			this.in = in;
+		}
+
+		void start() {
+			in.setReadListener(this);
+		}
+
+		@Override
+		public synchronized void onDataAvailable() throws IOException {
+			fill();
+		}
+
+		@Override
+		public synchronized void onAllDataRead() {
+			eof = true;
+			notifyAll();
+		}
+
+		@Override
+		public synchronized void onError(Throwable t) {
+			failed = t;
+			notifyAll();
+		}
+
+		private void fill() throws IOException {
+			paused = false;
+			while (buffered < BUFFER) {
+				if (!in.isReady()) {
+					// The container calls onDataAvailable or onAllDataRead.
+					return;
+				}
+				int n = in.read(buf);
+				if (n < 0) {
+					eof = true;
+					notifyAll();
+					return;
+				}
+				if (n > 0) {
+					blocks.add(Arrays.copyOf(buf, n));
+					buffered += n;
+					notifyAll();
+				}
+			}
+			paused = true;
+		}
+
+		private boolean next() throws IOException {
+			while (current == null || pos == current.length) {
+				byte[] b = blocks.poll();
+				if (b != null) {
+					buffered -= b.length;
+					current = b;
+					pos = 0;
+					if (paused) {
+						fill();
+					}
+					continue;
+				}
+				if (failed != null) {
+					throw new IOException(failed);
+				}
+				if (eof) {
+					return false;
+				}
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					throw new InterruptedIOException();
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public synchronized int read() throws IOException {
+			return next() ? current[pos++] & 0xff : -1;
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len)
+				throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!next()) {
+				return -1;
+			}
+			int n = Math.min(len, current.length - pos);
+			System.arraycopy(current, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+
+		@Override
+		public synchronized int available() {
+			return current != null ? current.length - pos : 0;
+		}
+
+		@Override
+		public synchronized boolean isFinished() {
+			return eof && blocks.isEmpty()
+					&& (current == null || pos == current.length);
+		}
+
+		@Override
+		public boolean isReady() {
+			// Reads block until data is available.
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener listener) {
+			throw new IllegalStateException();
+		}
+	}
+
+	/** Blocking stream of the response body, drained by the container. */
+	private class Output extends ServletOutputStream implements WriteListener {
+		private final HttpServletResponse rsp;
+
+		private ServletOutputStream out;
+
+		private final Deque<byte[]> blocks = new ArrayDeque<>();
+
+		private int buffered;
+
+		private byte[] block = new byte[BLOCK];
+
+		private int blockLen;
+
+		private boolean flush;
+
+		private boolean closed;
+
+		/** The container calls onWritePossible once it can write again. */
+		private boolean waiting;
+
+		private Throwable failed;
+
+		Output(HttpServletResponse rsp) {
+			this.rsp = rsp;
+		}
+
+		synchronized void open() throws IOException {
+			if (out == null) {
+				out = rsp.getOutputStream();
+				// The container calls onWritePossible right away.
+				waiting = true;
+				out.setWriteListener(this);
+			}
+		}
+
+		synchronized boolean isOpen() {
+			return out != null;
+		}
+
+		/**
+		 * Close the stream once the task ended.
+		 *
+		 * @return true if the listener completes the request once the
+		 *         output is written.
+		 */
+		synchronized boolean finish() {
+			if (out == null || failed != null) {
+				return false;
+			}
+			try {
+				close();
+				return true;
+			} catch (IOException e) {
+				return false;
+			}
+		}
+
+		@Override
+		public synchronized void onWritePossible() throws IOException {
+			waiting = false;
+			drain();
+		}
+
+		@Override
+		public synchronized void onError(Throwable t) {
+			failed = t;
+			blocks.clear();
+			buffered = 0;
+			notifyAll();
+			complete();
+		}
+
+		private void drain() throws IOException {
+			while (!waiting) {
+				if (!out.isReady()) {
+					waiting = true;
+					return;
+				}
+				byte[] b = blocks.poll();
+				if (b != null) {
+					buffered -= b.length;
+					out.write(b);
+					notifyAll();
+				} else if (flush) {
+					flush = false;
+					out.flush();
+				} else {
+					if (closed) {
+						complete();
+					}
+					return;
+				}
+			}
+		}
+
+		private void check() throws IOException {
+			if (failed != null) {
+				throw new IOException(failed);
+			}
+			if (closed) {
+				throw new IOException(HttpServerText.get().responseAlreadyClosed);
+			}
+		}
+
+		private void enqueue() throws IOException {
+			if (blockLen == 0) {
+				return;
+			}
+			while (buffered >= BUFFER && failed == null) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					throw new InterruptedIOException();
+				}
+			}
+			check();
+			byte[] b;
+			if (blockLen == block.length) {
+				b = block;
+				block = new byte[BLOCK];
+			} else {
+				b = Arrays.copyOf(block, blockLen);
+			}
+			blockLen = 0;
+			blocks.add(b);
+			buffered += b.length;
+			drain();
+		}
+
+		@Override
+		public synchronized void write(int b) throws IOException {
+			check();
+			if (blockLen == block.length) {
+				enqueue();
+			}
+			block[blockLen++] = (byte) b;
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len)
+				throws IOException {
+			check();
+			while (len > 0) {
+				if (blockLen == block.length) {
+					enqueue();
+				}
+				int n = Math.min(len, block.length - blockLen);
+				System.arraycopy(b, off, block, blockLen, n);
+				blockLen += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public synchronized void flush() throws IOException {
+			check();
+			enqueue();
+			flush = true;
+			drain();
+		}
+
+		@Override
+		public synchronized void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			enqueue();
+			closed = true;
+			drain();
+		}
+
+		@Override
+		public boolean isReady() {
+			// Writes block while the buffer is full.
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener listener) {
+			throw new IllegalStateException();
+		}
+	}
+}
@@ -12,25 +12,45 @@
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.util.FS;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.text.MessageFormat;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static jakarta.servlet.http.HttpServletResponse.SC_PARTIAL_CONTENT;
 import static jakarta.servlet.http.HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE;
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.eclipse.jgit.util.HttpSupport.*;
 
 /**
  * Dumps a file over HTTP GET (or its information via HEAD).
  * <p>
- * Supports a single byte range requested via {@code Range} HTTP header. This
- * feature supports a dumb client to resume download of a larger object file.
+ * Supports byte ranges requested via {@code Range} HTTP header. This feature
+ * supports a dumb client to resume download of a larger object file, and
+ * mirrors to fetch several parts of a pack in one request; multiple ranges
+ * are sent as {@code multipart/byteranges}.
+ * <p>
+ * If the servlet output stream is also a {@link WritableByteChannel}, the file
+ * is transferred with {@link FileChannel#transferTo(long, long,
+ * WritableByteChannel)}, which lets the operating system send it without
+ * copying it through user space. Otherwise it is copied through a buffer.
  */
 final class FileSender {
+	/** More ranges are ignored, and the entire file is sent instead. */
+	private static final int MAX_RANGES = 16;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
 	private final File path;
 
 	private final RandomAccessFile source;
@@ -39,10 +59,6 @@ final class FileSender {
 
 	private final long fileLen;
 
-	private long pos;
-
-	private long end;
-
 	FileSender(File path) throws FileNotFoundException {
 		this.path = path;
 		this.source = new RandomAccessFile(path, "r");
@@ -50,7 +66,6 @@ final class FileSender {
 		try {
 			this.lastModified = FS.DETECTED.lastModifiedInstant(path);
 			this.fileLen = source.getChannel().size();
-			this.end = fileLen;
 		} catch (IOException e) {
 			try {
 				source.close();
@@ -73,6 +88,14 @@ void close() {
 		}
 	}
 
+	File getPath() {
+		return path;
+	}
+
+	long getLength() {
+		return fileLen;
+	}
+
 	Instant getLastModified() {
 		return lastModified;
 	}
@@ -85,95 +108,216 @@ String getTailChecksum() throws IOException {
 		return ObjectId.fromRaw(buf).getName();
 	}
 
+	/**
+	 * Send the file, or the requested ranges of it.
+	 *
+	 * @param req
+	 *            the request.
+	 * @param rsp
+	 *            the response, whose content type is already set.
+	 * @param sendBody
+	 *            whether to send the body, false for {@code HEAD}.
+	 * @param etag
+	 *            entity tag of the file, compared to {@code If-Range}; null
+	 *            if the file has none.
+	 * @throws IOException
+	 *             the file could not be read or sent.
+	 */
 	void serve(final HttpServletRequest req, final HttpServletResponse rsp,
-			final boolean sendBody) throws IOException {
-		if (!initRangeRequest(req, rsp)) {
+			final boolean sendBody, @Nullable String etag) throws IOException {
+		List<long[]> ranges = parseRanges(req, etag);
+		if (ranges != null && ranges.isEmpty()) {
+			rsp.setHeader(HDR_CONTENT_RANGE, "bytes */" + fileLen);
 			rsp.sendError(SC_REQUESTED_RANGE_NOT_SATISFIABLE);
 			return;
 		}
 
 		rsp.setHeader(HDR_ACCEPT_RANGES, "bytes");
-		rsp.setHeader(HDR_CONTENT_LENGTH, Long.toString(end - pos));
+		if (ranges == null) {
+			rsp.setHeader(HDR_CONTENT_LENGTH, Long.toString(fileLen));
+			if (sendBody) {
+				send(rsp, 0, fileLen);
+			}
+		} else if (ranges.size() == 1) {
+			long pos = ranges.get(0)[0];
+			long end = ranges.get(0)[1];
+			rsp.setStatus(SC_PARTIAL_CONTENT);
+			rsp.setHeader(HDR_CONTENT_RANGE, contentRange(pos, end));
+			rsp.setHeader(HDR_CONTENT_LENGTH, Long.toString(end - pos));
+			if (sendBody) {
+				send(rsp, pos, end);
+			}
+		} else {
+			sendMultipart(rsp, ranges, sendBody);
+		}
+	}
+
+	private String contentRange(long pos, long end) {
+		return "bytes " + pos + "-" + (end - 1) + "/" + fileLen;
+	}
+
+	private void send(HttpServletResponse rsp, long pos, long end)
+			throws IOException {
+		try (OutputStream out = rsp.getOutputStream()) {
+			copy(out, pos, end);
+			out.flush();
+		}
+	}
 
+	private void sendMultipart(HttpServletResponse rsp, List<long[]> ranges,
+			boolean sendBody) throws IOException {
+		String boundary = Long.toHexString(
+				ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+		String type = rsp.getContentType();
+		byte[][] headers = new byte[ranges.size()][];
+		byte[] trailer = ("\r\n--" + boundary + "--\r\n").getBytes(US_ASCII);
+		long len = trailer.length;
+		for (int i = 0; i < headers.length; i++) {
+			long[] r = ranges.get(i);
+			StringBuilder h = new StringBuilder();
+			h.append("\r\n--").append(boundary).append("\r\n");
+			if (type != null) {
+				h.append(HDR_CONTENT_TYPE).append(": ").append(type)
+						.append("\r\n");
+			}
+			h.append(HDR_CONTENT_RANGE).append(": ")
+					.append(contentRange(r[0], r[1])).append("\r\n\r\n");
+			headers[i] = h.toString().getBytes(US_ASCII);
+			len += headers[i].length + r[1] - r[0];
+		}
+
+		rsp.setStatus(SC_PARTIAL_CONTENT);
+		rsp.setContentType("multipart/byteranges; boundary=" + boundary);
+		rsp.setHeader(HDR_CONTENT_LENGTH, Long.toString(len));
 		if (sendBody) {
 			try (OutputStream out = rsp.getOutputStream()) {
-				final byte[] buf = new byte[4096];
-				source.seek(pos);
-				while (pos < end) {
-					final int r = (int) Math.min(buf.length, end - pos);
-					final int n = source.read(buf, 0, r);
-					if (n < 0) {
-						throw new EOFException(MessageFormat.format(HttpServerText.get().unexpectedeOFOn, path));
-					}
-					out.write(buf, 0, n);
-					pos += n;
+				for (int i = 0; i < headers.length; i++) {
+					out.write(headers[i]);
+					copy(out, ranges.get(i)[0], ranges.get(i)[1]);
 				}
+				out.write(trailer);
 				out.flush();
 			}
 		}
 	}
 
-	private boolean initRangeRequest(final HttpServletRequest req,
-			final HttpServletResponse rsp) throws IOException {
+	private void copy(OutputStream out, long pos, long end)
+			throws IOException {
+		FileChannel in = source.getChannel();
+		if (out instanceof WritableByteChannel) {
+			WritableByteChannel dst = (WritableByteChannel) out;
+			while (pos < end) {
+				long n = in.transferTo(pos, end - pos, dst);
+				if (n <= 0) {
+					throw new EOFException(MessageFormat.format(HttpServerText.get().unexpectedeOFOn, path));
+				}
+				pos += n;
+			}
+			return;
+		}
+
+		ByteBuffer buf = ByteBuffer
+				.allocate((int) Math.min(BUFFER_SIZE, end - pos));
+		while (pos < end) {
+			buf.clear();
+			buf.limit((int) Math.min(buf.capacity(), end - pos));
+			int n = in.read(buf, pos);
+			if (n < 0) {
+				throw new EOFException(MessageFormat.format(HttpServerText.get().unexpectedeOFOn, path));
+			}
+			out.write(buf.array(), 0, n);
+			pos += n;
+		}
+	}
+
+	/**
+	 * Parse the requested ranges.
+	 *
+	 * @param req
+	 *            the request, whose {@code Range} header is parsed.
+	 * @param etag
+	 *            entity tag of the file, compared to {@code If-Range}; null
+	 *            if the file has none.
+	 * @return null to send the entire file; an empty list if no range can be
+	 *         satisfied; otherwise sorted, non-overlapping
+	 *         {@code [start, end)} ranges.
+	 */
+	@Nullable
+	private List<long[]> parseRanges(HttpServletRequest req,
+			@Nullable String etag) {
 		final Enumeration<String> rangeHeaders = getRange(req);
 		if (!rangeHeaders.hasMoreElements()) {
 			// No range headers, the request is fine.
-			return true;
+			return null;
 		}
 
 		final String range = rangeHeaders.nextElement();
-		if (rangeHeaders.hasMoreElements()) {
-			// To simplify the code we support only one range.
-			return false;
-		}
-
-		final int eq = range.indexOf('=');
-		final int dash = range.indexOf('-');
-		if (eq < 0 || dash < 0 || !range.startsWith("bytes=")) {
-			return false;
+		if (rangeHeaders.hasMoreElements() || !range.startsWith("bytes=")) {
+			return new ArrayList<>();
 		}
 
 		final String ifRange = req.getHeader(HDR_IF_RANGE);
-		if (ifRange != null && !getTailChecksum().equals(ifRange)) {
+		if (ifRange != null && !ifRange.equals(etag)) {
 			// If the client asked us to verify the ETag and its not
 			// what they expected we need to send the entire content.
-			return true;
+			return null;
 		}
 
-		try {
-			if (eq + 1 == dash) {
-				// "bytes=-500" means last 500 bytes
-				pos = Long.parseLong(range.substring(dash + 1));
-				pos = fileLen - pos;
-			} else {
-				// "bytes=500-" (position 500 to end)
-				// "bytes=500-1000" (position 500 to 1000)
-				pos = Long.parseLong(range.substring(eq + 1, dash));
-				if (dash < range.length() - 1) {
-					end = Long.parseLong(range.substring(dash + 1));
-					end++; // range was inclusive, want exclusive
+		List<long[]> ranges = new ArrayList<>();
+		for (String spec : range.substring("bytes=".length()).split(",")) {
+			spec = spec.trim();
+			final int dash = spec.indexOf('-');
+			if (dash < 0) {
+				return new ArrayList<>();
+			}
+			long pos;
+			long end = fileLen;
+			try {
+				if (dash == 0) {
+					// "bytes=-500" means last 500 bytes
+					pos = Math.max(0,
+							fileLen - Long.parseLong(spec.substring(1)));
+				} else {
+					// "bytes=500-" (position 500 to end)
+					// "bytes=500-1000" (position 500 to 1000)
+					pos = Long.parseLong(spec.substring(0, dash));
+					if (dash < spec.length() - 1) {
+						end = Long.parseLong(spec.substring(dash + 1));
+						end++; // range was inclusive, want exclusive
+					}
 				}
+			} catch (NumberFormatException e) {
+				return new ArrayList<>();
+			}
+			if (end > fileLen) {
+				end = fileLen;
+			}
+			if (pos < end) {
+				ranges.add(new long[] { pos, end });
 			}
-		} catch (NumberFormatException e) {
-			// We probably hit here because of a non-digit such as
-			// "," appearing at the end of the first range telling
-			// us there is a second range following. To simplify
-			// the code we support only one range.
-			return false;
 		}
+		return coalesce(ranges);
+	}
 
-		if (end > fileLen) {
-			end = fileLen;
+	@Nullable
+	private static List<long[]> coalesce(List<long[]> ranges) {
+		ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+		List<long[]> merged = new ArrayList<>(ranges.size());
+		for (long[] r : ranges) {
+			long[] last = merged.isEmpty() ? null
+					: merged.get(merged.size() - 1);
+			if (last != null && r[0] <= last[1]) {
+				last[1] = Math.max(last[1], r[1]);
+			} else {
+				merged.add(r);
+			}
 		}
-		if (pos >= end) {
-			return false;
+		if (merged.size() > MAX_RANGES) {
+			// Too many pieces to be worth it; a client has to accept the
+			// whole file instead.
+			return null;
 		}
-
-		rsp.setStatus(SC_PARTIAL_CONTENT);
-		rsp.setHeader(HDR_CONTENT_RANGE, "bytes " + pos + "-" + (end - 1) + "/"
-				+ fileLen);
-		source.seek(pos);
-		return true;
+		return merged;
 	}
 
 	private static Enumeration<String> getRange(HttpServletRequest req) {
@@ -15,6 +15,7 @@
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.http.server.glue.ErrorServlet;
 import org.eclipse.jgit.http.server.glue.MetaFilter;
 import org.eclipse.jgit.http.server.glue.RegexGroupFilter;
@@ -23,6 +24,7 @@
 import org.eclipse.jgit.http.server.resolver.DefaultReceivePackFactory;
 import org.eclipse.jgit.http.server.resolver.DefaultUploadPackFactory;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.transport.UploadAdmissionControl;
 import org.eclipse.jgit.transport.resolver.FileResolver;
 import org.eclipse.jgit.transport.resolver.ReceivePackFactory;
 import org.eclipse.jgit.transport.resolver.RepositoryResolver;
@@ -33,6 +35,7 @@
 import java.text.MessageFormat;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Handles Git repository access over HTTP.
@@ -60,6 +63,12 @@ public class GitFilter extends MetaFilter {
 
 	private UploadPackErrorHandler uploadPackErrorHandler;
 
+	private boolean cacheAdvertisements;
+
+	private Executor asyncExecutor;
+
+	private UploadAdmissionControl uploadAdmissionControl;
+
 	private ReceivePackFactory<HttpServletRequest> receivePackFactory = new DefaultReceivePackFactory();
 
 	private ReceivePackErrorHandler receivePackErrorHandler;
@@ -131,6 +140,80 @@ public void setUploadPackErrorHandler(UploadPackErrorHandler h) {
 		this.uploadPackErrorHandler = h;
 	}
 
+	/**
+	 * Set whether upload-pack advertisements are cached.
+	 * <p>
+	 * If enabled, complete {@code info/refs} responses, uncompressed and gzip
+	 * compressed, are kept while the references of the repository don't
+	 * change, and served to later clients without generating or compressing
+	 * the advertisement again. This only has an effect for repositories whose
+	 * {@link org.eclipse.jgit.transport.UploadPack} has a
+	 * {@link org.eclipse.jgit.transport.RefAdvertisementCache}, and must only
+	 * be enabled if the advertisement doesn't depend on the request, e.g. on
+	 * the authenticated user. Defaults to {@code false}.
+	 * <p>
+	 * Cached responses carry an {@code ETag}. Polling clients sending it in
+	 * {@code If-None-Match} get {@code 304 Not Modified} while the references
+	 * are unchanged; this check does not read any reference.
+	 *
+	 * @param cache
+	 *            whether to cache advertisements.
+	 * @since 6.9
+	 */
+	public void setCacheAdvertisements(boolean cache) {
+		assertNotInitialized();
+		this.cacheAdvertisements = cache;
+	}
+
+	/**
+	 * Set the executor serving upload-pack and receive-pack requests
+	 * asynchronously.
+	 * <p>
+	 * By default a container thread serves a fetch or push until it is
+	 * complete, including pack generation and writes to slow clients. With an
+	 * executor, requests that support asynchronous processing are started in
+	 * asynchronous mode and run on the executor instead. The request and
+	 * response bodies are transferred with non-blocking servlet I/O and a
+	 * bounded buffer, so the container thread is released right away and the
+	 * executor thread waits while a slow client catches up. The filter or
+	 * servlet must be registered with asynchronous support for this to take
+	 * effect. The executor is not shut down when this filter is destroyed.
+	 * <p>
+	 * Requests the executor rejects are answered with
+	 * {@code 503 Service Unavailable}.
+	 *
+	 * @param executor
+	 *            the executor; null to serve requests on the container
+	 *            thread.
+	 * @since 6.9
+	 */
+	public void setAsyncExecutor(@Nullable Executor executor) {
+		assertNotInitialized();
+		this.asyncExecutor = executor;
+	}
+
+	/**
+	 * Set the admission control of upload-pack requests.
+	 * <p>
+	 * Every {@link org.eclipse.jgit.transport.UploadPack} created for a
+	 * request that has no admission control of its own uses this one, which
+	 * limits the number of packs generated at the same time in total and per
+	 * repository, and prefers incremental fetches over clones. Requests not
+	 * admitted in time fail with {@code 503 Service Unavailable}. With an
+	 * {@link #setAsyncExecutor(Executor) asynchronous executor}, waiting
+	 * requests don't hold a container thread.
+	 *
+	 * @param control
+	 *            the admission control, shared with other servers of the
+	 *            same process if desired; null to generate packs right away.
+	 * @since 6.9
+	 */
+	public void setUploadAdmissionControl(
+			@Nullable UploadAdmissionControl control) {
+		assertNotInitialized();
+		this.uploadAdmissionControl = control;
+	}
+
 	/**
 	 * Add upload-pack filter
 	 *
@@ -202,10 +285,12 @@ public void init(FilterConfig filterConfig) throws ServletException {
 
 		if (uploadPackFactory != UploadPackFactory.DISABLED) {
 			ServletBinder b = serve("*/" + GitSmartHttpTools.UPLOAD_PACK);
-			b = b.through(new UploadPackServlet.Factory(uploadPackFactory));
+			b = b.through(new UploadPackServlet.Factory(uploadPackFactory,
+					uploadAdmissionControl));
 			for (Filter f : uploadPackFilters)
 				b = b.through(f);
-			b.with(new UploadPackServlet(uploadPackErrorHandler));
+			b.with(new UploadPackServlet(uploadPackErrorHandler,
+					asyncExecutor));
 		}
 
 		if (receivePackFactory != ReceivePackFactory.DISABLED) {
@@ -213,13 +298,15 @@ public void init(FilterConfig filterConfig) throws ServletException {
 			b = b.through(new ReceivePackServlet.Factory(receivePackFactory));
 			for (Filter f : receivePackFilters)
 				b = b.through(f);
-			b.with(new ReceivePackServlet(receivePackErrorHandler));
+			b.with(new ReceivePackServlet(receivePackErrorHandler,
+					asyncExecutor));
 		}
 
 		ServletBinder refs = serve("*/" + Constants.INFO_REFS);
 		if (uploadPackFactory != UploadPackFactory.DISABLED) {
 			refs = refs.through(new UploadPackServlet.InfoRefs(
-					uploadPackFactory, uploadPackFilters));
+					uploadPackFactory, uploadPackFilters,
+					cacheAdvertisements ? new InfoRefsCache() : null));
 		}
 		if (receivePackFactory != ReceivePackFactory.DISABLED) {
 			refs = refs.through(new ReceivePackServlet.InfoRefs(
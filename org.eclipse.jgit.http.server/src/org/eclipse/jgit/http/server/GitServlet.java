@@ -12,13 +12,16 @@
 
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
+import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.http.server.glue.MetaServlet;
 import org.eclipse.jgit.http.server.resolver.AsIsFileService;
+import org.eclipse.jgit.transport.UploadAdmissionControl;
 import org.eclipse.jgit.transport.resolver.ReceivePackFactory;
 import org.eclipse.jgit.transport.resolver.RepositoryResolver;
 import org.eclipse.jgit.transport.resolver.UploadPackFactory;
 
 import java.util.Enumeration;
+import java.util.concurrent.Executor;
 
 /**
  * Handles Git repository access over HTTP.
@@ -118,6 +121,45 @@ public void setUploadPackErrorHandler(UploadPackErrorHandler h) {
 		gitFilter.setUploadPackErrorHandler(h);
 	}
 
+	/**
+	 * Set whether upload-pack advertisements are cached.
+	 *
+	 * @param cache
+	 *            whether to cache advertisements.
+	 * @see GitFilter#setCacheAdvertisements(boolean)
+	 * @since 6.9
+	 */
+	public void setCacheAdvertisements(boolean cache) {
+		gitFilter.setCacheAdvertisements(cache);
+	}
+
+	/**
+	 * Set the executor serving upload-pack and receive-pack requests
+	 * asynchronously.
+	 *
+	 * @param executor
+	 *            the executor; null to serve requests on the container
+	 *            thread.
+	 * @see GitFilter#setAsyncExecutor(Executor)
+	 * @since 6.9
+	 */
+	public void setAsyncExecutor(@Nullable Executor executor) {
+		gitFilter.setAsyncExecutor(executor);
+	}
+
+	/**
+	 * Set the admission control of upload-pack requests.
+	 *
+	 * @param control
+	 *            the admission control; null to generate packs right away.
+	 * @see GitFilter#setUploadAdmissionControl(UploadAdmissionControl)
+	 * @since 6.9
+	 */
+	public void setUploadAdmissionControl(
+			@Nullable UploadAdmissionControl control) {
+		gitFilter.setUploadAdmissionControl(control);
+	}
+
 	/**
 	 * Add upload-pack filter
 	 *
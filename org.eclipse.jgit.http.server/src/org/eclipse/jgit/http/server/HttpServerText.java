@@ -49,6 +49,7 @@ public static HttpServerText get() {
 	/***/ public String receivedCorruptObject;
 	/***/ public String repositoryAccessForbidden;
 	/***/ public String repositoryNotFound;
+	/***/ public String responseAlreadyClosed;
 	/***/ public String servletAlreadyInitialized;
 	/***/ public String servletMustNotBeNull;
 	/***/ public String servletWasAlreadyBound;
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.server;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.transport.RefAdvertisementCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import static jakarta.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
+import static org.eclipse.jgit.http.server.ServletUtils.acceptsGzipEncoding;
+import static org.eclipse.jgit.util.HttpSupport.ENCODING_GZIP;
+import static org.eclipse.jgit.util.HttpSupport.HDR_CONTENT_ENCODING;
+import static org.eclipse.jgit.util.HttpSupport.HDR_ETAG;
+import static org.eclipse.jgit.util.HttpSupport.HDR_IF_NONE_MATCH;
+
+/**
+ * Caches complete {@code info/refs} responses, plain and gzip compressed.
+ * <p>
+ * Responses are cached per {@link RefAdvertisementCache} and requested
+ * protocol, and are only valid as long as the snapshot of the references they
+ * were generated from. Clients accepting gzip get the compressed copy without
+ * compressing the advertisement again.
+ * <p>
+ * Every response carries an {@code ETag} derived from its content. Clients
+ * polling with {@code If-None-Match} get {@code 304 Not Modified} while the
+ * references are unchanged, which is checked by comparing the snapshot of the
+ * {@link RefAdvertisementCache}, without reading any reference.
+ */
+class InfoRefsCache {
+	private final Map<RefAdvertisementCache, Map<String, Entry>> entries =
+			Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * Get the cached response.
+	 *
+	 * @param refs
+	 *            cache of the advertised references.
+	 * @param protocol
+	 *            protocol requested by the client.
+	 * @return the response, or null if none is cached for the current
+	 *         references.
+	 * @throws IOException
+	 *             the references could not be read
+	 */
+	Entry get(RefAdvertisementCache refs, String protocol)
+			throws IOException {
+		Map<String, Entry> byProtocol = entries.get(refs);
+		if (byProtocol == null) {
+			return null;
+		}
+		Entry e = byProtocol.get(protocol);
+		return e != null && e.snapshot == refs.getRefs() ? e : null;
+	}
+
+	/**
+	 * Cache a response.
+	 *
+	 * @param refs
+	 *            cache of the advertised references.
+	 * @param snapshot
+	 *            the references when the response was started.
+	 * @param protocol
+	 *            protocol requested by the client.
+	 * @param plain
+	 *            the uncompressed response.
+	 * @return the new entry, which is only cached if the references didn't
+	 *         change meanwhile.
+	 * @throws IOException
+	 *             the references could not be read
+	 */
+	Entry put(RefAdvertisementCache refs, Map<String, Ref> snapshot,
+			String protocol, byte[] plain) throws IOException {
+		Entry e = new Entry(snapshot, plain);
+		if (refs.getRefs() == snapshot) {
+			entries.computeIfAbsent(refs, r -> new ConcurrentHashMap<>())
+					.put(protocol, e);
+		}
+		// Otherwise the references changed while the response was generated.
+		return e;
+	}
+
+	static class Entry {
+		final Map<String, Ref> snapshot;
+
+		final byte[] plain;
+
+		/** Compressed response, or null if it isn't smaller. */
+		final byte[] gzip;
+
+		/** Entity tag of {@link #plain}. */
+		final String etag;
+
+		/** Entity tag of {@link #gzip}. */
+		final String gzipEtag;
+
+		Entry(Map<String, Ref> snapshot, byte[] plain) throws IOException {
+			this.snapshot = snapshot;
+			this.plain = plain;
+			ByteArrayOutputStream buf = new ByteArrayOutputStream(
+					plain.length / 4);
+			try (GZIPOutputStream gz = new GZIPOutputStream(buf)) {
+				gz.write(plain);
+			}
+			gzip = buf.size() < plain.length ? buf.toByteArray() : null;
+
+			MessageDigest md = Constants.newMessageDigest();
+			md.update(plain);
+			String id = ObjectId.fromRaw(md.digest()).name();
+			etag = '"' + id + '"';
+			gzipEtag = '"' + id + "-gzip\"";
+		}
+
+		void send(HttpServletRequest req, HttpServletResponse rsp)
+				throws IOException {
+			byte[] body = plain;
+			String tag = etag;
+			if (gzip != null && acceptsGzipEncoding(req)) {
+				rsp.setHeader(HDR_CONTENT_ENCODING, ENCODING_GZIP);
+				body = gzip;
+				tag = gzipEtag;
+			}
+			rsp.setHeader(HDR_ETAG, tag);
+			if (matches(req.getHeader(HDR_IF_NONE_MATCH))) {
+				rsp.setStatus(SC_NOT_MODIFIED);
+				return;
+			}
+			rsp.setContentLength(body.length);
+			try (OutputStream os = rsp.getOutputStream()) {
+				os.write(body);
+				os.flush();
+			}
+		}
+
+		/**
+		 * Whether an {@code If-None-Match} header lists this response.
+		 * <p>
+		 * Both encodings match, so clients switching between them still get
+		 * {@code 304 Not Modified}.
+		 *
+		 * @param ifNoneMatch
+		 *            value of the request's {@code If-None-Match} header, or
+		 *            {@code null} if it has none
+		 * @return {@code true} if one of the listed entity tags identifies
+		 *         this response
+		 */
+		private boolean matches(String ifNoneMatch) {
+			if (ifNoneMatch == null) {
+				return false;
+			}
+			for (String t : ifNoneMatch.split(",")) {
+				t = t.trim();
+				if (t.startsWith("W/")) {
+					t = t.substring(2);
+				}
+				if (t.equals("*") || t.equals(etag) || t.equals(gzipEtag)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -21,6 +21,8 @@
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static jakarta.servlet.http.HttpServletResponse.SC_NOT_FOUND;
 import static jakarta.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
@@ -49,13 +51,48 @@ String etag(FileSender sender) throws IOException {
 	private abstract static class PackData extends ObjectFileServlet {
 		private static final long serialVersionUID = 1L;
 
+		/** Forgotten all at once beyond this many files. */
+		private static final int MAX_TAGS = 4096;
+
+		/**
+		 * Tail checksums of served files, so that every request of a mirror
+		 * doesn't read them again. Pack files never change once written; the
+		 * modification time and length detect a file replaced by another.
+		 */
+		private static final Map<File, Tag> tags = new ConcurrentHashMap<>();
+
 		PackData(String contentType) {
 			super(contentType);
 		}
 
 		@Override
 		String etag(FileSender sender) throws IOException {
-			return sender.getTailChecksum();
+			Tag t = tags.get(sender.getPath());
+			if (t != null && t.lastModified.equals(sender.getLastModified())
+					&& t.length == sender.getLength()) {
+				return t.etag;
+			}
+			t = new Tag(sender.getLastModified(), sender.getLength(),
+					sender.getTailChecksum());
+			if (tags.size() >= MAX_TAGS) {
+				tags.clear();
+			}
+			tags.put(sender.getPath(), t);
+			return t.etag;
+		}
+
+		private static class Tag {
+			final Instant lastModified;
+
+			final long length;
+
+			final String etag;
+
+			Tag(Instant lastModified, long length, String etag) {
+				this.lastModified = lastModified;
+				this.length = length;
+				this.etag = etag;
+			}
 		}
 	}
 
@@ -130,7 +167,7 @@ private void serve(final HttpServletRequest req,
 			if (0 < lastModified)
 				rsp.setDateHeader(HDR_LAST_MODIFIED, lastModified);
 			rsp.setContentType(contentType);
-			sender.serve(req, rsp, sendBody);
+			sender.serve(req, rsp, sendBody, etag);
 		} finally {
 			sender.close();
 		}
@@ -29,6 +29,7 @@
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static jakarta.servlet.http.HttpServletResponse.*;
 import static org.eclipse.jgit.http.server.GitSmartHttpTools.*;
@@ -117,8 +118,13 @@ public void destroy() {
 	@Nullable
 	private final ReceivePackErrorHandler handler;
 
-	ReceivePackServlet(@Nullable ReceivePackErrorHandler handler) {
+	@Nullable
+	private final Executor executor;
+
+	ReceivePackServlet(@Nullable ReceivePackErrorHandler handler,
+			@Nullable Executor executor) {
 		this.handler = handler;
+		this.executor = executor;
 	}
 
 	@Override
@@ -129,6 +135,23 @@ public void doPost(final HttpServletRequest req,
 			return;
 		}
 
+		if (executor != null && req.isAsyncSupported()) {
+			AsyncServletIO.start(req, rsp, executor, (areq, arsp) -> {
+				try {
+					receive(areq, arsp);
+				} catch (IOException | RuntimeException e) {
+					ReceivePack rp = (ReceivePack) areq
+							.getAttribute(ATTRIBUTE_HANDLER);
+					log(rp.getRepository(), e);
+				}
+			});
+			return;
+		}
+		receive(req, rsp);
+	}
+
+	private void receive(HttpServletRequest req, HttpServletResponse rsp)
+			throws IOException {
 		SmartOutputStream out = new SmartOutputStream(req, rsp, false) {
 			@Override
 			public void flush() throws IOException {
@@ -13,9 +13,12 @@
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.eclipse.jgit.util.TemporaryBuffer;
+import org.eclipse.jgit.util.io.CountingOutputStream;
+import org.eclipse.jgit.util.io.NullOutputStream;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static org.eclipse.jgit.http.server.ServletUtils.acceptsGzipEncoding;
@@ -25,28 +28,54 @@
 /**
  * Buffers a response, trying to gzip it if the user agent supports that.
  * <p>
- * If the response overflows the buffer, gzip is skipped and the response is
- * streamed to the client as its produced, most likely using HTTP/1.1 chunked
- * encoding. This is useful for servlets that produce mixed-mode content, where
- * smaller payloads are primarily pure text that compresses well, while much
- * larger payloads are heavily compressed binary data. {@link UploadPackServlet}
- * is one such servlet.
+ * If the response overflows the buffer, or is flushed, it is streamed to the
+ * client as its produced, most likely using HTTP/1.1 chunked encoding. Whether
+ * the stream is compressed then depends on the {@link Compression} mode. This
+ * is useful for servlets that produce mixed-mode content, where smaller
+ * payloads are primarily pure text that compresses well, while much larger
+ * payloads are heavily compressed binary data. {@link UploadPackServlet} is
+ * one such servlet.
  */
 class SmartOutputStream extends TemporaryBuffer {
 	private static final int LIMIT = 32 * 1024;
 
+	/** Responses smaller than this are never compressed. */
+	private static final int MIN_COMPRESS = 256;
+
+	/** How a response is compressed once it is streamed. */
+	enum Compression {
+		/** Streamed responses are not compressed. */
+		BUFFERED,
+
+		/** Streamed responses are always compressed. */
+		ALWAYS,
+
+		/**
+		 * Streamed responses are compressed if the data buffered so far
+		 * deflates to at most 3/4 of its size; only this sample is held in
+		 * memory, the rest is compressed as it is written.
+		 */
+		SAMPLED
+	}
+
 	private final HttpServletRequest req;
 	private final HttpServletResponse rsp;
-	private boolean compressStream;
+	private final Compression compression;
 	private boolean startedOutput;
 
 	SmartOutputStream(final HttpServletRequest req,
 			final HttpServletResponse rsp,
 			boolean compressStream) {
+		this(req, rsp,
+				compressStream ? Compression.ALWAYS : Compression.BUFFERED);
+	}
+
+	SmartOutputStream(HttpServletRequest req, HttpServletResponse rsp,
+			Compression compression) {
 		super(LIMIT);
 		this.req = req;
 		this.rsp = rsp;
-		this.compressStream = compressStream;
+		this.compression = compression;
 	}
 
 	@Override
@@ -54,11 +83,37 @@ protected OutputStream overflow() throws IOException {
 		startedOutput = true;
 
 		OutputStream out = rsp.getOutputStream();
-		if (compressStream && acceptsGzipEncoding(req)) {
+		if (!acceptsGzipEncoding(req)) {
+			return out;
+		}
+		switch (compression) {
+		case ALWAYS:
 			rsp.setHeader(HDR_CONTENT_ENCODING, ENCODING_GZIP);
-			out = new GZIPOutputStream(out);
+			return new GZIPOutputStream(out);
+		case SAMPLED:
+			if (sampleCompresses()) {
+				rsp.setHeader(HDR_CONTENT_ENCODING, ENCODING_GZIP);
+				// Flushes of the response, e.g. of progress messages, must
+				// still reach the client.
+				return new GZIPOutputStream(out, true);
+			}
+			return out;
+		default:
+			return out;
+		}
+	}
+
+	private boolean sampleCompresses() throws IOException {
+		long n = length();
+		if (n < MIN_COMPRESS) {
+			return false;
+		}
+		CountingOutputStream deflated = new CountingOutputStream(
+				NullOutputStream.INSTANCE);
+		try (DeflaterOutputStream d = new DeflaterOutputStream(deflated)) {
+			writeTo(d, null);
 		}
-		return out;
+		return deflated.getCount() <= n * 3 / 4;
 	}
 
 	@Override
@@ -69,8 +124,11 @@ public void close() throws IOException {
 			// If output hasn't started yet, the entire thing fit into our
 			// buffer. Try to use a proper Content-Length header, and also
 			// deflate the response with gzip if it will be smaller.
-			if (256 < this.length() && acceptsGzipEncoding(req)) {
-				TemporaryBuffer gzbuf = new TemporaryBuffer.Heap(LIMIT);
+			if (MIN_COMPRESS < this.length() && acceptsGzipEncoding(req)) {
+				// Bounded by the plain length, so compression is abandoned
+				// as soon as it doesn't pay off.
+				TemporaryBuffer gzbuf = new TemporaryBuffer.Heap(
+						(int) this.length());
 				try {
 					try (GZIPOutputStream gzip = new GZIPOutputStream(gzbuf)) {
 						this.writeTo(gzip, null);
@@ -13,15 +13,20 @@
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.transport.PacketLineOut;
+import org.eclipse.jgit.transport.RefAdvertisementCache;
 import org.eclipse.jgit.transport.RefAdvertiser.PacketLineOutRefAdvertiser;
 import org.eclipse.jgit.transport.ServiceMayNotContinueException;
 import org.eclipse.jgit.transport.resolver.ServiceNotAuthorizedException;
 import org.eclipse.jgit.transport.resolver.ServiceNotEnabledException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import static jakarta.servlet.http.HttpServletResponse.SC_FORBIDDEN;
 import static jakarta.servlet.http.HttpServletResponse.SC_UNAUTHORIZED;
@@ -29,6 +34,7 @@
 import static org.eclipse.jgit.http.server.GitSmartHttpTools.sendError;
 import static org.eclipse.jgit.http.server.ServletUtils.ATTRIBUTE_HANDLER;
 import static org.eclipse.jgit.http.server.ServletUtils.getRepository;
+import static org.eclipse.jgit.transport.GitProtocolConstants.PROTOCOL_HEADER;
 
 /** Filter in front of {@link InfoRefsServlet} to catch smart service requests. */
 abstract class SmartServiceInfoRefs implements Filter {
@@ -36,9 +42,17 @@ abstract class SmartServiceInfoRefs implements Filter {
 
 	private final Filter[] filters;
 
+	private final InfoRefsCache cache;
+
 	SmartServiceInfoRefs(String service, List<Filter> filters) {
+		this(service, filters, null);
+	}
+
+	SmartServiceInfoRefs(String service, List<Filter> filters,
+			@Nullable InfoRefsCache cache) {
 		this.svc = service;
 		this.filters = filters.toArray(new Filter[0]);
+		this.cache = cache;
 	}
 
 	@Override
@@ -86,25 +100,95 @@ private void service(ServletRequest request, ServletResponse response)
 			throws IOException {
 		final HttpServletRequest req = (HttpServletRequest) request;
 		final HttpServletResponse res = (HttpServletResponse) response;
-		final SmartOutputStream buf = new SmartOutputStream(req, res, true);
+		RefAdvertisementCache refs = cache != null
+				? getRefAdvertisementCache(req)
+				: null;
+		if (refs == null) {
+			stream(req, res);
+			return;
+		}
+
+		String protocol = String.valueOf(req.getHeader(PROTOCOL_HEADER));
+		InfoRefsCache.Entry cached = cache.get(refs, protocol);
+		if (cached != null) {
+			res.setContentType(infoRefsResultType(svc));
+			cached.send(req, res);
+			return;
+		}
+
+		// Generate the complete response first, so that it can be sent with
+		// its ETag and served to later requests.
+		ByteArrayOutputStream copy = new ByteArrayOutputStream();
 		try {
 			res.setContentType(infoRefsResultType(svc));
+			Map<String, Ref> snapshot = refs.getRefs();
+			respond(req, new PacketLineOut(copy), svc);
+			cache.put(refs, snapshot, protocol, copy.toByteArray())
+					.send(req, res);
+		} catch (ServiceNotAuthorizedException e) {
+			res.sendError(SC_UNAUTHORIZED, e.getMessage());
+		} catch (ServiceNotEnabledException e) {
+			sendError(req, res, SC_FORBIDDEN, e.getMessage());
+		} catch (ServiceMayNotContinueException e) {
+			if (e.isOutput()) {
+				try (SmartOutputStream buf = new SmartOutputStream(req, res,
+						true)) {
+					copy.writeTo(buf);
+				}
+			} else {
+				sendError(req, res, e.getStatusCode(), e.getMessage());
+			}
+		}
+	}
 
-			final PacketLineOut out = new PacketLineOut(buf);
-			respond(req, out, svc);
+	/**
+	 * Write the advertisement straight to the response, without buffering
+	 * more of it than {@link SmartOutputStream} does.
+	 *
+	 * @param req
+	 *            request
+	 * @param res
+	 *            response
+	 * @throws IOException
+	 *             if an IO error occurred
+	 */
+	private void stream(HttpServletRequest req, HttpServletResponse res)
+			throws IOException {
+		// to be explicitly closed, only if the advertisement is sent
+		@SuppressWarnings("resource")
+		SmartOutputStream buf = new SmartOutputStream(req, res, true);
+		try {
+			res.setContentType(infoRefsResultType(svc));
+			respond(req, new PacketLineOut(buf), svc);
 			buf.close();
 		} catch (ServiceNotAuthorizedException e) {
 			res.sendError(SC_UNAUTHORIZED, e.getMessage());
 		} catch (ServiceNotEnabledException e) {
 			sendError(req, res, SC_FORBIDDEN, e.getMessage());
 		} catch (ServiceMayNotContinueException e) {
-			if (e.isOutput())
+			if (e.isOutput()) {
 				buf.close();
-			else
+			} else {
 				sendError(req, res, e.getStatusCode(), e.getMessage());
+			}
 		}
 	}
 
+	/**
+	 * Get the cache of the references the current request advertises.
+	 * <p>
+	 * Only called if responses are cached. The default implementation
+	 * returns null.
+	 *
+	 * @param req
+	 *            request
+	 * @return the cache, or null if the response can't be cached.
+	 */
+	@Nullable
+	RefAdvertisementCache getRefAdvertisementCache(HttpServletRequest req) {
+		return null;
+	}
+
 	/**
 	 * Begin service.
 	 *
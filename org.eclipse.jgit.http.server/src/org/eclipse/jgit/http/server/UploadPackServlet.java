@@ -27,6 +27,7 @@
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static jakarta.servlet.http.HttpServletResponse.*;
 import static org.eclipse.jgit.http.server.GitSmartHttpTools.*;
@@ -43,7 +44,12 @@ static class InfoRefs extends SmartServiceInfoRefs {
 
 		InfoRefs(UploadPackFactory<HttpServletRequest> uploadPackFactory,
 				List<Filter> filters) {
-			super(UPLOAD_PACK, filters);
+			this(uploadPackFactory, filters, null);
+		}
+
+		InfoRefs(UploadPackFactory<HttpServletRequest> uploadPackFactory,
+				List<Filter> filters, InfoRefsCache cache) {
+			super(UPLOAD_PACK, filters, cache);
 			this.uploadPackFactory = uploadPackFactory;
 		}
 
@@ -58,6 +64,13 @@ protected void begin(HttpServletRequest req, Repository db)
 			req.setAttribute(ATTRIBUTE_HANDLER, up);
 		}
 
+		@Override
+		RefAdvertisementCache getRefAdvertisementCache(
+				HttpServletRequest req) {
+			UploadPack up = (UploadPack) req.getAttribute(ATTRIBUTE_HANDLER);
+			return up.getRefAdvertisementCache();
+		}
+
 		@Override
 		protected void advertise(HttpServletRequest req,
 				PacketLineOutRefAdvertiser pck) throws IOException,
@@ -94,8 +107,13 @@ protected void respond(HttpServletRequest req,
 	static class Factory implements Filter {
 		private final UploadPackFactory<HttpServletRequest> uploadPackFactory;
 
-		Factory(UploadPackFactory<HttpServletRequest> uploadPackFactory) {
+		@Nullable
+		private final UploadAdmissionControl admissionControl;
+
+		Factory(UploadPackFactory<HttpServletRequest> uploadPackFactory,
+				@Nullable UploadAdmissionControl admissionControl) {
 			this.uploadPackFactory = uploadPackFactory;
+			this.admissionControl = admissionControl;
 		}
 
 		@Override
@@ -114,6 +132,11 @@ public void doFilter(ServletRequest request, ServletResponse response,
 				return;
 			}
 
+			if (admissionControl != null
+					&& rp.getAdmissionControl() == null) {
+				rp.setAdmissionControl(admissionControl);
+			}
+
 			try {
 				req.setAttribute(ATTRIBUTE_HANDLER, rp);
 				chain.doFilter(req, rsp);
@@ -135,9 +158,14 @@ public void destroy() {
 
 	private final UploadPackErrorHandler handler;
 
-	UploadPackServlet(@Nullable UploadPackErrorHandler handler) {
+	@Nullable
+	private final Executor executor;
+
+	UploadPackServlet(@Nullable UploadPackErrorHandler handler,
+			@Nullable Executor executor) {
 		this.handler = handler != null ? handler
 				: this::defaultUploadPackHandler;
+		this.executor = executor;
 	}
 
 	@Override
@@ -148,6 +176,19 @@ public void doPost(HttpServletRequest req, HttpServletResponse rsp)
 			return;
 		}
 
+		if (executor != null && req.isAsyncSupported()) {
+			AsyncServletIO.start(req, rsp, executor, (areq, arsp) -> {
+				try {
+					handler.upload(areq, arsp, () -> upload(areq, arsp));
+				} catch (IOException | RuntimeException e) {
+					UploadPack up = (UploadPack) areq
+							.getAttribute(ATTRIBUTE_HANDLER);
+					log(up.getRepository(), e);
+				}
+			});
+			return;
+		}
+
 		UploadPackRunnable r = () -> {
 			upload(req, rsp);
 		};
@@ -159,7 +200,8 @@ private void upload(HttpServletRequest req, HttpServletResponse rsp)
 			throws IOException, ServiceMayNotContinueException {
 		// to be explicitly closed by caller
 		@SuppressWarnings("resource")
-		SmartOutputStream out = new SmartOutputStream(req, rsp, false) {
+		SmartOutputStream out = new SmartOutputStream(req, rsp,
+				SmartOutputStream.Compression.SAMPLED) {
 			@Override
 			public void flush() throws IOException {
 				doFlush();
@@ -12,6 +12,7 @@
 import org.eclipse.jgit.junit.http.HttpTestCase;
 import org.eclipse.jgit.transport.HttpTransport;
 import org.eclipse.jgit.transport.http.HttpConnectionFactory;
+import org.eclipse.jgit.transport.http.JDKHttpClientConnectionFactory;
 import org.eclipse.jgit.transport.http.JDKHttpConnectionFactory;
 import org.eclipse.jgit.transport.http.apache.HttpClientConnectionFactory;
 import org.junit.Ignore;
@@ -23,8 +24,9 @@
 
 /**
  * Abstract test base class for running HTTP-related tests with all connection
- * factories provided in JGit: the JDK {@link JDKHttpConnectionFactory} and the
- * Apache HTTP {@link HttpClientConnectionFactory}.
+ * factories provided in JGit: the JDK {@link JDKHttpConnectionFactory}, the
+ * JDK {@link JDKHttpClientConnectionFactory} and the Apache HTTP
+ * {@link HttpClientConnectionFactory}.
  */
 @Ignore
 //@RunWith(Parameterized.class)
@@ -38,6 +40,11 @@ public static Collection<Object[]> data() {
 			public String toString() {
 				return this.getClass().getSuperclass().getName();
 			}
+		} }, { new JDKHttpClientConnectionFactory() {
+			@Override
+			public String toString() {
+				return this.getClass().getSuperclass().getName();
+			}
 		} }, { new HttpClientConnectionFactory() {
 			@Override
 			public String toString() {
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.errors.TransportException;
+import org.eclipse.jgit.http.server.GitServlet;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.junit.http.HttpTestCase;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevBlob;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.transport.ReceivePack;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+import org.eclipse.jgit.transport.Transport;
+import org.eclipse.jgit.transport.URIish;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class AsyncServletTest extends HttpTestCase {
+	private Repository remoteRepository;
+
+	private URIish remoteURI;
+
+	private RevCommit A;
+
+	private ExecutorService pool;
+
+	private final AtomicInteger tasks = new AtomicInteger();
+
+	private volatile boolean reject;
+
+	@Override
+	@BeforeEach
+	public void setUp(TestInfo testInfo) throws Exception {
+		super.setUp(testInfo);
+
+		TestRepository<Repository> src = createTestRepository();
+		remoteRepository = src.getRepository();
+		String srcName = remoteRepository.getDirectory().getName();
+		// Large enough to overflow the buffers between the executor and
+		// the container.
+		byte[] data = new byte[2 * 1024 * 1024];
+		new Random(42).nextBytes(data);
+		RevBlob big = src.blob(data);
+		A = src.commit().add("big", big).create();
+		src.update(master, A);
+
+		pool = Executors.newFixedThreadPool(2);
+		ServletContextHandler app = server.addContext("/git");
+		GitServlet gs = new GitServlet();
+		gs.setRepositoryResolver((HttpServletRequest req, String name) -> {
+			if (!name.equals(srcName)) {
+				throw new RepositoryNotFoundException(name);
+			}
+			remoteRepository.incrementOpen();
+			return remoteRepository;
+		});
+		gs.setReceivePackFactory((HttpServletRequest req,
+				Repository db) -> new ReceivePack(db));
+		gs.setAsyncExecutor(command -> {
+			if (reject) {
+				throw new RejectedExecutionException();
+			}
+			tasks.incrementAndGet();
+			pool.execute(command);
+		});
+		ServletHolder holder = new ServletHolder(gs);
+		holder.setAsyncSupported(true);
+		app.addServlet(holder, "/*");
+
+		server.setUp();
+
+		remoteURI = toURIish(app, srcName);
+	}
+
+	@Override
+	@AfterEach
+	public void tearDown() throws Exception {
+		pool.shutdownNow();
+		super.tearDown();
+	}
+
+	@Test
+	public void testFetchRunsOnExecutor() throws Exception {
+		Repository dst = createBareRepository();
+		try (Transport t = Transport.open(dst, remoteURI)) {
+			t.fetch(NullProgressMonitor.INSTANCE,
+					List.of(new RefSpec("+refs/heads/*:refs/heads/*")));
+		}
+
+		assertEquals(A, dst.exactRef(master).getObjectId());
+		assertTrue(dst.getObjectDatabase().has(A.getTree()));
+		// ls-refs and fetch with protocol V2.
+		assertTrue(tasks.get() > 0);
+	}
+
+	@Test
+	public void testPushRunsOnExecutor() throws Exception {
+		TestRepository<Repository> local = new TestRepository<>(
+				createBareRepository());
+		byte[] data = new byte[1024 * 1024];
+		new Random(7).nextBytes(data);
+		RevCommit B = local.commit().add("pushed", local.blob(data))
+				.create();
+		String dstName = "refs/heads/pushed";
+
+		try (Transport t = Transport.open(local.getRepository(),
+				remoteURI)) {
+			RemoteRefUpdate u = new RemoteRefUpdate(local.getRepository(),
+					B.name(), dstName, false, null, null);
+			t.push(NullProgressMonitor.INSTANCE, Collections.singleton(u));
+			assertEquals(RemoteRefUpdate.Status.OK, u.getStatus());
+		}
+
+		assertEquals(B, remoteRepository.exactRef(dstName).getObjectId());
+		assertEquals(1, tasks.get());
+	}
+
+	@Test
+	public void testRejectedRequestFails() throws Exception {
+		reject = true;
+		Repository dst = createBareRepository();
+		try (Transport t = Transport.open(dst, remoteURI)) {
+			assertThrows(TransportException.class,
+					() -> t.fetch(NullProgressMonitor.INSTANCE, List.of(
+							new RefSpec("+refs/heads/*:refs/heads/*"))));
+		}
+		assertEquals(0, tasks.get());
+	}
+}
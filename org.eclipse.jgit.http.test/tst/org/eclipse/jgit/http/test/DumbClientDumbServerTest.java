@@ -192,6 +192,39 @@ public void testInitialClone_Packed() throws Exception {
 		assertEquals(200, event.getStatus());
 	}
 
+	@Test
+	public void testInitialClone_PackedAndLooseInParallel() throws Exception {
+		RevCommit tip;
+		try (TestRepository<Repository> tr = new TestRepository<>(
+				remoteRepository)) {
+			tr.packAndPrune();
+			tip = B;
+			for (int i = 0; i < 20; i++) {
+				tip = tr.commit().parent(tip).add("f" + i, "data " + i)
+						.create();
+			}
+			tr.update(master, tip);
+		}
+
+		for (int threads : new int[] { 1, 8 }) {
+			Repository dst = createBareRepository();
+			StoredConfig cfg = dst.getConfig();
+			cfg.setInt("fetch", null, "dumbDownloadThreads", threads);
+			cfg.save();
+
+			try (Transport t = Transport.open(dst, remoteURI)) {
+				t.fetch(NullProgressMonitor.INSTANCE, mirror(master));
+			}
+
+			assertTrue(dst.getObjectDatabase().has(A_txt));
+			assertEquals(tip, dst.exactRef(master).getObjectId());
+			fsck(dst, tip);
+		}
+
+		// Every loose object was requested once per fetch.
+		assertEquals(2, getRequests(loose(remoteURI, tip)).size());
+	}
+
 	@Test
 	public void testPushNotSupported() throws Exception {
 		final TestRepository src = createTestRepository();
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.http.server.GitServlet;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.junit.http.HttpTestCase;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class DumbPackRangeTest extends HttpTestCase {
+	private String packUrl;
+
+	private byte[] pack;
+
+	@Override
+	@BeforeEach
+	public void setUp(TestInfo testInfo) throws Exception {
+		super.setUp(testInfo);
+
+		TestRepository<Repository> src = createTestRepository();
+		Repository remoteRepository = src.getRepository();
+		String srcName = remoteRepository.getDirectory().getName();
+		RevCommit A = src.commit().add("A", "A").create();
+		src.update(master, A);
+		new GC((FileRepository) remoteRepository).gc().get();
+
+		ServletContextHandler app = server.addContext("/git");
+		GitServlet gs = new GitServlet();
+		gs.setRepositoryResolver((HttpServletRequest req, String name) -> {
+			if (!name.equals(srcName)) {
+				throw new RepositoryNotFoundException(name);
+			}
+			remoteRepository.incrementOpen();
+			return remoteRepository;
+		});
+		app.addServlet(new ServletHolder(gs), "/*");
+
+		server.setUp();
+
+		File packDir = new File(remoteRepository.getDirectory(),
+				"objects/pack");
+		File file = Arrays.stream(packDir.listFiles())
+				.filter(f -> f.getName().endsWith(".pack")).findFirst()
+				.get();
+		pack = Files.readAllBytes(file.toPath());
+		packUrl = toURIish(app, srcName) + "/objects/pack/" + file.getName();
+	}
+
+	private HttpURLConnection get(String range) throws IOException {
+		HttpURLConnection c = (HttpURLConnection) new URL(packUrl)
+				.openConnection();
+		if (range != null) {
+			c.setRequestProperty("Range", range);
+		}
+		return c;
+	}
+
+	private static byte[] read(HttpURLConnection c) throws IOException {
+		try (InputStream in = c.getInputStream()) {
+			return in.readAllBytes();
+		}
+	}
+
+	@Test
+	public void testEntirePack() throws Exception {
+		HttpURLConnection c = get(null);
+		assertEquals(200, c.getResponseCode());
+		assertEquals("bytes", c.getHeaderField("Accept-Ranges"));
+		assertArrayEquals(pack, read(c));
+	}
+
+	@Test
+	public void testSingleRange() throws Exception {
+		HttpURLConnection c = get("bytes=4-11");
+		assertEquals(206, c.getResponseCode());
+		assertEquals("bytes 4-11/" + pack.length,
+				c.getHeaderField("Content-Range"));
+		assertArrayEquals(Arrays.copyOfRange(pack, 4, 12), read(c));
+	}
+
+	@Test
+	public void testSuffixRangeLongerThanFile() throws Exception {
+		HttpURLConnection c = get("bytes=-" + (pack.length + 100));
+		assertEquals(206, c.getResponseCode());
+		assertArrayEquals(pack, read(c));
+	}
+
+	@Test
+	public void testMultipleRanges() throws Exception {
+		HttpURLConnection c = get("bytes=0-3, -20");
+		assertEquals(206, c.getResponseCode());
+		String type = c.getContentType();
+		assertTrue(type.startsWith("multipart/byteranges; boundary="));
+		String boundary = type.substring(type.indexOf('=') + 1);
+
+		String body = new String(read(c), US_ASCII);
+		int tail = pack.length - 20;
+		assertTrue(body.contains("Content-Range: bytes 0-3/" + pack.length));
+		assertTrue(body.contains("Content-Range: bytes " + tail + "-"
+				+ (pack.length - 1) + "/" + pack.length));
+		assertTrue(body.contains("\r\n\r\nPACK\r\n--" + boundary));
+		assertTrue(body.endsWith(new String(pack, tail, 20, US_ASCII)
+				+ "\r\n--" + boundary + "--\r\n"));
+	}
+
+	@Test
+	public void testOverlappingRangesAreCoalesced() throws Exception {
+		HttpURLConnection c = get("bytes=2-5,0-3");
+		assertEquals(206, c.getResponseCode());
+		assertEquals("bytes 0-5/" + pack.length,
+				c.getHeaderField("Content-Range"));
+		assertArrayEquals(Arrays.copyOfRange(pack, 0, 6), read(c));
+	}
+
+	@Test
+	public void testUnsatisfiableRange() throws Exception {
+		HttpURLConnection c = get("bytes=" + pack.length + "-");
+		assertEquals(416, c.getResponseCode());
+	}
+
+	@Test
+	public void testIfRangeWithOtherEtagSendsEntirePack() throws Exception {
+		String etag = get(null).getHeaderField("ETag");
+		HttpURLConnection c = get("bytes=0-3");
+		c.setRequestProperty("If-Range", etag);
+		assertEquals(206, c.getResponseCode());
+
+		c = get("bytes=0-3");
+		c.setRequestProperty("If-Range", "0000");
+		assertEquals(200, c.getResponseCode());
+		assertArrayEquals(pack, read(c));
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.http.server.GitServlet;
+import org.eclipse.jgit.http.server.resolver.DefaultUploadPackFactory;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.junit.http.HttpTestCase;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.AbstractAdvertiseRefsHook;
+import org.eclipse.jgit.transport.RefAdvertisementCache;
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.transport.UploadPack;
+import org.eclipse.jgit.transport.resolver.ServiceNotAuthorizedException;
+import org.eclipse.jgit.transport.resolver.ServiceNotEnabledException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class InfoRefsCacheTest extends HttpTestCase {
+	private TestRepository<Repository> src;
+
+	private RefAdvertisementCache cache;
+
+	private final AtomicInteger advertised = new AtomicInteger();
+
+	private URIish remoteURI;
+
+	private RevCommit A;
+
+	@Override
+	@BeforeEach
+	public void setUp(TestInfo testInfo) throws Exception {
+		super.setUp(testInfo);
+
+		src = createTestRepository();
+		Repository remoteRepository = src.getRepository();
+		String srcName = remoteRepository.getDirectory().getName();
+		A = src.commit().add("A", "A").create();
+		src.update(master, A);
+		cache = new RefAdvertisementCache(remoteRepository);
+		// Let the repository report the update of master before the first
+		// request, which would otherwise not be cached.
+		cache.getRefs();
+
+		ServletContextHandler app = server.addContext("/git");
+		GitServlet gs = new GitServlet();
+		gs.setRepositoryResolver((HttpServletRequest req, String name) -> {
+			if (!name.equals(srcName)) {
+				throw new RepositoryNotFoundException(name);
+			}
+			remoteRepository.incrementOpen();
+			return remoteRepository;
+		});
+		gs.setUploadPackFactory(new DefaultUploadPackFactory() {
+			@Override
+			public UploadPack create(HttpServletRequest req, Repository db)
+					throws ServiceNotEnabledException,
+					ServiceNotAuthorizedException {
+				UploadPack up = super.create(req, db);
+				up.setRefAdvertisementCache(cache);
+				up.setAdvertiseRefsHook(new AbstractAdvertiseRefsHook() {
+					@Override
+					public void advertiseRefs(UploadPack u) {
+						// Advertise all references.
+						advertised.incrementAndGet();
+					}
+
+					@Override
+					protected Map<String, Ref> getAdvertisedRefs(
+							Repository r, RevWalk revWalk) {
+						return null;
+					}
+				});
+				return up;
+			}
+		});
+		gs.setCacheAdvertisements(true);
+		app.addServlet(new ServletHolder(gs), "/*");
+
+		server.setUp();
+
+		remoteURI = toURIish(app, srcName);
+	}
+
+	@Override
+	@AfterEach
+	public void tearDown() throws Exception {
+		cache.close();
+		super.tearDown();
+	}
+
+	private HttpURLConnection infoRefs(boolean gzip) throws IOException {
+		HttpURLConnection c = open(gzip, null);
+		assertEquals(200, c.getResponseCode());
+		return c;
+	}
+
+	private HttpURLConnection open(boolean gzip, String ifNoneMatch)
+			throws IOException {
+		URL url = new URL(remoteURI.toString()
+				+ "/info/refs?service=git-upload-pack");
+		HttpURLConnection c = (HttpURLConnection) url.openConnection();
+		c.setRequestProperty("Accept-Encoding", gzip ? "gzip" : "identity");
+		if (ifNoneMatch != null) {
+			c.setRequestProperty("If-None-Match", ifNoneMatch);
+		}
+		return c;
+	}
+
+	private static byte[] read(HttpURLConnection c) throws IOException {
+		try (InputStream in = "gzip".equals(c.getContentEncoding())
+				? new GZIPInputStream(c.getInputStream())
+				: c.getInputStream()) {
+			return in.readAllBytes();
+		}
+	}
+
+	@Test
+	public void testAdvertisementServedFromCache() throws Exception {
+		byte[] first = read(infoRefs(false));
+		assertEquals(1, advertised.get());
+
+		HttpURLConnection c = infoRefs(false);
+		assertNull(c.getContentEncoding());
+		assertEquals(first.length, c.getContentLength());
+		assertArrayEquals(first, read(c));
+		assertEquals(1, advertised.get());
+	}
+
+	@Test
+	public void testCompressedCopyIsCached() throws Exception {
+		byte[] plain = read(infoRefs(false));
+
+		HttpURLConnection c = infoRefs(true);
+		assertEquals("gzip", c.getContentEncoding());
+		assertTrue(c.getContentLength() < plain.length);
+		assertArrayEquals(plain, read(c));
+		assertEquals(1, advertised.get());
+	}
+
+	@Test
+	public void testChangedRefsAreAdvertisedAgain() throws Exception {
+		String first = new String(read(infoRefs(false)),
+				StandardCharsets.UTF_8);
+		assertTrue(first.contains(A.name()));
+
+		RevCommit B = src.commit().parent(A).add("B", "B").create();
+		src.update(master, B);
+
+		String second = new String(read(infoRefs(false)),
+				StandardCharsets.UTF_8);
+		assertEquals(2, advertised.get());
+		assertTrue(second.contains(B.name()));
+		assertFalse(second.contains(A.name()));
+	}
+
+	@Test
+	public void testUnchangedRefsAreNotModified() throws Exception {
+		HttpURLConnection c = infoRefs(false);
+		String etag = c.getHeaderField("ETag");
+		assertNotNull(etag);
+		read(c);
+
+		c = open(false, etag);
+		assertEquals(304, c.getResponseCode());
+		assertEquals(etag, c.getHeaderField("ETag"));
+		assertEquals(1, advertised.get());
+
+		// The tag of the compressed response matches, too.
+		c = open(true, etag);
+		assertEquals(304, c.getResponseCode());
+	}
+
+	@Test
+	public void testChangedRefsChangeEtag() throws Exception {
+		HttpURLConnection c = infoRefs(false);
+		String etag = c.getHeaderField("ETag");
+		read(c);
+
+		RevCommit B = src.commit().parent(A).add("B", "B").create();
+		src.update(master, B);
+
+		c = open(false, etag);
+		assertEquals(200, c.getResponseCode());
+		assertNotEquals(etag, c.getHeaderField("ETag"));
+		assertTrue(new String(read(c), StandardCharsets.UTF_8)
+				.contains(B.name()));
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.http.server.GitServlet;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.junit.http.HttpTestCase;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.transport.HttpTransport;
+import org.eclipse.jgit.transport.ReceivePack;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+import org.eclipse.jgit.transport.Transport;
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.transport.http.HttpConnection;
+import org.eclipse.jgit.transport.http.HttpConnectionFactory;
+import org.eclipse.jgit.transport.http.JDKHttpClientConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class JDKHttpClientConnectionTest extends HttpTestCase {
+	private final JDKHttpClientConnectionFactory factory = new JDKHttpClientConnectionFactory();
+
+	private HttpConnectionFactory originalFactory;
+
+	private Repository remoteRepository;
+
+	private URIish remoteURI;
+
+	private RevCommit A;
+
+	@Override
+	@BeforeEach
+	public void setUp(TestInfo testInfo) throws Exception {
+		super.setUp(testInfo);
+		originalFactory = HttpTransport.getConnectionFactory();
+		HttpTransport.setConnectionFactory(factory);
+
+		TestRepository<Repository> src = createTestRepository();
+		remoteRepository = src.getRepository();
+		String srcName = remoteRepository.getDirectory().getName();
+		A = src.commit().add("A", "A").create();
+		src.update(master, A);
+
+		ServletContextHandler app = server.addContext("/git");
+		GitServlet gs = new GitServlet();
+		gs.setRepositoryResolver((HttpServletRequest req, String name) -> {
+			if (!name.equals(srcName)) {
+				throw new RepositoryNotFoundException(name);
+			}
+			remoteRepository.incrementOpen();
+			return remoteRepository;
+		});
+		gs.setReceivePackFactory((HttpServletRequest req,
+				Repository db) -> new ReceivePack(db));
+		app.addServlet(new ServletHolder(gs), "/*");
+
+		server.setUp();
+
+		remoteURI = toURIish(app, srcName);
+	}
+
+	@Override
+	@AfterEach
+	public void tearDown() throws Exception {
+		HttpTransport.setConnectionFactory(originalFactory);
+		super.tearDown();
+	}
+
+	@Test
+	public void testFetchTwice() throws Exception {
+		Repository dst = createBareRepository();
+		for (int i = 0; i < 2; i++) {
+			try (Transport t = Transport.open(dst, remoteURI)) {
+				t.fetch(NullProgressMonitor.INSTANCE,
+						List.of(new RefSpec("+refs/heads/*:refs/heads/*")));
+			}
+		}
+		assertEquals(A, dst.exactRef(master).getObjectId());
+		assertTrue(dst.getObjectDatabase().has(A.getTree()));
+	}
+
+	@Test
+	public void testPushStreamsLargePack() throws Exception {
+		TestRepository<Repository> local = new TestRepository<>(
+				createBareRepository());
+		// Larger than the post buffer, so the pack is streamed.
+		byte[] data = new byte[4 * 1024 * 1024];
+		new Random(3).nextBytes(data);
+		RevCommit B = local.commit().add("big", local.blob(data)).create();
+		String dstName = "refs/heads/big";
+
+		try (Transport t = Transport.open(local.getRepository(),
+				remoteURI)) {
+			RemoteRefUpdate u = new RemoteRefUpdate(local.getRepository(),
+					B.name(), dstName, false, null, null);
+			t.push(NullProgressMonitor.INSTANCE, Collections.singleton(u));
+			assertEquals(RemoteRefUpdate.Status.OK, u.getStatus());
+		}
+		assertEquals(B, remoteRepository.exactRef(dstName).getObjectId());
+	}
+
+	@Test
+	public void testNotFound() throws Exception {
+		HttpConnection c = factory.create(
+				new URL(remoteURI.toString() + "-missing/info/refs"));
+		c.setRequestMethod("GET");
+		assertEquals(404, c.getResponseCode());
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.http.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.jetty.ee10.servlet.DefaultServlet;
+import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.errors.TransportException;
+import org.eclipse.jgit.http.server.GitServlet;
+import org.eclipse.jgit.http.server.resolver.DefaultUploadPackFactory;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.internal.storage.pack.CachedPack;
+import org.eclipse.jgit.internal.storage.pack.CachedPackUriProvider;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.junit.http.HttpTestCase;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.Transport;
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.transport.UploadPack;
+import org.eclipse.jgit.transport.resolver.ServiceNotAuthorizedException;
+import org.eclipse.jgit.transport.resolver.ServiceNotEnabledException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class PackfileUriTest extends HttpTestCase {
+	private Repository remoteRepository;
+
+	private URIish remoteURI;
+
+	private URIish packURI;
+
+	private String packHash;
+
+	private RevCommit A, B;
+
+	@Override
+	@BeforeEach
+	public void setUp(TestInfo testInfo) throws Exception {
+		super.setUp(testInfo);
+
+		TestRepository<Repository> src = createTestRepository();
+		remoteRepository = src.getRepository();
+		String srcName = remoteRepository.getDirectory().getName();
+
+		// A is in a pack with bitmaps, which is sent as a packfile URI;
+		// B is sent in the inline pack.
+		A = src.commit().add("A", "A").create();
+		src.update(master, A);
+		new GC((FileRepository) remoteRepository).gc().get();
+		B = src.commit().parent(A).add("B", "B").create();
+		src.update(master, B);
+
+		File packDir = new File(remoteRepository.getDirectory(),
+				"objects/pack");
+		File pack = Arrays.stream(packDir.listFiles())
+				.filter(f -> f.getName().endsWith(".pack")).findFirst()
+				.get();
+		byte[] data = Files.readAllBytes(pack.toPath());
+		packHash = ObjectId.fromRaw(data, data.length - 20).name();
+
+		ServletContextHandler cdn = server.addContext("/cdn");
+		cdn.setBaseResourceAsString(packDir.toURI().toString());
+		ServletHolder files = cdn.addServlet(DefaultServlet.class, "/");
+		files.setInitParameter("aliases", "true");
+
+		ServletContextHandler app = server.addContext("/git");
+		GitServlet gs = new GitServlet();
+		gs.setRepositoryResolver((HttpServletRequest req, String name) -> {
+			if (!name.equals(srcName)) {
+				throw new RepositoryNotFoundException(name);
+			}
+			remoteRepository.incrementOpen();
+			return remoteRepository;
+		});
+		gs.setUploadPackFactory(new DefaultUploadPackFactory() {
+			@Override
+			public UploadPack create(HttpServletRequest req, Repository db)
+					throws ServiceNotEnabledException,
+					ServiceNotAuthorizedException {
+				UploadPack up = super.create(req, db);
+				up.setCachedPackUriProvider(new CachedPackUriProvider() {
+					@Override
+					public PackInfo getInfo(CachedPack p,
+							Collection<String> protocols) {
+						if (!protocols.contains("http")) {
+							return null;
+						}
+						return new PackInfo(packHash, packURI.toString(),
+								data.length);
+					}
+				});
+				return up;
+			}
+		});
+		app.addServlet(new ServletHolder(gs), "/*");
+
+		server.setUp();
+
+		remoteURI = toURIish(app, srcName);
+		packURI = toURIish(cdn, pack.getName());
+
+		StoredConfig cfg = remoteRepository.getConfig();
+		cfg.setBoolean("uploadpack", null, "allowsidebandall", true);
+		cfg.setBoolean("uploadpack", null, "advertisesidebandall", true);
+		cfg.save();
+	}
+
+	private Repository createClient(String uriProtocols) throws Exception {
+		Repository dst = createBareRepository();
+		StoredConfig cfg = dst.getConfig();
+		cfg.setInt(ConfigConstants.CONFIG_PROTOCOL_SECTION, null,
+				ConfigConstants.CONFIG_KEY_VERSION, 2);
+		if (uriProtocols != null) {
+			cfg.setString("fetch", null, "uriprotocols", uriProtocols);
+		}
+		cfg.save();
+		return dst;
+	}
+
+	private void fetch(Repository dst) throws Exception {
+		try (Transport t = Transport.open(dst, remoteURI)) {
+			t.fetch(NullProgressMonitor.INSTANCE,
+					List.of(new RefSpec("+refs/heads/*:refs/heads/*")));
+		}
+	}
+
+	private static long countPackFiles(Repository r, String suffix) {
+		File packDir = new File(r.getDirectory(), "objects/pack");
+		return Arrays.stream(packDir.listFiles())
+				.filter(f -> f.getName().endsWith(suffix)).count();
+	}
+
+	@Test
+	public void testFetchDownloadsPackfileUri() throws Exception {
+		Repository dst = createClient("http,https");
+		fetch(dst);
+
+		assertTrue(dst.getObjectDatabase().has(A));
+		assertTrue(dst.getObjectDatabase().has(B));
+		assertEquals(B, dst.exactRef(master).getObjectId());
+		// The downloaded pack and the inline pack with only B.
+		assertEquals(2, countPackFiles(dst, ".pack"));
+		assertEquals(0, countPackFiles(dst, ".keep"));
+	}
+
+	@Test
+	public void testPackfileUrisNotRequestedByDefault() throws Exception {
+		Repository dst = createClient(null);
+		fetch(dst);
+
+		assertTrue(dst.getObjectDatabase().has(A));
+		assertTrue(dst.getObjectDatabase().has(B));
+		assertEquals(1, countPackFiles(dst, ".pack"));
+	}
+
+	@Test
+	public void testOtherProtocolNotSentAsUri() throws Exception {
+		Repository dst = createClient("https");
+		fetch(dst);
+
+		assertTrue(dst.getObjectDatabase().has(A));
+		assertEquals(1, countPackFiles(dst, ".pack"));
+	}
+
+	@Test
+	public void testChecksumMismatchFailsFetch() throws Exception {
+		packHash = ObjectId.zeroId().name();
+		Repository dst = createClient("http");
+		assertThrows(TransportException.class, () -> fetch(dst));
+
+		assertFalse(dst.getRefDatabase().hasRefs());
+		assertEquals(0, countPackFiles(dst, ".keep"));
+	}
+
+	@Test
+	public void testMissingPackFailsFetch() throws Exception {
+		packURI = toURIish("/cdn/pack-missing.pack");
+		Repository dst = createClient("http");
+		assertThrows(TransportException.class, () -> fetch(dst));
+
+		assertFalse(dst.getRefDatabase().hasRefs());
+		assertEquals(0, countPackFiles(dst, ".keep"));
+	}
+}
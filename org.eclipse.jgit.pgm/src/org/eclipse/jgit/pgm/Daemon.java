@@ -16,6 +16,7 @@
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import org.eclipse.jgit.errors.ConfigInvalidException;
@@ -46,6 +47,12 @@ class Daemon extends TextBuiltin {
 	@Option(name = "--timeout", metaVar = "metaVar_seconds", usage = "usage_abortConnectionIfNoActivity")
 	int timeout = -1;
 
+	@Option(name = "--max-sessions", metaVar = "metaVar_n", usage = "usage_maxSessions")
+	int maxSessions;
+
+	@Option(name = "--virtual-threads", usage = "usage_virtualThreads")
+	boolean virtualThreads;
+
 	@Option(name = "--enable", metaVar = "metaVar_service", usage = "usage_enableTheServiceInAllRepositories")
 	List<String> enable = new ArrayList<>();
 
@@ -108,6 +115,15 @@ protected void run() throws Exception {
 		d.setRepositoryResolver(resolver);
 		if (0 <= timeout)
 			d.setTimeout(timeout);
+		d.setMaxSessions(maxSessions);
+		if (virtualThreads) {
+			ExecutorService executor = org.eclipse.jgit.transport.Daemon
+					.newVirtualThreadExecutor();
+			if (executor == null) {
+				throw die(CLIText.get().virtualThreadsNotSupported);
+			}
+			d.setExecutor(executor);
+		}
 
 		for (String n : enable)
 			service(d, n).setEnabled(true);
@@ -318,4 +318,5 @@ public static String fatalError(String message) {
 	/***/ public String untrackedFiles;
 	/***/ public String updating;
 	/***/ public String usernameFor;
+	/***/ public String virtualThreadsNotSupported;
 }
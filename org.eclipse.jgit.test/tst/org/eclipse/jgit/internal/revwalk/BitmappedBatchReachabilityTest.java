@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.internal.revwalk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.revwalk.ObjectReachabilityChecker;
+import org.eclipse.jgit.revwalk.RevBlob;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.junit.jupiter.api.Test;
+
+public class BitmappedBatchReachabilityTest
+		extends ObjectReachabilityTestCase {
+
+	@Override
+	ObjectReachabilityChecker getChecker(
+			TestRepository<FileRepository> repository) throws Exception {
+		gc(repository);
+		return new BitmappedBatchReachabilityChecker(
+				repository.getRevWalk().toObjectWalkWithSameObjects());
+	}
+
+	@Test
+	public void commits_reachable_from_unbitmapped_tip() throws Exception {
+		TestRepository<FileRepository> repository = new TestRepository<>(
+				createWorkRepository());
+		RevCommit base = repository.commit().create();
+		RevCommit a = repository.commit().parent(base).create();
+		RevCommit other = repository.commit().parent(base).create();
+		repository.update("refs/heads/a", a);
+		repository.update("refs/heads/other", other);
+		gc(repository);
+		// Created after GC, so neither has a bitmap.
+		RevCommit b = repository.commit().parent(a).create();
+		RevCommit c = repository.commit().parent(b).create();
+
+		ObjectReachabilityChecker checker = new BitmappedBatchReachabilityChecker(
+				repository.getRevWalk().toObjectWalkWithSameObjects());
+		assertFalse(checker.areAllReachable(List.of(base, a, b, c),
+				Stream.of(other, c)).isPresent());
+		Optional<RevObject> unreached = checker.areAllReachable(
+				List.of(a, b, other), Stream.of(c));
+		assertEquals(Optional.of(other), unreached);
+	}
+
+	@Test
+	public void blob_reachable_from_unbitmapped_tip() throws Exception {
+		TestRepository<FileRepository> repository = new TestRepository<>(
+				createWorkRepository());
+		RevCommit base = repository.commit().add("x", "x").create();
+		repository.update("refs/heads/master", base);
+		gc(repository);
+		RevBlob y = repository.blob("y");
+		RevCommit tip = repository.commit().parent(base).add("y", y).create();
+		RevBlob z = repository.blob("z");
+
+		ObjectReachabilityChecker checker = new BitmappedBatchReachabilityChecker(
+				repository.getRevWalk().toObjectWalkWithSameObjects());
+		assertFalse(checker.areAllReachable(List.of(base, y), Stream.of(tip))
+				.isPresent());
+		assertEquals(Optional.of(z),
+				checker.areAllReachable(List.of(y, z), Stream.of(tip)));
+	}
+
+	private static void gc(TestRepository<FileRepository> repository)
+			throws Exception {
+		// GC generates the bitmaps
+		GC gc = new GC(repository.getRepository());
+		gc.setAuto(false);
+		gc.gc().get();
+	}
+}
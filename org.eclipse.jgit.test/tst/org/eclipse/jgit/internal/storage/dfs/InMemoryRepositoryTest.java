@@ -13,13 +13,19 @@
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.BatchRefUpdate;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectIdRef;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Ref.Storage;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTag;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.ReceiveCommand;
 import org.junit.jupiter.api.Test;
 
 public class InMemoryRepositoryTest {
@@ -114,4 +120,35 @@ public void sha1ToTip_tag() throws Exception {
 			assertEquals(commit.getId(), ref.getObjectId());
 		}
 	}
+
+	@Test
+	public void refsChangedOnlyOnChange() throws Exception {
+		InMemoryRepository repo = new InMemoryRepository(
+				new DfsRepositoryDescription());
+		try (TestRepository<InMemoryRepository> git = new TestRepository<>(
+				repo)) {
+			RevCommit commit = git.branch("master").commit().create();
+			repo.getRefDatabase().getRefs();
+			AtomicInteger events = new AtomicInteger();
+			repo.getListenerList()
+					.addRefsChangedListener(e -> events.incrementAndGet());
+
+			repo.scanForRepoChanges();
+			assertEquals(0, events.get());
+
+			BatchRefUpdate u = repo.getRefDatabase().newBatchUpdate();
+			u.addCommand(new ReceiveCommand(ObjectId.zeroId(), commit,
+					"refs/heads/a"));
+			u.addCommand(new ReceiveCommand(ObjectId.zeroId(), commit,
+					"refs/heads/b"));
+			try (RevWalk rw = new RevWalk(repo)) {
+				u.execute(rw, NullProgressMonitor.INSTANCE);
+			}
+			assertEquals(1, events.get());
+
+			repo.getRefDatabase().getRefs();
+			repo.scanForRepoChanges();
+			assertEquals(1, events.get());
+		}
+	}
 }
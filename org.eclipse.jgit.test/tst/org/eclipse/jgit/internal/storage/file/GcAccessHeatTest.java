@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.internal.storage.pack.AccessHeatMap;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.junit.TestRepository.BranchBuilder;
+import org.eclipse.jgit.junit.TestRepository.CommitBuilder;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevBlob;
+import org.eclipse.jgit.storage.file.FileBasedConfig;
+import org.junit.jupiter.api.Test;
+
+public class GcAccessHeatTest extends GcTestCase {
+	@Test
+	public void testSamplingDisabledByDefault() throws Exception {
+		assertNull(repo.getObjectDatabase().getAccessHeatMap());
+		tr.branch("master").commit().add("a", "a").create();
+		gc.gc().get();
+		assertFalse(heatFile(repo).exists());
+	}
+
+	@Test
+	public void testHotBlobsAreWrittenFirst() throws Exception {
+		FileBasedConfig cfg = repo.getConfig();
+		cfg.setInt(ConfigConstants.CONFIG_CORE_SECTION, null,
+				ConfigConstants.CONFIG_KEY_HEAT_SAMPLE_RATE, 1);
+		cfg.save();
+
+		try (FileRepository r = new FileRepository(repo.getDirectory());
+				TestRepository<FileRepository> t = new TestRepository<>(r)) {
+			BranchBuilder master = t.branch("master");
+			CommitBuilder cb = master.commit();
+			List<RevBlob> blobs = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				RevBlob b = t.blob(Integer.toString(i));
+				blobs.add(b);
+				cb.add("f" + i, b);
+			}
+			cb.create();
+
+			RevBlob hot = blobs.get(17);
+			AccessHeatMap sampled = r.getObjectDatabase().getAccessHeatMap();
+			assertNotNull(sampled);
+			int before = sampled.getHeat(hot);
+			for (int i = 0; i < 4; i++) {
+				r.open(hot).getCachedBytes();
+			}
+			assertEquals(before + 4, sampled.getHeat(hot));
+
+			new GC(r).gc().get();
+
+			assertTrue(heatFile(r).exists());
+
+			Pack pack = r.getObjectDatabase().getPacks().iterator().next();
+			PackIndex idx = pack.getIndex();
+			long hotOffset = idx.findOffset(hot);
+			for (RevBlob b : blobs) {
+				if (!b.equals(hot)) {
+					assertTrue(hotOffset < idx.findOffset(b));
+				}
+			}
+
+			AccessHeatMap persisted = r.getObjectDatabase()
+					.updateAccessHeat(false);
+			assertEquals((before + 4) / 2, persisted.getHeat(hot));
+			assertEquals(0, persisted.getHeat(blobs.get(0)));
+		}
+	}
+
+	@Test
+	public void testRepackReadsDoNotHeatObjects() throws Exception {
+		FileBasedConfig cfg = repo.getConfig();
+		cfg.setInt(ConfigConstants.CONFIG_CORE_SECTION, null,
+				ConfigConstants.CONFIG_KEY_HEAT_SAMPLE_RATE, 1);
+		cfg.save();
+
+		try (FileRepository r = new FileRepository(repo.getDirectory());
+				TestRepository<FileRepository> t = new TestRepository<>(r)) {
+			ObjectId a = t.blob("a");
+			t.branch("master").commit().add("a", t.blob("a")).create();
+			new GC(r).gc().get();
+			assertEquals(0,
+					r.getObjectDatabase().getAccessHeatMap().getHeat(a));
+		}
+	}
+
+	@Test
+	public void testLockedHeatFileDoesNotFailGc() throws Exception {
+		FileBasedConfig cfg = repo.getConfig();
+		cfg.setInt(ConfigConstants.CONFIG_CORE_SECTION, null,
+				ConfigConstants.CONFIG_KEY_HEAT_SAMPLE_RATE, 1);
+		cfg.save();
+
+		try (FileRepository r = new FileRepository(repo.getDirectory());
+				TestRepository<FileRepository> t = new TestRepository<>(r)) {
+			t.branch("master").commit().add("a", "a").create();
+			File lock = new File(heatFile(r).getPath() + ".lock");
+			assertTrue(lock.getParentFile().isDirectory()
+					|| lock.getParentFile().mkdirs());
+			assertTrue(lock.createNewFile());
+
+			assertEquals(1, new GC(r).gc().get().size());
+			assertFalse(heatFile(r).exists());
+			assertTrue(lock.delete());
+		}
+	}
+
+	private static File heatFile(FileRepository r) {
+		return new File(r.getObjectDatabase().getDirectory(), "info/heat");
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jgit.internal.storage.pack.PackWriter;
+import org.eclipse.jgit.junit.RepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.junit.TestRepository.CommitBuilder;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.RevBlob;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.file.FileBasedConfig;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.junit.jupiter.api.Test;
+
+public class ObjectDirectoryPackParserMmapTest extends RepositoryTestCase {
+	private final List<RevBlob> blobs = new ArrayList<>();
+
+	private byte[] createPack(FileRepository src, boolean thin,
+			ObjectId have) throws Exception {
+		try (TestRepository<FileRepository> t = new TestRepository<>(src)) {
+			RevCommit tip = have != null ? t.getRevWalk().parseCommit(have)
+					: null;
+			StringBuilder content = new StringBuilder();
+			for (int line = 0; line < 200; line++) {
+				content.append("line ").append(line).append('\n');
+			}
+			for (int rev = 0; rev < 20; rev++) {
+				content.append("revision ").append(rev).append('\n');
+				RevBlob b = t.blob(content.toString());
+				blobs.add(b);
+				CommitBuilder cb = t.commit();
+				if (tip != null) {
+					cb.parent(tip);
+				}
+				tip = cb.add("f", b).create();
+			}
+
+			PackConfig pc = new PackConfig(src);
+			pc.setDeltaCompress(true);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (PackWriter pw = new PackWriter(pc, src.newObjectReader())) {
+				pw.setThin(thin);
+				pw.preparePack(NullProgressMonitor.INSTANCE,
+						Collections.singleton(tip.copy()),
+						have != null ? Collections.singleton(have)
+								: PackWriter.NONE);
+				pw.writePack(NullProgressMonitor.INSTANCE,
+						NullProgressMonitor.INSTANCE, out);
+				assertTrue(pw.getStatistics().getTotalDeltas() > 0);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	private void parse(FileRepository dst, byte[] pack, long mmapLimit,
+			int threads) throws Exception {
+		try (ObjectInserter ins = dst.newObjectInserter()) {
+			ObjectDirectoryPackParser p = (ObjectDirectoryPackParser) ins
+					.newPackParser(new ByteArrayInputStream(pack));
+			p.setMmapLimit(mmapLimit);
+			p.setDeltaResolutionThreads(threads);
+			p.setAllowThin(true);
+			p.parse(NullProgressMonitor.INSTANCE);
+			ins.flush();
+		}
+	}
+
+	private void assertBlobs(FileRepository r) throws Exception {
+		try (ObjectReader reader = r.newObjectReader();
+				ObjectInserter.Formatter f = new ObjectInserter.Formatter()) {
+			for (RevBlob b : blobs) {
+				byte[] data = reader.open(b, Constants.OBJ_BLOB)
+						.getCachedBytes();
+				assertEquals(b, f.idFor(Constants.OBJ_BLOB, data));
+			}
+		}
+	}
+
+	@Test
+	public void testMappedPack() throws Exception {
+		byte[] pack = createPack(createBareRepository(), false, null);
+		parse(db, pack, Integer.MAX_VALUE, 1);
+		assertBlobs(db);
+	}
+
+	@Test
+	public void testMappedPackOnMultipleThreads() throws Exception {
+		byte[] pack = createPack(createBareRepository(), false, null);
+		parse(db, pack, Integer.MAX_VALUE, 4);
+		assertBlobs(db);
+	}
+
+	@Test
+	public void testPackLargerThanLimitIsNotMapped() throws Exception {
+		byte[] pack = createPack(createBareRepository(), false, null);
+		parse(db, pack, pack.length / 2, 1);
+		assertBlobs(db);
+	}
+
+	@Test
+	public void testMappedThinPack() throws Exception {
+		FileRepository src = createBareRepository();
+		try (TestRepository<FileRepository> t = new TestRepository<>(src)) {
+			StringBuilder content = new StringBuilder();
+			for (int line = 0; line < 200; line++) {
+				content.append("line ").append(line).append('\n');
+			}
+			RevCommit base = t.commit().add("f", content.toString())
+					.create();
+			byte[] basePack = createPackOf(src, base);
+			parse(db, basePack, Integer.MAX_VALUE, 1);
+
+			byte[] pack = createPack(src, true, base);
+			parse(db, pack, Integer.MAX_VALUE, 1);
+			assertBlobs(db);
+		}
+	}
+
+	@Test
+	public void testMappingEnabledByConfig() throws Exception {
+		FileBasedConfig cfg = db.getConfig();
+		cfg.setBoolean(ConfigConstants.CONFIG_CORE_SECTION, null,
+				ConfigConstants.CONFIG_KEY_PACKED_GIT_MMAP, true);
+		cfg.save();
+
+		byte[] pack = createPack(createBareRepository(), false, null);
+		try (FileRepository r = new FileRepository(db.getDirectory());
+				ObjectInserter ins = r.newObjectInserter()) {
+			ins.newPackParser(new ByteArrayInputStream(pack))
+					.parse(NullProgressMonitor.INSTANCE);
+			ins.flush();
+			assertBlobs(r);
+		}
+	}
+
+	private static byte[] createPackOf(FileRepository src, RevCommit tip)
+			throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PackWriter pw = new PackWriter(new PackConfig(src),
+				src.newObjectReader())) {
+			pw.preparePack(NullProgressMonitor.INSTANCE,
+					Collections.singleton(tip.copy()), PackWriter.NONE);
+			pw.writePack(NullProgressMonitor.INSTANCE,
+					NullProgressMonitor.INSTANCE, out);
+		}
+		return out.toByteArray();
+	}
+}
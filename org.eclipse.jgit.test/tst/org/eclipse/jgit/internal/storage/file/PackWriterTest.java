@@ -462,6 +462,35 @@ public void testDeltaStatistics() throws Exception {
 		}
 	}
 
+	@Test
+	public void testWriteThinPackSparse() throws Exception {
+		config.setUseSparse(true);
+		FileRepository repo = createBareRepository();
+		try (TestRepository<FileRepository> testRepo = new TestRepository<>(
+				repo)) {
+			BranchBuilder bb = testRepo.branch("refs/heads/master");
+			TestRepository<FileRepository>.CommitBuilder cb = bb.commit()
+					.add("a/c", "v1");
+			for (int i = 0; i < 20; i++) {
+				cb.add("e/" + i + "/f", "unchanged " + i);
+			}
+			RevCommit base = cb.create();
+			RevCommit tip = bb.commit().add("a/c", "v2").create();
+
+			// Commit, root tree, "a" and "a/c", also if the boundary trees
+			// are walked for delta bases.
+			for (boolean thin : new boolean[] { false, true }) {
+				try (PackWriter pw = new PackWriter(config,
+						repo.newObjectReader())) {
+					pw.setThin(thin);
+					pw.preparePack(NullProgressMonitor.INSTANCE,
+							Sets.of(tip), Sets.of(base));
+					assertEquals(4, pw.getObjectCount());
+				}
+			}
+		}
+	}
+
 	// Generate consistent junk data for building files that delta well
 	private String genDeltableData(int length) {
 		assertTrue("Generated data must have a length > 0", length > 0);
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.internal.storage.pack;
+
+import static org.eclipse.jgit.lib.Constants.OBJ_BLOB;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.jupiter.api.Test;
+
+public class AccessHeatMapTest {
+	private static ObjectId id(int i) {
+		return ObjectId.fromString(String.format("%040x", i));
+	}
+
+	@Test
+	public void testSampleEveryAccess() {
+		AccessHeatMap heat = new AccessHeatMap(1, 10);
+		heat.sample(id(1));
+		heat.sample(id(1));
+		heat.sample(id(2));
+		assertEquals(2, heat.getHeat(id(1)));
+		assertEquals(1, heat.getHeat(id(2)));
+		assertEquals(0, heat.getHeat(id(3)));
+		assertEquals(2, heat.size());
+	}
+
+	@Test
+	public void testDecay() {
+		AccessHeatMap heat = new AccessHeatMap(1, 10);
+		heat.add(id(1), 5);
+		heat.add(id(2), 1);
+		heat.decay();
+		assertEquals(2, heat.getHeat(id(1)));
+		assertEquals(0, heat.getHeat(id(2)));
+		assertEquals(1, heat.size());
+	}
+
+	@Test
+	public void testDecayWhenFull() {
+		AccessHeatMap heat = new AccessHeatMap(1, 3);
+		heat.add(id(1), 8);
+		heat.add(id(2), 1);
+		heat.add(id(3), 1);
+		heat.add(id(4), 1);
+		assertEquals(4, heat.getHeat(id(1)));
+		assertEquals(1, heat.size());
+	}
+
+	@Test
+	public void testDecayToLowWaterMark() {
+		AccessHeatMap heat = new AccessHeatMap(1, 8);
+		for (int i = 1; i <= 8; i++) {
+			heat.add(id(i), 1 << i);
+		}
+		heat.add(id(9), 1);
+		assertEquals(6, heat.size());
+		assertEquals(32, heat.getHeat(id(8)));
+
+		heat.add(id(10), 1);
+		assertEquals(7, heat.size());
+		assertEquals(32, heat.getHeat(id(8)));
+	}
+
+	@Test
+	public void testWriteRead() throws IOException {
+		AccessHeatMap heat = new AccessHeatMap(1, 10);
+		heat.add(id(1), 7);
+		heat.add(id(2), 3);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		heat.write(out);
+
+		AccessHeatMap read = new AccessHeatMap(1, 10);
+		read.add(id(2), 1);
+		read.read(new ByteArrayInputStream(out.toByteArray()), "test");
+		assertEquals(7, read.getHeat(id(1)));
+		assertEquals(4, read.getHeat(id(2)));
+	}
+
+	@Test
+	public void testReadInvalid() {
+		AccessHeatMap heat = new AccessHeatMap(1, 10);
+		assertThrows(IOException.class, () -> heat.read(
+				new ByteArrayInputStream(new byte[] { 'P', 'A', 'C', 'K',
+						0, 0, 0, 1 }),
+				"test"));
+	}
+
+	@Test
+	public void testSortIsStableByMagnitude() {
+		List<ObjectToPack> list = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			list.add(new ObjectToPack(id(i), OBJ_BLOB));
+		}
+		ObjectToPack c0 = list.get(0);
+		ObjectToPack c1 = list.get(1);
+		ObjectToPack warm3 = list.get(3);
+		ObjectToPack c2 = list.get(2);
+		ObjectToPack warm4 = list.get(4);
+		ObjectToPack hot5 = list.get(5);
+
+		AccessHeatMap heat = new AccessHeatMap(1, 10);
+		heat.add(id(3), 2);
+		heat.add(id(4), 3);
+		heat.add(id(5), 100);
+		heat.sort(list);
+
+		assertSame(hot5, list.get(0));
+		assertSame(warm3, list.get(1));
+		assertSame(warm4, list.get(2));
+		assertSame(c0, list.get(3));
+		assertSame(c1, list.get(4));
+		assertSame(c2, list.get(5));
+	}
+
+	@Test
+	public void testSampling() {
+		AccessHeatMap heat = new AccessHeatMap(4, 10);
+		for (int i = 0; i < 4000; i++) {
+			heat.sample(id(1));
+		}
+		int n = heat.getHeat(id(1));
+		assertTrue(n > 800 && n < 1200, "sampled " + n);
+	}
+}
@@ -113,6 +113,23 @@ public void testInsertTail() throws IOException {
 		doTest();
 	}
 
+	@Test
+	public void testCopyStopsAtFirstDifference() throws IOException {
+		src = getRng().nextBytes(300);
+		copy(0, 150);
+		insert(new byte[] { (byte) ~src[150] });
+		copy(151, 149);
+		doTest();
+	}
+
+	@Test
+	public void testCopyStopsAtEndOfSource() throws IOException {
+		src = getRng().nextBytes(100);
+		copy(0, 100);
+		insert("tail end of the result");
+		doTest();
+	}
+
 	@Test
 	public void testIndexSize() {
 		src = getRng().nextBytes(1024);
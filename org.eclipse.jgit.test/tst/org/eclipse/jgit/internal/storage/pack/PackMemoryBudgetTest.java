@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.internal.storage.pack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.eclipse.jgit.util.io.NullOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class PackMemoryBudgetTest {
+	@AfterEach
+	public void tearDown() {
+		PackMemoryBudget.reconfigure(0);
+	}
+
+	@Test
+	public void testUnlimitedGrantsRequest() throws Exception {
+		PackMemoryBudget budget = new PackMemoryBudget(0);
+		try (PackMemoryBudget.Reservation r = budget.reserve(1000, 10)) {
+			assertEquals(1000, r.getGranted());
+			assertEquals(0, budget.getUsed());
+		}
+		assertEquals(1, budget.getReservationCount());
+	}
+
+	@Test
+	public void testThrottledWhenShort() throws Exception {
+		PackMemoryBudget budget = new PackMemoryBudget(1000);
+		try (PackMemoryBudget.Reservation r1 = budget.reserve(800, 100);
+				PackMemoryBudget.Reservation r2 = budget.reserve(800, 100)) {
+			assertEquals(800, r1.getGranted());
+			assertEquals(200, r2.getGranted());
+			assertEquals(1000, budget.getUsed());
+			assertEquals(1, budget.getThrottledCount());
+		}
+		assertEquals(0, budget.getUsed());
+	}
+
+	@Test
+	public void testPartialRelease() throws Exception {
+		PackMemoryBudget budget = new PackMemoryBudget(1000);
+		PackMemoryBudget.Reservation r = budget.reserve(600, 100);
+		r.release(400);
+		assertEquals(200, budget.getUsed());
+		r.release(400);
+		assertEquals(0, budget.getUsed());
+		r.close();
+		assertEquals(0, budget.getUsed());
+	}
+
+	@Test
+	public void testOversizedRequestGrantedWhenIdle() throws Exception {
+		PackMemoryBudget budget = new PackMemoryBudget(100);
+		try (PackMemoryBudget.Reservation r = budget.reserve(1000, 500)) {
+			assertEquals(500, r.getGranted());
+		}
+	}
+
+	@Test
+	public void testWaitsForMinimum() throws Exception {
+		PackMemoryBudget budget = new PackMemoryBudget(1000);
+		PackMemoryBudget.Reservation r1 = budget.reserve(950, 100);
+		CompletableFuture<Long> f = CompletableFuture.supplyAsync(() -> {
+			try (PackMemoryBudget.Reservation r2 = budget.reserve(500,
+					100)) {
+				return Long.valueOf(r2.getGranted());
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		while (budget.getWaitCount() == 0) {
+			Thread.sleep(10);
+		}
+		r1.close();
+		assertEquals(500, f.get(10, TimeUnit.SECONDS).longValue());
+		assertEquals(0, budget.getUsed());
+	}
+
+	@Test
+	public void testPackWriterReleasesReservation() throws Exception {
+		PackMemoryBudget.reconfigure(64 * 1024 * 1024);
+		InMemoryRepository repo = new InMemoryRepository(
+				new DfsRepositoryDescription("test"));
+		RevCommit c;
+		try (TestRepository<InMemoryRepository> git = new TestRepository<>(
+				repo)) {
+			StringBuilder content = new StringBuilder();
+			for (int i = 0; i < 1000; i++) {
+				content.append("line ").append(i).append('\n');
+			}
+			c = git.commit().add("a", content + "a").add("b", content + "b")
+					.create();
+		}
+		PackConfig pc = new PackConfig(repo);
+		try (PackWriter pw = new PackWriter(pc, repo.newObjectReader())) {
+			pw.preparePack(NullProgressMonitor.INSTANCE,
+					Collections.singleton(c), Collections.<ObjectId> emptySet());
+			pw.writePack(NullProgressMonitor.INSTANCE,
+					NullProgressMonitor.INSTANCE, NullOutputStream.INSTANCE);
+		}
+		PackMemoryBudget budget = PackMemoryBudget.getInstance();
+		assertTrue(budget.getReservationCount() > 0);
+		assertEquals(0, budget.getUsed());
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.revwalk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.jupiter.api.Test;
+
+public class ObjectWalkSparseTest extends RevWalkTestCase {
+	protected ObjectWalk objw;
+
+	@Override
+	protected RevWalk createRevWalk() {
+		return objw = new ObjectWalk(db);
+	}
+
+	private Set<ObjectId> walk(boolean sparse, RevCommit want,
+			RevCommit have) throws Exception {
+		try (ObjectWalk ow = new ObjectWalk(db)) {
+			ow.setSparse(sparse);
+			ow.markStart(ow.parseCommit(want));
+			ow.markUninteresting(ow.parseCommit(have));
+			while (ow.next() != null) {
+				// walk all commits first
+			}
+			Set<ObjectId> objects = new HashSet<>();
+			RevObject o;
+			while ((o = ow.nextObject()) != null) {
+				objects.add(o.copy());
+			}
+			return objects;
+		}
+	}
+
+	@Test
+	public void testSparseSkipsUnchangedPaths() throws Exception {
+		RevBlob unchanged = blob("unchanged");
+		RevBlob v1 = blob("v1");
+		RevBlob v2 = blob("v2");
+		RevTree ta = tree(file("a/b/c", v1), file("a/d", unchanged),
+				file("e/f", unchanged));
+		RevTree tb = tree(file("a/b/c", v2), file("a/d", unchanged),
+				file("e/f", unchanged));
+		RevCommit a = commit(ta);
+		RevCommit b = commit(tb, a);
+
+		Set<ObjectId> objects = walk(true, b, a);
+		assertTrue(objects.contains(tb));
+		assertTrue(objects.contains(get(tb, "a")));
+		assertTrue(objects.contains(get(tb, "a/b")));
+		assertTrue(objects.contains(v2));
+		assertFalse(objects.contains(get(tb, "e")));
+		assertFalse(objects.contains(unchanged));
+		assertFalse(objects.contains(v1));
+		assertEquals(4, objects.size());
+
+		assertEquals(walk(false, b, a), objects);
+	}
+
+	@Test
+	public void testSparseReturnsObjectsMovedToOtherPaths()
+			throws Exception {
+		RevBlob x = blob("x");
+		RevTree ta = tree(file("old/x", x));
+		RevTree tb = tree(file("new/y", x));
+		RevCommit a = commit(ta);
+		RevCommit b = commit(tb, a);
+
+		// "new" and "old" are never compared, so x is sent again.
+		Set<ObjectId> objects = walk(true, b, a);
+		assertTrue(objects.contains(tb));
+		assertTrue(objects.contains(get(tb, "new")));
+		assertTrue(objects.contains(x));
+		assertEquals(3, objects.size());
+
+		assertFalse(walk(false, b, a).contains(x));
+	}
+
+	@Test
+	public void testSparseWithoutUninterestingCommits() throws Exception {
+		RevBlob x = blob("x");
+		RevTree t = tree(file("a/x", x));
+		RevCommit a = commit(t);
+
+		objw.setSparse(true);
+		markStart(a);
+		assertCommit(a, objw.next());
+		assertEquals(null, objw.next());
+		assertEquals(t, objw.nextObject());
+		assertEquals(get(t, "a"), objw.nextObject());
+		assertEquals(x, objw.nextObject());
+		assertEquals(null, objw.nextObject());
+	}
+
+	@Test
+	public void testSetSparseAfterStartFails() throws Exception {
+		RevCommit a = commit();
+		markStart(a);
+		objw.next();
+		assertThrows(IllegalStateException.class, () -> objw.setSparse(true));
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.RepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+
+public class BundleUriTest extends RepositoryTestCase {
+	private TestProtocol<Object> proto;
+
+	private TestRepository<InMemoryRepository> remote;
+
+	private URIish uri;
+
+	private UploadPack uploadPack;
+
+	private RevCommit bundled;
+
+	private RevCommit tip;
+
+	@Override
+	@BeforeEach
+	public void setUp(TestInfo testInfo) throws Exception {
+		super.setUp(testInfo);
+		remote = new TestRepository<>(
+				new InMemoryRepository(new DfsRepositoryDescription("remote")));
+		proto = new TestProtocol<>((Object req, Repository r) -> {
+			UploadPack up = new UploadPack(r);
+			uploadPack = up;
+			return up;
+		}, null);
+		Transport.register(proto);
+		uri = proto.register(new Object(), remote.getRepository());
+
+		RevCommit parent = null;
+		for (int i = 0; i < 10; i++) {
+			TestRepository<InMemoryRepository>.CommitBuilder cb = remote
+					.commit();
+			if (parent != null) {
+				cb.parent(parent);
+			}
+			for (int f = 0; f < 10; f++) {
+				cb.add("f" + f, "content " + i + " of file " + f);
+			}
+			parent = cb.create();
+		}
+		bundled = parent;
+		remote.getRepository().updateRef("HEAD").link("refs/heads/master");
+		File bundle = writeBundle(bundled);
+		tip = remote.commit().parent(bundled).add("new", "new").create();
+		remote.update("refs/heads/master", tip);
+
+		StoredConfig cfg = remote.getRepository().getConfig();
+		cfg.setBoolean("uploadpack", null, "advertisebundleuris", true);
+		cfg.setString("bundle", null, "version", "1");
+		cfg.setString("bundle", null, "mode", "all");
+		cfg.setString("bundle", "base", "uri",
+				"file://" + bundle.getAbsolutePath());
+		cfg.setString("bundle", "base", "creationToken", "1");
+		// Also used by the repositories created by clone.
+		mockSystemReader.getUserConfig().setString("protocol", null,
+				"version", "2");
+	}
+
+	@Override
+	@AfterEach
+	public void tearDown() throws Exception {
+		Transport.unregister(proto);
+		super.tearDown();
+	}
+
+	private File writeBundle(RevCommit commit) throws Exception {
+		File bundle = new File(createTempDirectory("bundles"),
+				"base.bundle");
+		BundleWriter w = new BundleWriter(remote.getRepository());
+		w.include("refs/heads/master", commit);
+		try (OutputStream out = new FileOutputStream(bundle)) {
+			w.writeBundle(NullProgressMonitor.INSTANCE, out);
+		}
+		return bundle;
+	}
+
+	private void fetch(Repository dst, boolean bundleUri) throws Exception {
+		fetch(dst, bundleUri, true);
+	}
+
+	private void fetch(Repository dst, boolean bundleUri, boolean allowFile)
+			throws Exception {
+		try (Transport tn = Transport.open(dst, uri)) {
+			tn.setBundleUri(bundleUri);
+			tn.setBundleUriAllowFile(allowFile);
+			tn.fetch(NullProgressMonitor.INSTANCE, Collections.singletonList(
+					new RefSpec("+refs/heads/*:refs/remotes/origin/*")));
+		}
+	}
+
+	@Test
+	public void testFetchUsesBundle() throws Exception {
+		fetch(db, true);
+		assertEquals(bundled,
+				db.exactRef("refs/bundles/heads/master").getObjectId());
+		assertEquals(tip,
+				db.exactRef("refs/remotes/origin/master").getObjectId());
+		// Only the last commit, its tree and the new blob are sent.
+		assertEquals(3, uploadPack.getStatistics().getTotalObjects());
+	}
+
+	@Test
+	public void testFetchWithoutBundleUri() throws Exception {
+		fetch(db, false);
+		assertNull(db.exactRef("refs/bundles/heads/master"));
+		assertTrue(uploadPack.getStatistics().getTotalObjects() > 3);
+	}
+
+	@Test
+	public void testUnreachableBundleIsSkipped() throws Exception {
+		remote.getRepository().getConfig().setString("bundle", "base", "uri",
+				"file:///does/not/exist.bundle");
+		fetch(db, true);
+		assertNull(db.exactRef("refs/bundles/heads/master"));
+		assertEquals(tip,
+				db.exactRef("refs/remotes/origin/master").getObjectId());
+	}
+
+	@Test
+	public void testFileBundleRequiresOptIn() throws Exception {
+		fetch(db, true, false);
+		assertNull(db.exactRef("refs/bundles/heads/master"));
+		assertEquals(tip,
+				db.exactRef("refs/remotes/origin/master").getObjectId());
+	}
+
+	@Test
+	public void testOtherSchemesAreSkipped() throws Exception {
+		// A repository, not a bundle, the remote must not make us fetch from.
+		remote.getRepository().getConfig().setString("bundle", "base", "uri",
+				uri.toString());
+		fetch(db, true);
+		assertNull(db.exactRef("refs/bundles/heads/master"));
+		assertEquals(tip,
+				db.exactRef("refs/remotes/origin/master").getObjectId());
+	}
+
+	@Test
+	public void testNotAdvertised() throws Exception {
+		remote.getRepository().getConfig().setBoolean("uploadpack", null,
+				"advertisebundleuris", false);
+		fetch(db, true);
+		assertNull(db.exactRef("refs/bundles/heads/master"));
+		assertEquals(tip,
+				db.exactRef("refs/remotes/origin/master").getObjectId());
+	}
+
+	@Test
+	public void testCloneUsesBundle() throws Exception {
+		File directory = createTempDirectory("clone");
+		try (Git git = Git.cloneRepository().setURI(uri.toString())
+				.setDirectory(directory).setBundleUri(true)
+				.setTransportConfigCallback(
+						t -> t.setBundleUriAllowFile(true))
+				.call()) {
+			Repository r = git.getRepository();
+			assertEquals(bundled,
+					r.exactRef("refs/bundles/heads/master").getObjectId());
+			assertEquals(tip,
+					r.exactRef("refs/remotes/origin/master").getObjectId());
+			assertEquals(3, uploadPack.getStatistics().getTotalObjects());
+		}
+	}
+
+	@Test
+	public void testParseOrdersByCreationToken() {
+		BundleList list = BundleList.parse(List.of("bundle.version=1",
+				"bundle.mode=all", "bundle.b.uri=file:///b.bundle",
+				"bundle.b.creationtoken=2", "bundle.a.uri=file:///a.bundle",
+				"bundle.a.creationToken=1", "bundle.heuristic=creationToken"));
+		assertFalse(list.isAny());
+		assertEquals(List.of("file:///a.bundle", "file:///b.bundle"),
+				list.getUris());
+	}
+
+	@Test
+	public void testParseAnyMode() {
+		BundleList list = BundleList.parse(List.of("bundle.version=1",
+				"bundle.mode=any", "bundle.x.uri=https://cdn/x.bundle",
+				"bundle.y.uri=https://mirror/x.bundle"));
+		assertTrue(list.isAny());
+		assertEquals(2, list.getUris().size());
+	}
+
+	@Test
+	public void testParseRejectsUnsupportedLists() {
+		assertNull(BundleList.parse(List.of("bundle.version=2",
+				"bundle.mode=all", "bundle.a.uri=file:///a.bundle")));
+		assertNull(BundleList.parse(List.of("bundle.version=1",
+				"bundle.mode=some", "bundle.a.uri=file:///a.bundle")));
+		assertNull(BundleList.parse(
+				List.of("bundle.version=1", "bundle.mode=all")));
+	}
+}
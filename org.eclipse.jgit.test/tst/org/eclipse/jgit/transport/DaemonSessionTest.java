@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DaemonSessionTest {
+	private Daemon daemon;
+
+	private ExecutorService executor;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		executor = Executors.newCachedThreadPool();
+		daemon = new Daemon();
+		daemon.setExecutor(executor);
+		daemon.setMaxSessions(1);
+		daemon.start();
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		daemon.stopAndWait();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testSessionsAboveLimitAreQueued() throws Exception {
+		try (Socket first = connect()) {
+			await(daemon::getActiveSessions, 1);
+			try (Socket second = connect()) {
+				await(daemon::getQueuedSessions, 1);
+				assertEquals(1, daemon.getActiveSessions());
+
+				first.close();
+				await(daemon::getQueuedSessions, 0);
+				assertEquals(1, daemon.getActiveSessions());
+				assertEquals(1, daemon.getCompletedSessions());
+				assertTrue(daemon.getTotalQueueTime()
+						.compareTo(Duration.ZERO) > 0);
+			}
+		}
+		await(daemon::getActiveSessions, 0);
+		assertEquals(2, daemon.getCompletedSessions());
+	}
+
+	@Test
+	public void testVirtualThreadExecutor() throws Exception {
+		ExecutorService virtual = Daemon.newVirtualThreadExecutor();
+		if (Runtime.version().feature() >= 21) {
+			assertTrue(virtual != null);
+		}
+		if (virtual == null) {
+			return;
+		}
+		try {
+			daemon.setExecutor(virtual);
+			try (Socket s = connect()) {
+				await(daemon::getActiveSessions, 1);
+			}
+			await(daemon::getActiveSessions, 0);
+		} finally {
+			virtual.shutdownNow();
+		}
+	}
+
+	private Socket connect() throws Exception {
+		return new Socket(daemon.getAddress().getAddress(),
+				daemon.getAddress().getPort());
+	}
+
+	private static void await(IntSupplier value, int expected)
+			throws InterruptedException {
+		for (int i = 0; i < 500 && value.getAsInt() != expected; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, value.getAsInt());
+	}
+}
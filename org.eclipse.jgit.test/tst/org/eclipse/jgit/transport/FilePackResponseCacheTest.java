@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.transport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevBlob;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.pack.PackStatistics;
+import org.eclipse.jgit.util.IO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FilePackResponseCacheTest {
+	@TempDir
+	File dir;
+
+	private FilePackResponseCache cache;
+
+	private TestProtocol<Object> testProtocol;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		cache = new FilePackResponseCache(dir, 100, 60);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (testProtocol != null) {
+			Transport.unregister(testProtocol);
+		}
+	}
+
+	private static ObjectId key(int i) {
+		return ObjectId.fromString(String.format("%040x", i));
+	}
+
+	private void put(ObjectId key, byte[] data) throws IOException {
+		try (PackResponseCache.Writer w = cache.newWriter(key)) {
+			w.write(data);
+			w.commit();
+		}
+	}
+
+	private byte[] get(ObjectId key) throws IOException {
+		try (InputStream in = cache.open(key)) {
+			return in == null ? null : IO.readWholeStream(in, 0).array();
+		}
+	}
+
+	@Test
+	public void testMissAndHit() throws Exception {
+		assertNull(get(key(1)));
+		put(key(1), new byte[] { 1, 2, 3 });
+		assertArrayEquals(new byte[] { 1, 2, 3 }, get(key(1)));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0.5, cache.getHitRatio(), 0.0001);
+	}
+
+	@Test
+	public void testAbortedEntryIsNotStored() throws Exception {
+		try (PackResponseCache.Writer w = cache.newWriter(key(1))) {
+			w.write(new byte[10]);
+			w.abort();
+			w.commit();
+		}
+		assertNull(get(key(1)));
+		assertEquals(0, cache.getSize());
+		assertEquals(0, dir.list().length);
+	}
+
+	@Test
+	public void testOversizedEntryIsNotStored() throws Exception {
+		put(key(1), new byte[61]);
+		assertNull(get(key(1)));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() throws Exception {
+		put(key(1), new byte[40]);
+		put(key(2), new byte[40]);
+		assertNotNull(get(key(1)));
+		put(key(3), new byte[40]);
+
+		assertNotNull(get(key(1)));
+		assertNull(get(key(2)));
+		assertNotNull(get(key(3)));
+		assertEquals(80, cache.getSize());
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void testEntriesSurviveRestart() throws Exception {
+		put(key(1), new byte[] { 42 });
+		cache = new FilePackResponseCache(dir, 100, 60);
+		assertArrayEquals(new byte[] { 42 }, get(key(1)));
+	}
+
+	@Test
+	public void testCommitFailureDoesNotFailUpload() throws Exception {
+		InMemoryRepository server = new InMemoryRepository(
+				new DfsRepositoryDescription("server"));
+		TestRepository<InMemoryRepository> remote = new TestRepository<>(
+				server);
+		RevCommit tip = remote.commit().add("foo", "foo").create();
+		remote.update("master", tip);
+
+		PackResponseCache failing = new PackResponseCache() {
+			@Override
+			public InputStream open(ObjectId key) {
+				return null;
+			}
+
+			@Override
+			public Writer newWriter(ObjectId key) {
+				return new Writer() {
+					@Override
+					public void write(int b) {
+						// Discarded
+					}
+
+					@Override
+					public void commit() throws IOException {
+						throw new IOException("disk full");
+					}
+
+					@Override
+					public void abort() {
+						// Nothing to discard
+					}
+				};
+			}
+		};
+		testProtocol = new TestProtocol<>((Object req, Repository db) -> {
+			UploadPack up = new UploadPack(db);
+			up.setPackResponseCache(failing);
+			return up;
+		}, null);
+		URIish uri = testProtocol.register(new Object(), server);
+
+		InMemoryRepository client = new InMemoryRepository(
+				new DfsRepositoryDescription("client"));
+		try (Transport tn = testProtocol.open(uri, client, "server")) {
+			tn.fetch(NullProgressMonitor.INSTANCE, Collections
+					.singletonList(new RefSpec("refs/heads/master")));
+		}
+		assertTrue(client.getObjectDatabase().has(tip));
+	}
+
+	@Test
+	public void testUploadPackReplaysCachedPack() throws Exception {
+		InMemoryRepository server = new InMemoryRepository(
+				new DfsRepositoryDescription("server"));
+		TestRepository<InMemoryRepository> remote = new TestRepository<>(
+				server);
+		RevBlob blob = remote.blob("foo");
+		RevCommit tip = remote.commit().add("foo", blob).create();
+		remote.update("master", tip);
+
+		cache = new FilePackResponseCache(dir, 1 << 20, 1 << 20);
+		PackStatistics[] stats = new PackStatistics[1];
+		testProtocol = new TestProtocol<>((Object req, Repository db) -> {
+			UploadPack up = new UploadPack(db);
+			up.setPackResponseCache(cache);
+			up.setPostUploadHook(s -> stats[0] = s);
+			return up;
+		}, null);
+		URIish uri = testProtocol.register(new Object(), server);
+
+		for (int i = 0; i < 2; i++) {
+			InMemoryRepository client = new InMemoryRepository(
+					new DfsRepositoryDescription("client" + i));
+			try (Transport tn = testProtocol.open(uri, client, "server")) {
+				tn.fetch(NullProgressMonitor.INSTANCE, Collections
+						.singletonList(new RefSpec("refs/heads/master")));
+			}
+			assertTrue(client.getObjectDatabase().has(tip));
+			assertTrue(client.getObjectDatabase().has(blob));
+			assertEquals(i, stats[0].getPackResponseCacheHits());
+			assertEquals(1 - i, stats[0].getPackResponseCacheMisses());
+		}
+		assertEquals(1, cache.getHitCount());
+	}
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.pack.PackWriter;
+import org.eclipse.jgit.junit.RepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.junit.TestRepository.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.RevBlob;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.junit.jupiter.api.Test;
+
+public class PackParserDeltaResolutionTest extends RepositoryTestCase {
+	private List<RevBlob> blobs;
+
+	private byte[] createPack() throws Exception {
+		FileRepository src = createBareRepository();
+		blobs = new ArrayList<>();
+		try (TestRepository<FileRepository> t = new TestRepository<>(src)) {
+			RevCommit tip = null;
+			for (int f = 0; f < 8; f++) {
+				StringBuilder content = new StringBuilder();
+				for (int line = 0; line < 200; line++) {
+					content.append("file ").append(f).append(" line ")
+							.append(line).append('\n');
+				}
+				CommitBuilder cb = t.commit();
+				if (tip != null) {
+					cb.parent(tip);
+				}
+				for (int rev = 0; rev < 10; rev++) {
+					content.append("revision ").append(rev).append('\n');
+					RevBlob b = t.blob(content.toString());
+					blobs.add(b);
+					cb.add("f" + f + "-" + rev, b);
+				}
+				tip = cb.create();
+			}
+
+			PackConfig pc = new PackConfig(src);
+			pc.setDeltaCompress(true);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (PackWriter pw = new PackWriter(pc, src.newObjectReader())) {
+				pw.preparePack(NullProgressMonitor.INSTANCE,
+						Collections.singleton(tip.copy()),
+						PackWriter.NONE);
+				pw.writePack(NullProgressMonitor.INSTANCE,
+						NullProgressMonitor.INSTANCE, out);
+				assertTrue(pw.getStatistics().getTotalDeltas() > 0);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	private PackParser parse(byte[] pack, int threads) throws IOException {
+		try (ObjectInserter ins = db.newObjectInserter()) {
+			PackParser p = ins.newPackParser(new ByteArrayInputStream(pack));
+			p.setDeltaResolutionThreads(threads);
+			p.parse(NullProgressMonitor.INSTANCE);
+			ins.flush();
+			return p;
+		}
+	}
+
+	private PackParser parseStreaming(byte[] pack, int threads,
+			long cacheLimit) throws IOException {
+		try (ObjectInserter ins = db.newObjectInserter()) {
+			// Deliver the pack in small pieces, like a slow network would.
+			InputStream in = new ByteArrayInputStream(pack) {
+				@Override
+				public synchronized int read(byte[] b, int off, int len) {
+					return super.read(b, off, Math.min(len, 512));
+				}
+			};
+			PackParser p = ins.newPackParser(in);
+			p.setDeltaResolutionThreads(threads);
+			p.setStreamingDeltaResolution(true);
+			p.setStreamingBaseCacheLimit(cacheLimit);
+			p.parse(NullProgressMonitor.INSTANCE);
+			ins.flush();
+			return p;
+		}
+	}
+
+	private List<PackedObjectInfo> parseSerial(byte[] pack)
+			throws Exception {
+		FileRepository other = createBareRepository();
+		try (ObjectInserter ins = other.newObjectInserter()) {
+			PackParser p = ins.newPackParser(new ByteArrayInputStream(pack));
+			p.parse(NullProgressMonitor.INSTANCE);
+			return p.getSortedObjectList(null);
+		}
+	}
+
+	private static void assertSameObjects(List<PackedObjectInfo> expected,
+			List<PackedObjectInfo> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			PackedObjectInfo s = expected.get(i);
+			PackedObjectInfo m = actual.get(i);
+			assertEquals(ObjectId.toString(s), ObjectId.toString(m));
+			assertEquals(s.getOffset(), m.getOffset());
+			assertEquals(s.getCRC(), m.getCRC());
+			assertEquals(s.getFullSize(), m.getFullSize());
+			assertEquals(s.getType(), m.getType());
+		}
+	}
+
+	@Test
+	public void testResolveDeltasOnMultipleThreads() throws Exception {
+		byte[] pack = createPack();
+		PackParser p = parse(pack, 4);
+		assertEquals(4, p.getDeltaResolutionThreads());
+
+		try (ObjectReader reader = db.newObjectReader()) {
+			for (RevBlob b : blobs) {
+				assertTrue(reader.has(b));
+				byte[] data = reader.open(b, Constants.OBJ_BLOB)
+						.getCachedBytes();
+				try (ObjectInserter.Formatter f = new ObjectInserter.Formatter()) {
+					assertEquals(b, f.idFor(Constants.OBJ_BLOB, data));
+				}
+			}
+		}
+		assertTrue(p.getReceivedPackStatistics()
+				.getNumDeltaBlob() > 0);
+	}
+
+	@Test
+	public void testParserWithoutConcurrentReadsResolvesSerially()
+			throws Exception {
+		byte[] pack = createPack();
+		InMemoryRepository dfs = new InMemoryRepository(
+				new DfsRepositoryDescription("test"));
+		try (ObjectInserter ins = dfs.newObjectInserter()) {
+			PackParser p = ins.newPackParser(new ByteArrayInputStream(pack));
+			// Ignored, DfsPackParser does not support positioned reads.
+			p.setDeltaResolutionThreads(4);
+			p.setStreamingDeltaResolution(true);
+			p.parse(NullProgressMonitor.INSTANCE);
+			ins.flush();
+			assertSameObjects(parseSerial(pack), p.getSortedObjectList(null));
+		}
+		try (ObjectReader reader = dfs.newObjectReader()) {
+			for (RevBlob b : blobs) {
+				assertTrue(reader.has(b));
+			}
+		}
+	}
+
+	@Test
+	public void testParallelMatchesSerial() throws Exception {
+		byte[] pack = createPack();
+		List<PackedObjectInfo> parallel = parse(pack, 0)
+				.getSortedObjectList(null);
+		assertSameObjects(parseSerial(pack), parallel);
+	}
+
+	@Test
+	public void testStreamingMatchesSerial() throws Exception {
+		byte[] pack = createPack();
+		PackParser p = parseStreaming(pack, 2, 32 << 20);
+		assertTrue(p.isStreamingDeltaResolution());
+		assertSameObjects(parseSerial(pack), p.getSortedObjectList(null));
+		assertTrue(p.getReceivedPackStatistics().getNumDeltaBlob() > 0);
+	}
+
+	@Test
+	public void testStreamingRecreatesEvictedBases() throws Exception {
+		byte[] pack = createPack();
+		PackParser p = parseStreaming(pack, 1, 0);
+		assertSameObjects(parseSerial(pack), p.getSortedObjectList(null));
+	}
+
+	@Test
+	public void testStreamingRefDeltaAfterResolvedBase() throws Exception {
+		byte[] data = Constants.encode("0123456789");
+		ObjectId a = idFor(data);
+		byte[] data1 = Constants.encode("0123456789b");
+		ObjectId b = idFor(data1);
+
+		InMemoryPack pack = new InMemoryPack();
+		pack.header(3);
+		pack.write((Constants.OBJ_BLOB) << 4 | 10); // offset 12
+		pack.deflate(data);
+		pack.write((Constants.OBJ_OFS_DELTA) << 4 | 6); // offset 31
+		pack.write(19);
+		pack.deflate(new byte[] { 0xA, 0xB, (byte) 0x90, 0xA, 0x1, 'b' });
+		pack.write((Constants.OBJ_REF_DELTA) << 4 | 6);
+		pack.copyRaw(b);
+		pack.deflate(new byte[] { 0xB, 0xC, (byte) 0x90, 0xB, 0x1, 'c' });
+		pack.digest();
+
+		PackParser p = parseStreaming(pack.toByteArray(), 2, 0);
+		assertEquals(3, p.getObjectCount());
+		try (ObjectReader reader = db.newObjectReader()) {
+			assertTrue(reader.has(a));
+			assertTrue(reader.has(b));
+			assertTrue(reader.has(idFor(Constants.encode("0123456789bc"))));
+		}
+	}
+
+	@Test
+	public void testStreamingDeltasReceivedWithTheirBase() throws Exception {
+		// Small fillers put the base and all its deltas into one buffer fill;
+		// larger ones store the buffer in the middle of the delta chain.
+		for (int filler = 100; filler < 8200; filler += 409) {
+			List<ObjectId> ids = new ArrayList<>();
+			byte[] pack = deltaChainPack(filler, 100, ids);
+			PackParser p = parseStreaming(pack, 4, 32 << 20);
+			assertEquals(102, p.getObjectCount());
+			try (ObjectReader reader = db.newObjectReader()) {
+				for (ObjectId id : ids) {
+					assertTrue(reader.has(id));
+				}
+			}
+		}
+	}
+
+	private static byte[] deltaChainPack(int fillerSize, int length,
+			List<ObjectId> ids) throws IOException {
+		byte[] filler = new byte[fillerSize];
+		new Random(fillerSize).nextBytes(filler);
+		InMemoryPack pack = new InMemoryPack(fillerSize + 4096);
+		pack.header(2 + length);
+		objectHeader(pack, Constants.OBJ_BLOB, filler.length);
+		pack.deflate(filler);
+
+		byte[] data = Constants.encode("0123456789");
+		ids.add(idFor(data));
+		int prev = pack.toByteArray().length;
+		objectHeader(pack, Constants.OBJ_BLOB, data.length);
+		pack.deflate(data);
+		for (int i = 0; i < length; i++) {
+			// Each delta appends one character to the previous object.
+			int pos = pack.toByteArray().length;
+			int n = data.length;
+			byte c = (byte) ('a' + i % 26);
+			pack.write((Constants.OBJ_OFS_DELTA) << 4 | 6);
+			pack.write(pos - prev);
+			pack.deflate(new byte[] { (byte) n, (byte) (n + 1), (byte) 0x90,
+					(byte) n, 0x1, c });
+			data = Arrays.copyOf(data, n + 1);
+			data[n] = c;
+			ids.add(idFor(data));
+			prev = pos;
+		}
+		pack.digest();
+		return pack.toByteArray();
+	}
+
+	private static void objectHeader(InMemoryPack pack, int type, int size)
+			throws IOException {
+		int c = (type << 4) | (size & 0xf);
+		size >>>= 4;
+		while (size != 0) {
+			pack.write(c | 0x80);
+			c = size & 0x7f;
+			size >>>= 7;
+		}
+		pack.write(c);
+	}
+
+	@Test
+	public void testStreamingThinPack() throws Exception {
+		byte[] data = Constants.encode("0123456789");
+		ObjectId a;
+		try (ObjectInserter ins = db.newObjectInserter()) {
+			a = ins.insert(Constants.OBJ_BLOB, data);
+			ins.flush();
+		}
+
+		InMemoryPack pack = new InMemoryPack();
+		pack.header(1);
+		pack.write((Constants.OBJ_REF_DELTA) << 4 | 6);
+		pack.copyRaw(a);
+		pack.deflate(new byte[] { 0xA, 0xB, (byte) 0x90, 0xA, 0x1, 'b' });
+		pack.digest();
+
+		try (ObjectInserter ins = db.newObjectInserter()) {
+			PackParser p = ins
+					.newPackParser(pack.toInputStream());
+			p.setAllowThin(true);
+			p.setStreamingDeltaResolution(true);
+			p.parse(NullProgressMonitor.INSTANCE);
+			ins.flush();
+		}
+		try (ObjectReader reader = db.newObjectReader()) {
+			assertTrue(reader.has(idFor(Constants.encode("0123456789b"))));
+		}
+	}
+
+	@Test
+	public void testStreamingCorruptPackIsRejected() throws Exception {
+		byte[] pack = createPack();
+		pack[pack.length / 2] ^= 0x55;
+		assertThrows(IOException.class,
+				() -> parseStreaming(pack, 2, 32 << 20));
+	}
+
+	private static ObjectId idFor(byte[] data) {
+		try (ObjectInserter.Formatter f = new ObjectInserter.Formatter()) {
+			return f.idFor(Constants.OBJ_BLOB, data);
+		}
+	}
+
+	@Test
+	public void testCorruptPackIsRejected() throws Exception {
+		byte[] pack = createPack();
+		pack[pack.length / 2] ^= 0x55;
+		assertThrows(IOException.class, () -> parse(pack, 4));
+	}
+}
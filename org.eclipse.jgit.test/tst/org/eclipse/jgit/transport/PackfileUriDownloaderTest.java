@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import org.eclipse.jgit.errors.PackProtocolException;
+import org.eclipse.jgit.junit.RepositoryTestCase;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.jupiter.api.Test;
+
+public class PackfileUriDownloaderTest extends RepositoryTestCase {
+	@Test
+	public void testFailureDoesNotWaitForQueuedDownloads() throws Exception {
+		try (Transport tn = Transport.open(db,
+				new URIish(db.getDirectory().toURI().toURL()));
+				PackfileUriDownloader downloader = new PackfileUriDownloader(
+						tn, 1, "test", List.of("file"))) {
+			// Far more downloads than threads, so most are still queued
+			// when the first failure is noticed.
+			for (int i = 0; i < 1000; i++) {
+				File missing = new File(trash, "missing-" + i + ".pack");
+				downloader.add(ObjectId.zeroId().name() + " file://"
+						+ missing.getAbsolutePath());
+			}
+			assertTimeoutPreemptively(Duration.ofSeconds(60),
+					() -> assertThrows(IOException.class, () -> downloader
+							.await(NullProgressMonitor.INSTANCE)));
+		}
+	}
+
+	@Test
+	public void testRejectsProtocolNotRequested() throws Exception {
+		File pack = new File(trash, "some.pack");
+		try (Transport tn = Transport.open(db,
+				new URIish(db.getDirectory().toURI().toURL()));
+				PackfileUriDownloader downloader = new PackfileUriDownloader(
+						tn, 1, "test", List.of("https"))) {
+			assertThrows(PackProtocolException.class,
+					() -> downloader.add(ObjectId.zeroId().name() + " file://"
+							+ pack.getAbsolutePath()));
+			assertThrows(PackProtocolException.class,
+					() -> downloader.add(ObjectId.zeroId().name()
+							+ " http://example.com/some.pack"));
+			assertThrows(PackProtocolException.class,
+					() -> downloader.add(ObjectId.zeroId().name() + " "
+							+ pack.getAbsolutePath()));
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.jgit.lib.Constants.OBJ_BLOB;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.dircache.DirCacheCheckout;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.internal.storage.file.Pack;
+import org.eclipse.jgit.internal.storage.pack.PackExt;
+import org.eclipse.jgit.junit.LocalDiskRepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevBlob;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PromisorRemoteTest extends LocalDiskRepositoryTestCase {
+	private FileRepository server;
+
+	private TestRepository<FileRepository> remote;
+
+	private RevBlob a;
+
+	private RevCommit tip;
+
+	@BeforeEach
+	public void setUpServer() throws Exception {
+		server = createBareRepository();
+		StoredConfig cfg = server.getConfig();
+		cfg.setBoolean("uploadpack", null, "allowfilter", true);
+		cfg.setBoolean("uploadpack", null, "allowanysha1inwant", true);
+		cfg.save();
+
+		remote = new TestRepository<>(server);
+		a = remote.blob("a");
+		tip = remote.commit().add("a", a).add("dir/b", "b").add("dir/c", "c")
+				.create();
+		remote.update("master", tip);
+	}
+
+	@Test
+	public void testOpenFetchesMissingBlob() throws Exception {
+		FileRepository clone = partialClone(true);
+		assertFalse(clone.getObjectDatabase().has(a));
+
+		try (ObjectReader reader = clone.newObjectReader()) {
+			assertTrue(reader.canFetchMissingObjects());
+			// Checking for an object doesn't fetch it.
+			assertFalse(reader.has(a, OBJ_BLOB));
+			assertEquals(1, clone.getObjectDatabase().getPacks().size());
+
+			assertEquals("a", new String(
+					reader.open(a, OBJ_BLOB).getCachedBytes(), UTF_8));
+		}
+		assertTrue(clone.getObjectDatabase().has(a));
+	}
+
+	@Test
+	public void testCheckoutFetchesMissingBlobsAtOnce() throws Exception {
+		FileRepository clone = partialClone(false);
+		assertEquals(1, clone.getObjectDatabase().getPacks().size());
+
+		DirCacheCheckout co = new DirCacheCheckout(clone,
+				clone.lockDirCache(), clone.parseCommit(tip).getTree());
+		co.checkout();
+
+		assertEquals("a", read(new File(clone.getWorkTree(), "a")));
+		assertEquals("c", read(new File(clone.getWorkTree(), "dir/c")));
+		Collection<Pack> packs = clone.getObjectDatabase().getPacks();
+		assertEquals(2, packs.size());
+		for (Pack p : packs) {
+			assertTrue(p.getPackFile().create(PackExt.PROMISOR).exists());
+		}
+	}
+
+	@Test
+	public void testLazyFetchDoesNotAutoGc() throws Exception {
+		FileRepository clone = partialClone(true);
+		StoredConfig cfg = clone.getConfig();
+		cfg.setBoolean(ConfigConstants.CONFIG_GC_SECTION, null,
+				ConfigConstants.CONFIG_KEY_AUTODETACH, false);
+		cfg.setInt(ConfigConstants.CONFIG_GC_SECTION, null,
+				ConfigConstants.CONFIG_KEY_AUTOPACKLIMIT, 1);
+		cfg.save();
+
+		try (ObjectReader reader = clone.newObjectReader()) {
+			assertEquals("a", new String(
+					reader.open(a, OBJ_BLOB).getCachedBytes(), UTF_8));
+		}
+		assertEquals(2, clone.getObjectDatabase().getPacks().size());
+	}
+
+	@Test
+	public void testFilteredCloneRecordsPromisorRemote() throws Exception {
+		File directory = createTempDirectory("testFilteredClone");
+		try (Git git = Git.cloneRepository().setDirectory(directory)
+				.setURI(server.getDirectory().toURI().toString())
+				.setTransportConfigCallback(tn -> tn.setFilterSpec(
+						FilterSpec.fromFilterLine("blob:none")))
+				.call()) {
+			StoredConfig cfg = git.getRepository().getConfig();
+			assertEquals(1, cfg.getLong(ConfigConstants.CONFIG_CORE_SECTION,
+					null, ConfigConstants.CONFIG_KEY_REPO_FORMAT_VERSION, 0));
+			assertEquals("origin",
+					cfg.getString(ConfigConstants.CONFIG_EXTENSIONS_SECTION,
+							null, ConfigConstants.CONFIG_KEY_PARTIAL_CLONE));
+			// The checkout fetched the blobs left out by the filter.
+			assertEquals("a", read(new File(directory, "a")));
+			assertEquals("c", read(new File(directory, "dir/c")));
+		}
+	}
+
+	@Test
+	public void testReaderWithoutFetching() throws Exception {
+		FileRepository clone = partialClone(true);
+		try (ObjectReader reader = clone.newObjectReader()) {
+			reader.setFetchMissingObjects(false);
+			assertFalse(reader.canFetchMissingObjects());
+			assertThrows(MissingObjectException.class,
+					() -> reader.open(a, OBJ_BLOB));
+			assertThrows(MissingObjectException.class,
+					() -> reader.getObjectSize(a, OBJ_BLOB));
+		}
+		assertFalse(clone.getObjectDatabase().has(a));
+	}
+
+	@Test
+	public void testRepackDoesNotFetchMissingObjects() throws Exception {
+		FileRepository clone = partialClone(true);
+		GC gc = new GC(clone);
+		assertThrows(MissingObjectException.class, gc::repack);
+		assertFalse(clone.getObjectDatabase().has(a));
+	}
+
+	@Test
+	public void testNoPromisorRemote() throws Exception {
+		FileRepository repo = createBareRepository();
+		try (ObjectReader reader = repo.newObjectReader()) {
+			assertFalse(reader.canFetchMissingObjects());
+			assertFalse(reader.has(a, OBJ_BLOB));
+		}
+	}
+
+	private FileRepository partialClone(boolean bare) throws Exception {
+		FileRepository repo = bare ? createBareRepository()
+				: createWorkRepository();
+		StoredConfig cfg = repo.getConfig();
+		cfg.setLong(ConfigConstants.CONFIG_CORE_SECTION, null,
+				ConfigConstants.CONFIG_KEY_REPO_FORMAT_VERSION, 1);
+		cfg.setString(ConfigConstants.CONFIG_EXTENSIONS_SECTION, null,
+				ConfigConstants.CONFIG_KEY_PARTIAL_CLONE, "origin");
+		RemoteConfig rc = new RemoteConfig(cfg, "origin");
+		rc.addURI(new URIish(server.getDirectory().toURI().toURL()));
+		rc.update(cfg);
+		cfg.save();
+
+		// Reopen, the promisor remote is configured when opening.
+		FileRepository clone = new FileRepository(repo.getDirectory());
+		addRepoToClose(clone);
+		try (Transport tn = Transport.open(clone, "origin")) {
+			tn.setFilterSpec(FilterSpec.fromFilterLine("blob:none"));
+			tn.fetch(NullProgressMonitor.INSTANCE, List.of(new RefSpec(
+					"refs/heads/master:refs/remotes/origin/master")));
+		}
+		return clone;
+	}
+}
@@ -239,6 +239,22 @@ public void testFetchWithTreeDepthFilter() throws IOException {
 		assertEquals(3, request.getFilterSpec().getTreeDepthLimit());
 	}
 
+	@Test
+	public void testFetchWithSparseOidFilter() throws IOException {
+		PacketLineIn pckIn = formatAsPacketLine(PacketLineIn.delimiter(),
+				"filter sparse:oid=master:.sparse",
+				PacketLineIn.end());
+		ProtocolV2Parser parser = new ProtocolV2Parser(
+				ConfigBuilder.start().allowFilter().done());
+		FetchV2Request request = parser.parseFetchRequest(pckIn);
+		assertTrue(request.getFilterSpec().allowsType(OBJ_BLOB));
+		assertEquals(-1, request.getFilterSpec().getBlobLimit());
+		assertEquals(-1, request.getFilterSpec().getTreeDepthLimit());
+		assertEquals("master:.sparse", request.getFilterSpec().getSparseOid());
+		assertEquals("filter sparse:oid=master:.sparse",
+				request.getFilterSpec().filterLine());
+	}
+
 	@Test
 	public void testFetchMustNotHaveMultipleFilters() throws IOException {
 		PacketLineIn pckIn = formatAsPacketLine(PacketLineIn.delimiter(),
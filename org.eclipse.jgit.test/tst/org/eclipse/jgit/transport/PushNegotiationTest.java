@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.ObjectWalk;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PushNegotiationTest {
+	private static final RefFilter HIDE = refs -> refs.entrySet().stream()
+			.filter(e -> !e.getKey().startsWith("refs/hidden/"))
+			.collect(Collectors.toMap(Map.Entry::getKey,
+					Map.Entry::getValue));
+
+	private TestProtocol<Object> proto;
+
+	private TestRepository<InMemoryRepository> local;
+
+	private TestRepository<InMemoryRepository> remote;
+
+	private URIish uri;
+
+	private long packSize;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		local = new TestRepository<>(
+				new InMemoryRepository(new DfsRepositoryDescription("local")));
+		remote = new TestRepository<>(
+				new InMemoryRepository(new DfsRepositoryDescription("remote")));
+		remote.getRepository().getConfig().setBoolean("uploadpack", null,
+				"advertisewaitfordone", true);
+		local.getRepository().getConfig().setString("protocol", null,
+				"version", "2");
+
+		proto = new TestProtocol<>((Object req, Repository db) -> {
+			UploadPack up = new UploadPack(db);
+			up.setRefFilter(HIDE);
+			return up;
+		}, (Object req, Repository db) -> {
+			ReceivePack rp = new ReceivePack(db);
+			rp.setRefFilter(HIDE);
+			rp.setPostReceiveHook((r, cmds) -> packSize = r.getPackSize());
+			return rp;
+		});
+		Transport.register(proto);
+		uri = proto.register(new Object(), remote.getRepository());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Transport.unregister(proto);
+	}
+
+	private RevCommit createHiddenHistory() throws Exception {
+		// History the remote has only under a ref it doesn't advertise,
+		// e.g. a change under review.
+		TestRepository<InMemoryRepository>.BranchBuilder b = remote
+				.branch("refs/hidden/change");
+		RevCommit tip = null;
+		for (int i = 0; i < 20; i++) {
+			TestRepository<InMemoryRepository>.CommitBuilder cb = b.commit();
+			for (int f = 0; f < 10; f++) {
+				cb.add("f" + f, "content " + i + " of file " + f);
+			}
+			tip = cb.create();
+		}
+		copy(remote.getRepository(), local.getRepository(), tip);
+		return tip;
+	}
+
+	private static void copy(Repository src, Repository dst, RevCommit tip)
+			throws Exception {
+		try (ObjectReader reader = src.newObjectReader();
+				ObjectWalk ow = new ObjectWalk(reader);
+				ObjectInserter ins = dst.newObjectInserter()) {
+			ow.markStart(ow.parseCommit(tip));
+			RevObject o;
+			while ((o = ow.next()) != null) {
+				ins.insert(o.getType(), reader.open(o).getCachedBytes());
+			}
+			while ((o = ow.nextObject()) != null) {
+				ins.insert(o.getType(), reader.open(o).getCachedBytes());
+			}
+			ins.flush();
+		}
+	}
+
+	private RemoteRefUpdate push(RevCommit tip, boolean negotiate)
+			throws Exception {
+		try (Transport tn = Transport.open(local.getRepository(), uri)) {
+			tn.setPushNegotiate(negotiate);
+			RemoteRefUpdate u = new RemoteRefUpdate(local.getRepository(),
+					tip.name(), "refs/heads/topic", true, null, null);
+			PushResult r = tn.push(NullProgressMonitor.INSTANCE,
+					Collections.singleton(u));
+			return r.getRemoteUpdate("refs/heads/topic");
+		}
+	}
+
+	@Test
+	public void testNegotiationShrinksPack() throws Exception {
+		RevCommit hidden = createHiddenHistory();
+		RevCommit tip = local.commit().parent(hidden).add("new", "new")
+				.create();
+
+		assertEquals(RemoteRefUpdate.Status.OK, push(tip, false).getStatus());
+		long withoutNegotiation = packSize;
+
+		remote.delete("refs/heads/topic");
+		RevCommit tip2 = local.commit().parent(hidden).add("new", "other")
+				.create();
+		assertEquals(RemoteRefUpdate.Status.OK, push(tip2, true).getStatus());
+		assertTrue(packSize * 10 < withoutNegotiation,
+				packSize + " " + withoutNegotiation);
+		Ref ref = remote.getRepository().exactRef("refs/heads/topic");
+		assertEquals(tip2, ref.getObjectId());
+	}
+
+	@Test
+	public void testPushWithoutWaitForDone() throws Exception {
+		remote.getRepository().getConfig().setBoolean("uploadpack", null,
+				"advertisewaitfordone", false);
+		RevCommit hidden = createHiddenHistory();
+		RevCommit tip = local.commit().parent(hidden).add("new", "new")
+				.create();
+		assertEquals(RemoteRefUpdate.Status.OK, push(tip, true).getStatus());
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.junit.RepositoryTestCase;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevTag;
+import org.junit.jupiter.api.Test;
+
+public class RefAdvertisementCacheTest extends RepositoryTestCase {
+	private static <R extends Repository> TestRepository<R> populate(
+			TestRepository<R> repo) throws Exception {
+		RevCommit a = repo.commit().message("a").create();
+		RevCommit b = repo.commit().parent(a).message("b").create();
+		repo.update("refs/heads/master", b);
+		repo.update("refs/heads/other", a);
+		repo.update("refs/changes/01/1/1", a);
+		RevTag tag = repo.tag("v1", a);
+		repo.update("refs/tags/v1", tag);
+		repo.getRepository().updateRef("HEAD").link("refs/heads/master");
+		return repo;
+	}
+
+	@Test
+	public void testInvalidatedOnUpdateInMemory() throws Exception {
+		try (TestRepository<InMemoryRepository> repo = populate(
+				new TestRepository<>(new InMemoryRepository(
+						new DfsRepositoryDescription("repo"))));
+				RefAdvertisementCache cache = new RefAdvertisementCache(
+						repo.getRepository())) {
+			assertInvalidatedOnUpdate(repo, cache);
+		}
+	}
+
+	@Test
+	public void testKeptOnRefreshWithoutChanges() throws Exception {
+		try (TestRepository<InMemoryRepository> repo = populate(
+				new TestRepository<>(new InMemoryRepository(
+						new DfsRepositoryDescription("repo"))));
+				RefAdvertisementCache cache = new RefAdvertisementCache(
+						repo.getRepository())) {
+			Map<String, Ref> refs = cache.getRefs();
+			repo.getRepository().scanForRepoChanges();
+			assertSame(refs, cache.getRefs());
+
+			repo.update("refs/heads/other", repo.commit().create());
+			repo.getRepository().scanForRepoChanges();
+			assertNotSame(refs, cache.getRefs());
+		}
+	}
+
+	@Test
+	public void testInvalidatedOnUpdateInFileRepository() throws Exception {
+		FileRepository r = createBareRepository();
+		try (TestRepository<FileRepository> repo = populate(
+				new TestRepository<>(r));
+				RefAdvertisementCache cache = new RefAdvertisementCache(r)) {
+			assertInvalidatedOnUpdate(repo, cache);
+		}
+	}
+
+	private static void assertInvalidatedOnUpdate(
+			TestRepository<? extends Repository> repo,
+			RefAdvertisementCache cache) throws Exception {
+		Map<String, Ref> refs = cache.getRefs();
+		assertEquals(repo.getRepository().getRefDatabase().getRefs().size(),
+				refs.size());
+		assertSame(refs, cache.getRefs());
+
+		RevCommit c = repo.commit().message("c").create();
+		repo.update("refs/heads/new", c);
+		Map<String, Ref> updated = cache.getRefs();
+		assertEquals(c, updated.get("refs/heads/new").getObjectId());
+		assertNull(refs.get("refs/heads/new"));
+
+		cache.invalidate();
+		Map<String, Ref> reread = cache.getRefs();
+		assertNotSame(updated, reread);
+		assertEquals(updated.keySet(), reread.keySet());
+	}
+
+	@Test
+	public void testGetRefsByPrefix() throws Exception {
+		try (TestRepository<InMemoryRepository> repo = populate(
+				new TestRepository<>(new InMemoryRepository(
+						new DfsRepositoryDescription("repo"))));
+				RefAdvertisementCache cache = new RefAdvertisementCache(
+						repo.getRepository())) {
+			assertEquals(List.of("refs/heads/master", "refs/heads/other"),
+					names(cache.getRefsByPrefix(
+							List.of("refs/heads/", "refs/heads/o"))));
+			assertEquals(
+					List.of("refs/changes/01/1/1", "refs/tags/v1"),
+					names(cache.getRefsByPrefix(
+							List.of("refs/tags/", "refs/changes/"))));
+			assertEquals(4, cache.getRefsByPrefix(List.of("refs/"))
+					.size());
+			assertEquals(cache.getRefs().size(),
+					cache.getRefsByPrefix(List.of("")).size());
+			assertEquals(0, cache.getRefsByPrefix(List.of("refs/notes/"))
+					.size());
+		}
+	}
+
+	private static List<String> names(List<Ref> refs) {
+		return refs.stream().map(Ref::getName).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testLsRefsMatchesUncached() throws Exception {
+		try (TestRepository<InMemoryRepository> repo = populate(
+				new TestRepository<>(new InMemoryRepository(
+						new DfsRepositoryDescription("repo"))));
+				RefAdvertisementCache cache = new RefAdvertisementCache(
+						repo.getRepository())) {
+			Repository r = repo.getRepository();
+			String[][] requests = {
+					{ "command=ls-refs\n", PacketLineIn.end() },
+					{ "command=ls-refs\n", PacketLineIn.delimiter(),
+							"peel\n", "symrefs\n", PacketLineIn.end() },
+					{ "command=ls-refs\n", PacketLineIn.delimiter(),
+							"symrefs\n", "ref-prefix HEAD\n",
+							"ref-prefix refs/tags/\n", PacketLineIn.end() },
+					{ "command=ls-refs\n", PacketLineIn.delimiter(),
+							"peel\n", "ref-prefix refs/heads/\n",
+							"ref-prefix refs/heads/m\n",
+							PacketLineIn.end() } };
+			for (String[] request : requests) {
+				byte[] expected = lsRefs(r, null, request);
+				assertArrayEquals(expected, lsRefs(r, cache, request));
+				// Second use is served from the formatted lines.
+				assertArrayEquals(expected, lsRefs(r, cache, request));
+			}
+		}
+	}
+
+	@Test
+	public void testRejectsCacheOfOtherRepository() throws Exception {
+		try (InMemoryRepository other = new InMemoryRepository(
+				new DfsRepositoryDescription("other"));
+				RefAdvertisementCache cache = new RefAdvertisementCache(
+						other)) {
+			assertThrows(IllegalArgumentException.class,
+					() -> new UploadPack(db).setRefAdvertisementCache(cache));
+			assertThrows(IllegalArgumentException.class,
+					() -> new ReceivePack(db).setRefAdvertisementCache(cache));
+		}
+	}
+
+	private static byte[] lsRefs(Repository r, RefAdvertisementCache cache,
+			String... lines) throws IOException {
+		ByteArrayOutputStream send = new ByteArrayOutputStream();
+		PacketLineOut pckOut = new PacketLineOut(send);
+		for (String line : lines) {
+			if (PacketLineIn.isEnd(line)) {
+				pckOut.end();
+			} else if (PacketLineIn.isDelimiter(line)) {
+				pckOut.writeDelim();
+			} else {
+				pckOut.writeString(line);
+			}
+		}
+		UploadPack up = new UploadPack(r);
+		up.setRefAdvertisementCache(cache);
+		up.setExtraParameters(Collections.singleton("version=2"));
+		ByteArrayOutputStream recv = new ByteArrayOutputStream();
+		up.upload(new ByteArrayInputStream(send.toByteArray()), recv, null);
+		return recv.toByteArray();
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Config;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevFlag;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.BasePackFetchConnection.FetchConfig;
+import org.eclipse.jgit.transport.BasePackFetchConnection.NegotiationAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SkippingNegotiatorTest {
+	private static final RefSpec MASTER = new RefSpec(
+			"+refs/heads/master:refs/heads/master");
+
+	private final AtomicLong haves = new AtomicLong();
+
+	private TestProtocol<Object> proto;
+
+	private TestRepository<InMemoryRepository> local;
+
+	private TestRepository<InMemoryRepository> remote;
+
+	private URIish uri;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		proto = new TestProtocol<>((Object req, Repository db) -> {
+			UploadPack up = new UploadPack(db);
+			up.setPostUploadHook(stats -> haves.set(stats.getHaves()));
+			return up;
+		}, null);
+		Transport.register(proto);
+		createRepositories();
+	}
+
+	private void createRepositories() throws Exception {
+		local = new TestRepository<>(
+				new InMemoryRepository(new DfsRepositoryDescription("local")));
+		remote = new TestRepository<>(
+				new InMemoryRepository(new DfsRepositoryDescription("remote")));
+		uri = proto.register(new Object(), remote.getRepository());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		TestProtocol.setFetchConfig(null);
+		Transport.unregister(proto);
+	}
+
+	private long fetchAfterDivergence(NegotiationAlgorithm algorithm,
+			String protocolVersion) throws Exception {
+		// A shared history, then a long local topic branch the remote has
+		// never seen.
+		RevCommit base = null;
+		for (int i = 0; i < 50; i++) {
+			base = remote.branch("master").commit().message("base " + i)
+					.create();
+		}
+		fetch(algorithm, protocolVersion);
+		for (int i = 0; i < 600; i++) {
+			local.branch("topic").commit().message("topic " + i).create();
+		}
+		RevCommit tip = remote.branch("master").commit().parent(base)
+				.message("new").create();
+
+		haves.set(0);
+		fetch(algorithm, protocolVersion);
+		assertEquals(tip, local.getRepository().exactRef("refs/heads/master")
+				.getObjectId());
+		return haves.get();
+	}
+
+	private void fetch(NegotiationAlgorithm algorithm, String protocolVersion)
+			throws Exception {
+		local.getRepository().getConfig().setString("protocol", null,
+				"version", protocolVersion);
+		TestProtocol.setFetchConfig(new FetchConfig(true, Integer.MAX_VALUE,
+				false, algorithm, true));
+		try (Git git = new Git(local.getRepository())) {
+			git.fetch().setRemote(uri.toString()).setRefSpecs(MASTER).call();
+		}
+	}
+
+	@Test
+	public void testSkippingSendsFewerHaves() throws Exception {
+		long consecutive = fetchAfterDivergence(
+				NegotiationAlgorithm.CONSECUTIVE, "2");
+		createRepositories();
+		long skipping = fetchAfterDivergence(NegotiationAlgorithm.SKIPPING,
+				"2");
+		assertTrue(skipping * 4 < consecutive,
+				"skipping " + skipping + ", consecutive " + consecutive);
+	}
+
+	@Test
+	public void testSkippingProtocolV0() throws Exception {
+		long skipping = fetchAfterDivergence(NegotiationAlgorithm.SKIPPING,
+				"0");
+		assertTrue(skipping < 600, "skipping " + skipping);
+	}
+
+	@Test
+	public void testSkippingWithoutCommonHistory() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			local.branch("topic").commit().message("topic " + i).create();
+		}
+		ObjectId tip = remote.branch("master").commit().create();
+		fetch(NegotiationAlgorithm.SKIPPING, "2");
+		assertEquals(tip, local.getRepository().exactRef("refs/heads/master")
+				.getObjectId());
+	}
+
+	@Test
+	public void testDisposeReleasesFlag() throws Exception {
+		RevCommit tip = local.branch("topic").commit().create();
+		try (RevWalk rw = new RevWalk(local.getRepository())) {
+			RevFlag common = rw.newFlag("COMMON");
+			RevFlag advertised = rw.newFlag("ADVERTISED");
+			// More negotiations than the walk has flags.
+			for (int i = 0; i < 64; i++) {
+				SkippingNegotiator n = new SkippingNegotiator(rw, common,
+						advertised, null);
+				n.markStart(List.of(rw.parseCommit(tip)));
+				assertEquals(tip, n.next());
+				n.dispose();
+				rw.resetRetain(common, advertised);
+			}
+		}
+	}
+
+	@Test
+	public void testSkippedRootIsSent() throws Exception {
+		RevCommit root = local.branch("topic").commit().create();
+		RevCommit c1 = local.branch("topic").commit().create();
+		local.branch("topic").commit().create();
+		RevCommit tip = local.branch("topic").commit().create();
+		try (RevWalk rw = new RevWalk(local.getRepository())) {
+			SkippingNegotiator n = new SkippingNegotiator(rw,
+					rw.newFlag("COMMON"), rw.newFlag("ADVERTISED"), null);
+			n.markStart(List.of(rw.parseCommit(tip)));
+			List<RevCommit> sent = new ArrayList<>();
+			RevCommit c;
+			while ((c = n.next()) != null) {
+				sent.add(c);
+			}
+			assertEquals(List.of(tip, c1, root), sent);
+		}
+	}
+
+	@Test
+	public void testNoopSendsNoHaves() throws Exception {
+		long noop = fetchAfterDivergence(NegotiationAlgorithm.NOOP, "2");
+		assertEquals(0, noop);
+	}
+
+	@Test
+	public void testParseNegotiationAlgorithm() {
+		Config c = new Config();
+		c.setString("fetch", null, "negotiationAlgorithm", "noop");
+		assertEquals(NegotiationAlgorithm.NOOP,
+				new FetchConfig(c).negotiationAlgorithm);
+		c.setString("fetch", null, "negotiationAlgorithm", "skipping");
+		assertEquals(NegotiationAlgorithm.SKIPPING,
+				new FetchConfig(c).negotiationAlgorithm);
+		c.setString("fetch", null, "negotiationAlgorithm", "unknown");
+		assertEquals(NegotiationAlgorithm.CONSECUTIVE,
+				new FetchConfig(c).negotiationAlgorithm);
+	}
+}
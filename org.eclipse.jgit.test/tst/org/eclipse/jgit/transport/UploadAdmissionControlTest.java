@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.junit.TestRepository;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class UploadAdmissionControlTest {
+	private Repository big;
+
+	private Repository small;
+
+	private ExecutorService executor;
+
+	@BeforeEach
+	public void setUp() {
+		big = new InMemoryRepository(new DfsRepositoryDescription("big"));
+		small = new InMemoryRepository(new DfsRepositoryDescription("small"));
+		executor = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testRepositoryLimitDoesNotBlockOtherRepositories()
+			throws Exception {
+		UploadAdmissionControl ac = new UploadAdmissionControl(0, 1,
+				Duration.ofMillis(50));
+		try (UploadAdmissionControl.Ticket t = ac.admit(big, true)) {
+			ServiceMayNotContinueException e = assertThrows(
+					ServiceMayNotContinueException.class,
+					() -> ac.admit(big, true));
+			assertEquals(503, e.getStatusCode());
+			assertEquals(1, ac.getRejectedCount());
+
+			try (UploadAdmissionControl.Ticket s = ac.admit(small, true)) {
+				assertEquals(2, ac.getActive());
+				assertEquals(1, ac.getActive(big));
+				assertEquals(1, ac.getActive(small));
+			}
+		}
+		assertEquals(0, ac.getActive());
+		assertEquals(0, ac.getQueued());
+		assertEquals(2, ac.getAdmittedCount());
+	}
+
+	@Test
+	public void testFetchOvertakesQueuedClone() throws Exception {
+		UploadAdmissionControl ac = new UploadAdmissionControl(1, 0,
+				Duration.ofSeconds(30));
+		List<String> order = new CopyOnWriteArrayList<>();
+		Future<?> clone;
+		Future<?> fetch;
+		try (UploadAdmissionControl.Ticket t = ac.admit(big, false)) {
+			clone = executor.submit(() -> {
+				try (UploadAdmissionControl.Ticket c = ac.admit(big, true)) {
+					order.add("clone");
+				}
+				return null;
+			});
+			await(ac::getQueued, 1);
+			fetch = executor.submit(() -> {
+				try (UploadAdmissionControl.Ticket f = ac.admit(small,
+						false)) {
+					order.add("fetch");
+				}
+				return null;
+			});
+			await(ac::getQueued, 2);
+			assertEquals(1, ac.getQueued(big));
+			assertEquals(1, ac.getQueued(small));
+		}
+		clone.get();
+		fetch.get();
+		assertEquals(List.of("fetch", "clone"), order);
+		assertTrue(ac.getTotalQueueTime().compareTo(Duration.ZERO) > 0);
+	}
+
+	@Test
+	public void testClonesServedInOrderWithoutPenalty() throws Exception {
+		UploadAdmissionControl ac = new UploadAdmissionControl(1, 0,
+				Duration.ofSeconds(30));
+		ac.setClonePenalty(Duration.ZERO);
+		List<String> order = new CopyOnWriteArrayList<>();
+		Future<?> clone;
+		Future<?> fetch;
+		try (UploadAdmissionControl.Ticket t = ac.admit(big, false)) {
+			clone = executor.submit(() -> {
+				try (UploadAdmissionControl.Ticket c = ac.admit(big, true)) {
+					order.add("clone");
+				}
+				return null;
+			});
+			await(ac::getQueued, 1);
+			fetch = executor.submit(() -> {
+				try (UploadAdmissionControl.Ticket f = ac.admit(big, false)) {
+					order.add("fetch");
+				}
+				return null;
+			});
+			await(ac::getQueued, 2);
+		}
+		clone.get();
+		fetch.get();
+		assertEquals(List.of("clone", "fetch"), order);
+	}
+
+	@Test
+	public void testNotAdmittedBeforeResponseIsFlushed() throws Exception {
+		try (TestRepository<Repository> repo = new TestRepository<>(big)) {
+			RevCommit tip = repo.branch("master").commit().create();
+			ByteArrayOutputStream request = new ByteArrayOutputStream();
+			PacketLineOut pckOut = new PacketLineOut(request);
+			pckOut.writeString("want " + tip.name() + " "
+					+ GitProtocolConstants.OPTION_SIDE_BAND_64K + "\n");
+			pckOut.end();
+			pckOut.writeString("done\n");
+
+			AtomicInteger flushes = new AtomicInteger();
+			FilterOutputStream response = new FilterOutputStream(
+					new ByteArrayOutputStream()) {
+				@Override
+				public void flush() {
+					flushes.incrementAndGet();
+				}
+			};
+			UploadAdmissionControl ac = new UploadAdmissionControl(1, 0,
+					Duration.ofMillis(10));
+			try (UploadAdmissionControl.Ticket t = ac.admit(small, false);
+					UploadPack up = new UploadPack(big)) {
+				up.setBiDirectionalPipe(false);
+				up.setAdmissionControl(ac);
+				ServiceMayNotContinueException e = assertThrows(
+						ServiceMayNotContinueException.class,
+						() -> up.uploadWithExceptionPropagation(
+								new ByteArrayInputStream(
+										request.toByteArray()),
+								response, null));
+				assertEquals(503, e.getStatusCode());
+			}
+			// Still uncommitted, a servlet can send the status instead.
+			assertEquals(0, flushes.get());
+		}
+	}
+
+	private static void await(IntSupplier value, int expected)
+			throws InterruptedException {
+		for (int i = 0; i < 500 && value.getAsInt() != expected; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, value.getAsInt());
+	}
+}
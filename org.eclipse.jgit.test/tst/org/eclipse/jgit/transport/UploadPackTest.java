@@ -1815,6 +1815,11 @@ void addElements(DirCacheBuilder dcBuilder) throws Exception {
 
 	private void uploadV2WithTreeDepthFilter(
 			long depth, ObjectId... wants) throws Exception {
+		uploadV2WithFilter("tree:" + depth, wants);
+	}
+
+	private void uploadV2WithFilter(String filter, ObjectId... wants)
+			throws Exception {
 		server.getConfig().setBoolean("uploadpack", null, "allowfilter", true);
 
 		List<String> input = new ArrayList<>();
@@ -1823,7 +1828,7 @@ private void uploadV2WithTreeDepthFilter(
 		for (ObjectId want : wants) {
 			input.add("want " + want.getName() + "\n");
 		}
-		input.add("filter tree:" + depth + "\n");
+		input.add("filter " + filter + "\n");
 		input.add("done\n");
 		input.add(PacketLineIn.end());
 		ByteArrayInputStream recvStream =
@@ -2096,6 +2101,100 @@ public void testWantFilteredObject() throws Exception {
 				.has(preparator.subtree3.toObjectId()));
 	}
 
+	@Test
+	public void testV2FetchFilterTreeDepth0_serverHasBitmap() throws Exception {
+		DeepTreePreparator preparator = new DeepTreePreparator();
+		remote.update("master", preparator.commit);
+		generateBitmaps(server);
+
+		uploadV2WithFilter("tree:0", preparator.commit.toObjectId(),
+				preparator.rootTree.toObjectId());
+
+		assertTrue(client.getObjectDatabase()
+				.has(preparator.commit.toObjectId()));
+		// Asked for by name.
+		assertTrue(client.getObjectDatabase()
+				.has(preparator.rootTree.toObjectId()));
+		assertFalse(client.getObjectDatabase()
+				.has(preparator.subtree.toObjectId()));
+		assertFalse(client.getObjectDatabase()
+				.has(preparator.blobLowDepth.toObjectId()));
+		assertFalse(client.getObjectDatabase()
+				.has(preparator.blobHighDepth.toObjectId()));
+		assertEquals(0, stats.getTreesTraversed());
+		assertEquals(0, stats.getBitmapIndexMisses());
+	}
+
+	@Test
+	public void testV2FetchFilterBlobNone_serverHasBitmap() throws Exception {
+		DeepTreePreparator preparator = new DeepTreePreparator();
+		remote.update("master", preparator.commit);
+		generateBitmaps(server);
+
+		uploadV2WithFilter("blob:none", preparator.commit.toObjectId());
+
+		assertTrue(client.getObjectDatabase()
+				.has(preparator.rootTree.toObjectId()));
+		assertTrue(client.getObjectDatabase()
+				.has(preparator.subtree.toObjectId()));
+		assertFalse(client.getObjectDatabase()
+				.has(preparator.blobLowDepth.toObjectId()));
+		assertFalse(client.getObjectDatabase()
+				.has(preparator.blobHighDepth.toObjectId()));
+		assertEquals(0, stats.getBitmapIndexMisses());
+	}
+
+	@Test
+	public void testV2FetchFilterSparseOid() throws Exception {
+		DeepTreePreparator preparator = new DeepTreePreparator();
+		remote.update("master", preparator.commit);
+		RevBlob patterns = remote.blob("/2/\n");
+
+		uploadV2WithFilter("sparse:oid=" + patterns.name(),
+				preparator.commit.toObjectId());
+
+		assertTrue(client.getObjectDatabase()
+				.has(preparator.rootTree.toObjectId()));
+		assertTrue(client.getObjectDatabase()
+				.has(preparator.subtree.toObjectId()));
+		assertFalse(client.getObjectDatabase()
+				.has(preparator.blobLowDepth.toObjectId()));
+		assertTrue(client.getObjectDatabase()
+				.has(preparator.blobHighDepth.toObjectId()));
+	}
+
+	@Test
+	public void testV2FetchFilterSparseOidExpression() throws Exception {
+		RevBlob shared = remote.blob("shared");
+		RevBlob other = remote.blob("other");
+		RevCommit commit = remote.commit(remote.tree(
+				remote.file("a/shared", shared),
+				remote.file("b/other", other),
+				remote.file("b/shared", shared)));
+		remote.update("master", commit);
+		remote.update("sparse", remote.blob("b/*\n!b/other\n"));
+
+		uploadV2WithFilter("sparse:oid=refs/heads/sparse",
+				commit.toObjectId());
+
+		// Outside the patterns at "a/shared", but matched at "b/shared".
+		assertTrue(client.getObjectDatabase().has(shared.toObjectId()));
+		assertFalse(client.getObjectDatabase().has(other.toObjectId()));
+	}
+
+	@Test
+	public void testV2FetchFilterSparseOidNotFound() throws Exception {
+		RevCommit commit = remote.commit().message("0").create();
+		remote.update("master", commit);
+
+		UploadPackInternalServerErrorException e = assertThrows(
+				UploadPackInternalServerErrorException.class,
+				() -> uploadV2WithFilter("sparse:oid=refs/heads/missing",
+						commit.toObjectId()));
+		assertThat(e.getCause().getMessage(), containsString(
+				"Invalid filter: sparse:oid=refs/heads/missing"));
+	}
+
 	private void checkV2FetchWhenNotAllowed(String fetchLine, String expectedMessage)
 			throws Exception {
 		RevCommit commit = remote.commit().message("0").create();
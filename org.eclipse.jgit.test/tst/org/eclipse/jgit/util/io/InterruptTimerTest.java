@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.util.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class InterruptTimerTest {
+	@Test
+	public void testTimersShareOneThread() throws Exception {
+		int before = Thread.activeCount();
+		List<InterruptTimer> timers = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			InterruptTimer t = new InterruptTimer();
+			t.begin(60_000);
+			timers.add(t);
+		}
+		assertTrue(Thread.activeCount() <= before + 1);
+		for (InterruptTimer t : timers) {
+			t.end();
+			t.terminate();
+		}
+		assertFalse(Thread.currentThread().isInterrupted());
+	}
+
+	@Test
+	public void testAlarmInterruptsCaller() throws Exception {
+		InterruptTimer t = new InterruptTimer();
+		t.begin(50);
+		assertThrows(InterruptedException.class, () -> Thread.sleep(5_000));
+		t.end();
+		assertFalse(Thread.interrupted());
+		t.terminate();
+	}
+
+	@Test
+	public void testEndDisarms() throws Exception {
+		InterruptTimer t = new InterruptTimer();
+		t.begin(50);
+		t.end();
+		Thread.sleep(150);
+		assertFalse(Thread.interrupted());
+
+		t.terminate();
+		assertThrows(IllegalStateException.class, () -> t.begin(50));
+	}
+
+	@Test
+	public void testIsolatedStreamsReuseThreads() throws Exception {
+		ByteArrayOutputStream dst = new ByteArrayOutputStream();
+		for (int i = 0; i < 10; i++) {
+			try (IsolatedOutputStream out = new IsolatedOutputStream(dst)) {
+				out.write('a' + i);
+			}
+		}
+		assertEquals("abcdefghij", dst.toString("UTF-8"));
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.util.io;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+public class IsolatedOutputStreamTest {
+	@Test
+	public void testDirtyCloseDoesNotRaceStuckWrite() throws Exception {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean inWrite = new AtomicBoolean();
+		AtomicBoolean closedDuringWrite = new AtomicBoolean();
+		OutputStream dst = new OutputStream() {
+			@Override
+			public void write(int b) {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				inWrite.set(true);
+				writing.countDown();
+				// Ignore interrupts, like a write blocked on a socket.
+				for (;;) {
+					try {
+						release.await();
+						break;
+					} catch (InterruptedException e) {
+						// Keep waiting
+					}
+				}
+				inWrite.set(false);
+			}
+
+			@Override
+			public void close() {
+				closedDuringWrite.set(inWrite.get());
+			}
+		};
+
+		IsolatedOutputStream out = new IsolatedOutputStream(dst);
+		AtomicBoolean writeInterrupted = new AtomicBoolean();
+		Thread writer = new Thread(() -> {
+			try {
+				out.write(new byte[1]);
+			} catch (InterruptedIOException e) {
+				writeInterrupted.set(true);
+			} catch (IOException e) {
+				// Not expected
+			}
+		});
+		writer.start();
+		assertTrue(writing.await(10, TimeUnit.SECONDS));
+		writer.interrupt();
+		writer.join();
+		assertTrue(writeInterrupted.get());
+
+		// The write is still stuck, so closing times out instead of closing
+		// the stream underneath it.
+		assertThrows(IOException.class, out::close);
+		release.countDown();
+		assertFalse(closedDuringWrite.get());
+	}
+}
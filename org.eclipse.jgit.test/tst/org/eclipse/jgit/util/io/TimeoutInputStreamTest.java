@@ -12,7 +12,6 @@
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -55,8 +54,10 @@ public void setUp(TestInfo testInfo) throws Exception {
 	@AfterEach
 	public void tearDown() throws Exception {
 		timer.terminate();
-		for (Thread t : active())
-			assertFalse(t instanceof InterruptTimer.AlarmThread);
+		// All timers share a single thread.
+		assertTrue(active().stream()
+				.filter(t -> "JGit-InterruptTimer".equals(t.getName()))
+				.count() <= 1);
 	}
 
 	@Test
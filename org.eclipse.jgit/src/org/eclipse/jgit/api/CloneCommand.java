@@ -89,6 +89,8 @@ public class CloneCommand extends TransportCommand<CloneCommand, Git> {
 
 	private List<String> shallowExcludes = new ArrayList<>();
 
+	private Boolean bundleUri;
+
 	private ShutdownHook.Listener shutdownListener = this::cleanup;
 
 	private enum FETCH_TYPE {
@@ -302,6 +304,9 @@ private FetchResult fetch(Repository clonedRepo, URIish u)
 			command.setShallowSince(shallowSince);
 		}
 		command.setShallowExcludes(shallowExcludes);
+		if (bundleUri != null) {
+			command.setBundleUri(bundleUri.booleanValue());
+		}
 		configure(command);
 
 		return command.call();
@@ -809,6 +814,26 @@ public CloneCommand addShallowExclude(@NonNull ObjectId shallowExclude) {
 		return this;
 	}
 
+	/**
+	 * Set whether to download the bundles the remote lists before fetching
+	 * from it.
+	 * <p>
+	 * A remote may list bundles of its history with the protocol V2 command
+	 * {@code bundle-uri}. These are served as static files, so that the
+	 * remote itself only sends the objects created since. Default setting is
+	 * {@code transfer.bundleURI}.
+	 *
+	 * @param bundleUri
+	 *            whether to download the listed bundles first
+	 * @return {@code this}
+	 * @see org.eclipse.jgit.transport.Transport#setBundleUri(boolean)
+	 * @since 6.9
+	 */
+	public CloneCommand setBundleUri(boolean bundleUri) {
+		this.bundleUri = Boolean.valueOf(bundleUri);
+		return this;
+	}
+
 	private static void validateDirs(File directory, File gitDir, boolean bare)
 			throws IllegalStateException {
 		if (directory != null) {
@@ -63,6 +63,10 @@ public class FetchCommand extends TransportCommand<FetchCommand, FetchResult> {
 
 	private boolean thin = Transport.DEFAULT_FETCH_THIN;
 
+	private Integer indexThreads;
+
+	private Boolean bundleUri;
+
 	private TagOpt tagOption;
 
 	private FetchRecurseSubmodulesMode submoduleRecurseMode = null;
@@ -215,6 +219,12 @@ public FetchResult call() throws GitAPIException, InvalidRemoteException,
 			if (tagOption != null)
 				transport.setTagOpt(tagOption);
 			transport.setFetchThin(thin);
+			if (indexThreads != null) {
+				transport.setIndexThreads(indexThreads.intValue());
+			}
+			if (bundleUri != null) {
+				transport.setBundleUri(bundleUri.booleanValue());
+			}
 			if (depth != null) {
 				transport.setDepth(depth);
 			}
@@ -229,6 +239,9 @@ public FetchResult call() throws GitAPIException, InvalidRemoteException,
 			}
 			transport.setDeepenNots(shallowExcludes);
 			configure(transport);
+			if (!transport.getFilterSpec().isNoOp()) {
+				recordPartialClone();
+			}
 			FetchResult result = transport.fetch(monitor,
 					applyOptions(refSpecs), initialBranch);
 			if (!repo.isBare()) {
@@ -249,10 +262,40 @@ public FetchResult call() throws GitAPIException, InvalidRemoteException,
 			throw new JGitInternalException(
 					JGitText.get().exceptionCaughtDuringExecutionOfFetchCommand,
 					e);
+		} catch (IOException e) {
+			throw new JGitInternalException(e.getMessage(), e);
 		}
 
 	}
 
+	/**
+	 * Record the remote as promisor remote of a partial clone, so that the
+	 * objects the filter leaves out are fetched on demand.
+	 * <p>
+	 * Only named remotes can be promisor remotes, and the first one recorded
+	 * is kept.
+	 *
+	 * @throws IOException
+	 *             if the configuration could not be saved
+	 */
+	private void recordPartialClone() throws IOException {
+		StoredConfig config = repo.getConfig();
+		if (!config.getSubsections(ConfigConstants.CONFIG_REMOTE_SECTION)
+				.contains(remote)
+				|| config.getString(ConfigConstants.CONFIG_EXTENSIONS_SECTION,
+						null, ConfigConstants.CONFIG_KEY_PARTIAL_CLONE) != null) {
+			return;
+		}
+		if (config.getLong(ConfigConstants.CONFIG_CORE_SECTION, null,
+				ConfigConstants.CONFIG_KEY_REPO_FORMAT_VERSION, 0) < 1) {
+			config.setLong(ConfigConstants.CONFIG_CORE_SECTION, null,
+					ConfigConstants.CONFIG_KEY_REPO_FORMAT_VERSION, 1);
+		}
+		config.setString(ConfigConstants.CONFIG_EXTENSIONS_SECTION, null,
+				ConfigConstants.CONFIG_KEY_PARTIAL_CLONE, remote);
+		config.save();
+	}
+
 	private List<RefSpec> applyOptions(List<RefSpec> refSpecs2) {
 		if (!isForceUpdate()) {
 			return refSpecs2;
@@ -495,6 +538,42 @@ public FetchCommand setThin(boolean thinPack) {
 		return this;
 	}
 
+	/**
+	 * Sets the number of threads resolving deltas of the fetched pack.
+	 *
+	 * Default setting is {@code transfer.indexThreads}, or 1 if not
+	 * configured.
+	 *
+	 * @param threads
+	 *            number of threads; 0 to use one thread per available
+	 *            processor
+	 * @return {@code this}
+	 * @since 6.9
+	 */
+	public FetchCommand setIndexThreads(int threads) {
+		checkCallable();
+		this.indexThreads = Integer.valueOf(threads);
+		return this;
+	}
+
+	/**
+	 * Set whether to download the bundles the remote lists before fetching
+	 * from it.
+	 * <p>
+	 * Default setting is {@code transfer.bundleURI}.
+	 *
+	 * @param bundleUri
+	 *            whether to download the listed bundles first
+	 * @return {@code this}
+	 * @see Transport#setBundleUri(boolean)
+	 * @since 6.9
+	 */
+	public FetchCommand setBundleUri(boolean bundleUri) {
+		checkCallable();
+		this.bundleUri = Boolean.valueOf(bundleUri);
+		return this;
+	}
+
 	/**
 	 * Sets the specification of annotated tag behavior during fetch
 	 *
@@ -52,6 +52,7 @@ public class PushCommand extends
 	private boolean force;
 	private boolean thin = Transport.DEFAULT_PUSH_THIN;
 	private boolean useBitmaps = Transport.DEFAULT_PUSH_USE_BITMAPS;
+	private Boolean useSparse;
 
 	private PrintStream hookOutRedirect;
 
@@ -124,6 +125,9 @@ public Iterable<PushResult> call() throws GitAPIException,
 				transport.setDryRun(dryRun);
 				transport.setPushOptions(pushOptions);
 				transport.setPushUseBitmaps(useBitmaps);
+				if (useSparse != null)
+					transport.getPackConfig()
+							.setUseSparse(useSparse.booleanValue());
 				transport.setHookOutputStream(hookOutRedirect);
 				transport.setHookErrorStream(hookErrRedirect);
 				configure(transport);
@@ -630,6 +634,30 @@ public PushCommand setUseBitmaps(boolean useBitmaps) {
 		return this;
 	}
 
+	/**
+	 * Set whether to use the sparse algorithm when computing the objects to
+	 * push.
+	 *
+	 * If enabled, only trees at paths changed between the remote's tips and
+	 * the pushed commits are walked to find objects the remote already has,
+	 * instead of the complete trees of the remote's tips. This is much faster
+	 * for small changes to large repositories, but may send some objects the
+	 * remote already has.
+	 *
+	 * If not set the "pack.useSparse" configuration option is used.
+	 *
+	 * @param useSparse
+	 *            whether to use the sparse algorithm.
+	 * @return {@code this}
+	 * @see org.eclipse.jgit.storage.pack.PackConfig#setUseSparse(boolean)
+	 * @since 6.9
+	 */
+	public PushCommand setUseSparse(boolean useSparse) {
+		checkCallable();
+		this.useSparse = Boolean.valueOf(useSparse);
+		return this;
+	}
+
 	/**
 	 * Whether this push should be executed atomically (all references updated,
 	 * or none)
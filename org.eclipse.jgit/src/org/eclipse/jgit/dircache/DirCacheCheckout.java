@@ -521,6 +521,10 @@ private boolean doCheckout() throws CorruptObjectException, IOException,
 			// update our index
 			builder.finish();
 
+			if (objectReader.canFetchMissingObjects()) {
+				prefetchUpdated(objectReader);
+			}
+
 			// init progress reporting
 			int numTotal = removed.size() + updated.size() + conflicts.size();
 			monitor.beginTask(JGitText.get().checkingOutFiles, numTotal);
@@ -633,6 +637,28 @@ private boolean doCheckout() throws CorruptObjectException, IOException,
 		return toBeDeleted.isEmpty();
 	}
 
+	/**
+	 * Fetch the blobs missing from a partial clone with one request before
+	 * touching the working tree, instead of one request per file.
+	 *
+	 * @param objectReader
+	 *            reader of the repository being checked out.
+	 * @throws IOException
+	 *             the blobs could not be fetched.
+	 */
+	private void prefetchUpdated(ObjectReader objectReader)
+			throws IOException {
+		List<ObjectId> blobs = new ArrayList<>(updated.size());
+		for (String path : updated.keySet()) {
+			DirCacheEntry entry = dc.getEntry(path);
+			if (entry != null
+					&& !FileMode.GITLINK.equals(entry.getRawMode())) {
+				blobs.add(entry.getObjectId());
+			}
+		}
+		objectReader.prefetch(blobs);
+	}
+
 	private static ArrayList<String> filterOut(ArrayList<String> strings,
 			IntList indicesToRemove) {
 		int n = indicesToRemove.size();
@@ -132,6 +132,7 @@ public static JGitText get() {
 	/***/ public String cannotEnterObjectsPath;
 	/***/ public String cannotEnterPathFromParent;
 	/***/ public String cannotExecute;
+	/***/ public String cannotFetchFromPromisorRemote;
 	/***/ public String cannotFindMergeBaseUsingFirstParent;
 	/***/ public String cannotGet;
 	/***/ public String cannotGetObjectsPath;
@@ -163,7 +164,9 @@ public static JGitText get() {
 	/***/ public String cannotSaveConfig;
 	/***/ public String cannotSquashFixupWithoutPreviousCommit;
 	/***/ public String cannotStoreObjects;
+	/***/ public String cannotStorePackResponse;
 	/***/ public String cannotResolveUniquelyAbbrevObjectId;
+	/***/ public String cannotUpdateAccessHeatMap;
 	/***/ public String cannotUpdateUnbornBranch;
 	/***/ public String cannotWriteObjectsPath;
 	/***/ public String canOnlyCherryPickCommitsWithOneParent;
@@ -312,6 +315,7 @@ public static JGitText get() {
 	/***/ public String DIRCUnrecognizedExtendedFlags;
 	/***/ public String downloadCancelled;
 	/***/ public String downloadCancelledDuringIndexing;
+	/***/ public String downloadingPackfileUris;
 	/***/ public String duplicateAdvertisementsOf;
 	/***/ public String duplicateRef;
 	/***/ public String duplicateRefAttribute;
@@ -397,7 +401,9 @@ public static JGitText get() {
 	/***/ public String httpConfigCannotNormalizeURL;
 	/***/ public String httpConfigInvalidURL;
 	/***/ public String httpFactoryInUse;
+	/***/ public String httpHostnameNotVerified;
 	/***/ public String httpPreAuthTooLate;
+	/***/ public String httpProxyNotSupported;
 	/***/ public String httpUserInfoDecodeError;
 	/***/ public String httpWrongConnectionType;
 	/***/ public String hugeIndexesAreNotSupportedByJgitYet;
@@ -431,6 +437,7 @@ public static JGitText get() {
 	/***/ public String internalServerError;
 	/***/ public String interruptedWriting;
 	/***/ public String inTheFuture;
+	/***/ public String invalidAccessHeatMap;
 	/***/ public String invalidAdvertisementOf;
 	/***/ public String invalidAncestryLength;
 	/***/ public String invalidAwsApiSignatureVersion;
@@ -469,6 +476,7 @@ public static JGitText get() {
 	/***/ public String invalidObject;
 	/***/ public String invalidOldIdSent;
 	/***/ public String invalidPacketLineHeader;
+	/***/ public String invalidPackfileUri;
 	/***/ public String invalidPath;
 	/***/ public String invalidPurgeFactor;
 	/***/ public String invalidRedirectLocation;
@@ -615,6 +623,8 @@ public static JGitText get() {
 	/***/ public String packFileInvalid;
 	/***/ public String packfileIsTruncated;
 	/***/ public String packfileIsTruncatedNoParam;
+	/***/ public String packfileUriChecksumMismatch;
+	/***/ public String packfileUriProtocolNotRequested;
 	/***/ public String packHandleIsStale;
 	/***/ public String packHasUnresolvedDeltas;
 	/***/ public String packInaccessible;
@@ -677,6 +687,7 @@ public static JGitText get() {
 	/***/ public String redirectLimitExceeded;
 	/***/ public String redirectLocationMissing;
 	/***/ public String redirectsOff;
+	/***/ public String refAdvertisementCacheWrongRepository;
 	/***/ public String refAlreadyExists;
 	/***/ public String refAlreadyExists1;
 	/***/ public String reflogEntryNotFound;
@@ -732,6 +743,7 @@ public static JGitText get() {
 	/***/ public String secondsAgo;
 	/***/ public String selectingCommits;
 	/***/ public String sequenceTooLargeForDiffAlgorithm;
+	/***/ public String serverBusy;
 	/***/ public String serviceNotEnabledNoName;
 	/***/ public String serviceNotPermitted;
 	/***/ public String sha1CollisionDetected;
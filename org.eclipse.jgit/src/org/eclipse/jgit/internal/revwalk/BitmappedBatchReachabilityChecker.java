@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.internal.revwalk;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraph;
+import org.eclipse.jgit.lib.BitmapIndex;
+import org.eclipse.jgit.lib.BitmapIndex.Bitmap;
+import org.eclipse.jgit.lib.BitmapIndex.BitmapBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.revwalk.BitmapWalker;
+import org.eclipse.jgit.revwalk.ObjectReachabilityChecker;
+import org.eclipse.jgit.revwalk.ObjectWalk;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevFlag;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+
+/**
+ * Checks the reachability of many objects at once using bitmaps.
+ * <p>
+ * The bitmaps of the starters are combined into a single bitmap of the
+ * reachable objects first, so checking a target costs one bit test no matter
+ * how many targets and starters there are. Putting the most popular starters
+ * (e.g. refs/heads tips) first lets the check stop early.
+ * <p>
+ * Only starters without a bitmap are walked, down to the first commits with
+ * one. If all targets still unreached are commits, that walk visits commits
+ * only and uses the generation numbers of the commit-graph to stop below the
+ * oldest target.
+ */
+public class BitmappedBatchReachabilityChecker
+		implements ObjectReachabilityChecker {
+
+	private final ObjectWalk walk;
+
+	/**
+	 * New instance of the reachability checker using a existing walk.
+	 *
+	 * @param walk
+	 *            ObjectWalk instance to reuse, over a repository with bitmaps.
+	 *            Caller retains ownership.
+	 */
+	public BitmappedBatchReachabilityChecker(ObjectWalk walk) {
+		this.walk = walk;
+	}
+
+	@Override
+	public Optional<RevObject> areAllReachable(Collection<RevObject> targets,
+			Stream<RevObject> starters) throws IOException {
+		BitmapIndex index = walk.getObjectReader().getBitmapIndex();
+		BitmapBuilder reached = index.newBitmapBuilder();
+		List<RevObject> targetList = new ArrayList<>(targets);
+		List<RevObject> unbitmapped = new ArrayList<>();
+		int next = 0;
+		Iterator<RevObject> it = starters.iterator();
+		while (it.hasNext()) {
+			RevObject starter = it.next();
+			Bitmap bitmap = index.getBitmap(starter);
+			if (bitmap == null) {
+				unbitmapped.add(starter);
+				continue;
+			}
+			reached.or(bitmap);
+			// Reached targets stay reached, test each of them only once and
+			// stop as soon as all are reached.
+			while (next < targetList.size()
+					&& reached.contains(targetList.get(next))) {
+				next++;
+			}
+			if (next == targetList.size()) {
+				return Optional.empty();
+			}
+		}
+
+		List<RevObject> remaining = unreached(
+				targetList.subList(next, targetList.size()), reached);
+		if (remaining.isEmpty() || unbitmapped.isEmpty()) {
+			return first(remaining);
+		}
+
+		if (remaining.stream().allMatch(RevCommit.class::isInstance)) {
+			walkCommits(index, unbitmapped, remaining, reached);
+		} else {
+			BitmapWalker bitmapWalker = new BitmapWalker(walk, index, null);
+			reached.or(bitmapWalker.findObjects(unbitmapped, reached, true));
+		}
+		return first(unreached(remaining, reached));
+	}
+
+	private void walkCommits(BitmapIndex index, List<RevObject> starters,
+			List<RevObject> targets, BitmapBuilder reached)
+			throws IOException {
+		CommitGraph graph = walk.getObjectReader().getCommitGraph()
+				.orElse(null);
+		int cutoff = Constants.COMMIT_GENERATION_UNKNOWN;
+		for (RevObject target : targets) {
+			cutoff = Math.min(cutoff, generation(graph, target));
+		}
+
+		RevFilter oldFilter = walk.getRevFilter();
+		walk.reset();
+		try {
+			walk.setRevFilter(
+					new ReachedFilter(index, reached, graph, cutoff));
+			for (RevObject starter : starters) {
+				RevObject peeled = walk.peel(starter);
+				if (peeled instanceof RevCommit) {
+					walk.markStart((RevCommit) peeled);
+				}
+			}
+			while (walk.next() != null) {
+				// The filter records the reached commits.
+			}
+		} finally {
+			walk.reset();
+			walk.setRevFilter(oldFilter);
+		}
+	}
+
+	private static List<RevObject> unreached(Collection<RevObject> targets,
+			BitmapBuilder reached) {
+		List<RevObject> remaining = new ArrayList<>();
+		for (RevObject target : targets) {
+			if (!reached.contains(target)) {
+				remaining.add(target);
+			}
+		}
+		return remaining;
+	}
+
+	private static Optional<RevObject> first(List<RevObject> remaining) {
+		return remaining.isEmpty() ? Optional.empty()
+				: Optional.of(remaining.get(0));
+	}
+
+	private static int generation(CommitGraph graph, RevObject commit) {
+		if (graph == null) {
+			return Constants.COMMIT_GENERATION_UNKNOWN;
+		}
+		int pos = graph.findGraphPosition(commit);
+		if (pos < 0) {
+			// Commits newer than the graph are no ancestors of its commits.
+			return Constants.COMMIT_GENERATION_UNKNOWN;
+		}
+		return graph.getCommitData(pos).getGeneration();
+	}
+
+	/**
+	 * Adds the commits it is shown, or their bitmaps, to the reached bitmap
+	 * and stops the walk where it has nothing more to find: at reached or
+	 * bitmapped commits and below the generation of the oldest target.
+	 */
+	private static class ReachedFilter extends RevFilter {
+		private final BitmapIndex index;
+
+		private final BitmapBuilder reached;
+
+		private final CommitGraph graph;
+
+		private final int cutoff;
+
+		ReachedFilter(BitmapIndex index, BitmapBuilder reached,
+				CommitGraph graph, int cutoff) {
+			this.index = index;
+			this.reached = reached;
+			this.graph = graph;
+			this.cutoff = cutoff;
+		}
+
+		@Override
+		public boolean include(RevWalk walker, RevCommit cmit) {
+			if (reached.contains(cmit)) {
+				dontFollow(cmit);
+				return false;
+			}
+
+			Bitmap bitmap = index.getBitmap(cmit);
+			if (bitmap != null) {
+				reached.or(bitmap);
+				dontFollow(cmit);
+				return false;
+			}
+
+			reached.addObject(cmit, Constants.OBJ_COMMIT);
+			// Ancestors have a lower generation than cmit, so none of them
+			// can be a target if cmit is below all targets already.
+			if (generation(graph, cmit) < cutoff) {
+				dontFollow(cmit);
+			}
+			return false;
+		}
+
+		private static void dontFollow(RevCommit cmit) {
+			for (RevCommit p : cmit.getParents()) {
+				p.add(RevFlag.SEEN);
+			}
+		}
+
+		@Override
+		public RevFilter clone() {
+			// Clones add to the same bitmap, it is what the filter computes.
+			return new ReachedFilter(index, reached, graph, cutoff);
+		}
+
+		@Override
+		public boolean requiresCommitBody() {
+			return false;
+		}
+	}
+}
@@ -37,12 +37,14 @@
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.internal.storage.commitgraph.CommitGraphWriter;
 import org.eclipse.jgit.internal.storage.commitgraph.GraphCommits;
 import org.eclipse.jgit.internal.storage.dfs.DfsObjDatabase.PackSource;
 import org.eclipse.jgit.internal.storage.file.PackIndex;
 import org.eclipse.jgit.internal.storage.file.PackReverseIndex;
+import org.eclipse.jgit.internal.storage.pack.AccessHeatMap;
 import org.eclipse.jgit.internal.storage.pack.PackExt;
 import org.eclipse.jgit.internal.storage.pack.PackWriter;
 import org.eclipse.jgit.internal.storage.reftable.ReftableCompactor;
@@ -82,6 +84,7 @@ public class DfsGarbageCollector {
 	private boolean writeCommitGraph;
 
 	private boolean writeBloomFilter;
+	private AccessHeatMap accessHeat;
 	private boolean includeDeletes;
 	private long reftableInitialMinUpdateIndex = 1;
 	private long reftableInitialMaxUpdateIndex = 1;
@@ -313,6 +316,26 @@ public DfsGarbageCollector setWriteBloomFilter(boolean enable) {
 		return this;
 	}
 
+	/**
+	 * Set sampled read counts used to order trees and blobs in the new packs.
+	 * <p>
+	 * Defaults to the counts sampled by the readers of the object database,
+	 * see {@link DfsObjDatabase#getAccessHeatMap()}. Implementations which
+	 * persist heat maps can supply counts merged from several processes. The
+	 * counts are halved after a successful repack, so objects which are no
+	 * longer read cool down over time.
+	 *
+	 * @param heat
+	 *            sampled read counts; {@code null} to use the counts of the
+	 *            object database.
+	 * @return {@code this}
+	 * @since 6.9
+	 */
+	public DfsGarbageCollector setAccessHeatMap(@Nullable AccessHeatMap heat) {
+		accessHeat = heat;
+		return this;
+	}
+
 	/**
 	 * Create a single new pack file containing all of the live objects.
 	 * <p>
@@ -338,6 +361,10 @@ public boolean pack(ProgressMonitor pm) throws IOException {
 
 		startTimeMillis = SystemReader.getInstance().getCurrentTime();
 		ctx = objdb.newReader();
+		ctx.disableAccessHeat();
+		if (accessHeat == null) {
+			accessHeat = objdb.getAccessHeatMap();
+		}
 		try {
 			refdb.refresh();
 			objdb.clearCache();
@@ -387,6 +414,9 @@ public boolean pack(ProgressMonitor pm) throws IOException {
 				packGarbage(pm);
 				objdb.commitPack(newPackDesc, toPrune());
 				rollback = false;
+				if (accessHeat != null) {
+					accessHeat.decay();
+				}
 				return true;
 			} finally {
 				if (rollback)
@@ -652,6 +682,7 @@ private PackWriter newPackWriter() {
 		PackWriter pw = new PackWriter(packConfig, ctx);
 		pw.setDeltaBaseAsOffset(true);
 		pw.setReuseDeltaCommits(false);
+		pw.setAccessHeatMap(accessHeat);
 		return pw;
 	}
 
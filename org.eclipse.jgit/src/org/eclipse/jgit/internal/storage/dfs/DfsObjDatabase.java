@@ -26,6 +26,8 @@
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.internal.storage.pack.AccessHeatMap;
 import org.eclipse.jgit.internal.storage.pack.PackExt;
 import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.ObjectDatabase;
@@ -201,6 +203,8 @@ public String toString() {
 
 	private Comparator<DfsPackDescription> packComparator;
 
+	private final AccessHeatMap accessHeat;
+
 	/**
 	 * Initialize an object database for our repository.
 	 *
@@ -215,6 +219,11 @@ protected DfsObjDatabase(DfsRepository repository,
 		this.packList = new AtomicReference<>(NO_PACKS);
 		this.readerOptions = options;
 		this.packComparator = DfsPackDescription.objectLookupComparator();
+		int heatSampleRate = options.getHeatSampleRate();
+		this.accessHeat = heatSampleRate > 0
+				? new AccessHeatMap(heatSampleRate,
+						AccessHeatMap.DEFAULT_MAX_ENTRIES)
+				: null;
 	}
 
 	/**
@@ -226,6 +235,18 @@ public DfsReaderOptions getReaderOptions() {
 		return readerOptions;
 	}
 
+	/**
+	 * Get read counts sampled by the readers of this database.
+	 *
+	 * @return read counts sampled by the readers of this database;
+	 *         {@code null} if sampling is disabled by the reader options.
+	 * @since 6.9
+	 */
+	@Nullable
+	public AccessHeatMap getAccessHeatMap() {
+		return accessHeat;
+	}
+
 	/**
 	 * Set the comparator used when searching for objects across packs.
 	 * <p>
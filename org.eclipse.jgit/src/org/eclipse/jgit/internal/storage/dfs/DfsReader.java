@@ -41,6 +41,7 @@
 import org.eclipse.jgit.internal.storage.file.PackBitmapIndex;
 import org.eclipse.jgit.internal.storage.file.PackIndex;
 import org.eclipse.jgit.internal.storage.file.PackReverseIndex;
+import org.eclipse.jgit.internal.storage.pack.AccessHeatMap;
 import org.eclipse.jgit.internal.storage.pack.CachedPack;
 import org.eclipse.jgit.internal.storage.pack.ObjectReuseAsIs;
 import org.eclipse.jgit.internal.storage.pack.ObjectToPack;
@@ -84,6 +85,7 @@ public class DfsReader extends ObjectReader implements ObjectReuseAsIs {
 	private DfsPackFile last;
 	private boolean avoidUnreachable;
 	private List<PackLoadListener> packLoadListeners = new ArrayList<>();
+	private AccessHeatMap accessHeat;
 
 	/**
 	 * Initialize a new DfsReader
@@ -94,6 +96,15 @@ public class DfsReader extends ObjectReader implements ObjectReuseAsIs {
 	protected DfsReader(DfsObjDatabase db) {
 		this.db = db;
 		this.streamFileThreshold = db.getReaderOptions().getStreamFileThreshold();
+		this.accessHeat = db.getAccessHeatMap();
+	}
+
+	/**
+	 * Stop sampling reads of this reader for the access heat map, e.g. when
+	 * reading objects to repack them.
+	 */
+	void disableAccessHeat() {
+		accessHeat = null;
 	}
 
 	DfsReaderOptions getOptions() {
@@ -249,11 +260,14 @@ public ObjectLoader open(AnyObjectId objectId, int typeHint)
 		throw new MissingObjectException(objectId.copy(), typeHint);
 	}
 
-	private static ObjectLoader checkType(ObjectLoader ldr, AnyObjectId id,
+	private ObjectLoader checkType(ObjectLoader ldr, AnyObjectId id,
 			int typeHint) throws IncorrectObjectTypeException {
 		if (typeHint != OBJ_ANY && ldr.getType() != typeHint) {
 			throw new IncorrectObjectTypeException(id.copy(), typeHint);
 		}
+		if (accessHeat != null) {
+			accessHeat.sample(id);
+		}
 		return ldr;
 	}
 
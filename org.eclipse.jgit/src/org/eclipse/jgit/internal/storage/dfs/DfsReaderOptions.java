@@ -13,6 +13,7 @@
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_CORE_SECTION;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_DFS_SECTION;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_DELTA_BASE_CACHE_LIMIT;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_HEAT_SAMPLE_RATE;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_STREAM_BUFFER;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_STREAM_FILE_THRESHOLD;
 
@@ -36,6 +37,8 @@ public class DfsReaderOptions {
 
 	private boolean loadRevIndexInParallel;
 
+	private int heatSampleRate;
+
 	/**
 	 * Create a default reader configuration.
 	 */
@@ -136,6 +139,33 @@ public DfsReaderOptions setLoadRevIndexInParallel(
 		return this;
 	}
 
+	/**
+	 * Get the rate at which object reads are sampled for the access heat map.
+	 *
+	 * @return one in how many object reads is sampled; 0 if sampling is
+	 *         disabled.
+	 * @since 6.9
+	 */
+	public int getHeatSampleRate() {
+		return heatSampleRate;
+	}
+
+	/**
+	 * Set the rate at which object reads are sampled for the access heat map.
+	 * <p>
+	 * Sampled reads guide the object order of the next garbage collection,
+	 * see {@link DfsGarbageCollector#setAccessHeatMap}.
+	 *
+	 * @param rate
+	 *            sample one in this many object reads; 0 disables sampling.
+	 * @return {@code this}
+	 * @since 6.9
+	 */
+	public DfsReaderOptions setHeatSampleRate(int rate) {
+		heatSampleRate = Math.max(0, rate);
+		return this;
+	}
+
 	/**
 	 * Update properties by setting fields from the configuration.
 	 * <p>
@@ -168,6 +198,12 @@ public DfsReaderOptions fromConfig(Config rc) {
 				CONFIG_DFS_SECTION,
 				CONFIG_KEY_STREAM_BUFFER,
 				getStreamPackBufferSize()));
+
+		setHeatSampleRate(rc.getInt(
+				CONFIG_CORE_SECTION,
+				CONFIG_DFS_SECTION,
+				CONFIG_KEY_HEAT_SAMPLE_RATE,
+				getHeatSampleRate()));
 		return this;
 	}
 }
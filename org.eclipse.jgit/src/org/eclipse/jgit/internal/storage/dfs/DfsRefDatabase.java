@@ -17,10 +17,14 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.events.RefsChangedEvent;
+import org.eclipse.jgit.lib.BatchRefUpdate;
 import org.eclipse.jgit.lib.ObjectIdRef;
+import org.eclipse.jgit.lib.ProgressMonitor;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.RefDatabase;
 import org.eclipse.jgit.lib.RefRename;
@@ -29,6 +33,7 @@
 import org.eclipse.jgit.revwalk.RevObject;
 import org.eclipse.jgit.revwalk.RevTag;
 import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.ReceiveCommand;
 import org.eclipse.jgit.util.RefList;
 import org.eclipse.jgit.util.RefMap;
 
@@ -40,6 +45,12 @@ public abstract class DfsRefDatabase extends RefDatabase {
 
 	private final AtomicReference<RefCache> cache;
 
+	/** Incremented whenever references are changed. */
+	private final AtomicInteger modCnt = new AtomicInteger();
+
+	/** Last {@link #modCnt} that listeners were told about. */
+	private final AtomicInteger lastNotifiedModCnt = new AtomicInteger();
+
 	/**
 	 * Initialize the reference database for a repository.
 	 *
@@ -187,6 +198,32 @@ public RefUpdate newUpdate(String refName, boolean detach)
 		return update;
 	}
 
+	@Override
+	public BatchRefUpdate newBatchUpdate() {
+		return new BatchRefUpdate(this) {
+			@Override
+			public void execute(RevWalk walk, ProgressMonitor monitor,
+					List<String> options) throws IOException {
+				try {
+					super.execute(walk, monitor, options);
+				} finally {
+					// One event for all references of the batch.
+					fireRefsChanged();
+				}
+			}
+
+			@Override
+			protected RefUpdate newUpdate(ReceiveCommand cmd)
+					throws IOException {
+				RefUpdate ru = super.newUpdate(cmd);
+				if (ru instanceof DfsRefUpdate) {
+					((DfsRefUpdate) ru).setBatched();
+				}
+				return ru;
+			}
+		};
+	}
+
 	@Override
 	public RefRename newRename(String fromName, String toName)
 			throws IOException {
@@ -224,6 +261,23 @@ public void create() {
 	@Override
 	public void refresh() {
 		clearCache();
+		modified();
+		fireRefsChanged();
+	}
+
+	/**
+	 * Drop cached references, and tell listeners if they changed since they
+	 * were read.
+	 * <p>
+	 * Repositories do this on every request. The default implementation
+	 * can't tell cheaply whether references changed, and always tells the
+	 * listeners.
+	 *
+	 * @throws IOException
+	 *             references cannot be read.
+	 */
+	void scanForChanges() throws IOException {
+		refresh();
 	}
 
 	@Override
@@ -240,9 +294,10 @@ void stored(Ref ref) {
 		do {
 			oldCache = cache.get();
 			if (oldCache == null)
-				return;
+				break;
 			newCache = oldCache.put(ref);
 		} while (!cache.compareAndSet(oldCache, newCache));
+		modified();
 	}
 
 	void removed(String refName) {
@@ -250,9 +305,29 @@ void removed(String refName) {
 		do {
 			oldCache = cache.get();
 			if (oldCache == null)
-				return;
+				break;
 			newCache = oldCache.remove(refName);
 		} while (!cache.compareAndSet(oldCache, newCache));
+		modified();
+	}
+
+	/** Record that references were changed, to be fired to listeners. */
+	void modified() {
+		modCnt.incrementAndGet();
+	}
+
+	/**
+	 * Tell the repository's listeners about changes since they were last told.
+	 * <p>
+	 * Must be called after the changes are published, so that listeners
+	 * reading the references see them.
+	 */
+	void fireRefsChanged() {
+		int last = lastNotifiedModCnt.get();
+		int curr = modCnt.get();
+		if (last != curr && lastNotifiedModCnt.compareAndSet(last, curr)) {
+			getRepository().fireEvent(new RefsChangedEvent());
+		}
 	}
 
 	private RefCache read() throws IOException {
@@ -28,11 +28,25 @@ final class DfsRefUpdate extends RefUpdate {
 
 	private RevWalk rw;
 
+	/** Whether the batch executing this update tells the listeners. */
+	private boolean batched;
+
 	DfsRefUpdate(DfsRefDatabase refdb, Ref ref) {
 		super(ref);
 		this.refdb = refdb;
 	}
 
+	/** Leave telling listeners to the batch executing this update. */
+	void setBatched() {
+		batched = true;
+	}
+
+	private void fireRefsChanged() {
+		if (!batched) {
+			getRefDatabase().fireRefsChanged();
+		}
+	}
+
 	@Override
 	protected DfsRefDatabase getRefDatabase() {
 		return refdb;
@@ -91,6 +105,7 @@ protected Result doUpdate(Result desiredResult) throws IOException {
 
 		if (getRefDatabase().compareAndPut(dstRef, newRef)) {
 			getRefDatabase().stored(newRef);
+			fireRefsChanged();
 			return desiredResult;
 		}
 		return Result.LOCK_FAILURE;
@@ -100,6 +115,7 @@ protected Result doUpdate(Result desiredResult) throws IOException {
 	protected Result doDelete(Result desiredResult) throws IOException {
 		if (getRefDatabase().compareAndRemove(dstRef)) {
 			getRefDatabase().removed(dstRef.getName());
+			fireRefsChanged();
 			return desiredResult;
 		}
 		return Result.LOCK_FAILURE;
@@ -115,6 +131,7 @@ protected Result doLink(String target) throws IOException {
 						null));
 		if (getRefDatabase().compareAndPut(dstRef, newRef)) {
 			getRefDatabase().stored(newRef);
+			fireRefsChanged();
 			if (dstRef.getStorage() == Ref.Storage.NEW)
 				return Result.NEW;
 			return Result.FORCED;
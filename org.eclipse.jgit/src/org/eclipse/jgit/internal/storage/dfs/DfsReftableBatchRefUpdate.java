@@ -89,6 +89,8 @@ && canCompactTopOfStack(cfg)) {
 		odb.commitPack(Collections.singleton(pack), prune);
 		odb.addReftable(pack, prune);
 		refdb.clearCache();
+		refdb.modified();
+		refdb.fireRefsChanged();
 	}
 
 	private boolean canCompactTopOfStack(ReftableConfig cfg)
@@ -204,6 +204,30 @@ boolean exists() throws IOException {
 		return odb.getReftables().length > 0;
 	}
 
+	@Override
+	void scanForChanges() throws IOException {
+		ReentrantLock l = getLock();
+		l.lock();
+		try {
+			// Every update adds a table with a higher update index, so
+			// comparing it is enough to tell whether references changed.
+			long before = stack != null ? reftableDatabase.nextUpdateIndex()
+					: -1;
+			clearCache();
+			boolean changed = true;
+			try {
+				changed = reftableDatabase.nextUpdateIndex() != before;
+			} finally {
+				if (changed) {
+					modified();
+				}
+			}
+		} finally {
+			l.unlock();
+			fireRefsChanged();
+		}
+	}
+
 	@Override
 	void clearCache() {
 		ReentrantLock l = getLock();
@@ -20,6 +20,7 @@
 import org.eclipse.jgit.attributes.AttributesRule;
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.RefDatabase;
 import org.eclipse.jgit.lib.RefUpdate;
 import org.eclipse.jgit.lib.ReflogReader;
 import org.eclipse.jgit.lib.Repository;
@@ -95,8 +96,14 @@ public String getIdentifier() {
 
 	@Override
 	public void scanForRepoChanges() throws IOException {
-		getRefDatabase().refresh();
+		// Clear the objects first, reftables are read from the pack list.
 		getObjectDatabase().clearCache();
+		RefDatabase refdb = getRefDatabase();
+		if (refdb instanceof DfsRefDatabase) {
+			((DfsRefDatabase) refdb).scanForChanges();
+		} else {
+			refdb.refresh();
+		}
 	}
 
 	@Override
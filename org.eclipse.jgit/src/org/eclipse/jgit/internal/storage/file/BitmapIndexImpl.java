@@ -247,6 +247,11 @@ public Iterator<BitmapObject> iterator() {
 			return build().iterator();
 		}
 
+		@Override
+		public Iterator<BitmapObject> iterator(int type) {
+			return build().iterator(type);
+		}
+
 		@Override
 		public int cardinality() {
 			return bitset.combine().cardinality();
@@ -399,6 +404,51 @@ public void remove() {
 			};
 		}
 
+		@Override
+		public Iterator<BitmapObject> iterator(int type) {
+			final IntIterator packed = ofObjectType(type);
+			final IntIterator dynamic = bitmap.andNot(ones(bitmapIndex.indexObjectCount))
+					.intIterator();
+			return new Iterator<>() {
+				private final BitmapObjectImpl out = new BitmapObjectImpl();
+				private MutableEntry entry;
+
+				@Override
+				public boolean hasNext() {
+					if (packed.hasNext() || entry != null) {
+						return true;
+					}
+					while (dynamic.hasNext()) {
+						int position = dynamic.next()
+								- bitmapIndex.indexObjectCount;
+						MutableEntry e = bitmapIndex.mutableIndex
+								.getObject(position);
+						if (e.type == type) {
+							entry = e;
+							return true;
+						}
+					}
+					return false;
+				}
+
+				@Override
+				public BitmapObject next() {
+					if (!hasNext())
+						throw new NoSuchElementException();
+
+					out.type = type;
+					if (packed.hasNext()) {
+						out.objectId = bitmapIndex.packIndex
+								.getObject(packed.next());
+					} else {
+						out.objectId = entry;
+						entry = null;
+					}
+					return out;
+				}
+			};
+		}
+
 		@Override
 		public EWAHCompressedBitmap retrieveCompressed() {
 			return bitmap;
@@ -19,6 +19,7 @@
 import java.util.Set;
 
 import org.eclipse.jgit.internal.storage.file.ObjectDirectory.AlternateHandle;
+import org.eclipse.jgit.internal.storage.pack.AccessHeatMap;
 import org.eclipse.jgit.internal.storage.pack.ObjectToPack;
 import org.eclipse.jgit.internal.storage.pack.PackWriter;
 import org.eclipse.jgit.lib.AbbreviatedObjectId;
@@ -30,6 +31,7 @@
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectIdOwnerMap;
 import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.transport.PromisorRemote;
 import org.eclipse.jgit.util.FS;
 
 /**
@@ -263,6 +265,16 @@ public Optional<CommitGraph> getCommitGraph() {
 		return wrapped.getCommitGraph();
 	}
 
+	@Override
+	AccessHeatMap getAccessHeatMap() {
+		return wrapped.getAccessHeatMap();
+	}
+
+	@Override
+	PromisorRemote getPromisorRemote() {
+		return wrapped.getPromisorRemote();
+	}
+
 	private static class UnpackedObjectId extends ObjectIdOwnerMap.Entry {
 		UnpackedObjectId(AnyObjectId id) {
 			super(id);
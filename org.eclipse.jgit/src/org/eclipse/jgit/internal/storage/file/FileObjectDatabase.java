@@ -17,6 +17,7 @@
 import java.util.Set;
 
 import org.eclipse.jgit.internal.storage.commitgraph.CommitGraph;
+import org.eclipse.jgit.internal.storage.pack.AccessHeatMap;
 import org.eclipse.jgit.internal.storage.pack.ObjectToPack;
 import org.eclipse.jgit.internal.storage.pack.PackWriter;
 import org.eclipse.jgit.lib.AbbreviatedObjectId;
@@ -26,6 +27,7 @@
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.transport.PromisorRemote;
 import org.eclipse.jgit.util.FS;
 
 abstract class FileObjectDatabase extends ObjectDatabase {
@@ -74,4 +76,8 @@ abstract InsertLooseObjectResult insertUnpackedObject(File tmp,
 	abstract Collection<Pack> getPacks();
 
 	abstract Optional<CommitGraph> getCommitGraph();
+
+	abstract AccessHeatMap getAccessHeatMap();
+
+	abstract PromisorRemote getPromisorRemote();
 }
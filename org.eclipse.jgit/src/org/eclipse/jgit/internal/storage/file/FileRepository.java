@@ -61,6 +61,7 @@
 import org.eclipse.jgit.storage.file.FileBasedConfig;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.storage.pack.PackConfig;
+import org.eclipse.jgit.transport.PromisorRemote;
 import org.eclipse.jgit.transport.ReceiveCommand;
 import org.eclipse.jgit.util.FileUtils;
 import org.eclipse.jgit.util.IO;
@@ -195,6 +196,11 @@ public FileRepository(BaseRepositoryBuilder options) throws IOException {
 				getFS(), //
 				new File(getDirectory(), Constants.SHALLOW));
 
+		updatePromisorRemote();
+		// A clone records its promisor remote only after the repository
+		// was created.
+		repoConfig.addChangeListener(e -> updatePromisorRemote());
+
 		if (objectDatabase.exists()) {
 			if (repositoryFormatVersion > 1)
 				throw new IOException(MessageFormat.format(
@@ -207,6 +213,28 @@ public FileRepository(BaseRepositoryBuilder options) throws IOException {
 		}
 	}
 
+	/**
+	 * Install the promisor remote configured in {@code extensions.partialClone}
+	 * into the object database, or remove it if none is configured anymore.
+	 */
+	private void updatePromisorRemote() {
+		long repositoryFormatVersion = repoConfig.getLong(
+				ConfigConstants.CONFIG_CORE_SECTION, null,
+				ConfigConstants.CONFIG_KEY_REPO_FORMAT_VERSION, 0);
+		String promisor = repoConfig.getString(
+				ConfigConstants.CONFIG_EXTENSIONS_SECTION, null,
+				ConfigConstants.CONFIG_KEY_PARTIAL_CLONE);
+		PromisorRemote current = objectDatabase.getPromisorRemote();
+		if (repositoryFormatVersion < 1
+				|| StringUtils.isEmptyOrNull(promisor)) {
+			objectDatabase.setPromisorRemote(null);
+		} else if (current == null
+				|| !promisor.equals(current.getRemoteName())) {
+			objectDatabase
+					.setPromisorRemote(new PromisorRemote(this, promisor));
+		}
+	}
+
 	private void loadRepoConfig() throws IOException {
 		try {
 			repoConfig.load();
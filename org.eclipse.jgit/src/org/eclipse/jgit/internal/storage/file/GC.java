@@ -15,6 +15,7 @@
 import static org.eclipse.jgit.internal.storage.pack.PackExt.INDEX;
 import static org.eclipse.jgit.internal.storage.pack.PackExt.KEEP;
 import static org.eclipse.jgit.internal.storage.pack.PackExt.PACK;
+import static org.eclipse.jgit.internal.storage.pack.PackExt.PROMISOR;
 import static org.eclipse.jgit.internal.storage.pack.PackExt.REVERSE_INDEX;
 
 import java.io.File;
@@ -73,6 +74,7 @@
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.internal.storage.commitgraph.CommitGraphWriter;
 import org.eclipse.jgit.internal.storage.commitgraph.GraphCommits;
+import org.eclipse.jgit.internal.storage.pack.AccessHeatMap;
 import org.eclipse.jgit.internal.storage.pack.PackExt;
 import org.eclipse.jgit.internal.storage.pack.PackWriter;
 import org.eclipse.jgit.internal.util.ShutdownHook;
@@ -130,7 +132,7 @@ public class GC {
 	private static final Set<PackExt> PARENT_EXTS = Set.of(PACK, KEEP);
 
 	private static final Set<PackExt> CHILD_EXTS = Set.of(BITMAP_INDEX, INDEX,
-			REVERSE_INDEX);
+			REVERSE_INDEX, PROMISOR);
 
 	private static final int DEFAULT_AUTOPACKLIMIT = 50;
 
@@ -169,6 +171,8 @@ public static void setExecutor(ExecutorService e) {
 
 	private PackConfig pconfig;
 
+	private AccessHeatMap accessHeat;
+
 	/**
 	 * the refs which existed during the last call to {@link #repack()}. This is
 	 * needed during {@link #prune(Set)} where we can optimize by looking at the
@@ -622,19 +626,22 @@ public void prune(Set<ObjectId> objectsToKeep) throws IOException,
 			// Remove these loose objects
 			// from the deletionCandidates. When the last candidate is removed
 			// leave this method.
-			ObjectWalk w = new ObjectWalk(repo);
-			try {
-				for (Ref cr : newRefs) {
-					checkCancelled();
-					w.markStart(w.parseAny(cr.getObjectId()));
-				}
-				if (lastPackedRefs != null)
-					for (Ref lpr : lastPackedRefs) {
-						w.markUninteresting(w.parseAny(lpr.getObjectId()));
+			try (ObjectReader reader = newLocalReader()) {
+				ObjectWalk w = new ObjectWalk(reader);
+				try {
+					for (Ref cr : newRefs) {
+						checkCancelled();
+						w.markStart(w.parseAny(cr.getObjectId()));
 					}
-				removeReferenced(deletionCandidates, w);
-			} finally {
-				w.dispose();
+					if (lastPackedRefs != null)
+						for (Ref lpr : lastPackedRefs) {
+							w.markUninteresting(
+									w.parseAny(lpr.getObjectId()));
+						}
+					removeReferenced(deletionCandidates, w);
+				} finally {
+					w.dispose();
+				}
 			}
 		}
 
@@ -646,21 +653,24 @@ public void prune(Set<ObjectId> objectsToKeep) throws IOException,
 		// that they are referenced by reflog entries. Even refs which currently
 		// point to the same object as during last repack() may have
 		// additional reflog entries not handled during last repack()
-		ObjectWalk w = new ObjectWalk(repo);
-		try {
-			for (Ref ar : getAllRefs())
-				for (ObjectId id : listRefLogObjects(ar, lastRepackTime)) {
-					checkCancelled();
-					w.markStart(w.parseAny(id));
-				}
-			if (lastPackedRefs != null)
-				for (Ref lpr : lastPackedRefs) {
-					checkCancelled();
-					w.markUninteresting(w.parseAny(lpr.getObjectId()));
-				}
-			removeReferenced(deletionCandidates, w);
-		} finally {
-			w.dispose();
+		try (ObjectReader reader = newLocalReader()) {
+			ObjectWalk w = new ObjectWalk(reader);
+			try {
+				for (Ref ar : getAllRefs())
+					for (ObjectId id : listRefLogObjects(ar,
+							lastRepackTime)) {
+						checkCancelled();
+						w.markStart(w.parseAny(id));
+					}
+				if (lastPackedRefs != null)
+					for (Ref lpr : lastPackedRefs) {
+						checkCancelled();
+						w.markUninteresting(w.parseAny(lpr.getObjectId()));
+					}
+				removeReferenced(deletionCandidates, w);
+			} finally {
+				w.dispose();
+			}
 		}
 
 		if (deletionCandidates.isEmpty())
@@ -747,6 +757,18 @@ private long getPackExpireDate() throws ParseException {
 	 * @throws IOException
 	 *             if an IO error occurred
 	 */
+	/**
+	 * Create a reader failing on objects missing from a partial clone,
+	 * rather than fetching them from the promisor remote.
+	 *
+	 * @return the reader, to be closed by the caller.
+	 */
+	private ObjectReader newLocalReader() {
+		ObjectReader reader = repo.newObjectReader();
+		reader.setFetchMissingObjects(false);
+		return reader;
+	}
+
 	private void removeReferenced(Map<ObjectId, File> id2File,
 			ObjectWalk w) throws MissingObjectException,
 			IncorrectObjectTypeException, IOException {
@@ -889,6 +911,14 @@ public Collection<Pack> repack() throws IOException {
 			nonHeads.clear();
 		}
 
+		try {
+			accessHeat = repo.getObjectDatabase().updateAccessHeat(true);
+		} catch (IOException e) {
+			// The heat map only affects the order of objects in the pack.
+			LOG.warn(JGitText.get().cannotUpdateAccessHeatMap, e);
+			accessHeat = null;
+		}
+
 		List<Pack> ret = new ArrayList<>(2);
 		Pack heads = null;
 		if (!allHeadsAndTags.isEmpty()) {
@@ -1314,9 +1344,10 @@ private Pack writePack(@NonNull Set<? extends ObjectId> want,
 			}
 			return Integer.signum(o1.hashCode() - o2.hashCode());
 		});
-		try (PackWriter pw = new PackWriter(
-				pconfig,
-				repo.newObjectReader())) {
+		WindowCursor reader = new WindowCursor(repo.getObjectDatabase());
+		reader.disableAccessHeat();
+		reader.setFetchMissingObjects(false);
+		try (PackWriter pw = new PackWriter(pconfig, reader)) {
 			// prepare the PackWriter
 			pw.setDeltaBaseAsOffset(true);
 			pw.setReuseDeltaCommits(false);
@@ -1327,6 +1358,7 @@ private Pack writePack(@NonNull Set<? extends ObjectId> want,
 				for (ObjectIdSet idx : excludeObjects)
 					pw.excludeObjects(idx);
 			pw.setCreateBitmaps(createBitmap);
+			pw.setAccessHeatMap(accessHeat);
 			pw.preparePack(pm, want, have, PackWriter.NONE,
 					union(tags, excludedRefsTips));
 			if (pw.getObjectCount() == 0)
@@ -14,11 +14,16 @@
 import static org.eclipse.jgit.internal.storage.pack.PackExt.PACK;
 import static org.eclipse.jgit.internal.storage.pack.PackExt.BITMAP_INDEX;
 import static org.eclipse.jgit.internal.storage.pack.PackExt.INDEX;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_CORE_SECTION;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_HEAT_SAMPLE_RATE;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.text.MessageFormat;
@@ -33,7 +38,9 @@
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jgit.errors.PackMismatchException;
+import org.eclipse.jgit.errors.LockFailedException;
 import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.internal.storage.pack.AccessHeatMap;
 import org.eclipse.jgit.internal.storage.pack.ObjectToPack;
 import org.eclipse.jgit.internal.storage.pack.PackExt;
 import org.eclipse.jgit.internal.storage.pack.PackWriter;
@@ -48,6 +55,7 @@
 import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.RepositoryCache;
 import org.eclipse.jgit.lib.RepositoryCache.FileKey;
+import org.eclipse.jgit.transport.PromisorRemote;
 import org.eclipse.jgit.util.FS;
 import org.eclipse.jgit.util.FileUtils;
 
@@ -101,6 +109,10 @@ public class ObjectDirectory extends FileObjectDatabase {
 
 	private Set<ObjectId> shallowCommitsIds;
 
+	private final AccessHeatMap accessHeat;
+
+	private volatile PromisorRemote promisorRemote;
+
 	/**
 	 * Initialize a reference to an on-disk object directory.
 	 *
@@ -133,6 +145,12 @@ public ObjectDirectory(final Config cfg, final File dir,
 		fileCommitGraph = new FileCommitGraph(objects);
 		this.fs = fs;
 		this.shallowFile = shallowFile;
+		int heatSampleRate = config.getInt(CONFIG_CORE_SECTION,
+				CONFIG_KEY_HEAT_SAMPLE_RATE, 0);
+		accessHeat = heatSampleRate > 0
+				? new AccessHeatMap(heatSampleRate,
+						AccessHeatMap.DEFAULT_MAX_ENTRIES)
+				: null;
 
 		alternates = new AtomicReference<>();
 		if (alternatePaths != null) {
@@ -197,6 +215,14 @@ public PackInserter newPackInserter() {
 
 	@Override
 	public void close() {
+		if (accessHeat != null && !accessHeat.isEmpty()) {
+			try {
+				updateAccessHeat(false);
+			} catch (IOException e) {
+				// Losing samples only affects the order of the next repack.
+			}
+		}
+
 		loose.close();
 
 		packed.close();
@@ -214,6 +240,79 @@ public Collection<Pack> getPacks() {
 		return packed.getPacks();
 	}
 
+	@Override
+	AccessHeatMap getAccessHeatMap() {
+		return accessHeat;
+	}
+
+	@Override
+	PromisorRemote getPromisorRemote() {
+		return promisorRemote;
+	}
+
+	/**
+	 * Set the remote objects missing from this partial clone are fetched from.
+	 *
+	 * @param remote
+	 *            the promisor remote, or null if missing objects are not
+	 *            fetched.
+	 */
+	void setPromisorRemote(PromisorRemote remote) {
+		promisorRemote = remote;
+	}
+
+	/**
+	 * Merge the read counts sampled so far into the persisted heat map.
+	 * <p>
+	 * The heat map is stored in {@code objects/info/heat}. Sampled counts are
+	 * moved there, so each sample is persisted only once.
+	 *
+	 * @param decay
+	 *            whether to halve all counts after merging, as done when the
+	 *            repository is repacked.
+	 * @return the merged heat map; {@code null} if sampling is disabled and
+	 *         no heat map was persisted.
+	 * @throws IOException
+	 *             the heat map could not be read or written.
+	 */
+	AccessHeatMap updateAccessHeat(boolean decay) throws IOException {
+		File file = new File(infoDirectory, "heat"); //$NON-NLS-1$
+		if (accessHeat == null && !file.exists()) {
+			return null;
+		}
+		AccessHeatMap merged = new AccessHeatMap(1,
+				AccessHeatMap.DEFAULT_MAX_ENTRIES);
+		LockFile lock = new LockFile(file);
+		if (!lock.lock()) {
+			throw new LockFailedException(file);
+		}
+		try {
+			if (file.exists()) {
+				try (InputStream in = new BufferedInputStream(
+						Files.newInputStream(file.toPath()))) {
+					merged.read(in, file.getPath());
+				}
+			}
+			if (accessHeat != null) {
+				merged.addAll(accessHeat);
+				accessHeat.clear();
+			}
+			if (decay) {
+				merged.decay();
+			}
+			try (OutputStream out = new BufferedOutputStream(
+					lock.getOutputStream())) {
+				merged.write(out);
+			}
+			if (!lock.commit()) {
+				throw new LockFailedException(file);
+			}
+		} finally {
+			lock.unlock();
+		}
+		return merged;
+	}
+
 	@Override
 	public long getApproximateObjectCount() {
 		long count = 0;
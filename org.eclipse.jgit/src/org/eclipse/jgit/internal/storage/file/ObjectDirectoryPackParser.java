@@ -17,6 +17,8 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.text.MessageFormat;
@@ -29,6 +31,7 @@
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.internal.storage.pack.PackExt;
 import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.CoreConfig;
 import org.eclipse.jgit.lib.ObjectId;
@@ -39,6 +42,7 @@
 import org.eclipse.jgit.transport.PackedObjectInfo;
 import org.eclipse.jgit.util.FileUtils;
 import org.eclipse.jgit.util.NB;
+import org.eclipse.jgit.util.SystemReader;
 
 /**
  * Consumes a pack stream and stores as a pack file in
@@ -48,6 +52,9 @@
  * {@link org.eclipse.jgit.lib.ObjectInserter#newPackParser(InputStream)}.
  */
 public class ObjectDirectoryPackParser extends PackParser {
+	/** Default for {@link #setMmapLimit(long)}. */
+	private static final long DEFAULT_MMAP_LIMIT = 1L << 30;
+
 	private final FileObjectDatabase db;
 
 	/** CRC-32 computation for objects that are appended onto the pack. */
@@ -74,6 +81,15 @@ public class ObjectDirectoryPackParser extends PackParser {
 	/** Read/write handle to {@link #tmpPack} while it is being parsed. */
 	private RandomAccessFile out;
 
+	/** Largest received pack that is memory mapped; 0 to never map. */
+	private long mmapLimit;
+
+	/** Read-only mapping of the received pack, while deltas are resolved. */
+	private volatile ByteBuffer map;
+
+	/** Position of the next read from {@link #map}; -1 to read the file. */
+	private long mapPos = -1;
+
 	/** Length of the original pack stream, before missing bases were appended. */
 	private long origEnd;
 
@@ -102,6 +118,13 @@ public class ObjectDirectoryPackParser extends PackParser {
 		this.tailDigest = Constants.newMessageDigest();
 
 		indexVersion = db.getConfig().get(CoreConfig.KEY).getPackIndexVersion();
+		if (db.getConfig().getBoolean(ConfigConstants.CONFIG_CORE_SECTION,
+				ConfigConstants.CONFIG_KEY_PACKED_GIT_MMAP, false)) {
+			mmapLimit = db.getConfig().getLong(
+					ConfigConstants.CONFIG_CORE_SECTION,
+					ConfigConstants.CONFIG_KEY_INDEX_PACK_MMAP_LIMIT,
+					DEFAULT_MMAP_LIMIT);
+		}
 	}
 
 	/**
@@ -130,6 +153,28 @@ public void setKeepEmpty(boolean empty) {
 		keepEmpty = empty;
 	}
 
+	/**
+	 * Set the size up to which the received pack is memory mapped.
+	 * <p>
+	 * Once the pack stream has been received, resolving deltas reads many
+	 * small regions of the temporary pack file again. If the pack is not
+	 * larger than this limit it is memory mapped, and these reads copy from
+	 * the mapping instead of issuing a system call each. Larger packs are
+	 * read through the file as before.
+	 * <p>
+	 * Defaults to {@code core.indexPackMmapLimit} (1 GiB) if
+	 * {@code core.packedGitMMAP} is enabled, otherwise to 0. Packs are never
+	 * mapped on Windows, where a mapped file cannot be renamed.
+	 *
+	 * @param limit
+	 *            largest pack to map, in bytes, at most
+	 *            {@link Integer#MAX_VALUE}; 0 to never map the pack.
+	 * @since 6.9
+	 */
+	public void setMmapLimit(long limit) {
+		mmapLimit = Math.max(0, Math.min(limit, Integer.MAX_VALUE));
+	}
+
 	/**
 	 * Get the imported {@link org.eclipse.jgit.internal.storage.file.Pack}.
 	 * <p>
@@ -167,6 +212,7 @@ public PackLock parse(ProgressMonitor receiving, ProgressMonitor resolving)
 
 			super.parse(receiving, resolving);
 
+			unmap();
 			out.seek(packEnd);
 			out.write(packHash);
 			out.getChannel().force(true);
@@ -179,6 +225,7 @@ public PackLock parse(ProgressMonitor receiving, ProgressMonitor resolving)
 
 			return renameAndOpenPack(getLockMessage());
 		} finally {
+			unmap();
 			if (def != null)
 				def.end();
 			try {
@@ -256,12 +303,23 @@ protected void onPackFooter(byte[] hash) throws IOException {
 		origEnd = packEnd;
 		origHash = hash;
 		packHash = hash;
+
+		if (0 < packEnd && packEnd <= Math.min(mmapLimit, Integer.MAX_VALUE)
+				&& !SystemReader.getInstance().isWindows()) {
+			try {
+				map = out.getChannel().map(MapMode.READ_ONLY, 0, packEnd);
+			} catch (IOException e) {
+				// Out of address space or not supported by the file
+				// system, read through the file instead.
+				map = null;
+			}
+		}
 	}
 
 	@Override
 	protected ObjectTypeAndSize seekDatabase(UnresolvedDelta delta,
 			ObjectTypeAndSize info) throws IOException {
-		out.seek(delta.getOffset());
+		seek(delta.getOffset());
 		crc.reset();
 		return readObjectHeader(info);
 	}
@@ -269,14 +327,62 @@ protected ObjectTypeAndSize seekDatabase(UnresolvedDelta delta,
 	@Override
 	protected ObjectTypeAndSize seekDatabase(PackedObjectInfo obj,
 			ObjectTypeAndSize info) throws IOException {
-		out.seek(obj.getOffset());
+		seek(obj.getOffset());
 		crc.reset();
 		return readObjectHeader(info);
 	}
 
+	private void seek(long position) throws IOException {
+		ByteBuffer m = map;
+		if (m != null && position < m.limit()) {
+			mapPos = position;
+		} else {
+			mapPos = -1;
+			out.seek(position);
+		}
+	}
+
 	@Override
 	protected int readDatabase(byte[] dst, int pos, int cnt) throws IOException {
-		return out.read(dst, pos, cnt);
+		if (mapPos < 0) {
+			return out.read(dst, pos, cnt);
+		}
+		int n = read(map, mapPos, dst, pos, cnt);
+		if (n < 0) {
+			// Past the mapped original pack, into appended bases.
+			out.seek(mapPos);
+			mapPos = -1;
+			return out.read(dst, pos, cnt);
+		}
+		mapPos += n;
+		return n;
+	}
+
+	private static int read(ByteBuffer m, long position, byte[] dst, int pos,
+			int cnt) {
+		int n = (int) Math.min(cnt, m.limit() - position);
+		if (n <= 0) {
+			return -1;
+		}
+		m.get((int) position, dst, pos, n);
+		return n;
+	}
+
+	@Override
+	protected ConcurrentDatabaseReader getConcurrentDatabaseReader() {
+		return this::readAt;
+	}
+
+	private int readAt(long position, byte[] dst, int pos, int cnt)
+			throws IOException {
+		ByteBuffer m = map;
+		if (m != null) {
+			int n = read(m, position, dst, pos, cnt);
+			if (n >= 0) {
+				return n;
+			}
+		}
+		return out.getChannel().read(ByteBuffer.wrap(dst, pos, cnt), position);
 	}
 
 	@Override
@@ -289,6 +395,12 @@ private static String baseName(File tmpPack) {
 		return name.substring(0, name.lastIndexOf('.'));
 	}
 
+	private void unmap() {
+		// The mapping is released once it is garbage collected.
+		map = null;
+		mapPos = -1;
+	}
+
 	private void cleanupTemporaryFiles() {
 		if (tmpIdx != null && !tmpIdx.delete() && tmpIdx.exists())
 			tmpIdx.deleteOnExit();
@@ -340,6 +452,7 @@ protected boolean onAppendBase(final int typeCode, final byte[] data,
 
 	@Override
 	protected void onEndThinPack() throws IOException {
+		unmap();
 		final byte[] buf = buffer();
 
 		final MessageDigest origDigest = Constants.newMessageDigest();
@@ -413,6 +526,7 @@ private PackLock renameAndOpenPack(String lockMessage)
 		File packDir = new File(db.getDirectory(), "pack"); //$NON-NLS-1$
 		PackFile finalPack = new PackFile(packDir, id, PackExt.PACK);
 		PackFile finalIdx = finalPack.create(PackExt.INDEX);
+		PackFile finalPromisor = finalPack.create(PackExt.PROMISOR);
 		final PackLockImpl keep = new PackLockImpl(finalPack, db.getFS());
 
 		if (!packDir.exists() && !packDir.mkdir() && !packDir.exists()) {
@@ -447,12 +561,26 @@ private PackLock renameAndOpenPack(String lockMessage)
 			}
 		}
 
+		if (isPromisor()) {
+			// Mark the pack before it becomes visible, so it is never
+			// seen without the marker.
+			//
+			try {
+				FileUtils.createNewFile(finalPromisor);
+			} catch (IOException e) {
+				cleanupTemporaryFiles();
+				keep.unlock();
+				throw e;
+			}
+		}
+
 		try {
 			FileUtils.rename(tmpPack, finalPack,
 					StandardCopyOption.ATOMIC_MOVE);
 		} catch (IOException e) {
 			cleanupTemporaryFiles();
 			keep.unlock();
+			FileUtils.delete(finalPromisor, FileUtils.SKIP_MISSING);
 			throw new IOException(MessageFormat.format(
 					JGitText.get().cannotMovePackTo, finalPack), e);
 		}
@@ -462,6 +590,7 @@ private PackLock renameAndOpenPack(String lockMessage)
 		} catch (IOException e) {
 			cleanupTemporaryFiles();
 			keep.unlock();
+			FileUtils.delete(finalPromisor, FileUtils.SKIP_MISSING);
 			if (!finalPack.delete())
 				finalPack.deleteOnExit();
 			throw new IOException(MessageFormat.format(
@@ -485,6 +614,7 @@ private PackLock renameAndOpenPack(String lockMessage)
 				FileUtils.delete(finalPack);
 			if (finalIdx.exists())
 				FileUtils.delete(finalIdx);
+			FileUtils.delete(finalPromisor, FileUtils.SKIP_MISSING);
 			throw err;
 		} finally {
 			if (interrupted) {
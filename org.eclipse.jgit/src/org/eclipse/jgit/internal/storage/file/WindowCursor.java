@@ -12,6 +12,7 @@
 package org.eclipse.jgit.internal.storage.file;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -26,6 +27,7 @@
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.StoredObjectRepresentationNotAvailableException;
 import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.internal.storage.pack.AccessHeatMap;
 import org.eclipse.jgit.internal.storage.pack.CachedPack;
 import org.eclipse.jgit.internal.storage.pack.ObjectReuseAsIs;
 import org.eclipse.jgit.internal.storage.pack.ObjectToPack;
@@ -43,6 +45,7 @@
 import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.transport.PromisorRemote;
 
 /** Active handle to a ByteWindow. */
 final class WindowCursor extends ObjectReader implements ObjectReuseAsIs {
@@ -60,10 +63,15 @@ final class WindowCursor extends ObjectReader implements ObjectReuseAsIs {
 
 	final FileObjectDatabase db;
 
+	private AccessHeatMap accessHeat;
+
+	private boolean fetchMissingObjects = true;
+
 	WindowCursor(FileObjectDatabase db) {
 		this.db = db;
 		this.createdFromInserter = null;
 		this.streamFileThreshold = WindowCache.getStreamFileThreshold();
+		this.accessHeat = db != null ? db.getAccessHeatMap() : null;
 	}
 
 	WindowCursor(FileObjectDatabase db,
@@ -71,6 +79,15 @@ final class WindowCursor extends ObjectReader implements ObjectReuseAsIs {
 		this.db = db;
 		this.createdFromInserter = createdFromInserter;
 		this.streamFileThreshold = WindowCache.getStreamFileThreshold();
+		this.accessHeat = db != null ? db.getAccessHeatMap() : null;
+	}
+
+	/**
+	 * Stop sampling reads of this cursor for the access heat map, e.g. when
+	 * reading objects to repack them.
+	 */
+	void disableAccessHeat() {
+		accessHeat = null;
 	}
 
 	DeltaBaseCache getDeltaBaseCache() {
@@ -126,11 +143,23 @@ public boolean has(AnyObjectId objectId) throws IOException {
 		return db.has(objectId);
 	}
 
+	@Override
+	public boolean has(AnyObjectId objectId, int typeHint) throws IOException {
+		// Don't let open() fetch objects only checked for.
+		if (db.getPromisorRemote() != null && !db.has(objectId)) {
+			return false;
+		}
+		return super.has(objectId, typeHint);
+	}
+
 	@Override
 	public ObjectLoader open(AnyObjectId objectId, int typeHint)
 			throws MissingObjectException, IncorrectObjectTypeException,
 			IOException {
-		final ObjectLoader ldr = db.openObject(this, objectId);
+		ObjectLoader ldr = db.openObject(this, objectId);
+		if (ldr == null && fetchMissing(objectId)) {
+			ldr = db.openObject(this, objectId);
+		}
 		if (ldr == null) {
 			if (typeHint == OBJ_ANY)
 				throw new MissingObjectException(objectId.copy(),
@@ -139,6 +168,8 @@ public ObjectLoader open(AnyObjectId objectId, int typeHint)
 		}
 		if (typeHint != OBJ_ANY && ldr.getType() != typeHint)
 			throw new IncorrectObjectTypeException(objectId.copy(), typeHint);
+		if (accessHeat != null)
+			accessHeat.sample(objectId);
 		return ldr;
 	}
 
@@ -152,6 +183,9 @@ public long getObjectSize(AnyObjectId objectId, int typeHint)
 			throws MissingObjectException, IncorrectObjectTypeException,
 			IOException {
 		long sz = db.getObjectSize(this, objectId);
+		if (sz < 0 && fetchMissing(objectId)) {
+			sz = db.getObjectSize(this, objectId);
+		}
 		if (sz < 0) {
 			if (typeHint == OBJ_ANY)
 				throw new MissingObjectException(objectId.copy(),
@@ -161,6 +195,40 @@ public long getObjectSize(AnyObjectId objectId, int typeHint)
 		return sz;
 	}
 
+	@Override
+	public boolean canFetchMissingObjects() {
+		return fetchMissingObjects && db.getPromisorRemote() != null;
+	}
+
+	@Override
+	public void setFetchMissingObjects(boolean fetch) {
+		fetchMissingObjects = fetch;
+	}
+
+	@Override
+	public void prefetch(Iterable<? extends AnyObjectId> objectIds)
+			throws IOException {
+		PromisorRemote promisor = db.getPromisorRemote();
+		if (promisor == null || !fetchMissingObjects) {
+			return;
+		}
+		List<AnyObjectId> missing = new ArrayList<>();
+		for (AnyObjectId id : objectIds) {
+			if (!db.has(id)) {
+				missing.add(id);
+			}
+		}
+		if (!missing.isEmpty()) {
+			promisor.fetch(missing);
+		}
+	}
+
+	private boolean fetchMissing(AnyObjectId objectId) throws IOException {
+		PromisorRemote promisor = db.getPromisorRemote();
+		return promisor != null && fetchMissingObjects
+				&& promisor.fetch(Collections.singleton(objectId));
+	}
+
 	@Override
 	public LocalObjectToPack newObjectToPack(AnyObjectId objectId, int type) {
 		return new LocalObjectToPack(objectId, type);
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.internal.storage.pack;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Sampled counts of how often objects are read.
+ * <p>
+ * Object readers record a random sample of the objects they open. When the
+ * repository is repacked, {@link PackWriter} uses the counts to place hot
+ * objects next to each other, so the windows and blocks caching them are
+ * shared by many reads instead of being spread across the whole pack.
+ * <p>
+ * The map is bounded. If it grows beyond its maximum number of entries all
+ * counts are halved, repeatedly until it is back to three quarters of its
+ * maximum, and objects whose count drops to zero are forgotten.
+ *
+ * @since 6.9
+ */
+public class AccessHeatMap {
+	private static final byte[] SIGNATURE = { 'H', 'E', 'A', 'T' };
+
+	private static final int VERSION = 1;
+
+	/** Default maximum number of objects tracked. */
+	public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+	private final int sampleRate;
+
+	private final int maxEntries;
+
+	private final Map<ObjectId, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a heat map.
+	 *
+	 * @param sampleRate
+	 *            record one in every {@code sampleRate} accesses passed to
+	 *            {@link #sample(AnyObjectId)}; 1 records all of them.
+	 * @param maxEntries
+	 *            maximum number of objects to track before counts decay.
+	 */
+	public AccessHeatMap(int sampleRate, int maxEntries) {
+		this.sampleRate = Math.max(1, sampleRate);
+		this.maxEntries = Math.max(1, maxEntries);
+	}
+
+	/**
+	 * Get the sample rate.
+	 *
+	 * @return one in how many accesses is recorded.
+	 */
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * Get the number of objects currently tracked.
+	 *
+	 * @return the number of objects currently tracked.
+	 */
+	public int size() {
+		return counts.size();
+	}
+
+	/**
+	 * Whether no access was recorded.
+	 *
+	 * @return whether no access was recorded.
+	 */
+	public boolean isEmpty() {
+		return counts.isEmpty();
+	}
+
+	/**
+	 * Record an access to an object if it is selected by sampling.
+	 *
+	 * @param id
+	 *            the object which was read.
+	 */
+	public void sample(AnyObjectId id) {
+		if (sampleRate == 1
+				|| ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+			add(id, 1);
+		}
+	}
+
+	/**
+	 * Add to the count of an object.
+	 *
+	 * @param id
+	 *            the object.
+	 * @param n
+	 *            amount to add to its count.
+	 */
+	public void add(AnyObjectId id, int n) {
+		if (n <= 0) {
+			return;
+		}
+		AtomicInteger c = counts.get(id);
+		if (c == null) {
+			c = counts.computeIfAbsent(id.copy(), k -> new AtomicInteger());
+		}
+		c.addAndGet(n);
+		if (counts.size() > maxEntries) {
+			shrink();
+		}
+	}
+
+	private synchronized void shrink() {
+		// Leave headroom, so that the next decay is only due after many
+		// more new objects were recorded.
+		int lowWater = maxEntries - maxEntries / 4;
+		while (counts.size() > lowWater) {
+			decay();
+		}
+	}
+
+	/**
+	 * Get the sampled access count of an object.
+	 *
+	 * @param id
+	 *            the object.
+	 * @return the sampled access count, 0 if the object was never sampled.
+	 */
+	public int getHeat(AnyObjectId id) {
+		AtomicInteger c = counts.get(id);
+		return c != null ? c.get() : 0;
+	}
+
+	/**
+	 * Halve all counts and forget objects whose count drops to zero.
+	 * <p>
+	 * Applied on every repack, so that objects which are no longer read cool
+	 * down over time.
+	 */
+	public synchronized void decay() {
+		for (Iterator<AtomicInteger> i = counts.values().iterator(); i
+				.hasNext();) {
+			AtomicInteger c = i.next();
+			if (c.updateAndGet(v -> v >> 1) == 0) {
+				i.remove();
+			}
+		}
+	}
+
+	/**
+	 * Add all counts of another map to this map.
+	 *
+	 * @param other
+	 *            the map to add.
+	 */
+	public void addAll(AccessHeatMap other) {
+		for (Map.Entry<ObjectId, AtomicInteger> e : other.counts.entrySet()) {
+			add(e.getKey(), e.getValue().get());
+		}
+	}
+
+	/**
+	 * Remove all counts.
+	 */
+	public void clear() {
+		counts.clear();
+	}
+
+	/**
+	 * Stable sort objects by descending heat.
+	 * <p>
+	 * Objects are grouped by the magnitude of their count, so objects of
+	 * similar heat keep the order they were given in, which usually keeps
+	 * objects of the same path and age together.
+	 *
+	 * @param list
+	 *            the objects to sort.
+	 */
+	public void sort(List<ObjectToPack> list) {
+		if (counts.isEmpty() || list.size() < 2) {
+			return;
+		}
+		int n = list.size();
+		int[] rank = new int[n];
+		Integer[] order = new Integer[n];
+		boolean hot = false;
+		for (int i = 0; i < n; i++) {
+			int c = getHeat(list.get(i));
+			rank[i] = 32 - Integer.numberOfLeadingZeros(c);
+			order[i] = Integer.valueOf(i);
+			hot |= c > 0;
+		}
+		if (!hot) {
+			return;
+		}
+		Arrays.sort(order, (a, b) -> Integer.compare(rank[b.intValue()],
+				rank[a.intValue()]));
+		ObjectToPack[] sorted = new ObjectToPack[n];
+		for (int i = 0; i < n; i++) {
+			sorted[i] = list.get(order[i].intValue());
+		}
+		for (int i = 0; i < n; i++) {
+			list.set(i, sorted[i]);
+		}
+	}
+
+	/**
+	 * Write the counts to a stream.
+	 *
+	 * @param out
+	 *            stream to write to; not closed.
+	 * @throws IOException
+	 *             the stream could not be written.
+	 */
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream d = new DataOutputStream(out);
+		d.write(SIGNATURE);
+		d.writeInt(VERSION);
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		for (Map.Entry<ObjectId, AtomicInteger> e : counts.entrySet()) {
+			int c = e.getValue().get();
+			if (c > 0) {
+				e.getKey().copyRawTo(raw, 0);
+				d.write(raw);
+				d.writeInt(c);
+			}
+		}
+		d.flush();
+	}
+
+	/**
+	 * Add counts read from a stream written by {@link #write(OutputStream)}.
+	 *
+	 * @param in
+	 *            stream to read from; not closed.
+	 * @param name
+	 *            name of the stream for error messages.
+	 * @throws IOException
+	 *             the stream could not be read or is not a heat map.
+	 */
+	public void read(InputStream in, String name) throws IOException {
+		DataInputStream d = new DataInputStream(in);
+		byte[] hdr = new byte[SIGNATURE.length];
+		d.readFully(hdr);
+		if (!Arrays.equals(hdr, SIGNATURE) || d.readInt() != VERSION) {
+			throw new IOException(MessageFormat
+					.format(JGitText.get().invalidAccessHeatMap, name));
+		}
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		for (;;) {
+			int n = d.read(raw);
+			if (n < 0) {
+				break;
+			}
+			if (n < raw.length) {
+				d.readFully(raw, n, raw.length - n);
+			}
+			add(ObjectId.fromRaw(raw), d.readInt());
+		}
+	}
+}
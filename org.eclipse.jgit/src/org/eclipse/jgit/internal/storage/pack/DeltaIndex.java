@@ -12,6 +12,7 @@
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 /**
  * Index of blocks in a source file.
@@ -368,12 +369,13 @@ private DeltaEncoder newEncoder(OutputStream out, long resSize, int limit)
 	}
 
 	private static int fwdmatch(byte[] res, int resPtr, byte[] src, int srcPtr) {
-		int start = resPtr;
-		for (; resPtr < res.length && srcPtr < src.length; resPtr++, srcPtr++) {
-			if (res[resPtr] != src[srcPtr])
-				break;
-		}
-		return resPtr - start;
+		// Arrays.mismatch is an intrinsic in the JIT and compares many bytes
+		// per instruction using the widest vector registers available,
+		// falling back to a scalar loop on platforms without such support.
+		int len = Math.min(res.length - resPtr, src.length - srcPtr);
+		int n = Arrays.mismatch(res, resPtr, resPtr + len, src, srcPtr,
+				srcPtr + len);
+		return n < 0 ? len : n;
 	}
 
 	private static int negmatch(byte[] res, int resPtr, byte[] src, int srcPtr,
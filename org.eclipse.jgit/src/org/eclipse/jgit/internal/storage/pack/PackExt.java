@@ -36,7 +36,10 @@ public enum PackExt {
 	COMMIT_GRAPH("graph"), //$NON-NLS-1$
 
 	/** An object size index. */
-	OBJECT_SIZE_INDEX("objsize"); //$NON-NLS-1$
+	OBJECT_SIZE_INDEX("objsize"), //$NON-NLS-1$
+
+	/** Marks a pack received from the promisor remote of a partial clone. */
+	PROMISOR("promisor"); //$NON-NLS-1$
 
 	private final String ext;
 
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.internal.storage.pack;
+
+import java.io.InterruptedIOException;
+
+import org.eclipse.jgit.storage.pack.PackMemoryBudgetStats;
+import org.eclipse.jgit.util.Monitoring;
+
+/**
+ * Memory budget shared by all {@link PackWriter}s of a process.
+ * <p>
+ * Each PackWriter sizes its delta search windows and its delta cache from its
+ * own {@link org.eclipse.jgit.storage.pack.PackConfig}. With many concurrent
+ * writers (e.g. a server running hundreds of UploadPacks) these add up. If a
+ * limit is configured, PackWriter reserves memory from this budget before
+ * searching for deltas. When the budget is short the reservation is granted
+ * only partially and the writer shrinks its window memory and delta cache
+ * accordingly. If not even a minimal share is available the writer waits
+ * until other writers release their memory.
+ * <p>
+ * By default the budget is unlimited and PackWriter uses its configuration
+ * unchanged.
+ *
+ * @since 6.9
+ */
+public class PackMemoryBudget implements PackMemoryBudgetStats {
+	private static volatile PackMemoryBudget instance = new PackMemoryBudget(
+			0);
+
+	/**
+	 * Get the budget used by new PackWriters.
+	 *
+	 * @return the budget used by new PackWriters.
+	 */
+	public static PackMemoryBudget getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Replace the process wide budget.
+	 * <p>
+	 * Reservations made from the previous budget are released to it and do
+	 * not count against the new limit.
+	 *
+	 * @param limit
+	 *            maximum number of bytes all PackWriters together may use for
+	 *            delta search windows and delta caches; 0 for no limit.
+	 */
+	public static void reconfigure(long limit) {
+		PackMemoryBudget budget = new PackMemoryBudget(limit);
+		instance = budget;
+		if (limit > 0) {
+			Monitoring.registerMBean(budget, "pack_memory_budget"); //$NON-NLS-1$
+		}
+	}
+
+	private final long limit;
+
+	private long used;
+
+	private long reservations;
+
+	private long throttled;
+
+	private long waits;
+
+	private long waitTime;
+
+	/**
+	 * Create a budget.
+	 *
+	 * @param limit
+	 *            maximum number of bytes which can be reserved; 0 for no limit.
+	 */
+	public PackMemoryBudget(long limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.limit = limit;
+	}
+
+	/**
+	 * Reserve memory.
+	 * <p>
+	 * Grants {@code requested} bytes if available, otherwise whatever is left,
+	 * but never less than {@code minimum}. Waits if not even {@code minimum}
+	 * bytes are left, unless nothing at all is reserved.
+	 *
+	 * @param requested
+	 *            number of bytes the caller would like to use.
+	 * @param minimum
+	 *            number of bytes the caller needs at least.
+	 * @return the reservation, which must be closed.
+	 * @throws InterruptedIOException
+	 *             the thread was interrupted while waiting for memory.
+	 */
+	public synchronized Reservation reserve(long requested, long minimum)
+			throws InterruptedIOException {
+		reservations++;
+		if (limit == 0) {
+			return new Reservation(requested);
+		}
+		minimum = Math.min(minimum, requested);
+		if (limit - used < minimum && used > 0) {
+			waits++;
+			long start = System.currentTimeMillis();
+			try {
+				while (limit - used < minimum && used > 0) {
+					wait();
+				}
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException();
+			} finally {
+				waitTime += System.currentTimeMillis() - start;
+			}
+		}
+		long granted = Math.min(requested, Math.max(minimum, limit - used));
+		if (granted < requested) {
+			throttled++;
+		}
+		used += granted;
+		return new Reservation(granted);
+	}
+
+	synchronized void release(long bytes) {
+		if (limit != 0 && bytes > 0) {
+			used -= bytes;
+			notifyAll();
+		}
+	}
+
+	@Override
+	public long getLimit() {
+		return limit;
+	}
+
+	@Override
+	public synchronized long getUsed() {
+		return used;
+	}
+
+	@Override
+	public synchronized long getReservationCount() {
+		return reservations;
+	}
+
+	@Override
+	public synchronized long getThrottledCount() {
+		return throttled;
+	}
+
+	@Override
+	public synchronized long getWaitCount() {
+		return waits;
+	}
+
+	@Override
+	public synchronized long getTotalWaitTime() {
+		return waitTime;
+	}
+
+	/** Memory reserved from a {@link PackMemoryBudget}. */
+	public class Reservation implements AutoCloseable {
+		private long remaining;
+
+		private final long granted;
+
+		Reservation(long granted) {
+			this.granted = granted;
+			this.remaining = granted;
+		}
+
+		/**
+		 * Get reserved bytes
+		 *
+		 * @return number of bytes granted by this reservation.
+		 */
+		public long getGranted() {
+			return granted;
+		}
+
+		/**
+		 * Return part of the reserved memory to the budget.
+		 *
+		 * @param bytes
+		 *            number of bytes no longer used.
+		 */
+		public void release(long bytes) {
+			bytes = Math.min(bytes, remaining);
+			remaining -= bytes;
+			PackMemoryBudget.this.release(bytes);
+		}
+
+		/** Return all remaining memory to the budget. */
+		@Override
+		public void close() {
+			release(remaining);
+		}
+	}
+}
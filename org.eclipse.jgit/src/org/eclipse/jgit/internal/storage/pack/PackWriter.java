@@ -21,6 +21,7 @@
 import static org.eclipse.jgit.lib.Constants.OBJ_TREE;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.ref.WeakReference;
 import java.security.MessageDigest;
@@ -57,6 +58,7 @@
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.SearchForReuseTimeout;
 import org.eclipse.jgit.errors.StoredObjectRepresentationNotAvailableException;
+import org.eclipse.jgit.ignore.IgnoreNode;
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.internal.storage.file.PackBitmapIndexBuilder;
 import org.eclipse.jgit.internal.storage.file.PackBitmapIndexWriterV1;
@@ -288,8 +290,18 @@ public static Iterable<PackWriter> getInstances() {
 
 	private FilterSpec filterSpec = FilterSpec.NO_FILTER;
 
+	/** Patterns of a sparse:oid filter, loaded by {@link #preparePack}. */
+	private IgnoreNode sparsePatterns;
+
+	private SparseVisitationPolicy sparsePolicy;
+
 	private PackfileUriConfig packfileUriConfig;
 
+	/** Memory reserved for the delta cache, held until writing completes. */
+	private PackMemoryBudget.Reservation memoryReservation;
+
+	private AccessHeatMap accessHeat;
+
 	/**
 	 * Create writer for specified repository.
 	 * <p>
@@ -702,6 +714,21 @@ public void setPackfileUriConfig(PackfileUriConfig config) {
 		packfileUriConfig = config;
 	}
 
+	/**
+	 * Set sampled read counts used to order trees and blobs.
+	 * <p>
+	 * Trees and blobs which are read often are written before colder objects
+	 * of the same type, so they end up close together in the pack.
+	 *
+	 * @param heat
+	 *            sampled read counts, or {@code null} to keep the default
+	 *            order.
+	 * @since 6.9
+	 */
+	public void setAccessHeatMap(@Nullable AccessHeatMap heat) {
+		accessHeat = heat;
+	}
+
 	/**
 	 * Returns objects number in a pack file that was created by this writer.
 	 *
@@ -988,6 +1015,27 @@ public void visited(RevObject o) {
 		}
 	}
 
+	/**
+	 * Visits blobs again until they are found at a path matched by the
+	 * patterns of a sparse:oid filter, as the same blob may be at several
+	 * paths.
+	 */
+	private static class SparseVisitationPolicy
+			implements ObjectWalk.VisitationPolicy {
+		final Set<ObjectId> outsidePatterns = new HashSet<>();
+
+		@Override
+		public boolean shouldVisit(RevObject o) {
+			return ObjectWalk.SIMPLE_VISITATION_POLICY.shouldVisit(o)
+					|| outsidePatterns.contains(o);
+		}
+
+		@Override
+		public void visited(RevObject o) {
+			ObjectWalk.SIMPLE_VISITATION_POLICY.visited(o);
+		}
+	}
+
 	/**
 	 * Prepare the list of objects to be written to the pack stream.
 	 * <p>
@@ -1031,6 +1079,10 @@ public void preparePack(ProgressMonitor countingMonitor,
 					JGitText.get().shallowPacksRequireDepthWalk);
 		if (filterSpec.getTreeDepthLimit() >= 0) {
 			walk.setVisitationPolicy(new DepthAwareVisitationPolicy(walk));
+		} else if (filterSpec.getSparseOid() != null) {
+			sparsePatterns = loadSparsePatterns(filterSpec.getSparseOid());
+			sparsePolicy = new SparseVisitationPolicy();
+			walk.setVisitationPolicy(sparsePolicy);
 		}
 		findObjectsToPack(countingMonitor, walk, interestingObjects,
 				uninterestingObjects, noBitmaps);
@@ -1395,6 +1447,7 @@ public void writePack(ProgressMonitor compressMonitor,
 			writeChecksum(out);
 			out.flush();
 		} finally {
+			releaseMemory();
 			stats.timeWriting = System.currentTimeMillis() - writeStart;
 			stats.depth = depth;
 
@@ -1441,6 +1494,7 @@ public State getState() {
 	 */
 	@Override
 	public void close() {
+		releaseMemory();
 		reader.close();
 		if (myDeflater != null) {
 			myDeflater.end();
@@ -1686,13 +1740,55 @@ private void searchForDeltas(final ProgressMonitor monitor,
 		if (threads == 0)
 			threads = Runtime.getRuntime().availableProcessors();
 		if (threads <= 1 || cnt <= config.getDeltaSearchWindowSize())
-			singleThreadDeltaSearch(monitor, list, cnt);
-		else
-			parallelDeltaSearch(monitor, list, cnt, threads);
+			threads = 1;
+
+		PackConfig cfg = config;
+		long windowMemory = 0;
+		PackMemoryBudget budget = PackMemoryBudget.getInstance();
+		if (budget.getLimit() > 0) {
+			// Size the delta cache and the search windows from what the
+			// shared budget can give us, rather than from our configuration
+			// alone. Unlimited settings are bounded by their defaults.
+			long cacheSize = config.getDeltaCacheSize() > 0
+					? config.getDeltaCacheSize()
+					: PackConfig.DEFAULT_DELTA_CACHE_SIZE;
+			long windowSize = config.getDeltaSearchMemoryLimit() > 0
+					? config.getDeltaSearchMemoryLimit()
+					: config.getBigFileThreshold();
+			long requested = cacheSize + threads * windowSize;
+			releaseMemory();
+			memoryReservation = budget.reserve(requested, requested / 8);
+			double share = (double) memoryReservation.getGranted()
+					/ requested;
+			cfg = new PackConfig(config);
+			cfg.setDeltaCacheSize(Math.max(1, (long) (cacheSize * share)));
+			cfg.setDeltaSearchMemoryLimit(
+					Math.max(1, (long) (windowSize * share)));
+			windowMemory = threads * cfg.getDeltaSearchMemoryLimit();
+		}
+
+		try {
+			if (threads <= 1)
+				singleThreadDeltaSearch(cfg, monitor, list, cnt);
+			else
+				parallelDeltaSearch(cfg, monitor, list, cnt, threads);
+		} finally {
+			// Only the delta cache is needed while writing.
+			if (memoryReservation != null)
+				memoryReservation.release(windowMemory);
+		}
+	}
+
+	private void releaseMemory() {
+		if (memoryReservation != null) {
+			memoryReservation.close();
+			memoryReservation = null;
+		}
 	}
 
-	private void singleThreadDeltaSearch(ProgressMonitor monitor,
-			ObjectToPack[] list, int cnt) throws IOException {
+	private void singleThreadDeltaSearch(PackConfig cfg,
+			ProgressMonitor monitor, ObjectToPack[] list, int cnt)
+			throws IOException {
 		long totalWeight = 0;
 		for (int i = 0; i < cnt; i++) {
 			ObjectToPack o = list[i];
@@ -1707,18 +1803,18 @@ private void singleThreadDeltaSearch(ProgressMonitor monitor,
 			cost++;
 
 		beginPhase(PackingPhase.COMPRESSING, monitor, cost);
-		new DeltaWindow(config, new DeltaCache(config), reader,
+		new DeltaWindow(cfg, new DeltaCache(cfg), reader,
 				monitor, bytesPerUnit,
 				list, 0, cnt).search();
 		endPhase(monitor);
 	}
 
 	@SuppressWarnings("Finally")
-	private void parallelDeltaSearch(ProgressMonitor monitor,
+	private void parallelDeltaSearch(PackConfig cfg, ProgressMonitor monitor,
 			ObjectToPack[] list, int cnt, int threads) throws IOException {
-		DeltaCache dc = new ThreadSafeDeltaCache(config);
+		DeltaCache dc = new ThreadSafeDeltaCache(cfg);
 		ThreadSafeProgressMonitor pm = new ThreadSafeProgressMonitor(monitor);
-		DeltaTask.Block taskBlock = new DeltaTask.Block(threads, config,
+		DeltaTask.Block taskBlock = new DeltaTask.Block(threads, cfg,
 				reader, dc, pm,
 				list, 0, cnt);
 		taskBlock.partitionTasks();
@@ -1828,6 +1924,10 @@ private static void runTasks(ExecutorService pool,
 	}
 
 	private void writeObjects(PackOutputStream out) throws IOException {
+		if (accessHeat != null) {
+			accessHeat.sort(objectsLists[OBJ_TREE]);
+			accessHeat.sort(objectsLists[OBJ_BLOB]);
+		}
 		writeObjects(out, objectsLists[OBJ_COMMIT]);
 		writeObjects(out, objectsLists[OBJ_TAG]);
 		writeObjects(out, objectsLists[OBJ_TREE]);
@@ -2026,12 +2126,13 @@ private void findObjectsToPack(@NonNull ProgressMonitor countingMonitor,
 				&& !shallowPack
 				&& have.isEmpty()
 				&& createBitmaps;
-		if (!shallowPack && useBitmaps) {
+		if (!shallowPack && useBitmaps && canFilterWithBitmaps()) {
 			BitmapIndex bitmapIndex = reader.getBitmapIndex();
 			if (bitmapIndex != null) {
 				BitmapWalker bitmapWalker = new BitmapWalker(walker,
 						bitmapIndex, countingMonitor);
-				findObjectsToPackUsingBitmaps(bitmapWalker, want, have);
+				findObjectsToPackUsingBitmaps(bitmapWalker, walker, want,
+						have);
 				endPhase(countingMonitor);
 				stats.timeCounting = System.currentTimeMillis() - countingStart;
 				stats.bitmapIndexMisses = bitmapWalker.getCountOfBitmapIndexMisses();
@@ -2048,6 +2149,9 @@ private void findObjectsToPack(@NonNull ProgressMonitor countingMonitor,
 
 		walker.carry(include);
 
+		if (config.isUseSparse())
+			walker.setSparse(true);
+
 		int haveEst = have.size();
 		if (have.isEmpty()) {
 			walker.sort(RevSort.COMMIT_TIME_DESC);
@@ -2209,7 +2313,7 @@ private void findObjectsToPack(@NonNull ProgressMonitor countingMonitor,
 				byte[] pathBuf = walker.getPathBuffer();
 				int pathLen = walker.getPathLength();
 				bases.addBase(o.getType(), pathBuf, pathLen, pathHash);
-				if (!depthSkip(o, walker)) {
+				if (!depthSkip(o, walker) && !sparseSkip(o, walker, want)) {
 					filterAndAddObject(o, o.getType(), pathHash, want);
 				}
 				countingMonitor.update(1);
@@ -2221,7 +2325,7 @@ private void findObjectsToPack(@NonNull ProgressMonitor countingMonitor,
 					continue;
 				if (exclude(o))
 					continue;
-				if (!depthSkip(o, walker)) {
+				if (!depthSkip(o, walker) && !sparseSkip(o, walker, want)) {
 					filterAndAddObject(o, o.getType(), walker.getPathHashCode(),
 									   want);
 				}
@@ -2237,8 +2341,8 @@ private void findObjectsToPack(@NonNull ProgressMonitor countingMonitor,
 	}
 
 	private void findObjectsToPackUsingBitmaps(
-			BitmapWalker bitmapWalker, Set<? extends ObjectId> want,
-			Set<? extends ObjectId> have)
+			BitmapWalker bitmapWalker, ObjectWalk walker,
+			Set<? extends ObjectId> want, Set<? extends ObjectId> have)
 			throws MissingObjectException, IncorrectObjectTypeException,
 			IOException {
 		BitmapBuilder haveBitmap = bitmapWalker.findObjects(have, null, true);
@@ -2251,13 +2355,43 @@ private void findObjectsToPackUsingBitmaps(
 			cachedPacks.addAll(
 					reuseSupport.getCachedPacksAndUpdate(needBitmap));
 
-		for (BitmapObject obj : needBitmap) {
-			ObjectId objectId = obj.getObjectId();
-			if (exclude(objectId)) {
-				needBitmap.remove(objectId);
-				continue;
+		if (filterSpec.isNoOp()) {
+			for (BitmapObject obj : needBitmap) {
+				ObjectId objectId = obj.getObjectId();
+				if (exclude(objectId)) {
+					needBitmap.remove(objectId);
+					continue;
+				}
+				filterAndAddObject(objectId, obj.getType(), 0, want);
+			}
+		} else {
+			// Use the type bitmaps to skip the types filtered out as a
+			// whole, blobs for "blob:none" and trees and blobs for "tree:0",
+			// without looking at their objects.
+			for (int type : new int[] { OBJ_COMMIT, OBJ_TREE, OBJ_BLOB,
+					OBJ_TAG }) {
+				if (!filterAllowsType(type)) {
+					continue;
+				}
+				Iterator<BitmapObject> objs = needBitmap.iterator(type);
+				while (objs.hasNext()) {
+					ObjectId objectId = objs.next().getObjectId();
+					if (exclude(objectId)) {
+						needBitmap.remove(objectId);
+						continue;
+					}
+					filterAndAddObject(objectId, type, 0, want);
+				}
+			}
+
+			// Objects of these types asked for by name are sent anyway.
+			for (ObjectId id : want) {
+				RevObject o = walker.parseAny(id);
+				if (!filterAllowsType(o.getType()) && needBitmap.contains(o)
+						&& !exclude(o)) {
+					addObject(o, 0);
+				}
 			}
-			filterAndAddObject(objectId, obj.getType(), 0, want);
 		}
 
 		if (thin)
@@ -2354,6 +2488,84 @@ private boolean depthSkip(@NonNull RevObject obj, ObjectWalk walker) {
 		return true;
 	}
 
+	/**
+	 * Whether the objects the filter keeps can be found from bitmaps, that
+	 * is without knowing the paths or depths of trees and blobs.
+	 *
+	 * @return true if the filter can be applied to a bitmap of the objects
+	 *         to send.
+	 */
+	private boolean canFilterWithBitmaps() {
+		return filterSpec.getTreeDepthLimit() <= 0
+				&& filterSpec.getSparseOid() == null;
+	}
+
+	/**
+	 * Whether the filter keeps objects of a type, if their size allows.
+	 *
+	 * @param type
+	 *            the object type, e.g. {@link Constants#OBJ_BLOB}.
+	 * @return false if the filter omits all objects of the type.
+	 */
+	private boolean filterAllowsType(int type) {
+		if (filterSpec.getTreeDepthLimit() == 0
+				&& (type == OBJ_TREE || type == OBJ_BLOB)) {
+			return false;
+		}
+		return filterSpec.allowsType(type);
+	}
+
+	private IgnoreNode loadSparsePatterns(String sparseOid)
+			throws IOException {
+		// The server resolves other blob-ish expressions before packing.
+		if (!ObjectId.isId(sparseOid)) {
+			throw new IOException(MessageFormat.format(
+					JGitText.get().invalidFilter, "sparse:oid=" + sparseOid)); //$NON-NLS-1$
+		}
+		IgnoreNode patterns = new IgnoreNode();
+		ObjectLoader ldr = reader.open(ObjectId.fromString(sparseOid),
+				OBJ_BLOB);
+		try (InputStream in = ldr.openStream()) {
+			patterns.parse(sparseOid, in);
+		}
+		return patterns;
+	}
+
+	/**
+	 * Determines if a blob should be omitted from the pack because its path
+	 * is not matched by the patterns of a sparse:oid filter.
+	 * <p>
+	 * Like a sparse checkout, a path is matched if the last pattern matching
+	 * it, or else one of its parent directories, is not negated.
+	 *
+	 * @param obj
+	 *            the object to check whether it should be omitted.
+	 * @param walker
+	 *            the walker being used for traversal.
+	 * @param want
+	 *            objects asked for by name, which are never omitted.
+	 * @return whether the given object should be skipped.
+	 */
+	private boolean sparseSkip(@NonNull RevObject obj, ObjectWalk walker,
+			@NonNull Set<? extends AnyObjectId> want) {
+		if (sparsePatterns == null || obj.getType() != OBJ_BLOB
+				|| want.contains(obj)) {
+			return false;
+		}
+		String path = walker.getPathString();
+		Boolean match = sparsePatterns.checkIgnored(path, false);
+		for (int i = path.lastIndexOf('/'); match == null
+				&& i > 0; i = path.lastIndexOf('/', i - 1)) {
+			match = sparsePatterns.checkIgnored(path.substring(0, i), true);
+		}
+		if (match != null && match.booleanValue()) {
+			sparsePolicy.outsidePatterns.remove(obj);
+			return false;
+		}
+		sparsePolicy.outsidePatterns.add(obj);
+		return true;
+	}
+
 	// Adds the given object as an object to be packed, first performing
 	// filtering on blobs at or exceeding a given size.
 	private void filterAndAddObject(@NonNull AnyObjectId src, int type,
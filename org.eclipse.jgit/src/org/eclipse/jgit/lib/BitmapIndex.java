@@ -14,6 +14,7 @@
 import org.eclipse.jgit.internal.storage.file.PackBitmapIndex;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * A compressed bitmap representation of the entire object graph.
@@ -135,6 +136,48 @@ public interface Bitmap extends Iterable<BitmapObject> {
 		@Override
 		Iterator<BitmapObject> iterator();
 
+		/**
+		 * Returns an iterator over the elements of one object type only. Like
+		 * {@link #iterator()}, the BitmapObject instance is reused across calls
+		 * to {@link Iterator#next()}.
+		 * <p>
+		 * Implementations keeping a bitmap per object type skip the objects of
+		 * other types without looking at them.
+		 *
+		 * @param type
+		 *            the object type, e.g.
+		 *            {@link org.eclipse.jgit.lib.Constants#OBJ_BLOB}
+		 * @return an Iterator.
+		 * @since 6.9
+		 */
+		default Iterator<BitmapObject> iterator(int type) {
+			Iterator<BitmapObject> all = iterator();
+			return new Iterator<>() {
+				private BitmapObject next;
+
+				@Override
+				public boolean hasNext() {
+					while (next == null && all.hasNext()) {
+						BitmapObject o = all.next();
+						if (o.getType() == type) {
+							next = o;
+						}
+					}
+					return next != null;
+				}
+
+				@Override
+				public BitmapObject next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					BitmapObject o = next;
+					next = null;
+					return o;
+				}
+			};
+		}
+
 		/**
 		 * Returns the corresponding raw compressed EWAH bitmap of the bitmap.
 		 *
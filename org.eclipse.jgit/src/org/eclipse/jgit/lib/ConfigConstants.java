@@ -356,6 +356,14 @@ public final class ConfigConstants {
 	 */
 	public static final String CONFIG_KEY_PACKED_GIT_MMAP = "packedgitmmap";
 
+	/**
+	 * The "indexPackMmapLimit" key, the size up to which a received pack is
+	 * memory mapped while its deltas are resolved
+	 *
+	 * @since 6.9
+	 */
+	public static final String CONFIG_KEY_INDEX_PACK_MMAP_LIMIT = "indexPackMmapLimit";
+
 	/**
 	 * The "packedGitWindowSize" key
 	 * @since 5.1.13
@@ -720,6 +728,14 @@ public final class ConfigConstants {
 	 */
 	public static final String CONFIG_REF_STORAGE_REFTABLE = "reftable";
 
+	/**
+	 * The extensions.partialClone key, naming the promisor remote of a
+	 * partial clone
+	 *
+	 * @since 6.9
+	 */
+	public static final String CONFIG_KEY_PARTIAL_CLONE = "partialClone";
+
 	/**
 	 * The "jmx" section
 	 * @since 5.1.13
@@ -848,6 +864,13 @@ public final class ConfigConstants {
 	 */
 	public static final String CONFIG_KEY_THREADS = "threads";
 
+	/**
+	 * The "pack.useSparse" key
+	 *
+	 * @since 6.9
+	 */
+	public static final String CONFIG_KEY_USE_SPARSE = "usesparse";
+
 	/**
 	 * The "pack.waitPreventRacyPack" key
 	 * @since 5.8
@@ -1005,4 +1028,26 @@ public final class ConfigConstants {
 	 * @since 6.7
 	 */
 	public static final String CONFIG_KEY_READ_CHANGED_PATHS = "readChangedPaths";
+
+	/**
+	 * The "heatSampleRate" key, sampling one in this many object reads to
+	 * guide the object order of the next repack
+	 *
+	 * @since 6.9
+	 */
+	public static final String CONFIG_KEY_HEAT_SAMPLE_RATE = "heatSampleRate";
+
+	/**
+	 * The "negotiate" key
+	 *
+	 * @since 6.9
+	 */
+	public static final String CONFIG_KEY_NEGOTIATE = "negotiate";
+
+	/**
+	 * The "bundle" section
+	 *
+	 * @since 6.9
+	 */
+	public static final String CONFIG_BUNDLE_SECTION = "bundle";
 }
@@ -14,7 +14,7 @@
 import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
-import org.eclipse.jgit.internal.revwalk.BitmappedObjectReachabilityChecker;
+import org.eclipse.jgit.internal.revwalk.BitmappedBatchReachabilityChecker;
 import org.eclipse.jgit.internal.revwalk.BitmappedReachabilityChecker;
 import org.eclipse.jgit.internal.revwalk.PedestrianObjectReachabilityChecker;
 import org.eclipse.jgit.internal.revwalk.PedestrianReachabilityChecker;
@@ -441,6 +441,56 @@ public void setAvoidUnreachableObjects(boolean avoid) {
 		// Do nothing by default.
 	}
 
+	/**
+	 * Whether this reader fetches objects missing from a partial clone from
+	 * its promisor remote.
+	 *
+	 * @return true if missing objects are fetched on demand, in which case
+	 *         callers may benefit from announcing them with
+	 *         {@link #prefetch(Iterable)}.
+	 * @since 6.9
+	 */
+	public boolean canFetchMissingObjects() {
+		return false;
+	}
+
+	/**
+	 * Set whether this reader fetches objects missing from a partial clone
+	 * from its promisor remote.
+	 * <p>
+	 * Readers of a partial clone fetch missing objects on demand by default.
+	 * Callers expecting all objects they read to be local, such as garbage
+	 * collection, can disable this to fail with a
+	 * {@link org.eclipse.jgit.errors.MissingObjectException} instead of
+	 * downloading the objects one by one.
+	 *
+	 * @param fetch
+	 *            false to only read objects available locally.
+	 * @since 6.9
+	 */
+	public void setFetchMissingObjects(boolean fetch) {
+		// Do nothing by default.
+	}
+
+	/**
+	 * Advise the reader that the given objects are about to be opened.
+	 * <p>
+	 * A reader of a partial clone fetches all objects in the collection that
+	 * are missing locally with a single request to the promisor remote, rather
+	 * than one request per object once they are opened. Objects which cannot
+	 * be fetched are silently skipped, opening them later will fail.
+	 *
+	 * @param objectIds
+	 *            objects which will be read soon.
+	 * @throws java.io.IOException
+	 *             the objects could not be fetched.
+	 * @since 6.9
+	 */
+	public void prefetch(Iterable<? extends AnyObjectId> objectIds)
+			throws IOException {
+		// Do nothing by default.
+	}
+
 	/**
 	 * An index that can be used to speed up ObjectWalks.
 	 *
@@ -495,7 +545,7 @@ public ReachabilityChecker createReachabilityChecker(RevWalk rw)
 	public ObjectReachabilityChecker createObjectReachabilityChecker(
 			ObjectWalk ow) throws IOException {
 		if (getBitmapIndex() != null) {
-			return new BitmappedObjectReachabilityChecker(ow);
+			return new BitmappedBatchReachabilityChecker(ow);
 		}
 
 		return new PedestrianObjectReachabilityChecker(ow);
@@ -660,6 +710,22 @@ public void setAvoidUnreachableObjects(boolean avoid) {
 			delegate().setAvoidUnreachableObjects(avoid);
 		}
 
+		@Override
+		public boolean canFetchMissingObjects() {
+			return delegate().canFetchMissingObjects();
+		}
+
+		@Override
+		public void setFetchMissingObjects(boolean fetch) {
+			delegate().setFetchMissingObjects(fetch);
+		}
+
+		@Override
+		public void prefetch(Iterable<? extends AnyObjectId> objectIds)
+				throws IOException {
+			delegate().prefetch(objectIds);
+		}
+
 		@Override
 		public BitmapIndex getBitmapIndex() throws IOException {
 			return delegate().getBitmapIndex();
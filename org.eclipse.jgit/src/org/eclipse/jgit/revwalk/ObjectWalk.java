@@ -10,6 +10,7 @@
 
 package org.eclipse.jgit.revwalk;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.util.Objects.requireNonNull;
 import static org.eclipse.jgit.lib.Constants.OBJ_BLOB;
 import static org.eclipse.jgit.lib.Constants.OBJ_COMMIT;
@@ -18,7 +19,11 @@
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.jgit.errors.CorruptObjectException;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
@@ -132,6 +137,11 @@ public void visited(RevObject o) {
 
 	private VisitationPolicy visitationPolicy = SIMPLE_VISITATION_POLICY;
 
+	private boolean sparse;
+
+	/** Root trees of walked commits, awaiting sparse marking. */
+	private Set<RevTree> sparseRoots = new LinkedHashSet<>();
+
 	/**
 	 * Create a new revision and object walker for a given repository.
 	 *
@@ -343,6 +353,42 @@ public void setObjectFilter(ObjectFilter newFilter) {
 		objectFilter = newFilter != null ? newFilter : ObjectFilter.ALL;
 	}
 
+	/**
+	 * Whether uninteresting trees are marked using the sparse algorithm.
+	 *
+	 * @return whether uninteresting trees are marked using the sparse
+	 *         algorithm.
+	 * @since 6.9
+	 */
+	public boolean isSparse() {
+		return sparse;
+	}
+
+	/**
+	 * Set whether to mark uninteresting trees using the sparse algorithm.
+	 * <p>
+	 * By default the complete tree of every uninteresting commit is marked as
+	 * uninteresting, which requires reading every tree reachable from it. With
+	 * the sparse algorithm, equivalent to git's {@code pack.useSparse}, only
+	 * trees at paths where interesting and uninteresting commits differ are
+	 * read. Objects which are only reachable from uninteresting commits at
+	 * other paths are not marked and may be returned by {@link #nextObject()}
+	 * although the other side already has them. This makes the walk much
+	 * cheaper if few paths changed, e.g. when pushing a small change to a large
+	 * repository.
+	 * <p>
+	 * Must be set before the walk starts, and {@link #next()} should be run to
+	 * completion before {@link #nextObject()} is invoked.
+	 *
+	 * @param sparse
+	 *            whether to use the sparse algorithm.
+	 * @since 6.9
+	 */
+	public void setSparse(boolean sparse) {
+		assertNotStarted();
+		this.sparse = sparse;
+	}
+
 	/**
 	 * Sets the visitation policy to use during this walk.
 	 *
@@ -366,7 +412,12 @@ public RevCommit next() throws MissingObjectException,
 			final RevTree t = r.getTree();
 			if ((r.flags & UNINTERESTING) != 0) {
 				if (objectFilter.include(this, t)) {
-					markTreeUninteresting(t);
+					if (sparse) {
+						t.flags |= UNINTERESTING;
+						sparseRoots.add(t);
+					} else {
+						markTreeUninteresting(t);
+					}
 				}
 				if (boundary) {
 					return r;
@@ -375,6 +426,9 @@ public RevCommit next() throws MissingObjectException,
 			}
 			if (objectFilter.include(this, t)) {
 				pendingObjects.add(t);
+				if (sparse) {
+					sparseRoots.add(t);
+				}
 			}
 			return r;
 		}
@@ -411,9 +465,19 @@ public RevObject nextObject() throws MissingObjectException,
 			IncorrectObjectTypeException, IOException {
 		pathLen = 0;
 
+		if (!sparseRoots.isEmpty()) {
+			markTreesUninterestingSparse(sparseRoots);
+			sparseRoots = new LinkedHashSet<>();
+		}
+
 		TreeVisit tv = currVisit;
 		while (tv != null) {
 			byte[] buf = tv.buf;
+			// The sparse algorithm doesn't mark the contents of trees only
+			// the uninteresting side has. Boundary walks enter them, so mark
+			// their children here to not return them as interesting.
+			boolean uninterestingParent = sparse
+					&& (tv.obj.flags & UNINTERESTING) != 0;
 			for (int ptr = tv.ptr; ptr < buf.length;) {
 				int startPtr = ptr;
 				ptr = findObjectId(buf, ptr);
@@ -434,12 +498,16 @@ public RevObject nextObject() throws MissingObjectException,
 				case TYPE_SYMLINK:
 					if (obj == null) {
 						obj = new RevBlob(idBuffer);
+						if (uninterestingParent)
+							obj.flags |= UNINTERESTING;
 						visitationPolicy.visited(obj);
 						objects.add(obj);
 						return obj;
 					}
 					if (!(obj instanceof RevBlob))
 						throw new IncorrectObjectTypeException(obj, OBJ_BLOB);
+					if (uninterestingParent)
+						obj.flags |= UNINTERESTING;
 					visitationPolicy.visited(obj);
 					if ((obj.flags & UNINTERESTING) == 0)
 						return obj;
@@ -450,12 +518,16 @@ public RevObject nextObject() throws MissingObjectException,
 				case TYPE_TREE:
 					if (obj == null) {
 						obj = new RevTree(idBuffer);
+						if (uninterestingParent)
+							obj.flags |= UNINTERESTING;
 						visitationPolicy.visited(obj);
 						objects.add(obj);
 						return pushTree(obj);
 					}
 					if (!(obj instanceof RevTree))
 						throw new IncorrectObjectTypeException(obj, OBJ_TREE);
+					if (uninterestingParent)
+						obj.flags |= UNINTERESTING;
 					visitationPolicy.visited(obj);
 					if ((obj.flags & UNINTERESTING) == 0)
 						return pushTree(obj);
@@ -778,6 +850,7 @@ protected void reset(int retainFlags) {
 
 		rootObjects = new ArrayList<>();
 		pendingObjects = new BlockObjQueue();
+		sparseRoots = new LinkedHashSet<>();
 		currVisit = null;
 		freeVisit = null;
 	}
@@ -839,6 +912,95 @@ private void markTreeUninteresting(RevTree tree)
 		}
 	}
 
+	/**
+	 * Mark uninteresting objects in trees found at the same path.
+	 * <p>
+	 * Children of uninteresting trees are marked uninteresting, but only
+	 * subtrees at paths which have both interesting and uninteresting trees
+	 * are examined further.
+	 *
+	 * @param trees
+	 *            trees found at the same path in the walked commits.
+	 * @throws MissingObjectException
+	 *             a tree is missing.
+	 * @throws IncorrectObjectTypeException
+	 *             a tree entry has an unexpected type.
+	 * @throws IOException
+	 *             a pack file or loose object could not be read.
+	 */
+	private void markTreesUninterestingSparse(Set<RevTree> trees)
+			throws MissingObjectException, IncorrectObjectTypeException,
+			IOException {
+		boolean hasInteresting = false;
+		boolean hasUninteresting = false;
+		for (RevTree t : trees) {
+			if ((t.flags & UNINTERESTING) != 0) {
+				hasUninteresting = true;
+			} else {
+				hasInteresting = true;
+			}
+		}
+		if (!hasInteresting || !hasUninteresting) {
+			return;
+		}
+
+		Map<String, Set<RevTree>> subtrees = new HashMap<>();
+		for (RevTree tree : trees) {
+			boolean uninteresting = (tree.flags & UNINTERESTING) != 0;
+			byte[] raw = reader.open(tree, OBJ_TREE).getCachedBytes();
+			for (int ptr = 0; ptr < raw.length;) {
+				byte c = raw[ptr];
+				int mode = c - '0';
+				for (;;) {
+					c = raw[++ptr];
+					if (' ' == c)
+						break;
+					mode <<= 3;
+					mode += c - '0';
+				}
+				int nameStart = ++ptr;
+				while (raw[ptr] != 0) {
+					ptr++;
+				}
+				int nameEnd = ptr++;
+				idBuffer.fromRaw(raw, ptr);
+				ptr += ID_SZ;
+
+				switch (mode >>> TYPE_SHIFT) {
+				case TYPE_FILE:
+				case TYPE_SYMLINK:
+					if (uninteresting) {
+						lookupBlob(idBuffer).flags |= UNINTERESTING;
+					}
+					break;
+
+				case TYPE_TREE:
+					RevTree sub = lookupTree(idBuffer);
+					if (uninteresting) {
+						sub.flags |= UNINTERESTING;
+					}
+					subtrees.computeIfAbsent(
+							new String(raw, nameStart, nameEnd - nameStart,
+									ISO_8859_1),
+							k -> new LinkedHashSet<>()).add(sub);
+					break;
+
+				case TYPE_GITLINK:
+					break;
+
+				default:
+					throw new CorruptObjectException(MessageFormat.format(
+							JGitText.get().corruptObjectInvalidMode3,
+							String.format("%o", Integer.valueOf(mode)), //$NON-NLS-1$
+							idBuffer.name(), "", tree)); //$NON-NLS-1$
+				}
+			}
+		}
+		for (Set<RevTree> s : subtrees.values()) {
+			markTreesUninterestingSparse(s);
+		}
+	}
+
 	private RevObject pushTree(RevObject obj) throws LargeObjectException,
 			MissingObjectException, IncorrectObjectTypeException, IOException {
 		TreeVisit tv = freeVisit;
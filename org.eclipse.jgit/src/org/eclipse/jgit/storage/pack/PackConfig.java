@@ -38,6 +38,7 @@
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_SEARCH_FOR_REUSE_TIMEOUT;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_SINGLE_PACK;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_THREADS;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_USE_SPARSE;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_WAIT_PREVENT_RACYPACK;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_WINDOW;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_WINDOW_MEMORY;
@@ -77,6 +78,14 @@ public class PackConfig {
 	 */
 	public static final boolean DEFAULT_REUSE_OBJECTS = true;
 
+	/**
+	 * Default value of the sparse object walk option: {@value}
+	 *
+	 * @see #setUseSparse(boolean)
+	 * @since 6.9
+	 */
+	public static final boolean DEFAULT_USE_SPARSE = false;
+
 	/**
 	 * Default value of keep old packs option: {@value}
 	 * @see #setPreserveOldPacks(boolean)
@@ -296,6 +305,8 @@ public class PackConfig {
 
 	private boolean reuseObjects = DEFAULT_REUSE_OBJECTS;
 
+	private boolean useSparse = DEFAULT_USE_SPARSE;
+
 	private boolean preserveOldPacks = DEFAULT_PRESERVE_OLD_PACKS;
 
 	private boolean prunePreserved = DEFAULT_PRUNE_PRESERVED;
@@ -398,6 +409,7 @@ public PackConfig(PackConfig cfg) {
 		this.compressionLevel = cfg.compressionLevel;
 		this.reuseDeltas = cfg.reuseDeltas;
 		this.reuseObjects = cfg.reuseObjects;
+		this.useSparse = cfg.useSparse;
 		this.preserveOldPacks = cfg.preserveOldPacks;
 		this.prunePreserved = cfg.prunePreserved;
 		this.deltaBaseAsOffset = cfg.deltaBaseAsOffset;
@@ -489,6 +501,40 @@ public void setReuseObjects(boolean reuseObjects) {
 		this.reuseObjects = reuseObjects;
 	}
 
+	/**
+	 * Checks whether uninteresting trees are marked using the sparse
+	 * algorithm.
+	 *
+	 * Default setting: {@value #DEFAULT_USE_SPARSE}
+	 *
+	 * @return true if the writer only walks trees of uninteresting commits at
+	 *         paths which differ from the interesting commits.
+	 * @since 6.9
+	 */
+	public boolean isUseSparse() {
+		return useSparse;
+	}
+
+	/**
+	 * Set whether to mark uninteresting trees using the sparse algorithm.
+	 *
+	 * If enabled, the writer does not walk the complete trees of the
+	 * uninteresting commits (e.g. the remote's tips when pushing), but only
+	 * trees at paths which differ between interesting and uninteresting
+	 * commits. This is much faster when few paths changed, but may include
+	 * some objects in the pack which the other side already has. Equivalent to
+	 * git's {@code pack.useSparse}.
+	 *
+	 * Default setting: {@value #DEFAULT_USE_SPARSE}
+	 *
+	 * @param useSparse
+	 *            whether to use the sparse algorithm.
+	 * @since 6.9
+	 */
+	public void setUseSparse(boolean useSparse) {
+		this.useSparse = useSparse;
+	}
+
 	/**
 	 * Checks whether to preserve old packs in a preserved directory
 	 *
@@ -1427,6 +1473,8 @@ public void fromConfig(Config rc) {
 				CONFIG_KEY_REUSE_DELTAS, isReuseDeltas()));
 		setReuseObjects(rc.getBoolean(CONFIG_PACK_SECTION,
 				CONFIG_KEY_REUSE_OBJECTS, isReuseObjects()));
+		setUseSparse(rc.getBoolean(CONFIG_PACK_SECTION, CONFIG_KEY_USE_SPARSE,
+				isUseSparse()));
 		setDeltaCompress(rc.getBoolean(CONFIG_PACK_SECTION,
 				CONFIG_KEY_DELTA_COMPRESSION, isDeltaCompress()));
 		setCutDeltaChains(rc.getBoolean(CONFIG_PACK_SECTION,
@@ -1502,6 +1550,7 @@ public String toString() {
 		b.append(", threads=").append(getThreads()); //$NON-NLS-1$
 		b.append(", reuseDeltas=").append(isReuseDeltas()); //$NON-NLS-1$
 		b.append(", reuseObjects=").append(isReuseObjects()); //$NON-NLS-1$
+		b.append(", useSparse=").append(isUseSparse()); //$NON-NLS-1$
 		b.append(", deltaCompress=").append(isDeltaCompress()); //$NON-NLS-1$
 		b.append(", writeReverseIndex=").append(isWriteReverseIndex()); //$NON-NLS-1$
 		b.append(", buildBitmaps=").append(isBuildBitmaps()); //$NON-NLS-1$
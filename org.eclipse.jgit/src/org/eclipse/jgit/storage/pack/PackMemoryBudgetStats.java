@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.storage.pack;
+
+import javax.management.MXBean;
+
+/**
+ * Statistics of the memory budget shared by all PackWriters of a process for
+ * their delta search windows and delta caches.
+ *
+ * @since 6.9
+ */
+@MXBean
+public interface PackMemoryBudgetStats {
+	/**
+	 * Get the configured limit
+	 *
+	 * @return maximum number of bytes PackWriters may reserve for delta search
+	 *         windows and delta caches together; 0 if unlimited.
+	 */
+	long getLimit();
+
+	/**
+	 * Get the reserved memory
+	 *
+	 * @return number of bytes currently reserved by running PackWriters.
+	 */
+	long getUsed();
+
+	/**
+	 * Get number of reservations
+	 *
+	 * @return number of reservations granted since the budget was created.
+	 */
+	long getReservationCount();
+
+	/**
+	 * Get number of throttled reservations
+	 *
+	 * @return number of reservations which were granted less memory than
+	 *         requested, forcing the PackWriter to use a smaller delta window
+	 *         and delta cache.
+	 */
+	long getThrottledCount();
+
+	/**
+	 * Get number of waits
+	 *
+	 * @return number of reservations which had to wait for other PackWriters
+	 *         to release memory.
+	 */
+	long getWaitCount();
+
+	/**
+	 * Get total wait time
+	 *
+	 * @return total time in milliseconds reservations spent waiting for other
+	 *         PackWriters to release memory.
+	 */
+	long getTotalWaitTime();
+}
@@ -313,6 +313,23 @@ public static class Accumulator {
 		 */
 		public long offloadedPackfileSize;
 
+		/**
+		 * Number of packs sent from a
+		 * {@link org.eclipse.jgit.transport.PackResponseCache}.
+		 *
+		 * @since 6.9
+		 */
+		public long packResponseCacheHits;
+
+		/**
+		 * Number of packs looked up in a
+		 * {@link org.eclipse.jgit.transport.PackResponseCache} without being
+		 * found there.
+		 *
+		 * @since 6.9
+		 */
+		public long packResponseCacheMisses;
+
 		/**
 		 * Statistics about each object type in the pack (commits, tags, trees
 		 * and blobs.)
@@ -684,6 +701,30 @@ public long getOffloadedPackfilesSize() {
 		return statistics.offloadedPackfileSize;
 	}
 
+	/**
+	 * Get number of packs sent from the pack response cache
+	 *
+	 * @return number of packs sent from the
+	 *         {@link org.eclipse.jgit.transport.PackResponseCache} instead of
+	 *         being generated.
+	 * @since 6.9
+	 */
+	public long getPackResponseCacheHits() {
+		return statistics.packResponseCacheHits;
+	}
+
+	/**
+	 * Get number of packs not found in the pack response cache
+	 *
+	 * @return number of packs which were looked up in the
+	 *         {@link org.eclipse.jgit.transport.PackResponseCache} but had to
+	 *         be generated.
+	 * @since 6.9
+	 */
+	public long getPackResponseCacheMisses() {
+		return statistics.packResponseCacheMisses;
+	}
+
 	/**
 	 * Get total time spent processing this pack.
 	 *
@@ -29,6 +29,7 @@
 import java.io.OutputStream;
 import java.text.MessageFormat;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -45,6 +46,7 @@
 import org.eclipse.jgit.errors.RemoteRepositoryException;
 import org.eclipse.jgit.errors.TransportException;
 import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraph;
 import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.lib.MutableObjectId;
@@ -214,12 +216,31 @@ public abstract class BasePackFetchConnection extends BasePackConnection
 
 	private boolean sideband;
 
+	/** Whether the V2 response uses "sideband-all". */
+	private boolean sidebandAll;
+
+	/** Protocols of the packfile URIs the client accepts. */
+	private List<String> uriProtocols;
+
+	/** Maximum number of packfile URIs downloaded in parallel. */
+	private int packfileUriThreads;
+
 	private boolean includeTags;
 
 	private boolean allowOfsDelta;
 
 	private boolean useNegotiationTip;
 
+	private NegotiationAlgorithm negotiationAlgorithm;
+
+	private boolean negotiationUseCommitGraph;
+
+	/** Picks the haves if {@link NegotiationAlgorithm#SKIPPING} is used. */
+	private SkippingNegotiator skipping;
+
+	/** Collects the commits acknowledged by {@link #negotiateOnly}. */
+	private Set<ObjectId> negotiatedCommon;
+
 	private boolean noDone;
 
 	private boolean noProgress;
@@ -228,6 +249,8 @@ public abstract class BasePackFetchConnection extends BasePackConnection
 
 	private PackLock packLock;
 
+	private List<PackLock> uriPackLocks = Collections.emptyList();
+
 	private int maxHaves;
 
 	private Integer depth;
@@ -265,10 +288,17 @@ public BasePackFetchConnection(PackTransport packTransport) {
 			allowOfsDelta = cfg.allowOfsDelta;
 			maxHaves = cfg.maxHaves;
 			useNegotiationTip = cfg.useNegotiationTip;
+			negotiationAlgorithm = cfg.negotiationAlgorithm;
+			negotiationUseCommitGraph = cfg.negotiationUseCommitGraph;
+			uriProtocols = cfg.uriProtocols;
+			packfileUriThreads = cfg.packfileUriThreads;
 		} else {
 			allowOfsDelta = true;
 			maxHaves = Integer.MAX_VALUE;
 			useNegotiationTip = false;
+			negotiationAlgorithm = NegotiationAlgorithm.CONSECUTIVE;
+			uriProtocols = Collections.emptyList();
+			packfileUriThreads = FetchConfig.DEFAULT_PACKFILE_URI_THREADS;
 		}
 
 		includeTags = transport.getTagOpt() != TagOpt.NO_TAGS;
@@ -299,18 +329,63 @@ public BasePackFetchConnection(PackTransport packTransport) {
 		}
 	}
 
+	/** Algorithms selecting the "have" lines sent during negotiation. */
+	enum NegotiationAlgorithm {
+		/** Send every commit, newest first, from all local tips. */
+		CONSECUTIVE,
+
+		/** Same as {@link #CONSECUTIVE}. */
+		DEFAULT,
+
+		/** Skip exponentially further back in history between haves. */
+		SKIPPING,
+
+		/** Send no haves at all. */
+		NOOP
+	}
+
 	static class FetchConfig {
+		static final int DEFAULT_PACKFILE_URI_THREADS = 4;
+
 		final boolean allowOfsDelta;
 
 		final int maxHaves;
 
 		final boolean useNegotiationTip;
 
+		final NegotiationAlgorithm negotiationAlgorithm;
+
+		final boolean negotiationUseCommitGraph;
+
+		final List<String> uriProtocols;
+
+		final int packfileUriThreads;
+
 		FetchConfig(Config c) {
 			allowOfsDelta = c.getBoolean("repack", "usedeltabaseoffset", true); //$NON-NLS-1$ //$NON-NLS-2$
 			maxHaves = c.getInt("fetch", "maxhaves", Integer.MAX_VALUE); //$NON-NLS-1$ //$NON-NLS-2$
 			useNegotiationTip = c.getBoolean("fetch", "usenegotiationtip", //$NON-NLS-1$ //$NON-NLS-2$
 					false);
+			NegotiationAlgorithm algorithm;
+			try {
+				algorithm = c.getEnum(NegotiationAlgorithm.values(), "fetch", //$NON-NLS-1$
+						null, "negotiationalgorithm", //$NON-NLS-1$
+						NegotiationAlgorithm.CONSECUTIVE);
+			} catch (IllegalArgumentException e) {
+				// C git uses the default algorithm for unknown values.
+				algorithm = NegotiationAlgorithm.CONSECUTIVE;
+			}
+			negotiationAlgorithm = algorithm;
+			negotiationUseCommitGraph = c.getBoolean("fetch", //$NON-NLS-1$
+					"negotiationusecommitgraph", false); //$NON-NLS-1$
+			String protocols = c.getString("fetch", null, "uriprotocols"); //$NON-NLS-1$ //$NON-NLS-2$
+			uriProtocols = StringUtils.isEmptyOrNull(protocols)
+					? Collections.emptyList()
+					: Arrays.stream(protocols.split(",")) //$NON-NLS-1$
+							.map(String::trim).filter(p -> !p.isEmpty())
+							.collect(Collectors.toList());
+			packfileUriThreads = Math.max(1, c.getInt("fetch", //$NON-NLS-1$
+					"packfileurithreads", DEFAULT_PACKFILE_URI_THREADS)); //$NON-NLS-1$
 		}
 
 		FetchConfig(boolean allowOfsDelta, int maxHaves) {
@@ -330,9 +405,36 @@ static class FetchConfig {
 		 */
 		FetchConfig(boolean allowOfsDelta, int maxHaves,
 				boolean useNegotiationTip) {
+			this(allowOfsDelta, maxHaves, useNegotiationTip,
+					NegotiationAlgorithm.CONSECUTIVE, false);
+		}
+
+		/**
+		 * @param allowOfsDelta
+		 *            when true optimizes the pack size by deltafying base
+		 *            object
+		 * @param maxHaves
+		 *            max haves to be sent per negotiation
+		 * @param useNegotiationTip
+		 *            if true uses the wanted refs instead of all refs as source
+		 *            of the "have" list to send.
+		 * @param negotiationAlgorithm
+		 *            algorithm picking the "have" lines to send.
+		 * @param negotiationUseCommitGraph
+		 *            if true the skipping algorithm orders commits by their
+		 *            commit-graph generation number before their commit time.
+		 */
+		FetchConfig(boolean allowOfsDelta, int maxHaves,
+				boolean useNegotiationTip,
+				NegotiationAlgorithm negotiationAlgorithm,
+				boolean negotiationUseCommitGraph) {
 			this.allowOfsDelta = allowOfsDelta;
 			this.maxHaves = maxHaves;
 			this.useNegotiationTip = useNegotiationTip;
+			this.negotiationAlgorithm = negotiationAlgorithm;
+			this.negotiationUseCommitGraph = negotiationUseCommitGraph;
+			this.uriProtocols = Collections.emptyList();
+			this.packfileUriThreads = DEFAULT_PACKFILE_URI_THREADS;
 		}
 	}
 
@@ -368,6 +470,13 @@ public void setPackLockMessage(String message) {
 
 	@Override
 	public Collection<PackLock> getPackLocks() {
+		if (!uriPackLocks.isEmpty()) {
+			List<PackLock> locks = new ArrayList<>(uriPackLocks);
+			if (packLock != null) {
+				locks.add(packLock);
+			}
+			return locks;
+		}
 		if (packLock != null)
 			return Collections.singleton(packLock);
 		return Collections.<PackLock> emptyList();
@@ -376,6 +485,7 @@ public Collection<PackLock> getPackLocks() {
 	private void clearState() {
 		walk.dispose();
 		reachableCommits = null;
+		skipping = null;
 		state = null;
 		pckState = null;
 	}
@@ -402,14 +512,16 @@ private void clearState() {
 	protected void doFetch(final ProgressMonitor monitor,
 			final Collection<Ref> want, final Set<ObjectId> have,
 			OutputStream outputStream) throws TransportException {
-		boolean hasObjects = !have.isEmpty();
+		boolean hasObjects = !have.isEmpty() && transport.isSendHaves();
 		try {
 			noProgress = monitor == NullProgressMonitor.INSTANCE;
 
 			if (hasObjects) {
 				markRefsAdvertised();
 			}
-			markReachable(want, have, maxTimeWanted(want, hasObjects));
+			if (transport.isSendHaves()) {
+				markReachable(want, have, maxTimeWanted(want, hasObjects));
+			}
 
 			if (TransferConfig.ProtocolVersion.V2
 					.equals(getProtocolVersion())) {
@@ -497,6 +609,10 @@ private void doFetchV2(ProgressMonitor monitor, Collection<Ref> want,
 		// If we send something, we always close it properly ourselves.
 		outNeedsEnd = false;
 
+		// With "sideband-all" every line of the response is multiplexed.
+		PacketLineIn input = sidebandAll
+				? new SideBandPacketLineIn(in, getMessageWriter())
+				: pckIn;
 		FetchStateV2 fetchState = new FetchStateV2();
 		boolean sentDone = false;
 		for (;;) {
@@ -507,7 +623,7 @@ private void doFetchV2(ProgressMonitor monitor, Collection<Ref> want,
 			if (sentDone) {
 				break;
 			}
-			if (readAcknowledgments(fetchState, pckIn, monitor)) {
+			if (readAcknowledgments(fetchState, input, monitor)) {
 				// We got a "ready": next should be a patch file.
 				break;
 			}
@@ -519,24 +635,50 @@ private void doFetchV2(ProgressMonitor monitor, Collection<Ref> want,
 			// git implementation.
 		}
 		clearState();
-		String line = pckIn.readString();
+		String line = input.readString();
 		// If we sent a done, we may have an error reply here.
 		if (sentDone && line.startsWith(PACKET_ERR)) {
 			throw new RemoteRepositoryException(uri, line.substring(4));
 		}
 
 		if (GitProtocolConstants.SECTION_SHALLOW_INFO.equals(line)) {
-			line = handleShallowUnshallow(shallowCommits, pckIn);
+			line = handleShallowUnshallow(shallowCommits, input);
 			if (!PacketLineIn.isDelimiter(line)) {
 				throw new PackProtocolException(MessageFormat
 						.format(JGitText.get().expectedGot, PACKET_DELIM,
 								line));
 			}
-			line = pckIn.readString();
+			line = input.readString();
+		}
+
+		// "wanted-refs" would have to be handled here, before
+		// "packfile-uris".
+		if (GitProtocolConstants.SECTION_PACKFILE_URIS.equals(line)) {
+			try (PackfileUriDownloader downloader = new PackfileUriDownloader(
+					transport, packfileUriThreads, lockMessage,
+					uriProtocols)) {
+				line = input.readString();
+				while (!PacketLineIn.isDelimiter(line)) {
+					if (PacketLineIn.isEnd(line)) {
+						throw new PackProtocolException(MessageFormat.format(
+								JGitText.get().expectedGot, PACKET_DELIM,
+								line));
+					}
+					downloader.add(line);
+					line = input.readString();
+				}
+				// The inline pack never has deltas against objects of the
+				// referenced packs, so it is indexed while they download.
+				receivePackSection(monitor, input.readString(), outputStream);
+				uriPackLocks = downloader.await(monitor);
+			}
+		} else {
+			receivePackSection(monitor, line, outputStream);
 		}
+	}
 
-		// "wanted-refs" and "packfile-uris" would have to be
-		// handled here in that order.
+	private void receivePackSection(ProgressMonitor monitor, String line,
+			OutputStream outputStream) throws IOException {
 		if (!GitProtocolConstants.SECTION_PACKFILE.equals(line)) {
 			throw new PackProtocolException(
 					MessageFormat.format(JGitText.get().expectedGot,
@@ -545,6 +687,137 @@ private void doFetchV2(ProgressMonitor monitor, Collection<Ref> want,
 		receivePack(monitor, outputStream);
 	}
 
+	/**
+	 * Find the commits the remote has in common with the history of
+	 * {@code tips}, without fetching anything.
+	 * <p>
+	 * Runs the "have" exchange of a protocol V2 fetch with "wait-for-done", so
+	 * the remote only acknowledges the commits it has and never sends a pack.
+	 * Used by push to learn about objects the remote has but doesn't
+	 * advertise.
+	 *
+	 * @param monitor
+	 *            progress monitor, used for cancellation.
+	 * @param tips
+	 *            local commits to start the negotiation from.
+	 * @return the commits acknowledged by the remote; {@code null} if the
+	 *         remote doesn't support negotiation without fetching.
+	 * @throws TransportException
+	 *             if any exception occurs.
+	 */
+	Set<ObjectId> negotiateOnly(ProgressMonitor monitor,
+			Collection<ObjectId> tips) throws TransportException {
+		markStartedOperation();
+		String advertised = getCapability(GitProtocolConstants.COMMAND_FETCH);
+		if (local == null
+				|| !TransferConfig.ProtocolVersion.V2
+						.equals(getProtocolVersion())
+				|| StringUtils.isEmptyOrNull(advertised)
+				|| !Arrays.asList(advertised.split("\\s+")) //$NON-NLS-1$
+						.contains(GitProtocolConstants.OPTION_WAIT_FOR_DONE)) {
+			return null;
+		}
+		negotiatedCommon = new HashSet<>();
+		state = new TemporaryBuffer.Heap(Integer.MAX_VALUE);
+		pckState = new PacketLineOut(state);
+		try {
+			markRefsAdvertised();
+			for (ObjectId id : tips) {
+				markReachable(id);
+			}
+			negotiateBegin();
+
+			pckState.writeString(
+					"command=" + GitProtocolConstants.COMMAND_FETCH); //$NON-NLS-1$
+			String agent = UserAgent.get();
+			if (agent != null
+					&& isCapableOf(GitProtocolConstants.OPTION_AGENT)) {
+				pckState.writeString(
+						GitProtocolConstants.OPTION_AGENT + '=' + agent);
+			}
+			pckState.writeDelim();
+			pckState.writeString(GitProtocolConstants.OPTION_WAIT_FOR_DONE);
+			outNeedsEnd = false;
+
+			FetchStateV2 fetchState = new FetchStateV2();
+			List<RevCommit> batch = new ArrayList<>();
+			for (;;) {
+				batch.clear();
+				while (batch.size() < fetchState.havesToSend) {
+					RevCommit c = nextHave();
+					if (c == null) {
+						break;
+					}
+					batch.add(c);
+				}
+				if (batch.isEmpty()) {
+					break;
+				}
+				state.writeTo(out, monitor);
+				for (RevCommit c : batch) {
+					pckOut.writeString(PACKET_HAVE + c.name() + '\n');
+				}
+				pckOut.end();
+				fetchState.havesTotal += batch.size();
+				fetchState.havesWithoutAck += batch.size();
+				fetchState.incHavesToSend(statelessRPC);
+				readAcknowledgments(fetchState, pckIn, monitor);
+				if ((fetchState.hadAcks
+						&& fetchState.havesWithoutAck > MAX_HAVES)
+						|| fetchState.havesTotal > maxHaves) {
+					break;
+				}
+			}
+			return negotiatedCommon;
+		} catch (CancelledException ce) {
+			return negotiatedCommon;
+		} catch (IOException | RuntimeException err) {
+			throw new TransportException(err.getMessage(), err);
+		} finally {
+			negotiatedCommon = null;
+			clearState();
+			close();
+		}
+	}
+
+	/**
+	 * Ask the remote for the bundles to download before fetching from it.
+	 * <p>
+	 * Must be called before {@link #fetch}, on a connection which has
+	 * completed the reference advertisement.
+	 *
+	 * @return the bundles listed by the remote; {@code null} if the remote
+	 *         doesn't support {@code bundle-uri} or lists no usable bundles.
+	 * @throws TransportException
+	 *             if the command could not be run or its output not be read
+	 */
+	BundleList getBundleList() throws TransportException {
+		if (!TransferConfig.ProtocolVersion.V2.equals(getProtocolVersion())
+				|| !isCapableOf(GitProtocolConstants.COMMAND_BUNDLE_URI)) {
+			return null;
+		}
+		try {
+			pckOut.writeString(
+					"command=" + GitProtocolConstants.COMMAND_BUNDLE_URI); //$NON-NLS-1$
+			String agent = UserAgent.get();
+			if (agent != null
+					&& isCapableOf(GitProtocolConstants.OPTION_AGENT)) {
+				pckOut.writeString(
+						GitProtocolConstants.OPTION_AGENT + '=' + agent);
+			}
+			pckOut.end();
+			List<String> lines = new ArrayList<>();
+			for (String line = pckIn.readString(); !PacketLineIn
+					.isEnd(line); line = pckIn.readString()) {
+				lines.add(line);
+			}
+			return BundleList.parse(lines);
+		} catch (IOException | RuntimeException err) {
+			close();
+			throw new TransportException(err.getMessage(), err);
+		}
+	}
+
 	/**
 	 * Sends the next batch of "have"s and terminates the {@code output}.
 	 *
@@ -567,7 +840,7 @@ private boolean sendNextHaveBatch(FetchStateV2 fetchState,
 			throws IOException, CancelledException {
 		long n = 0;
 		while (n < fetchState.havesToSend) {
-			final RevCommit c = walk.next();
+			final RevCommit c = nextHave();
 			if (c == null) {
 				break;
 			}
@@ -843,6 +1116,19 @@ private Set<String> getCapabilitiesV2(Set<String> advertisedCapabilities)
 			throw new PackProtocolException(uri,
 					JGitText.get().filterRequiresCapability);
 		}
+		// Packfile URIs are sent in a section before the pack, which can
+		// only be told apart from it if the whole response is multiplexed.
+		sidebandAll = false;
+		if (!uriProtocols.isEmpty()
+				&& advertisedCapabilities.contains(
+						GitProtocolConstants.OPTION_SIDEBAND_ALL)
+				&& advertisedCapabilities.contains(
+						GitProtocolConstants.OPTION_PACKFILE_URIS)) {
+			sidebandAll = true;
+			capabilities.add(GitProtocolConstants.OPTION_SIDEBAND_ALL);
+			capabilities.add(GitProtocolConstants.OPTION_PACKFILE_URIS + ' '
+					+ String.join(",", uriProtocols)); //$NON-NLS-1$
+		}
 		// The FilterSpec will be added later in sendWants().
 		return capabilities;
 	}
@@ -907,7 +1193,7 @@ private void negotiate(ProgressMonitor monitor, boolean mayHaveShallow, Set<Obje
 
 		negotiateBegin();
 		SEND_HAVES: for (;;) {
-			final RevCommit c = walk.next();
+			final RevCommit c = nextHave();
 			if (c == null) {
 				break SEND_HAVES;
 			}
@@ -1069,7 +1355,20 @@ private void negotiate(ProgressMonitor monitor, boolean mayHaveShallow, Set<Obje
 	}
 
 	private void negotiateBegin() throws IOException {
+		if (skipping != null) {
+			skipping.dispose();
+			skipping = null;
+		}
 		walk.resetRetain(REACHABLE, ADVERTISED);
+		if (negotiationAlgorithm == NegotiationAlgorithm.SKIPPING) {
+			CommitGraph graph = null;
+			if (negotiationUseCommitGraph) {
+				graph = walk.getObjectReader().getCommitGraph().orElse(null);
+			}
+			skipping = new SkippingNegotiator(walk, COMMON, ADVERTISED, graph);
+			skipping.markStart(reachableCommits);
+			return;
+		}
 		walk.markStart(reachableCommits);
 		walk.sort(RevSort.COMMIT_TIME_DESC);
 		walk.setRevFilter(new RevFilter() {
@@ -1099,6 +1398,13 @@ public boolean requiresCommitBody() {
 		});
 	}
 
+	private RevCommit nextHave() throws IOException {
+		if (negotiationAlgorithm == NegotiationAlgorithm.NOOP) {
+			return null;
+		}
+		return skipping != null ? skipping.next() : walk.next();
+	}
+
 	private void markRefsAdvertised() {
 		for (Ref r : getRefs()) {
 			markAdvertised(r.getObjectId());
@@ -1124,6 +1430,9 @@ private void markCommon(RevObject obj, AckNackResult anr, boolean useState)
 		obj.add(COMMON);
 		if (obj instanceof RevCommit)
 			((RevCommit) obj).carry(COMMON);
+		if (negotiatedCommon != null) {
+			negotiatedCommon.add(obj.copy());
+		}
 	}
 
 	private void receivePack(final ProgressMonitor monitor,
@@ -1141,7 +1450,10 @@ private void receivePack(final ProgressMonitor monitor,
 			PackParser parser = ins.newPackParser(input);
 			parser.setAllowThin(thinPack);
 			parser.setObjectChecker(transport.getObjectChecker());
+			parser.setDeltaResolutionThreads(transport.getIndexThreads());
+			parser.setStreamingDeltaResolution(transport.isIndexStreaming());
 			parser.setLockMessage(lockMessage);
+			parser.setPromisor(!filterSpec.isNoOp());
 			packLock = parser.parse(monitor);
 			ins.flush();
 		} finally {
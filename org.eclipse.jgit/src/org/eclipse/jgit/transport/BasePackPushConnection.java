@@ -212,6 +212,18 @@ protected void doPush(final ProgressMonitor monitor,
 		}
 	}
 
+	/**
+	 * Add objects the remote is known to have although it doesn't advertise
+	 * them, e.g. as found by push negotiation.
+	 *
+	 * @param ids
+	 *            objects the remote has; they and their history are left out
+	 *            of the pushed pack.
+	 */
+	void addRemoteObjects(Collection<ObjectId> ids) {
+		additionalHaves.addAll(ids);
+	}
+
 	private void writeCommands(final Collection<RemoteRefUpdate> refUpdates,
 			final ProgressMonitor monitor, OutputStream outputStream) throws IOException {
 		final String capabilities = enableCapabilities(monitor, outputStream);
@@ -162,6 +162,9 @@ protected void doFetch(final ProgressMonitor monitor,
 				PackParser parser = ins.newPackParser(bin);
 				parser.setAllowThin(true);
 				parser.setObjectChecker(transport.getObjectChecker());
+				parser.setDeltaResolutionThreads(transport.getIndexThreads());
+				parser.setStreamingDeltaResolution(
+						transport.isIndexStreaming());
 				parser.setLockMessage(lockMessage);
 				packLock = parser.parse(NullProgressMonitor.INSTANCE);
 				ins.flush();
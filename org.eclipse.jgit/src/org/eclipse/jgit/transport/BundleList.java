@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_BUNDLE_SECTION;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bundles a server lists in response to the protocol V2 command
+ * {@code bundle-uri}.
+ * <p>
+ * The list is sent as {@code key=value} lines in the format of the git
+ * configuration section {@code bundle}:
+ *
+ * <pre>
+ * bundle.version=1
+ * bundle.mode=all
+ * bundle.&lt;id&gt;.uri=&lt;uri&gt;
+ * bundle.&lt;id&gt;.creationToken=&lt;token&gt;
+ * </pre>
+ */
+final class BundleList {
+	private static final String KEY_VERSION = "version"; //$NON-NLS-1$
+
+	private static final String KEY_MODE = "mode"; //$NON-NLS-1$
+
+	private static final String KEY_URI = "uri"; //$NON-NLS-1$
+
+	private static final String KEY_CREATION_TOKEN = "creationtoken"; //$NON-NLS-1$
+
+	private static final String MODE_ALL = "all"; //$NON-NLS-1$
+
+	private static final String MODE_ANY = "any"; //$NON-NLS-1$
+
+	/**
+	 * Parse the lines sent by the server.
+	 *
+	 * @param lines
+	 *            the {@code key=value} lines of the response.
+	 * @return the list; {@code null} if its version or mode is not supported,
+	 *         or it contains no bundles.
+	 */
+	static BundleList parse(List<String> lines) {
+		String version = null;
+		String mode = null;
+		Map<String, Bundle> bundles = new LinkedHashMap<>();
+		String prefix = CONFIG_BUNDLE_SECTION + '.';
+		for (String line : lines) {
+			int eq = line.indexOf('=');
+			if (eq < 0 || !line.startsWith(prefix)) {
+				continue;
+			}
+			String key = line.substring(prefix.length(), eq);
+			String value = line.substring(eq + 1);
+			int dot = key.lastIndexOf('.');
+			if (dot < 0) {
+				switch (key.toLowerCase(Locale.ROOT)) {
+				case KEY_VERSION:
+					version = value;
+					break;
+				case KEY_MODE:
+					mode = value;
+					break;
+				default:
+					// Heuristics and other keys only guide incremental
+					// fetches, which are not implemented.
+					break;
+				}
+				continue;
+			}
+			Bundle b = bundles.computeIfAbsent(key.substring(0, dot),
+					id -> new Bundle());
+			switch (key.substring(dot + 1).toLowerCase(Locale.ROOT)) {
+			case KEY_URI:
+				b.uri = value;
+				break;
+			case KEY_CREATION_TOKEN:
+				try {
+					b.creationToken = Long.parseUnsignedLong(value);
+				} catch (NumberFormatException e) {
+					// Treat as not ordered.
+				}
+				break;
+			default:
+				break;
+			}
+		}
+
+		if (!"1".equals(version) //$NON-NLS-1$
+				|| !(MODE_ALL.equals(mode) || MODE_ANY.equals(mode))) {
+			return null;
+		}
+		List<Bundle> valid = new ArrayList<>();
+		for (Bundle b : bundles.values()) {
+			if (b.uri != null && !b.uri.isEmpty()) {
+				valid.add(b);
+			}
+		}
+		if (valid.isEmpty()) {
+			return null;
+		}
+		// Bundles with lower tokens are prerequisites of later ones.
+		valid.sort(Comparator.comparingLong(b -> b.creationToken));
+		List<String> uris = new ArrayList<>(valid.size());
+		for (Bundle b : valid) {
+			uris.add(b.uri);
+		}
+		return new BundleList(MODE_ANY.equals(mode), uris);
+	}
+
+	private final boolean any;
+
+	private final List<String> uris;
+
+	private BundleList(boolean any, List<String> uris) {
+		this.any = any;
+		this.uris = uris;
+	}
+
+	/**
+	 * Whether one of the bundles is sufficient.
+	 *
+	 * @return {@code true} if any single bundle contains everything the list
+	 *         offers; {@code false} if all bundles are needed.
+	 */
+	boolean isAny() {
+		return any;
+	}
+
+	/**
+	 * Get the URIs of the bundles.
+	 *
+	 * @return the URIs of the bundles, in the order to apply them.
+	 */
+	List<String> getUris() {
+		return uris;
+	}
+
+	private static class Bundle {
+		String uri;
+
+		long creationToken;
+	}
+}
@@ -19,8 +19,17 @@
 import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.errors.RepositoryNotFoundException;
@@ -55,6 +64,22 @@ public class Daemon {
 
 	private PackConfig packConfig;
 
+	private volatile Executor executor;
+
+	private volatile UploadAdmissionControl uploadAdmissionControl;
+
+	private volatile int maxSessions;
+
+	private volatile Semaphore sessions;
+
+	private final AtomicInteger activeSessions = new AtomicInteger();
+
+	private final AtomicInteger queuedSessions = new AtomicInteger();
+
+	private final AtomicLong completedSessions = new AtomicLong();
+
+	private final AtomicLong queueWaitNanos = new AtomicLong();
+
 	private volatile RepositoryResolver<DaemonClient> repositoryResolver;
 
 	volatile UploadPackFactory<DaemonClient> uploadPackFactory;
@@ -118,6 +143,11 @@ protected void execute(final DaemonClient dc,
 							ServiceNotEnabledException,
 							ServiceNotAuthorizedException {
 						UploadPack up = uploadPackFactory.create(dc, db);
+						UploadAdmissionControl admission = uploadAdmissionControl;
+						if (admission != null
+								&& up.getAdmissionControl() == null) {
+							up.setAdmissionControl(admission);
+						}
 						InputStream in = dc.getInputStream();
 						OutputStream out = dc.getOutputStream();
 						if (extraParameters != null) {
@@ -214,6 +244,155 @@ public void setPackConfig(PackConfig pc) {
 		this.packConfig = pc;
 	}
 
+	/**
+	 * Get the executor running client connections.
+	 *
+	 * @return the executor running client connections; null if each
+	 *         connection runs on a new thread of its own.
+	 * @since 6.9
+	 */
+	@Nullable
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Set the executor running client connections.
+	 * <p>
+	 * By default every accepted connection is served by a new platform
+	 * thread. With an executor, connections are submitted to it instead,
+	 * e.g. to one returned by {@link #newVirtualThreadExecutor()}, so that
+	 * many mostly idle connections do not each hold a platform thread. The
+	 * daemon does not shut the executor down when it is stopped.
+	 *
+	 * @param executor
+	 *            the executor; null to start a new thread per connection.
+	 * @since 6.9
+	 */
+	public void setExecutor(@Nullable Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Get the admission control of upload-pack sessions.
+	 *
+	 * @return the admission control of upload-pack sessions; null if packs
+	 *         are generated right away.
+	 * @since 6.9
+	 */
+	@Nullable
+	public UploadAdmissionControl getUploadAdmissionControl() {
+		return uploadAdmissionControl;
+	}
+
+	/**
+	 * Set the admission control of upload-pack sessions.
+	 * <p>
+	 * Every {@link UploadPack} created for a connection that has no admission
+	 * control of its own uses this one, so that the number of packs generated
+	 * at the same time is limited across all connections.
+	 *
+	 * @param control
+	 *            the admission control; null to generate packs right away.
+	 * @since 6.9
+	 */
+	public void setUploadAdmissionControl(
+			@Nullable UploadAdmissionControl control) {
+		uploadAdmissionControl = control;
+	}
+
+	/**
+	 * Create an executor which starts a virtual thread per task.
+	 * <p>
+	 * Virtual threads are available from Java 21 on. This method allows
+	 * using them with {@link #setExecutor(Executor)} while JGit itself still
+	 * runs on older Java versions.
+	 *
+	 * @return a new executor starting a virtual thread per task; null if the
+	 *         running Java version does not support virtual threads.
+	 * @since 6.9
+	 */
+	@Nullable
+	public static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor") //$NON-NLS-1$
+					.invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Get the maximum number of concurrently served connections.
+	 *
+	 * @return the maximum number of concurrently served connections; 0 if
+	 *         unlimited.
+	 * @since 6.9
+	 */
+	public int getMaxSessions() {
+		return maxSessions;
+	}
+
+	/**
+	 * Set the maximum number of concurrently served connections.
+	 * <p>
+	 * Connections accepted while the limit is reached wait until another
+	 * connection is finished, see {@link #getQueuedSessions()}.
+	 *
+	 * @param max
+	 *            maximum number of connections served at the same time; 0
+	 *            for no limit.
+	 * @since 6.9
+	 */
+	public synchronized void setMaxSessions(int max) {
+		maxSessions = Math.max(0, max);
+		sessions = maxSessions > 0 ? new Semaphore(maxSessions, true) : null;
+	}
+
+	/**
+	 * Get the number of connections currently being served.
+	 *
+	 * @return the number of connections currently being served.
+	 * @since 6.9
+	 */
+	public int getActiveSessions() {
+		return activeSessions.get();
+	}
+
+	/**
+	 * Get the number of connections waiting for {@link #getMaxSessions()}.
+	 *
+	 * @return the number of accepted connections waiting until fewer than
+	 *         {@link #getMaxSessions()} connections are served.
+	 * @since 6.9
+	 */
+	public int getQueuedSessions() {
+		return queuedSessions.get();
+	}
+
+	/**
+	 * Get the number of connections served to completion.
+	 *
+	 * @return the number of connections served to completion since this
+	 *         daemon was created.
+	 * @since 6.9
+	 */
+	public long getCompletedSessions() {
+		return completedSessions.get();
+	}
+
+	/**
+	 * Get the total time connections waited for {@link #getMaxSessions()}.
+	 *
+	 * @return the total time accepted connections waited until they could be
+	 *         served, since this daemon was created.
+	 * @since 6.9
+	 */
+	public Duration getTotalQueueTime() {
+		return Duration.ofNanos(queueWaitNanos.get());
+	}
+
 	/**
 	 * Set the resolver used to locate a repository by name.
 	 *
@@ -384,31 +563,80 @@ void startClient(Socket s) {
 		if (peer instanceof InetSocketAddress)
 			dc.setRemoteAddress(((InetSocketAddress) peer).getAddress());
 
-		new Thread(processors, "Git-Daemon-Client " + peer.toString()) { //$NON-NLS-1$
-			@Override
-			public void run() {
-				try {
+		Semaphore limit = sessions;
+		Runnable session = () -> {
+			boolean admitted = false;
+			try {
+				admitted = admit(limit);
+				if (admitted) {
 					dc.execute(s);
-				} catch (ServiceNotEnabledException e) {
-					// Ignored. Client cannot use this repository.
-				} catch (ServiceNotAuthorizedException e) {
-					// Ignored. Client cannot use this repository.
-				} catch (IOException e) {
-					// Ignore unexpected IO exceptions from clients
-				} finally {
-					try {
-						s.getInputStream().close();
-					} catch (IOException e) {
-						// Ignore close exceptions
+				}
+			} catch (ServiceNotEnabledException e) {
+				// Ignored. Client cannot use this repository.
+			} catch (ServiceNotAuthorizedException e) {
+				// Ignored. Client cannot use this repository.
+			} catch (IOException e) {
+				// Ignore unexpected IO exceptions from clients
+			} finally {
+				if (admitted) {
+					activeSessions.decrementAndGet();
+					completedSessions.incrementAndGet();
+					if (limit != null) {
+						limit.release();
 					}
+				}
+				close(s);
+			}
+		};
+
+		Executor e = executor;
+		if (e == null) {
+			new Thread(processors, session,
+					"Git-Daemon-Client " + peer.toString()).start(); //$NON-NLS-1$
+			return;
+		}
+		try {
+			e.execute(session);
+		} catch (RejectedExecutionException rejected) {
+			close(s);
+		}
+	}
+
+	private boolean admit(@Nullable Semaphore limit) {
+		if (limit != null) {
+			try {
+				// Unlike tryAcquire(), a timed tryAcquire doesn't barge ahead of
+				// sessions already waiting for the fair semaphore.
+				if (!limit.tryAcquire(0, TimeUnit.SECONDS)) {
+					queuedSessions.incrementAndGet();
+					long start = System.nanoTime();
 					try {
-						s.getOutputStream().close();
-					} catch (IOException e) {
-						// Ignore close exceptions
+						limit.acquire();
+					} finally {
+						queuedSessions.decrementAndGet();
+						queueWaitNanos.addAndGet(System.nanoTime() - start);
 					}
 				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
 			}
-		}.start();
+		}
+		activeSessions.incrementAndGet();
+		return true;
+	}
+
+	private static void close(Socket s) {
+		try {
+			s.getInputStream().close();
+		} catch (IOException e) {
+			// Ignore close exceptions
+		}
+		try {
+			s.getOutputStream().close();
+		} catch (IOException e) {
+			// Ignore close exceptions
+		}
 	}
 
 	synchronized DaemonService matchService(String cmd) {
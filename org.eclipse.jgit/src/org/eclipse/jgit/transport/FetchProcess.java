@@ -21,6 +21,7 @@
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.net.URISyntaxException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -28,6 +29,7 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -52,6 +54,9 @@
 import org.eclipse.jgit.util.StringUtils;
 
 class FetchProcess {
+	/** Prefix of the local references of downloaded bundles. */
+	private static final String R_BUNDLES = "refs/bundles/"; //$NON-NLS-1$
+
 	/** Transport we will fetch over. */
 	private final Transport transport;
 
@@ -159,6 +164,9 @@ private void executeImp(final ProgressMonitor monitor,
 			}
 			result.setAdvertisedRefs(transport.getURI(), refsMap);
 			result.peerUserAgent = conn.getPeerUserAgent();
+			if (transport.isBundleUri() && !transport.isDryRun()) {
+				fetchBundles(monitor);
+			}
 			final Set<Ref> matched = new HashSet<>();
 			for (RefSpec spec : toFetch) {
 				if (spec.getSource() == null)
@@ -297,6 +305,66 @@ private void fetchObjects(ProgressMonitor monitor)
 					JGitText.get().peerDidNotSupplyACompleteObjectGraph);
 	}
 
+	private void fetchBundles(ProgressMonitor monitor)
+			throws TransportException {
+		if (!(conn instanceof BasePackFetchConnection)) {
+			return;
+		}
+		BundleList bundles = ((BasePackFetchConnection) conn)
+				.getBundleList();
+		if (bundles == null) {
+			return;
+		}
+		for (String bundle : bundles.getUris()) {
+			try {
+				fetchBundle(monitor, new URIish(bundle));
+				if (bundles.isAny()) {
+					return;
+				}
+			} catch (URISyntaxException | IOException e) {
+				// Skip the bundle; the objects it would have provided are
+				// fetched from the remote.
+			}
+		}
+	}
+
+	private void fetchBundle(ProgressMonitor monitor, URIish uri)
+			throws IOException {
+		List<RefSpec> spec = Collections.singletonList(
+				new RefSpec("+refs/*:" + R_BUNDLES + '*')); //$NON-NLS-1$
+		// The remote chooses the URIs. Don't let it make us connect to
+		// other hosts with our credentials or read local repositories.
+		String scheme = uri.getScheme();
+		if ("http".equals(scheme) || "https".equals(scheme)) { //$NON-NLS-1$ //$NON-NLS-2$
+			try (TransportHttp http = new TransportHttp(transport.local, uri);
+					Transport t = http.openBundle()) {
+				fetchBundle(monitor, t, spec);
+			}
+		} else if ("file".equals(scheme) && uri.getHost() == null //$NON-NLS-1$
+				&& transport.isBundleUriAllowFile()) {
+			File path = new File(uri.getPath());
+			if (!path.isFile()) {
+				throw new NotSupportedException(MessageFormat
+						.format(JGitText.get().URINotSupported, uri));
+			}
+			try (Transport t = new TransportBundleFile(transport.local, uri,
+					path)) {
+				fetchBundle(monitor, t, spec);
+			}
+		} else {
+			throw new NotSupportedException(
+					MessageFormat.format(JGitText.get().URINotSupported, uri));
+		}
+	}
+
+	private void fetchBundle(ProgressMonitor monitor, Transport t,
+			List<RefSpec> spec) throws IOException {
+		t.setTagOpt(TagOpt.NO_TAGS);
+		t.setObjectChecker(transport.getObjectChecker());
+		t.setBundleUri(false);
+		t.fetch(monitor, spec);
+	}
+
 	private void closeConnection(FetchResult result) {
 		if (conn != null) {
 			conn.close();
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.transport;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.util.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link PackResponseCache} storing pack streams as files in a local
+ * directory.
+ * <p>
+ * The total size of all stored streams is bounded. When a new stream is
+ * committed and the bound is exceeded, the least recently used entries are
+ * deleted until the cache fits again. Entries already present in the
+ * directory are picked up when the cache is created, ordered by their
+ * modification time.
+ *
+ * @since 6.9
+ */
+public class FilePackResponseCache extends PackResponseCache {
+	private static final Logger LOG = LoggerFactory
+			.getLogger(FilePackResponseCache.class);
+
+	private static final String TMP_PREFIX = "incoming_"; //$NON-NLS-1$
+
+	private final File directory;
+
+	private final long maxSize;
+
+	private final long maxEntrySize;
+
+	/** Entry name to entry size, in access order. */
+	private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(
+			16, 0.75f, true);
+
+	private long size;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Create a cache in a directory.
+	 *
+	 * @param directory
+	 *            directory holding the cached streams. Created if it does
+	 *            not exist. Must not be shared with another cache instance.
+	 * @param maxSize
+	 *            maximum number of bytes of all stored streams.
+	 * @param maxEntrySize
+	 *            maximum size of a single stream. Larger packs are sent to
+	 *            the client but not cached.
+	 * @throws IOException
+	 *             the directory cannot be created or listed.
+	 */
+	public FilePackResponseCache(File directory, long maxSize,
+			long maxEntrySize) throws IOException {
+		if (maxSize <= 0 || maxEntrySize <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.directory = directory;
+		this.maxSize = maxSize;
+		this.maxEntrySize = Math.min(maxEntrySize, maxSize);
+		FileUtils.mkdirs(directory, true);
+		load();
+	}
+
+	private void load() throws IOException {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			throw new IOException(directory.getPath());
+		}
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		synchronized (entries) {
+			for (File f : files) {
+				String name = f.getName();
+				if (name.startsWith(TMP_PREFIX)) {
+					FileUtils.delete(f, FileUtils.SKIP_MISSING
+							| FileUtils.IGNORE_ERRORS);
+				} else if (ObjectId.isId(name) && f.isFile()) {
+					long len = f.length();
+					entries.put(name, Long.valueOf(len));
+					size += len;
+				}
+			}
+			evict();
+		}
+	}
+
+	@Override
+	public InputStream open(ObjectId key) throws IOException {
+		String name = key.name();
+		synchronized (entries) {
+			if (entries.get(name) == null) {
+				misses.incrementAndGet();
+				return null;
+			}
+		}
+		try {
+			InputStream in = new FileInputStream(new File(directory, name));
+			hits.incrementAndGet();
+			return in;
+		} catch (FileNotFoundException e) {
+			// Concurrently evicted, or removed from disk by someone else.
+			forget(name);
+			misses.incrementAndGet();
+			return null;
+		}
+	}
+
+	@Override
+	public Writer newWriter(ObjectId key) throws IOException {
+		File tmp = File.createTempFile(TMP_PREFIX, null, directory);
+		return new EntryWriter(key.name(), tmp);
+	}
+
+	/**
+	 * Get number of requests answered from the cache.
+	 *
+	 * @return number of requests answered from the cache.
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Get number of requests not found in the cache.
+	 *
+	 * @return number of requests not found in the cache.
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Get ratio of hits to all lookups.
+	 *
+	 * @return ratio of hits to all lookups, 0 if there was no lookup yet.
+	 */
+	public double getHitRatio() {
+		long h = hits.get();
+		long total = h + misses.get();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	/**
+	 * Get number of entries deleted to stay within the size bound.
+	 *
+	 * @return number of entries deleted to stay within the size bound.
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * Get total size of the stored streams.
+	 *
+	 * @return total size in bytes of the stored streams.
+	 */
+	public long getSize() {
+		synchronized (entries) {
+			return size;
+		}
+	}
+
+	private void forget(String name) {
+		synchronized (entries) {
+			Long len = entries.remove(name);
+			if (len != null) {
+				size -= len.longValue();
+			}
+		}
+	}
+
+	private void add(String name, File tmp, long len) throws IOException {
+		synchronized (entries) {
+			FileUtils.rename(tmp, new File(directory, name),
+					StandardCopyOption.ATOMIC_MOVE);
+			Long old = entries.put(name, Long.valueOf(len));
+			if (old != null) {
+				size -= old.longValue();
+			}
+			size += len;
+			evict();
+		}
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<String, Long>> itr = entries.entrySet().iterator();
+		while (size > maxSize && itr.hasNext()) {
+			Map.Entry<String, Long> e = itr.next();
+			try {
+				FileUtils.delete(new File(directory, e.getKey()),
+						FileUtils.SKIP_MISSING);
+			} catch (IOException err) {
+				LOG.warn(err.getMessage(), err);
+			}
+			size -= e.getValue().longValue();
+			itr.remove();
+			evictions.incrementAndGet();
+		}
+	}
+
+	private class EntryWriter extends Writer {
+		private final String name;
+
+		private final File tmp;
+
+		private OutputStream out;
+
+		private long written;
+
+		EntryWriter(String name, File tmp) throws IOException {
+			this.name = name;
+			this.tmp = tmp;
+			this.out = new FileOutputStream(tmp);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			if (out == null) {
+				return;
+			}
+			if (written + len > maxEntrySize) {
+				abort();
+				return;
+			}
+			try {
+				out.write(b, off, len);
+				written += len;
+			} catch (IOException e) {
+				LOG.warn(e.getMessage(), e);
+				abort();
+			}
+		}
+
+		@Override
+		public void commit() throws IOException {
+			if (out == null) {
+				return;
+			}
+			try {
+				out.close();
+				out = null;
+				add(name, tmp, written);
+			} catch (IOException e) {
+				// The pack was already sent; only the entry is lost.
+				LOG.warn(JGitText.get().cannotStorePackResponse, e);
+			} finally {
+				abort();
+			}
+		}
+
+		@Override
+		public void abort() {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					// Ignore, the file is deleted below.
+				}
+				out = null;
+			}
+			try {
+				FileUtils.delete(tmp,
+						FileUtils.SKIP_MISSING | FileUtils.IGNORE_ERRORS);
+			} catch (IOException e) {
+				// Cannot happen with IGNORE_ERRORS.
+			}
+		}
+
+		@Override
+		public void close() {
+			abort();
+		}
+	}
+}
@@ -77,10 +77,19 @@ public int hashCode() {
 
 	private final long treeDepthLimit;
 
+	@Nullable
+	private final String sparseOid;
+
 	private FilterSpec(ObjectTypes types, long blobLimit, long treeDepthLimit) {
+		this(types, blobLimit, treeDepthLimit, null);
+	}
+
+	private FilterSpec(ObjectTypes types, long blobLimit, long treeDepthLimit,
+			@Nullable String sparseOid) {
 		this.types = requireNonNull(types);
 		this.blobLimit = blobLimit;
 		this.treeDepthLimit = treeDepthLimit;
+		this.sparseOid = sparseOid;
 	}
 
 	/**
@@ -91,6 +100,8 @@ private FilterSpec(ObjectTypes types, long blobLimit, long treeDepthLimit) {
 	 *   <li>"blob:none"
 	 *   <li>"blob:limit=N", with N &gt;= 0
 	 *   <li>"tree:DEPTH", with DEPTH &gt;= 0
+	 *   <li>"sparse:oid=BLOB-ISH", with BLOB-ISH naming a blob holding
+	 *   sparse-checkout patterns
 	 * </ul>
 	 *
 	 * @param filterLine
@@ -129,6 +140,11 @@ public static FilterSpec fromFilterLine(String filterLine)
 			if (treeDepthLimit >= 0) {
 				return FilterSpec.withTreeDepthLimit(treeDepthLimit);
 			}
+		} else if (filterLine.startsWith("sparse:oid=")) { //$NON-NLS-1$
+			String sparseOid = filterLine.substring("sparse:oid=".length()); //$NON-NLS-1$
+			if (!sparseOid.isEmpty()) {
+				return FilterSpec.withSparseOid(sparseOid);
+			}
 		}
 
 		// Did not match any known filter format.
@@ -179,6 +195,23 @@ static FilterSpec withTreeDepthLimit(long treeDepthLimit) {
 		return new FilterSpec(ObjectTypes.ALL, -1, treeDepthLimit);
 	}
 
+	/**
+	 * Specify sparse-checkout patterns
+	 *
+	 * @param sparseOid
+	 *            the blob-ish in a "sparse:oid=[blob-ish]" filter line, naming
+	 *            a blob holding sparse-checkout patterns
+	 * @return a filter spec which filters blobs at paths not matched by the
+	 *         patterns
+	 */
+	static FilterSpec withSparseOid(String sparseOid) {
+		if (sparseOid.isEmpty()) {
+			throw new IllegalArgumentException(
+					"sparseOid cannot be empty"); //$NON-NLS-1$
+		}
+		return new FilterSpec(ObjectTypes.ALL, -1, -1, sparseOid);
+	}
+
 	/**
 	 * A placeholder that indicates no filtering.
 	 */
@@ -219,13 +252,27 @@ public long getTreeDepthLimit() {
 		return treeDepthLimit;
 	}
 
+	/**
+	 * Get the blob holding sparse-checkout patterns
+	 *
+	 * @return null if this filter does not filter blobs based on their path,
+	 *         or the blob-ish naming the blob holding the sparse-checkout
+	 *         patterns blobs are filtered by
+	 * @since 6.9
+	 */
+	@Nullable
+	public String getSparseOid() {
+		return sparseOid;
+	}
+
 	/**
 	 * Whether this filter is a no-op
 	 *
 	 * @return true if this filter doesn't filter out anything
 	 */
 	public boolean isNoOp() {
-		return types.equals(ObjectTypes.ALL) && blobLimit == -1 && treeDepthLimit == -1;
+		return types.equals(ObjectTypes.ALL) && blobLimit == -1
+				&& treeDepthLimit == -1 && sparseOid == null;
 	}
 
 	/**
@@ -238,6 +285,8 @@ public boolean isNoOp() {
 	public String filterLine() {
 		if (isNoOp()) {
 			return null;
+		} else if (sparseOid != null) {
+			return OPTION_FILTER + " sparse:oid=" + sparseOid; //$NON-NLS-1$
 		} else if (types.equals(ObjectTypes.allow(OBJ_TREE, OBJ_COMMIT, OBJ_TAG)) &&
 					blobLimit == -1 && treeDepthLimit == -1) {
 			return OPTION_FILTER + " blob:none"; //$NON-NLS-1$
@@ -148,6 +148,14 @@ public final class GitProtocolConstants {
 	 */
 	public static final String OPTION_SIDEBAND_ALL = "sideband-all"; //$NON-NLS-1$
 
+	/**
+	 * The client can download parts of the response from the URIs listed in
+	 * a "packfile-uris" section; followed by the accepted URI protocols.
+	 *
+	 * @since 6.9
+	 */
+	public static final String OPTION_PACKFILE_URIS = "packfile-uris"; //$NON-NLS-1$
+
 	/**
 	 * The server waits for client to send "done" before sending any packs back.
 	 *
@@ -275,6 +283,14 @@ public final class GitProtocolConstants {
 	 */
 	public static final String COMMAND_OBJECT_INFO = "object-info"; //$NON-NLS-1$
 
+	/**
+	 * The server supports listing bundles clients can download before
+	 * fetching.
+	 *
+	 * @since 6.9
+	 */
+	public static final String COMMAND_BUNDLE_URI = "bundle-uri"; //$NON-NLS-1$
+
 	/**
 	 * HTTP header to set by clients to request a specific git protocol version
 	 * in the HTTP transport.
@@ -321,6 +337,13 @@ public final class GitProtocolConstants {
 	 */
 	public static final String SECTION_PACKFILE = "packfile"; //$NON-NLS-1$
 
+	/**
+	 * Protocol V2 packfile-uris section header.
+	 *
+	 * @since 6.9
+	 */
+	public static final String SECTION_PACKFILE_URIS = "packfile-uris"; //$NON-NLS-1$
+
 	/**
 	 * Protocol V2 shallow-info section header.
 	 *
@@ -15,16 +15,29 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.security.MessageDigest;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
 
+import org.eclipse.jgit.annotations.Nullable;
 import org.eclipse.jgit.errors.CorruptObjectException;
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.TooLargeObjectInPackException;
@@ -68,6 +81,12 @@ public abstract class PackParser {
 	/** Size of the internal stream buffer. */
 	private static final int BUFFER_SIZE = 8192;
 
+	/** Size of the objects kept for deltas received after their base. */
+	private static final long STREAMING_BASE_CACHE_LIMIT = 32 << 20;
+
+	/** Number of the next thread resolving deltas. */
+	private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
 	/** Location data is being obtained from. */
 	public enum Source {
 		/** Data is read from the incoming stream. */
@@ -152,9 +171,29 @@ public enum Source {
 	/** Message to protect the pack data from garbage collection. */
 	private String lockMessage;
 
+	/** Whether the pack comes from the promisor remote of a partial clone. */
+	private boolean promisor;
+
 	/** Git object size limit */
 	private long maxObjectSizeLimit;
 
+	/** Number of threads resolving deltas, 0 for one per processor. */
+	private int deltaResolutionThreads = 1;
+
+	/** Whether deltas are resolved while the pack is received. */
+	private boolean streamingDeltaResolution;
+
+	/** Reads the stored pack concurrently, null to resolve serially. */
+	private ConcurrentDatabaseReader concurrentReader;
+
+	/** Resolves deltas while receiving, if streaming is enabled. */
+	private StreamingResolver streaming;
+
+	/** Number of deltas resolved while the pack was received. */
+	private int deltasResolvedWhileReceiving;
+
+	private long streamingBaseCacheLimit = STREAMING_BASE_CACHE_LIMIT;
+
 	private final ReceivedPackStatistics.Builder stats =
 			new ReceivedPackStatistics.Builder();
 
@@ -389,6 +428,29 @@ public void setLockMessage(String msg) {
 		lockMessage = msg;
 	}
 
+	/**
+	 * Whether the incoming pack is marked as received from a promisor remote.
+	 *
+	 * @return true if the pack is marked as received from a promisor remote.
+	 * @since 6.9
+	 */
+	public boolean isPromisor() {
+		return promisor;
+	}
+
+	/**
+	 * Mark the incoming pack as received from the promisor remote of a
+	 * partial clone, i.e. from a filtered fetch. Objects the pack refers to
+	 * but does not contain are expected to be missing locally.
+	 *
+	 * @param promisor
+	 *            true if the pack was sent by a promisor remote.
+	 * @since 6.9
+	 */
+	public void setPromisor(boolean promisor) {
+		this.promisor = promisor;
+	}
+
 	/**
 	 * Set the maximum allowed Git object size.
 	 * <p>
@@ -402,6 +464,77 @@ public void setMaxObjectSizeLimit(long limit) {
 		maxObjectSizeLimit = limit;
 	}
 
+	/**
+	 * Get the number of threads used to resolve deltas.
+	 *
+	 * @return the number of threads used to resolve deltas; 0 to use one
+	 *         thread per available processor.
+	 * @since 6.9
+	 */
+	public int getDeltaResolutionThreads() {
+		return deltaResolutionThreads;
+	}
+
+	/**
+	 * Set the number of threads used to resolve deltas.
+	 * <p>
+	 * With more than one thread, delta trees rooted at different base objects
+	 * are inflated, patched and hashed in parallel, similar to
+	 * {@code git index-pack --threads}. This requires the implementation to
+	 * support concurrent reads of the stored pack, see
+	 * {@link #getConcurrentDatabaseReader()}; otherwise deltas are
+	 * resolved by the calling thread. Defaults to 1.
+	 *
+	 * @param threads
+	 *            number of threads; 0 to use one thread per available
+	 *            processor.
+	 * @since 6.9
+	 */
+	public void setDeltaResolutionThreads(int threads) {
+		deltaResolutionThreads = Math.max(0, threads);
+	}
+
+	/**
+	 * Whether deltas are resolved while the pack is still being received.
+	 *
+	 * @return whether deltas are resolved while the pack is still being
+	 *         received.
+	 * @since 6.9
+	 */
+	public boolean isStreamingDeltaResolution() {
+		return streamingDeltaResolution;
+	}
+
+	/**
+	 * Set whether deltas are resolved while the pack is still being
+	 * received.
+	 * <p>
+	 * By default deltas are resolved after the whole pack has been received.
+	 * In streaming mode a delta is resolved as soon as both the delta and its
+	 * base have been received, on up to
+	 * {@link #getDeltaResolutionThreads()} background threads (at least
+	 * one), so that resolving overlaps with reading a slow network stream.
+	 * Deltas based on objects outside of a thin pack are still resolved at
+	 * the end.
+	 * <p>
+	 * Like resolving on multiple threads this requires the implementation to
+	 * support concurrent reads of the stored pack, see
+	 * {@link #getConcurrentDatabaseReader()}; otherwise this setting is
+	 * ignored.
+	 *
+	 * @param streaming
+	 *            whether to resolve deltas while the pack is received.
+	 * @since 6.9
+	 */
+	public void setStreamingDeltaResolution(boolean streaming) {
+		streamingDeltaResolution = streaming;
+	}
+
+	// For tests: bound the objects kept for deltas received after their base.
+	void setStreamingBaseCacheLimit(long limit) {
+		streamingBaseCacheLimit = limit;
+	}
+
 	/**
 	 * Get the number of objects in the stream.
 	 * <p>
@@ -526,12 +659,24 @@ public PackLock parse(ProgressMonitor receiving, ProgressMonitor resolving)
 			baseById = new ObjectIdOwnerMap<>();
 			baseByPos = new LongMap<>();
 			collisionCheckObjs = new BlockList<>();
+			concurrentReader = getConcurrentDatabaseReader();
+			if (streamingDeltaResolution && concurrentReader != null) {
+				int threads = deltaResolutionThreads;
+				if (threads == 0) {
+					threads = Runtime.getRuntime().availableProcessors();
+				}
+				streaming = new StreamingResolver(Math.max(1, threads));
+			}
 
 			receiving.beginTask(JGitText.get().receivingObjects,
 					(int) expectedObjectCount);
 			try {
 				for (int done = 0; done < expectedObjectCount; done++) {
 					indexOneObject();
+					if (streaming != null) {
+						streaming.dispatch(bBase);
+						streaming.check();
+					}
 					receiving.update(1);
 					if (receiving.isCancelled())
 						throw new IOException(JGitText.get().downloadCancelled);
@@ -542,6 +687,13 @@ public PackLock parse(ProgressMonitor receiving, ProgressMonitor resolving)
 				receiving.endTask();
 			}
 
+			if (streaming != null) {
+				streaming.finish();
+				deltasResolvedWhileReceiving = streaming.resolved;
+				streaming.shutdown();
+				streaming = null;
+			}
+
 			if (!collisionCheckObjs.isEmpty()) {
 				checkObjectCollision();
 			}
@@ -554,6 +706,10 @@ public PackLock parse(ProgressMonitor receiving, ProgressMonitor resolving)
 			baseById = null;
 			baseByPos = null;
 		} finally {
+			if (streaming != null) {
+				streaming.shutdown();
+				streaming = null;
+			}
 			try {
 				if (readCurs != null)
 					readCurs.close();
@@ -576,6 +732,7 @@ private void processDeltas(ProgressMonitor resolving) throws IOException {
 					TimeUnit.MILLISECONDS);
 		}
 		resolving.beginTask(JGitText.get().resolvingDeltas, deltaCount);
+		resolving.update(deltasResolvedWhileReceiving);
 		resolveDeltas(resolving);
 		if (entryCount < expectedObjectCount) {
 			if (!isAllowThin()) {
@@ -597,6 +754,15 @@ private void processDeltas(ProgressMonitor resolving) throws IOException {
 
 	private void resolveDeltas(ProgressMonitor progress)
 			throws IOException {
+		int threads = deltaResolutionThreads;
+		if (threads == 0) {
+			threads = Runtime.getRuntime().availableProcessors();
+		}
+		if (threads > 1 && concurrentReader != null) {
+			resolveDeltasInParallel(progress, threads);
+			return;
+		}
+
 		final int last = entryCount;
 		for (int i = 0; i < last; i++) {
 			resolveDeltas(entries[i], progress);
@@ -669,27 +835,9 @@ private void resolveDeltas(DeltaVisit visit, final int type,
 						JGitText.get().corruptionDetectedReReadingAt,
 						Long.valueOf(visit.delta.position)));
 
-			SHA1 objectDigest = objectHasher.reset();
-			objectDigest.update(Constants.encodedTypeString(type));
-			objectDigest.update((byte) ' ');
-			objectDigest.update(Constants.encodeASCII(visit.data.length));
-			objectDigest.update((byte) 0);
-			objectDigest.update(visit.data);
-			objectDigest.digest(tempObjectId);
-
-			verifySafeObject(tempObjectId, type, visit.data);
-			if (isCheckObjectCollisions() && readCurs.has(tempObjectId)) {
-				checkObjectCollision(tempObjectId, type, visit.data,
-						visit.delta.sizeBeforeInflating);
-			}
-
-			PackedObjectInfo oe;
-			oe = newInfo(tempObjectId, visit.delta, visit.parent.id);
-			oe.setFullSize(finalSz);
-			oe.setOffset(visit.delta.position);
-			oe.setType(type);
-			onInflatedObjectData(oe, type, visit.data);
-			addObjectAndTrack(oe);
+			hash(objectHasher, type, visit.data, tempObjectId);
+			PackedObjectInfo oe = addResolvedDelta(tempObjectId, type,
+					visit.delta, visit.parent.id, visit.data, finalSz);
 			visit.id = oe;
 
 			visit.nextChild = firstChildOf(oe);
@@ -697,6 +845,89 @@ private void resolveDeltas(DeltaVisit visit, final int type,
 		} while (visit != null);
 	}
 
+	private static void hash(SHA1 objectDigest, int type, byte[] data,
+			MutableObjectId id) {
+		objectDigest.reset();
+		objectDigest.update(Constants.encodedTypeString(type));
+		objectDigest.update((byte) ' ');
+		objectDigest.update(Constants.encodeASCII(data.length));
+		objectDigest.update((byte) 0);
+		objectDigest.update(data);
+		objectDigest.digest(id);
+	}
+
+	private PackedObjectInfo addResolvedDelta(AnyObjectId id, int type,
+			UnresolvedDelta delta, ObjectId base, byte[] data, long finalSz)
+			throws IOException {
+		verifySafeObject(id, type, data);
+		if (isCheckObjectCollisions() && readCurs.has(id)) {
+			checkObjectCollision(id, type, data, delta.sizeBeforeInflating);
+		}
+
+		PackedObjectInfo oe;
+		oe = newInfo(id, delta, base);
+		oe.setFullSize(finalSz);
+		oe.setOffset(delta.position);
+		oe.setType(type);
+		onInflatedObjectData(oe, type, data);
+		addObjectAndTrack(oe);
+		return oe;
+	}
+
+	private static ExecutorService newPool(int threads) {
+		return Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "JGit-PackParser-" //$NON-NLS-1$
+					+ threadNumber.getAndIncrement());
+			// Don't prevent the JVM from exiting if a parse is abandoned.
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	private void resolveDeltasInParallel(ProgressMonitor progress,
+			int threads) throws IOException {
+		final int last = entryCount;
+		AtomicInteger nextBase = new AtomicInteger();
+		AtomicBoolean failed = new AtomicBoolean();
+		ExecutorService pool = newPool(threads);
+		try {
+			List<Future<Void>> futures = new ArrayList<>(threads);
+			for (int i = 0; i < threads; i++) {
+				futures.add(pool.submit(new DeltaResolver(last, nextBase,
+						failed, progress)));
+			}
+			IOException error = null;
+			for (Future<Void> f : futures) {
+				try {
+					f.get();
+				} catch (ExecutionException e) {
+					failed.set(true);
+					if (error == null) {
+						Throwable cause = e.getCause();
+						if (cause instanceof IOException) {
+							error = (IOException) cause;
+						} else if (cause instanceof RuntimeException) {
+							throw (RuntimeException) cause;
+						} else if (cause instanceof Error) {
+							throw (Error) cause;
+						} else {
+							error = new IOException(cause);
+						}
+					}
+				} catch (InterruptedException e) {
+					failed.set(true);
+					throw new InterruptedIOException(
+							JGitText.get().downloadCancelledDuringIndexing);
+				}
+			}
+			if (error != null) {
+				throw error;
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
 	private final void checkIfTooLarge(int typeCode, long size)
 			throws IOException {
 		if (0 < maxObjectSizeLimit && maxObjectSizeLimit < size) {
@@ -1001,8 +1232,12 @@ private void indexOneObject() throws IOException {
 			inflateAndSkip(Source.INPUT, sz);
 			UnresolvedDelta n = onEndDelta();
 			n.position = streamPosition;
-			n.next = baseByPos.put(base, n);
 			n.sizeBeforeInflating = streamPosition() - streamPosition;
+			synchronized (this) {
+				if (streaming == null || !streaming.offer(n, base)) {
+					n.next = baseByPos.put(base, n);
+				}
+			}
 			deltaCount++;
 			break;
 		}
@@ -1014,18 +1249,22 @@ private void indexOneObject() throws IOException {
 			System.arraycopy(buf, c, hdrBuf, hdrPtr, 20);
 			hdrPtr += 20;
 			use(20);
-			DeltaChain r = baseById.get(base);
-			if (r == null) {
-				r = new DeltaChain(base);
-				baseById.add(r);
-			}
 			onBeginRefDelta(streamPosition, base, sz);
 			onObjectHeader(Source.INPUT, hdrBuf, 0, hdrPtr);
 			inflateAndSkip(Source.INPUT, sz);
 			UnresolvedDelta n = onEndDelta();
 			n.position = streamPosition;
 			n.sizeBeforeInflating = streamPosition() - streamPosition;
-			r.add(n);
+			synchronized (this) {
+				if (streaming == null || !streaming.offer(n, base)) {
+					DeltaChain r = baseById.get(base);
+					if (r == null) {
+						r = new DeltaChain(base);
+						baseById.add(r);
+					}
+					r.add(n);
+				}
+			}
 			deltaCount++;
 			break;
 		}
@@ -1073,22 +1312,29 @@ private void whole(long pos, int type, long sz)
 			data = inflateAndReturn(Source.INPUT, sz);
 			objectDigest.update(data);
 			objectDigest.digest(tempObjectId);
-			verifySafeObject(tempObjectId, type, data);
 		}
 
 		long sizeBeforeInflating = streamPosition() - pos;
-		PackedObjectInfo obj = newInfo(tempObjectId, null, null);
-		obj.setOffset(pos);
-		obj.setType(type);
-		obj.setSize(sizeBeforeInflating);
-		obj.setFullSize(sz);
-		onEndWholeObject(obj);
-		if (data != null)
-			onInflatedObjectData(obj, type, data);
-		addObjectAndTrack(obj);
-
-		if (isCheckObjectCollisions()) {
-			collisionCheckObjs.add(obj);
+		synchronized (this) {
+			if (data != null)
+				verifySafeObject(tempObjectId, type, data);
+
+			PackedObjectInfo obj = newInfo(tempObjectId, null, null);
+			obj.setOffset(pos);
+			obj.setType(type);
+			obj.setSize(sizeBeforeInflating);
+			obj.setFullSize(sz);
+			onEndWholeObject(obj);
+			if (data != null)
+				onInflatedObjectData(obj, type, data);
+			addObjectAndTrack(obj);
+
+			if (isCheckObjectCollisions()) {
+				collisionCheckObjs.add(obj);
+			}
+			if (streaming != null) {
+				streaming.onWhole(obj, data);
+			}
 		}
 	}
 
@@ -1509,6 +1755,28 @@ protected abstract ObjectTypeAndSize seekDatabase(UnresolvedDelta delta,
 	protected abstract int readDatabase(byte[] dst, int pos, int cnt)
 			throws IOException;
 
+	/**
+	 * Get a reader for concurrent positioned reads of the stored pack.
+	 * <p>
+	 * Implementations which support concurrent positioned reads of the stored
+	 * pack allow deltas to be resolved by multiple threads, see
+	 * {@link #setDeltaResolutionThreads(int)}, and while the pack is
+	 * received, see {@link #setStreamingDeltaResolution(boolean)}. Their
+	 * recorded CRCs, see {@link #checkCRC(int)}, must be the CRC-32 of the
+	 * object's header and compressed data as stored in the pack, which the
+	 * resolving threads verify themselves.
+	 * <p>
+	 * Invoked once when parsing starts.
+	 *
+	 * @return the reader; {@code null} (the default) to resolve deltas
+	 *         serially through {@link #readDatabase(byte[], int, int)}.
+	 * @since 6.9
+	 */
+	@Nullable
+	protected ConcurrentDatabaseReader getConcurrentDatabaseReader() {
+		return null;
+	}
+
 	/**
 	 * Check the current CRC matches the expected value.
 	 * <p>
@@ -1607,6 +1875,38 @@ protected UnresolvedDelta onEndDelta() throws IOException {
 		return new UnresolvedDelta();
 	}
 
+	/**
+	 * Positioned reads of the stored pack, which may be invoked by several
+	 * threads at once.
+	 *
+	 * @see PackParser#getConcurrentDatabaseReader()
+	 * @since 6.9
+	 */
+	@FunctionalInterface
+	public interface ConcurrentDatabaseReader {
+		/**
+		 * Read from the stored pack at a given position.
+		 * <p>
+		 * Unlike {@link PackParser#readDatabase(byte[], int, int)} this method
+		 * does not depend on the position set by
+		 * {@link PackParser#seekDatabase(PackedObjectInfo, ObjectTypeAndSize)}.
+		 *
+		 * @param position
+		 *            position in the stored pack to read from.
+		 * @param dst
+		 *            the buffer to copy data into.
+		 * @param pos
+		 *            first offset within the buffer that should be written.
+		 * @param cnt
+		 *            maximum number of bytes to copy.
+		 * @return number of bytes actually copied; -1 at the end of the pack.
+		 * @throws java.io.IOException
+		 *             the stored pack could not be read.
+		 */
+		int read(long position, byte[] dst, int pos, int cnt)
+				throws IOException;
+	}
+
 	/** Type and size information about an object in the database buffer. */
 	public static class ObjectTypeAndSize {
 		/** The type of the object. */
@@ -1736,6 +2036,627 @@ DeltaVisit next() {
 		}
 	}
 
+	/**
+	 * Resolves the delta trees of base objects on a thread of its own.
+	 * <p>
+	 * Resolvers take base objects from the shared list of entries and read
+	 * the stored pack through a {@link DatabaseReader} of their own, so
+	 * inflating, patching and hashing run in parallel. Updates of the
+	 * parser's state, e.g. recording the resolved object, are serialized by
+	 * synchronizing on the parser.
+	 */
+	private class DeltaResolver implements Callable<Void> {
+		private final int last;
+
+		private final AtomicInteger nextBase;
+
+		private final AtomicBoolean failed;
+
+		private final ProgressMonitor progress;
+
+		DeltaResolver(int last, AtomicInteger nextBase, AtomicBoolean failed,
+				ProgressMonitor progress) {
+			this.last = last;
+			this.nextBase = nextBase;
+			this.failed = failed;
+			this.progress = progress;
+		}
+
+		@Override
+		public Void call() throws IOException {
+			try (DatabaseReader r = new DatabaseReader()) {
+				while (!failed.get()) {
+					int i = nextBase.getAndIncrement();
+					if (i >= last) {
+						break;
+					}
+					resolve(r, entries[i]);
+				}
+			} catch (IOException | RuntimeException e) {
+				failed.set(true);
+				throw e;
+			}
+			return null;
+		}
+
+		private void resolve(DatabaseReader r, PackedObjectInfo oe)
+				throws IOException {
+			UnresolvedDelta children;
+			synchronized (PackParser.this) {
+				children = firstChildOf(oe);
+			}
+			if (children == null) {
+				return;
+			}
+
+			DeltaVisit visit = new DeltaVisit();
+			visit.nextChild = children;
+			visit.data = r.readWhole(oe);
+			visit.id = oe;
+			resolveDeltas(r, visit, r.type, progress, failed);
+		}
+	}
+
+	/**
+	 * Resolve the deltas below a base whose data is already known.
+	 *
+	 * @param r
+	 *            reader of the stored pack owned by the calling thread.
+	 * @param visit
+	 *            root of the delta tree, with the base's id, data and first
+	 *            child.
+	 * @param type
+	 *            type of the base object.
+	 * @param progress
+	 *            progress monitor, updated once per resolved delta.
+	 * @param failed
+	 *            set if another thread failed; stops the walk early.
+	 * @throws IOException
+	 *             a delta cannot be read or applied.
+	 */
+	private void resolveDeltas(DatabaseReader r, DeltaVisit visit, int type,
+			ProgressMonitor progress, AtomicBoolean failed)
+			throws IOException {
+		synchronized (this) {
+			stats.addDeltaObject(type);
+		}
+
+		visit = visit.next();
+		do {
+			r.seek(visit.delta.position);
+			int deltaType = r.readHeader();
+			if (deltaType != Constants.OBJ_OFS_DELTA
+					&& deltaType != Constants.OBJ_REF_DELTA) {
+				throw new IOException(MessageFormat.format(
+						JGitText.get().unknownObjectType,
+						Integer.valueOf(deltaType)));
+			}
+
+			byte[] delta = r.inflate(r.size);
+			long finalSz = BinaryDelta.getResultSize(delta);
+			checkIfTooLarge(type, finalSz);
+
+			visit.data = BinaryDelta.apply(visit.parent.data, delta);
+			delta = null;
+
+			r.checkCRC(visit.delta.crc, visit.delta.position);
+			hash(r.hasher, type, visit.data, r.id);
+
+			synchronized (this) {
+				progress.update(1);
+				if (progress.isCancelled()) {
+					throw new IOException(
+							JGitText.get().downloadCancelledDuringIndexing);
+				}
+				PackedObjectInfo oe = addResolvedDelta(r.id, type,
+						visit.delta, visit.parent.id, visit.data, finalSz);
+				visit.id = oe;
+				visit.nextChild = firstChildOf(oe);
+				if (streaming != null) {
+					streaming.onResolved(oe, visit.parent.id, visit.data);
+					visit.nextChild = streaming.readable(oe, visit.data,
+							visit.nextChild);
+				}
+			}
+			visit = visit.next();
+		} while (visit != null && !failed.get());
+	}
+
+	/**
+	 * Reads objects from the stored pack by position.
+	 * <p>
+	 * Each reader has its own buffer, inflater, CRC and digest, so several
+	 * threads may read the stored pack through
+	 * {@link ConcurrentDatabaseReader} at once.
+	 */
+	private class DatabaseReader implements AutoCloseable {
+		private final byte[] rbuf = new byte[BUFFER_SIZE];
+
+		private final byte[] overflow = new byte[1];
+
+		private final CRC32 crc = new CRC32();
+
+		final SHA1 hasher = SHA1.newInstance();
+
+		final MutableObjectId id = new MutableObjectId();
+
+		private Inflater inf = InflaterCache.get();
+
+		private int rPos;
+
+		private int rEnd;
+
+		private long rNext;
+
+		/** Type of the object read by {@link #readHeader()}. */
+		int type;
+
+		/** Inflated size of the object read by {@link #readHeader()}. */
+		long size;
+
+		void seek(long position) {
+			rPos = 0;
+			rEnd = 0;
+			rNext = position;
+			crc.reset();
+		}
+
+		byte[] readWhole(PackedObjectInfo oe) throws IOException {
+			seek(oe.getOffset());
+			switch (readHeader()) {
+			case Constants.OBJ_COMMIT:
+			case Constants.OBJ_TREE:
+			case Constants.OBJ_BLOB:
+			case Constants.OBJ_TAG:
+				break;
+			default:
+				throw new IOException(MessageFormat.format(
+						JGitText.get().unknownObjectType,
+						Integer.valueOf(type)));
+			}
+			byte[] data = inflate(size);
+			checkCRC(oe.getCRC(), oe.getOffset());
+			return data;
+		}
+
+		void checkCRC(int expected, long position) throws IOException {
+			if (expected != (int) crc.getValue()) {
+				throw new IOException(MessageFormat.format(
+						JGitText.get().corruptionDetectedReReadingAt,
+						Long.valueOf(position)));
+			}
+		}
+
+		private void fill() throws IOException {
+			int n = concurrentReader.read(rNext, rbuf, 0, rbuf.length);
+			if (n <= 0) {
+				throw new EOFException(
+						JGitText.get().packfileIsTruncatedNoParam);
+			}
+			rPos = 0;
+			rEnd = n;
+			rNext += n;
+		}
+
+		private int readByte() throws IOException {
+			if (rPos == rEnd) {
+				fill();
+			}
+			int c = rbuf[rPos++] & 0xff;
+			crc.update(c);
+			return c;
+		}
+
+		int readHeader() throws IOException {
+			int c = readByte();
+			type = (c >> 4) & 7;
+			long sz = c & 15;
+			int shift = 4;
+			while ((c & 0x80) != 0) {
+				c = readByte();
+				sz += ((long) (c & 0x7f)) << shift;
+				shift += 7;
+			}
+			size = sz;
+
+			if (type == Constants.OBJ_OFS_DELTA) {
+				do {
+					c = readByte();
+				} while ((c & 128) != 0);
+			} else if (type == Constants.OBJ_REF_DELTA) {
+				for (int i = 0; i < Constants.OBJECT_ID_LENGTH; i++) {
+					readByte();
+				}
+			}
+			return type;
+		}
+
+		byte[] inflate(long sz) throws IOException {
+			byte[] dst = new byte[(int) sz];
+			int n = 0;
+			if (rPos == rEnd) {
+				fill();
+			}
+			inf.setInput(rbuf, rPos, rEnd - rPos);
+			try {
+				for (;;) {
+					int r;
+					if (n < dst.length) {
+						r = inf.inflate(dst, n, dst.length - n);
+						n += r;
+					} else {
+						r = inf.inflate(overflow, 0, overflow.length);
+						if (r > 0) {
+							throw wrongLength();
+						}
+					}
+					if (inf.finished()) {
+						break;
+					}
+					if (inf.needsInput()) {
+						crc.update(rbuf, rPos, rEnd - rPos);
+						fill();
+						inf.setInput(rbuf, rPos, rEnd - rPos);
+					} else if (r == 0 && inf.needsDictionary()) {
+						throw new CorruptObjectException(MessageFormat.format(
+								JGitText.get().packfileCorruptionDetected,
+								JGitText.get().unknownZlibError));
+					}
+				}
+			} catch (DataFormatException dfe) {
+				throw new CorruptObjectException(MessageFormat.format(
+						JGitText.get().packfileCorruptionDetected,
+						dfe.getMessage()));
+			}
+			if (n != dst.length) {
+				throw wrongLength();
+			}
+
+			int used = (rEnd - rPos) - inf.getRemaining();
+			crc.update(rbuf, rPos, used);
+			rPos += used;
+			inf.reset();
+			return dst;
+		}
+
+		private CorruptObjectException wrongLength() {
+			return new CorruptObjectException(MessageFormat.format(
+					JGitText.get().packfileCorruptionDetected,
+					JGitText.get().wrongDecompressedLength));
+		}
+
+		@Override
+		public void close() {
+			InflaterCache.release(inf);
+			inf = null;
+		}
+	}
+
+	/**
+	 * Resolves deltas while the rest of the pack is still being received.
+	 * <p>
+	 * Once both a delta and its base have been received and stored, the
+	 * delta is handed to a pool of threads, which resolve it together with
+	 * any deltas based on it that already arrived. Deltas whose base arrives
+	 * later wait in {@link PackParser#baseById} or
+	 * {@link PackParser#baseByPos} until the base is known, exactly as in
+	 * the non-streaming case.
+	 * <p>
+	 * Deltas may be received long after their base was resolved. Recently
+	 * resolved objects are therefore kept in a bounded cache; evicted ones
+	 * are recreated from the stored pack by following the recorded bases.
+	 * <p>
+	 * All methods except {@link #dispatch(long)}, {@link #check()} and
+	 * {@link #finish()} must be called while holding the parser's lock.
+	 */
+	private class StreamingResolver {
+		private final ExecutorService pool;
+
+		private final AtomicBoolean failed = new AtomicBoolean();
+
+		/** Received whole objects and resolved deltas by offset. */
+		private final LongMap<PackedObjectInfo> knownByPos = new LongMap<>();
+
+		/** Received whole objects and resolved deltas by name. */
+		private final ObjectIdSubclassMap<PackedObjectInfo> knownById =
+				new ObjectIdSubclassMap<>();
+
+		/** Base of each resolved delta, by offset of the delta. */
+		private final LongMap<PackedObjectInfo> baseOf = new LongMap<>();
+
+		private final BaseCache cache = new BaseCache(
+				streamingBaseCacheLimit);
+
+		/** Work waiting until its input has been stored. */
+		private final ArrayDeque<Task> deferred = new ArrayDeque<>();
+
+		/** Number of bytes of the pack known to be stored. */
+		private long stored;
+
+		private Throwable error;
+
+		private int running;
+
+		int resolved;
+
+		StreamingResolver(int threads) {
+			pool = newPool(threads);
+		}
+
+		void onWhole(PackedObjectInfo obj, @Nullable byte[] data) {
+			known(obj);
+			if (data != null) {
+				cache.put(obj.getOffset(), data);
+			}
+			UnresolvedDelta children = firstChildOf(obj);
+			if (children != null) {
+				deferred.add(new Task(obj, data, children, streamPosition()));
+			}
+		}
+
+		boolean offer(UnresolvedDelta delta, long basePosition) {
+			return offer(delta, knownByPos.get(basePosition));
+		}
+
+		boolean offer(UnresolvedDelta delta, AnyObjectId baseId) {
+			return offer(delta, knownById.get(baseId));
+		}
+
+		private boolean offer(UnresolvedDelta delta,
+				@Nullable PackedObjectInfo base) {
+			if (base == null) {
+				return false;
+			}
+			delta.next = null;
+			deferred.add(new Task(base, null, delta, streamPosition()));
+			return true;
+		}
+
+		void onResolved(PackedObjectInfo obj, ObjectId base, byte[] data) {
+			known(obj);
+			PackedObjectInfo b = knownById.get(base);
+			if (b != null) {
+				baseOf.put(obj.getOffset(), b);
+			}
+			cache.put(obj.getOffset(), data);
+			resolved++;
+		}
+
+		/**
+		 * Split off the deltas whose data has not been stored yet.
+		 * <p>
+		 * Deltas join the chain of their base as soon as they are received,
+		 * but they can only be read back once the buffer holding them was
+		 * stored. The deltas not stored yet are resolved by a new task, which
+		 * starts once they are.
+		 *
+		 * @param base
+		 *            the base of the deltas.
+		 * @param data
+		 *            the base's data.
+		 * @param children
+		 *            the deltas based on {@code base}, ordered by position.
+		 * @return the deltas which can be read from the stored pack now.
+		 */
+		UnresolvedDelta readable(PackedObjectInfo base, byte[] data,
+				UnresolvedDelta children) {
+			UnresolvedDelta first = null;
+			UnresolvedDelta last = null;
+			UnresolvedDelta laterFirst = null;
+			UnresolvedDelta laterLast = null;
+			long readyAt = 0;
+			for (UnresolvedDelta c = children; c != null;) {
+				UnresolvedDelta n = c.next;
+				c.next = null;
+				long end = c.position + c.sizeBeforeInflating;
+				if (end <= stored) {
+					if (last == null) {
+						first = c;
+					} else {
+						last.next = c;
+					}
+					last = c;
+				} else {
+					if (laterLast == null) {
+						laterFirst = c;
+					} else {
+						laterLast.next = c;
+					}
+					laterLast = c;
+					readyAt = Math.max(readyAt, end);
+				}
+				c = n;
+			}
+			if (laterFirst != null) {
+				deferred.add(new Task(base, data, laterFirst, readyAt));
+			}
+			return first;
+		}
+
+		private void known(PackedObjectInfo obj) {
+			knownByPos.put(obj.getOffset(), obj);
+			knownById.addIfAbsent(obj);
+		}
+
+		/**
+		 * Start deferred work whose input has been stored.
+		 *
+		 * @param position
+		 *            number of bytes of the pack stored so far.
+		 */
+		void dispatch(long position) {
+			synchronized (PackParser.this) {
+				stored = position;
+				Task t;
+				while ((t = deferred.peek()) != null
+						&& t.readyAt <= position) {
+					deferred.remove();
+					running++;
+					pool.execute(t);
+				}
+			}
+		}
+
+		void check() throws IOException {
+			if (failed.get()) {
+				synchronized (PackParser.this) {
+					rethrow(error);
+				}
+			}
+		}
+
+		void finish() throws IOException {
+			dispatch(Long.MAX_VALUE);
+			synchronized (PackParser.this) {
+				try {
+					while (running > 0 && error == null) {
+						PackParser.this.wait();
+					}
+				} catch (InterruptedException e) {
+					failed.set(true);
+					throw new InterruptedIOException(
+							JGitText.get().downloadCancelledDuringIndexing);
+				}
+				if (error != null) {
+					rethrow(error);
+				}
+			}
+		}
+
+		void shutdown() {
+			failed.set(true);
+			pool.shutdown();
+		}
+
+		private void rethrow(Throwable t) throws IOException {
+			if (t instanceof IOException) {
+				throw (IOException) t;
+			} else if (t instanceof RuntimeException) {
+				throw (RuntimeException) t;
+			} else if (t instanceof Error) {
+				throw (Error) t;
+			}
+			throw new IOException(t);
+		}
+
+		/**
+		 * Get the data of a received whole object or resolved delta.
+		 *
+		 * @param r
+		 *            reader of the stored pack.
+		 * @param obj
+		 *            the object.
+		 * @return the object's data.
+		 * @throws IOException
+		 *             the object cannot be read from the stored pack.
+		 */
+		private byte[] load(DatabaseReader r, PackedObjectInfo obj)
+				throws IOException {
+			byte[] data = cache.get(obj.getOffset());
+			if (data != null) {
+				return data;
+			}
+
+			PackedObjectInfo base;
+			synchronized (PackParser.this) {
+				base = baseOf.get(obj.getOffset());
+			}
+			if (base == null) {
+				data = r.readWhole(obj);
+			} else {
+				r.seek(obj.getOffset());
+				r.readHeader();
+				byte[] delta = r.inflate(r.size);
+				r.checkCRC(obj.getCRC(), obj.getOffset());
+				data = BinaryDelta.apply(load(r, base), delta);
+			}
+			cache.put(obj.getOffset(), data);
+			return data;
+		}
+
+		private class Task implements Runnable {
+			final PackedObjectInfo base;
+
+			byte[] data;
+
+			final UnresolvedDelta children;
+
+			final long readyAt;
+
+			Task(PackedObjectInfo base, @Nullable byte[] data,
+					UnresolvedDelta children, long readyAt) {
+				this.base = base;
+				this.data = data;
+				this.children = children;
+				this.readyAt = readyAt;
+			}
+
+			@Override
+			public void run() {
+				try (DatabaseReader r = new DatabaseReader()) {
+					if (failed.get()) {
+						return;
+					}
+					DeltaVisit visit = new DeltaVisit();
+					visit.nextChild = children;
+					visit.data = data != null ? data : load(r, base);
+					visit.id = base;
+					data = null;
+					resolveDeltas(r, visit, base.getType(),
+							NullProgressMonitor.INSTANCE, failed);
+				} catch (Throwable e) {
+					synchronized (PackParser.this) {
+						if (error == null) {
+							error = e;
+						}
+						failed.set(true);
+						PackParser.this.notifyAll();
+					}
+				} finally {
+					synchronized (PackParser.this) {
+						if (--running == 0) {
+							PackParser.this.notifyAll();
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/** Least recently used cache of object data, bounded by size. */
+	private static class BaseCache {
+		private final long limit;
+
+		private final LinkedHashMap<Long, byte[]> map = new LinkedHashMap<>(
+				16, 0.75f, true);
+
+		private long size;
+
+		BaseCache(long limit) {
+			this.limit = limit;
+		}
+
+		synchronized byte[] get(long position) {
+			return map.get(Long.valueOf(position));
+		}
+
+		synchronized void put(long position, byte[] data) {
+			if (data.length > limit) {
+				return;
+			}
+			byte[] old = map.put(Long.valueOf(position), data);
+			if (old != null) {
+				size -= old.length;
+			}
+			size += data.length;
+			Iterator<byte[]> i = map.values().iterator();
+			while (size > limit && i.hasNext()) {
+				size -= i.next().length;
+				i.remove();
+			}
+		}
+	}
+
 	private void addObjectAndTrack(PackedObjectInfo oe) {
 		entries[entryCount++] = oe;
 		if (needNewObjectIds())
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Cache of complete pack streams previously sent by
+ * {@link org.eclipse.jgit.transport.UploadPack}.
+ * <p>
+ * Many clients (e.g. CI systems) repeatedly send identical fetch requests.
+ * Once negotiation has completed the pack content only depends on the wanted
+ * objects, the common objects, the filter and a few capabilities, so
+ * UploadPack computes a key over these inputs and asks the cache for a stored
+ * response before running {@link org.eclipse.jgit.internal.storage.pack.PackWriter}.
+ * On a miss the generated pack is written to the client and to the cache at
+ * the same time.
+ * <p>
+ * A cache instance must only be used with a single repository, as the key
+ * does not identify the repository.
+ *
+ * @since 6.9
+ */
+public abstract class PackResponseCache {
+	/**
+	 * Open a previously stored pack stream.
+	 *
+	 * @param key
+	 *            key of the request, computed by UploadPack.
+	 * @return stream of the stored pack, or null if the key is not cached.
+	 * @throws IOException
+	 *             the cache entry exists but cannot be read.
+	 */
+	@Nullable
+	public abstract InputStream open(ObjectId key) throws IOException;
+
+	/**
+	 * Begin storing a new pack stream.
+	 *
+	 * @param key
+	 *            key of the request, computed by UploadPack.
+	 * @return writer receiving the pack stream, or null if the cache does not
+	 *         want to store this response.
+	 * @throws IOException
+	 *             the cache cannot accept the entry.
+	 */
+	@Nullable
+	public abstract Writer newWriter(ObjectId key) throws IOException;
+
+	/**
+	 * Receives a pack stream while it is being sent to a client.
+	 * <p>
+	 * Implementations should never fail the upload because the cache cannot
+	 * store the data; they should instead discard the entry silently. The
+	 * entry must only become visible to {@link PackResponseCache#open(ObjectId)}
+	 * once {@link #commit()} has been invoked.
+	 */
+	public abstract static class Writer extends OutputStream {
+		/**
+		 * Make the written stream available to future requests.
+		 *
+		 * @throws IOException
+		 *             the entry could not be stored.
+		 */
+		public abstract void commit() throws IOException;
+
+		/**
+		 * Discard the written data. Invoked if the pack could not be sent
+		 * completely. Has no effect after {@link #commit()}.
+		 */
+		public abstract void abort();
+	}
+}
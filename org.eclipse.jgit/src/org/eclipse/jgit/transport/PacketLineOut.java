@@ -174,6 +174,25 @@ public void writePacket(byte[] buf, int pos, int len) throws IOException {
 		}
 	}
 
+	/**
+	 * Write already formatted packets to the stream.
+	 * <p>
+	 * The data must consist of complete packets, including their length
+	 * headers. It is written as is, also if sideband is used.
+	 *
+	 * @param buf
+	 *            buffer holding the packets.
+	 * @param pos
+	 *            first index within {@code buf}.
+	 * @param len
+	 *            number of bytes to write.
+	 * @throws java.io.IOException
+	 *             the packets could not be written.
+	 */
+	void writeRaw(byte[] buf, int pos, int len) throws IOException {
+		out.write(buf, pos, len);
+	}
+
 	/**
 	 * Write a packet delim marker (0001).
 	 *
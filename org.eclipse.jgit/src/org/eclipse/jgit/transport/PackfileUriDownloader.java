@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URISyntaxException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jgit.errors.NotSupportedException;
+import org.eclipse.jgit.errors.PackProtocolException;
+import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Downloads the packs listed in the "packfile-uris" section of a protocol V2
+ * fetch response.
+ * <p>
+ * The packs are fetched and indexed on a bounded pool of threads, so a
+ * response referencing several packs, e.g. on a CDN, uses the available
+ * bandwidth and cores instead of transferring one pack after another. Each
+ * pack must end in the checksum the server listed for it, and be served with
+ * one of the protocols the client sent in {@code fetch.uriProtocols}.
+ */
+class PackfileUriDownloader implements AutoCloseable {
+	private final Transport transport;
+
+	private final Repository local;
+
+	private final String lockMessage;
+
+	private final Collection<String> protocols;
+
+	private final ExecutorService pool;
+
+	private final List<Future<PackLock>> downloads = new ArrayList<>();
+
+	private boolean awaited;
+
+	/**
+	 * @param transport
+	 *            transport the fetch runs on.
+	 * @param threads
+	 *            maximum number of packs downloaded at the same time.
+	 * @param lockMessage
+	 *            message for the {@code .keep} files of the downloaded packs.
+	 * @param protocols
+	 *            protocols the client requested packfile URIs for; URIs with
+	 *            other schemes are rejected.
+	 */
+	PackfileUriDownloader(Transport transport, int threads,
+			String lockMessage, Collection<String> protocols) {
+		this.transport = transport;
+		this.local = transport.local;
+		this.lockMessage = lockMessage;
+		this.protocols = protocols;
+		this.pool = Executors.newFixedThreadPool(Math.max(1, threads));
+	}
+
+	/**
+	 * Start downloading the pack of one line of the "packfile-uris" section.
+	 *
+	 * @param line
+	 *            the line, {@code <pack-hash> SP <uri>}.
+	 * @throws PackProtocolException
+	 *             if the line is malformed, or the URI uses a protocol the
+	 *             client didn't request
+	 */
+	void add(String line) throws PackProtocolException {
+		int sp = line.indexOf(' ');
+		if (sp != Constants.OBJECT_ID_STRING_LENGTH
+				|| !ObjectId.isId(line.substring(0, sp))) {
+			throw new PackProtocolException(MessageFormat
+					.format(JGitText.get().invalidPackfileUri, line));
+		}
+		ObjectId hash = ObjectId.fromString(line.substring(0, sp));
+		URIish uri;
+		try {
+			uri = new URIish(line.substring(sp + 1));
+		} catch (URISyntaxException e) {
+			throw new PackProtocolException(MessageFormat
+					.format(JGitText.get().invalidPackfileUri, line), e);
+		}
+		if (uri.getScheme() == null
+				|| !protocols.contains(uri.getScheme())) {
+			throw new PackProtocolException(MessageFormat.format(
+					JGitText.get().packfileUriProtocolNotRequested, uri));
+		}
+		downloads.add(pool.submit(() -> download(hash, uri)));
+	}
+
+	/**
+	 * Wait until all packs are downloaded and indexed.
+	 * <p>
+	 * If any download fails the others are cancelled and the packs already
+	 * downloaded are unlocked.
+	 *
+	 * @param monitor
+	 *            progress monitor, advanced once per pack.
+	 * @return the locks holding the downloaded packs in place.
+	 * @throws IOException
+	 *             if a pack could not be downloaded or indexed
+	 */
+	List<PackLock> await(ProgressMonitor monitor) throws IOException {
+		awaited = true;
+		List<PackLock> locks = new ArrayList<>(downloads.size());
+		IOException error = null;
+		monitor.beginTask(JGitText.get().downloadingPackfileUris,
+				downloads.size());
+		try {
+			for (Future<PackLock> f : downloads) {
+				if (error != null) {
+					// shutdownNow() dropped the queued downloads without
+					// completing them, get() would wait for them forever.
+					f.cancel(true);
+					if (f.isCancelled()) {
+						continue;
+					}
+					// Completed before the failure, its pack gets unlocked.
+				}
+				try {
+					PackLock lock = f.get();
+					if (lock != null) {
+						locks.add(lock);
+					}
+					monitor.update(1);
+				} catch (ExecutionException e) {
+					if (error == null) {
+						pool.shutdownNow();
+						Throwable cause = e.getCause();
+						if (cause instanceof IOException) {
+							error = (IOException) cause;
+						} else if (cause instanceof RuntimeException) {
+							error = new IOException(cause.getMessage(), cause);
+						} else if (cause instanceof Error) {
+							throw (Error) cause;
+						} else {
+							error = new IOException(cause);
+						}
+					}
+				} catch (InterruptedException e) {
+					pool.shutdownNow();
+					Thread.currentThread().interrupt();
+					error = new InterruptedIOException(
+							JGitText.get().downloadCancelled);
+					break;
+				}
+			}
+		} finally {
+			monitor.endTask();
+		}
+		if (error != null) {
+			for (PackLock lock : locks) {
+				try {
+					lock.unlock();
+				} catch (IOException e) {
+					error.addSuppressed(e);
+				}
+			}
+			throw error;
+		}
+		return locks;
+	}
+
+	/**
+	 * Cancel the downloads still running.
+	 * <p>
+	 * If {@link #await(ProgressMonitor)} was not called, packs already
+	 * downloaded are unlocked again.
+	 */
+	@Override
+	public void close() {
+		pool.shutdownNow();
+		if (awaited) {
+			return;
+		}
+		for (Future<PackLock> f : downloads) {
+			if (f.isDone() && !f.isCancelled()) {
+				try {
+					PackLock lock = f.get();
+					if (lock != null) {
+						lock.unlock();
+					}
+				} catch (ExecutionException | InterruptedException
+						| IOException e) {
+					// Failed downloads have nothing to unlock.
+				}
+			}
+		}
+	}
+
+	private PackLock download(ObjectId hash, URIish uri) throws IOException {
+		String scheme = uri.getScheme();
+		if ("http".equals(scheme) || "https".equals(scheme)) { //$NON-NLS-1$ //$NON-NLS-2$
+			try (TransportHttp http = new TransportHttp(local, uri);
+					InputStream in = http.download()) {
+				return index(hash, uri, in);
+			}
+		}
+		if ("file".equals(scheme)) { //$NON-NLS-1$
+			try (InputStream in = new FileInputStream(uri.getPath())) {
+				return index(hash, uri, in);
+			}
+		}
+		throw new NotSupportedException(
+				MessageFormat.format(JGitText.get().URINotSupported, uri));
+	}
+
+	private PackLock index(ObjectId hash, URIish uri, InputStream in)
+			throws IOException {
+		TrailerInputStream pack = new TrailerInputStream(in);
+		PackLock lock;
+		try (ObjectInserter ins = local.newObjectInserter()) {
+			PackParser parser = ins.newPackParser(pack);
+			parser.setCheckEofAfterPackFooter(true);
+			parser.setObjectChecker(transport.getObjectChecker());
+			parser.setDeltaResolutionThreads(transport.getIndexThreads());
+			parser.setStreamingDeltaResolution(transport.isIndexStreaming());
+			parser.setLockMessage(lockMessage);
+			lock = parser.parse(NullProgressMonitor.INSTANCE);
+			ins.flush();
+		}
+		ObjectId actual = pack.getTrailer();
+		if (!hash.equals(actual)) {
+			if (lock != null) {
+				lock.unlock();
+			}
+			throw new PackProtocolException(MessageFormat.format(
+					JGitText.get().packfileUriChecksumMismatch, uri,
+					actual.name(), hash.name()));
+		}
+		return lock;
+	}
+
+	/** Remembers the last 20 bytes read, the checksum of a pack. */
+	private static class TrailerInputStream extends FilterInputStream {
+		private final byte[] trailer = new byte[Constants.OBJECT_ID_LENGTH];
+
+		private int length;
+
+		TrailerInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b >= 0) {
+				remember(new byte[] { (byte) b }, 0, 1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = in.read(b, off, len);
+			if (n > 0) {
+				remember(b, off, n);
+			}
+			return n;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		private void remember(byte[] b, int off, int n) {
+			int keep = Math.min(n, trailer.length);
+			int shift = Math.min(length, trailer.length - keep);
+			System.arraycopy(trailer, length - shift, trailer, 0, shift);
+			System.arraycopy(b, off + n - keep, trailer, shift, keep);
+			length = shift + keep;
+		}
+
+		ObjectId getTrailer() {
+			return length == trailer.length ? ObjectId.fromRaw(trailer)
+					: ObjectId.zeroId();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static org.eclipse.jgit.lib.Constants.OBJ_COMMIT;
+import static org.eclipse.jgit.lib.Constants.OBJ_TAG;
+import static org.eclipse.jgit.lib.Constants.OBJ_TREE;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jgit.errors.TransportException;
+import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectDatabase;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectIdSubclassMap;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.FilterSpec.ObjectTypes;
+
+/**
+ * The remote a partial clone was created from, which promised to provide the
+ * objects the clone filtered out.
+ * <p>
+ * Missing objects are fetched by id in batches. Like the fetch of the partial
+ * clone itself, those fetches omit blobs not asked for explicitly, so
+ * requesting a missing tree does not download every blob below it.
+ * <p>
+ * The remote has to accept filters and wants of objects no ref points to, see
+ * {@code uploadpack.allowFilter} and {@code uploadpack.allowAnySHA1InWant}.
+ *
+ * @since 6.9
+ */
+public class PromisorRemote {
+	private static final FilterSpec LAZY_FETCH_FILTER = FilterSpec
+			.withObjectTypes(ObjectTypes.allow(OBJ_TREE, OBJ_COMMIT, OBJ_TAG));
+
+	private final Repository repository;
+
+	private final String remoteName;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Create a promisor remote.
+	 *
+	 * @param repository
+	 *            the partial clone missing objects are fetched into.
+	 * @param remoteName
+	 *            name of the remote to fetch from, e.g. {@code origin}.
+	 */
+	public PromisorRemote(Repository repository, String remoteName) {
+		this.repository = repository;
+		this.remoteName = remoteName;
+	}
+
+	/**
+	 * Get the name of the remote missing objects are fetched from.
+	 *
+	 * @return name of the remote.
+	 */
+	public String getRemoteName() {
+		return remoteName;
+	}
+
+	/**
+	 * Fetch objects missing from the repository with a single request.
+	 * <p>
+	 * Concurrent callers are serialized, objects another caller fetched in the
+	 * meantime are not asked for again. Objects looked up by the fetch itself
+	 * are never fetched, in that case this method returns false immediately.
+	 *
+	 * @param objectIds
+	 *            objects to fetch. Objects already present are skipped.
+	 * @return true if a fetch was made or all objects are present by now;
+	 *         false if called again while fetching. Objects the remote did not
+	 *         send are still missing in either case.
+	 * @throws java.io.IOException
+	 *             the remote could not be contacted or the fetch failed.
+	 */
+	public boolean fetch(Collection<? extends AnyObjectId> objectIds)
+			throws IOException {
+		if (lock.isHeldByCurrentThread()) {
+			return false;
+		}
+		lock.lock();
+		try {
+			List<RefSpec> specs = missing(objectIds);
+			if (specs.isEmpty()) {
+				return true;
+			}
+			try (Transport tn = Transport.open(repository, remoteName)) {
+				tn.setFilterSpec(LAZY_FETCH_FILTER);
+				tn.setTagOpt(TagOpt.NO_TAGS);
+				// Missing objects may be reachable from local refs, haves
+				// would make the remote leave them out.
+				tn.setSendHaves(false);
+				// Many small fetches would each trigger gc, which would fail
+				// on the objects still missing.
+				tn.setAutoGC(false);
+				tn.fetch(NullProgressMonitor.INSTANCE, specs);
+			} catch (URISyntaxException e) {
+				throw new TransportException(MessageFormat.format(
+						JGitText.get().cannotFetchFromPromisorRemote,
+						remoteName), e);
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private List<RefSpec> missing(Collection<? extends AnyObjectId> objectIds)
+			throws IOException {
+		ObjectDatabase odb = repository.getObjectDatabase();
+		ObjectIdSubclassMap<ObjectId> seen = new ObjectIdSubclassMap<>();
+		List<RefSpec> specs = new ArrayList<>(objectIds.size());
+		for (AnyObjectId id : objectIds) {
+			if (seen.contains(id) || odb.has(id)) {
+				continue;
+			}
+			seen.add(id.toObjectId());
+			specs.add(new RefSpec(id.name()));
+		}
+		return specs;
+	}
+}
@@ -13,11 +13,13 @@
 import java.io.IOException;
 import java.io.OutputStream;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.jgit.api.errors.AbortedByHookException;
@@ -177,8 +179,12 @@ PushResult execute(ProgressMonitor monitor)
 				}
 				if (transport.isDryRun())
 					modifyUpdatesForDryRun();
-				else if (!preprocessed.isEmpty())
+				else if (!preprocessed.isEmpty()) {
+					if (transport.isPushNegotiate()) {
+						negotiate(monitor, preprocessed.values());
+					}
 					connection.push(monitor, preprocessed, out);
+				}
 			} finally {
 				connection.close();
 				res.addMessages(connection.getMessages());
@@ -196,6 +202,46 @@ else if (!preprocessed.isEmpty())
 		}
 	}
 
+	/**
+	 * Ask the remote which of the pushed history it already has, over a
+	 * separate fetch connection, so the pack can leave it out.
+	 * <p>
+	 * Like in C git the push proceeds without the result if negotiation isn't
+	 * possible or fails.
+	 *
+	 * @param monitor
+	 *            progress monitor, used for cancellation.
+	 * @param updates
+	 *            updates which will be pushed.
+	 */
+	private void negotiate(ProgressMonitor monitor,
+			Collection<RemoteRefUpdate> updates) {
+		if (!(connection instanceof BasePackPushConnection)) {
+			return;
+		}
+		List<ObjectId> tips = new ArrayList<>();
+		for (RemoteRefUpdate rru : updates) {
+			if (!rru.isDelete()) {
+				tips.add(rru.getNewObjectId());
+			}
+		}
+		if (tips.isEmpty()) {
+			return;
+		}
+		try (FetchConnection fetch = transport.openFetch()) {
+			if (fetch instanceof BasePackFetchConnection) {
+				Set<ObjectId> common = ((BasePackFetchConnection) fetch)
+						.negotiateOnly(monitor, tips);
+				if (common != null) {
+					((BasePackPushConnection) connection)
+							.addRemoteObjects(common);
+				}
+			}
+		} catch (NotSupportedException | TransportException e) {
+			// Push everything the advertisement doesn't rule out.
+		}
+	}
+
 	private Map<String, RemoteRefUpdate> prepareRemoteUpdates()
 			throws TransportException {
 		boolean atomic = transport.isPushAtomic();
@@ -268,6 +268,15 @@ public Set<String> getCapabilities() {
 	/** Git object size limit */
 	private long maxObjectSizeLimit;
 
+	/** Number of threads resolving deltas of the received pack */
+	private int indexThreads;
+
+	/** Resolve deltas while the pack is being received? */
+	private boolean indexStreaming;
+
+	/** Shared snapshot of the references to advertise, or null. */
+	private RefAdvertisementCache refAdvertisementCache;
+
 	/** Total pack size limit */
 	private long maxPackSizeLimit = -1;
 
@@ -321,6 +330,8 @@ public ReceivePack(Repository into) {
 		TransferConfig tc = db.getConfig().get(TransferConfig.KEY);
 		objectChecker = tc.newReceiveObjectChecker();
 		allowReceiveClientSID = tc.isAllowReceiveClientSID();
+		indexThreads = tc.getIndexThreads();
+		indexStreaming = tc.isIndexStreaming();
 
 		ReceiveConfig rc = db.getConfig().get(ReceiveConfig::new);
 		allowCreates = rc.allowCreates;
@@ -882,6 +893,78 @@ public void setMaxObjectSizeLimit(long limit) {
 		maxObjectSizeLimit = limit;
 	}
 
+	/**
+	 * Get the number of threads resolving deltas of the received pack.
+	 *
+	 * @return the number of threads resolving deltas of the received pack; 0
+	 *         to use one thread per available processor.
+	 * @since 6.9
+	 */
+	public int getIndexThreads() {
+		return indexThreads;
+	}
+
+	/**
+	 * Set the number of threads resolving deltas of the received pack.
+	 * <p>
+	 * Defaults to {@code transfer.indexThreads}, or 1 if not configured.
+	 *
+	 * @param threads
+	 *            number of threads; 0 to use one thread per available
+	 *            processor.
+	 * @see PackParser#setDeltaResolutionThreads(int)
+	 * @since 6.9
+	 */
+	public void setIndexThreads(int threads) {
+		indexThreads = threads;
+	}
+
+	/**
+	 * Whether deltas are resolved while the pack is still being received.
+	 *
+	 * @return whether deltas are resolved while the pack is still being
+	 *         received.
+	 * @since 6.9
+	 */
+	public boolean isIndexStreaming() {
+		return indexStreaming;
+	}
+
+	/**
+	 * Set whether deltas are resolved while the pack is still being received.
+	 * <p>
+	 * Defaults to {@code transfer.indexStreaming}, or false if not
+	 * configured.
+	 *
+	 * @param streaming
+	 *            whether to resolve deltas while the pack is received.
+	 * @see PackParser#setStreamingDeltaResolution(boolean)
+	 * @since 6.9
+	 */
+	public void setIndexStreaming(boolean streaming) {
+		indexStreaming = streaming;
+	}
+
+	/**
+	 * Set the cache of the references to advertise.
+	 * <p>
+	 * If set, the references advertised by default are taken from the cache
+	 * instead of the reference database.
+	 *
+	 * @param cache
+	 *            cache of the references of this repository, or null to read
+	 *            the reference database in every session.
+	 * @since 6.9
+	 */
+	public void setRefAdvertisementCache(
+			@Nullable RefAdvertisementCache cache) {
+		if (cache != null && cache.getRepository() != db) {
+			throw new IllegalArgumentException(
+					JGitText.get().refAdvertisementCacheWrongRepository);
+		}
+		refAdvertisementCache = cache;
+	}
+
 	/**
 	 * Set the maximum allowed pack size.
 	 * <p>
@@ -1348,6 +1431,9 @@ public ReceivedPackStatistics getReceivedPackStatistics() {
 	 */
 	private Map<String, Ref> getAllRefs() {
 		try {
+			if (refAdvertisementCache != null) {
+				return new HashMap<>(refAdvertisementCache.getRefs());
+			}
 			return db.getRefDatabase().getRefs().stream()
 					.collect(Collectors.toMap(Ref::getName,
 							Function.identity()));
@@ -1556,6 +1642,8 @@ private void receivePack() throws IOException {
 			parser.setObjectChecker(objectChecker);
 			parser.setLockMessage(lockMsg);
 			parser.setMaxObjectSizeLimit(maxObjectSizeLimit);
+			parser.setDeltaResolutionThreads(indexThreads);
+			parser.setStreamingDeltaResolution(indexStreaming);
 			packLock = parser.parse(receiving, resolving);
 			packSize = Long.valueOf(parser.getPackSize());
 			stats = parser.getReceivedPackStatistics();
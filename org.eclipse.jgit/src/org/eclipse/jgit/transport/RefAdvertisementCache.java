@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jgit.events.ListenerHandle;
+import org.eclipse.jgit.events.RefsChangedListener;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefComparator;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Caches the references a repository advertises to fetch and push clients.
+ * <p>
+ * Every {@link UploadPack} and {@link ReceivePack} session, and every protocol
+ * V2 {@code ls-refs} command, normally reads all references of the repository.
+ * Sessions configured with the same cache instead share one snapshot of the
+ * references, and {@code ls-refs} responses are copied from pre-formatted
+ * packet lines, also when the client asks only for some ref prefixes.
+ * <p>
+ * The snapshot is dropped whenever the repository reports changed references
+ * through a {@link RefsChangedListener}, and rebuilt on the next use.
+ * Updates made through this {@link Repository} instance are always reported.
+ * Updates made by other processes are only noticed once the reference
+ * database of this instance reports them, e.g. after
+ * {@link org.eclipse.jgit.lib.RefDatabase#refresh()}; applications expecting
+ * such updates should call {@link #invalidate()}.
+ * <p>
+ * A cache is bound to one repository and can be shared by all threads serving
+ * it. {@link #close()} unregisters its listener.
+ *
+ * @since 6.9
+ */
+public class RefAdvertisementCache implements AutoCloseable {
+	private final Repository db;
+
+	private final ListenerHandle listener;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Create a cache for the references of a repository.
+	 *
+	 * @param db
+	 *            repository whose references are cached.
+	 */
+	public RefAdvertisementCache(Repository db) {
+		this.db = db;
+		listener = db.getListenerList()
+				.addRefsChangedListener(event -> invalidate());
+	}
+
+	/**
+	 * Get the repository whose references are cached.
+	 *
+	 * @return the repository whose references are cached.
+	 */
+	public Repository getRepository() {
+		return db;
+	}
+
+	/**
+	 * Drop the cached references, so they are read again on next use.
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		snapshot = null;
+	}
+
+	/**
+	 * Get all references of the repository.
+	 * <p>
+	 * The same map instance is returned until the references change, so
+	 * callers may use its identity to tell whether data they derived from it
+	 * is still current.
+	 *
+	 * @return unmodifiable map of all references, by name.
+	 * @throws IOException
+	 *             the references could not be read.
+	 */
+	public Map<String, Ref> getRefs() throws IOException {
+		return snapshot().map;
+	}
+
+	/**
+	 * Get the references starting with any of the prefixes.
+	 *
+	 * @param prefixes
+	 *            prefixes of the names of the references to return.
+	 * @return the matching references, sorted by name.
+	 * @throws IOException
+	 *             the references could not be read.
+	 */
+	public List<Ref> getRefsByPrefix(Collection<String> prefixes)
+			throws IOException {
+		Snapshot s = snapshot();
+		List<Ref> result = new ArrayList<>();
+		for (int[] r : s.ranges(prefixes)) {
+			result.addAll(Arrays.asList(s.refs).subList(r[0], r[1]));
+		}
+		return result;
+	}
+
+	/**
+	 * Write the {@code ls-refs} response lines of the references starting with
+	 * any of the prefixes.
+	 * <p>
+	 * The lines are identical to the ones {@link RefAdvertiser} formats for
+	 * protocol V2, but are formatted only once per snapshot. The caller writes
+	 * the terminating flush packet.
+	 *
+	 * @param out
+	 *            stream to write the packet lines to.
+	 * @param prefixes
+	 *            prefixes of the names of the references to send; empty to
+	 *            send all references.
+	 * @param peel
+	 *            whether to add the peeled id of annotated tags.
+	 * @param symrefs
+	 *            whether to add the target of a symbolic {@code HEAD}.
+	 * @throws IOException
+	 *             the references could not be read, or writing failed.
+	 */
+	void writeLsRefs(PacketLineOut out, Collection<String> prefixes,
+			boolean peel, boolean symrefs) throws IOException {
+		Snapshot s = snapshot();
+		Lines lines = s.lines(db, peel);
+		for (int[] r : s.ranges(prefixes)) {
+			if (symrefs && lines.symrefHead != null && r[0] <= s.head
+					&& s.head < r[1]) {
+				lines.write(out, r[0], s.head);
+				out.writeRaw(lines.symrefHead, 0, lines.symrefHead.length);
+				lines.write(out, s.head + 1, r[1]);
+			} else {
+				lines.write(out, r[0], r[1]);
+			}
+		}
+	}
+
+	private Snapshot snapshot() throws IOException {
+		Snapshot s = snapshot;
+		if (s != null) {
+			return s;
+		}
+		synchronized (this) {
+			s = snapshot;
+			if (s != null) {
+				return s;
+			}
+			long gen = generation.get();
+			s = new Snapshot(db.getRefDatabase().getRefs());
+			if (generation.get() == gen) {
+				// Not invalidated while reading, so it's still current.
+				snapshot = s;
+			}
+			return s;
+		}
+	}
+
+	@Override
+	public void close() {
+		listener.remove();
+		snapshot = null;
+	}
+
+	private static class Snapshot {
+		final Ref[] refs;
+
+		final Map<String, Ref> map;
+
+		/** Index of {@code HEAD} in {@link #refs}, or -1. */
+		final int head;
+
+		private volatile Lines plain;
+
+		private volatile Lines peeled;
+
+		Snapshot(List<Ref> all) {
+			refs = RefComparator.sort(all).toArray(new Ref[0]);
+			Map<String, Ref> m = new HashMap<>(refs.length * 4 / 3 + 1);
+			int h = -1;
+			for (int i = 0; i < refs.length; i++) {
+				m.put(refs[i].getName(), refs[i]);
+				if (Constants.HEAD.equals(refs[i].getName())) {
+					h = i;
+				}
+			}
+			map = Collections.unmodifiableMap(m);
+			head = h;
+		}
+
+		/**
+		 * Find the ranges of {@link #refs} starting with the prefixes.
+		 *
+		 * @param prefixes
+		 *            name prefixes; empty for all references.
+		 * @return sorted, non-overlapping {@code [from, to)} index ranges.
+		 */
+		List<int[]> ranges(Collection<String> prefixes) {
+			if (prefixes.isEmpty()) {
+				return Collections.singletonList(new int[] { 0, refs.length });
+			}
+			List<int[]> result = new ArrayList<>();
+			// A prefix covered by a shorter one adds no references.
+			String last = null;
+			for (String p : new TreeSet<>(prefixes)) {
+				if (last != null && p.startsWith(last)) {
+					continue;
+				}
+				last = p;
+				int from = lowerBound(p);
+				int to = from;
+				while (to < refs.length && refs[to].getName().startsWith(p)) {
+					to++;
+				}
+				if (from < to) {
+					result.add(new int[] { from, to });
+				}
+			}
+			return result;
+		}
+
+		private int lowerBound(String name) {
+			int lo = 0;
+			int hi = refs.length;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (refs[mid].getName().compareTo(name) < 0) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+
+		Lines lines(Repository repo, boolean peel) throws IOException {
+			Lines l = peel ? peeled : plain;
+			if (l == null) {
+				synchronized (this) {
+					l = peel ? peeled : plain;
+					if (l == null) {
+						l = new Lines(repo, refs, head, peel);
+						if (peel) {
+							peeled = l;
+						} else {
+							plain = l;
+						}
+					}
+				}
+			}
+			return l;
+		}
+	}
+
+	/** Pre-formatted {@code ls-refs} packet lines of a snapshot. */
+	private static class Lines {
+		final byte[] data;
+
+		/** Start of the line of each reference in {@link #data}. */
+		final int[] offsets;
+
+		/** Line of a symbolic {@code HEAD} including its target, or null. */
+		final byte[] symrefHead;
+
+		Lines(Repository repo, Ref[] refs, int head, boolean peel)
+				throws IOException {
+			ByteArrayOutputStream buf = new ByteArrayOutputStream(
+					refs.length * 64);
+			RefAdvertiser adv = newAdvertiser(repo, buf, peel);
+			offsets = new int[refs.length + 1];
+			for (int i = 0; i < refs.length; i++) {
+				offsets[i] = buf.size();
+				adv.send(Collections.singletonList(refs[i]));
+			}
+			offsets[refs.length] = buf.size();
+			data = buf.toByteArray();
+
+			if (head >= 0 && refs[head].isSymbolic()) {
+				buf.reset();
+				adv = newAdvertiser(repo, buf, peel);
+				adv.addSymref(Constants.HEAD,
+						refs[head].getLeaf().getName());
+				adv.send(Collections.singletonList(refs[head]));
+				symrefHead = buf.toByteArray();
+			} else {
+				symrefHead = null;
+			}
+		}
+
+		void write(PacketLineOut out, int from, int to) throws IOException {
+			int pos = offsets[from];
+			out.writeRaw(data, pos, offsets[to] - pos);
+		}
+
+		private static RefAdvertiser newAdvertiser(Repository repo,
+				ByteArrayOutputStream buf, boolean peel) {
+			RefAdvertiser adv = new RefAdvertiser.PacketLineOutRefAdvertiser(
+					new PacketLineOut(buf, false));
+			adv.init(repo);
+			adv.setUseProtocolV2(true);
+			adv.setDerefTags(peel);
+			return adv;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.text.MessageFormat;
+
+import org.eclipse.jgit.errors.PackProtocolException;
+import org.eclipse.jgit.errors.TransportException;
+import org.eclipse.jgit.internal.JGitText;
+
+/**
+ * Reads packet lines of a protocol V2 response using "sideband-all".
+ * <p>
+ * Every packet other than flush and delimiter starts with a side-band
+ * channel. Lines of channel 1 are returned without the channel byte, lines of
+ * channel 2 are copied to the message writer and channel 3 aborts the
+ * transfer, like {@link SideBandInputStream} does for the pack.
+ */
+class SideBandPacketLineIn extends PacketLineIn {
+	private final Writer messages;
+
+	SideBandPacketLineIn(InputStream in, Writer messages) {
+		super(in);
+		this.messages = messages;
+	}
+
+	@Override
+	public String readString() throws IOException {
+		for (;;) {
+			String line = super.readString();
+			if (isEnd(line) || isDelimiter(line)) {
+				return line;
+			}
+			int channel = line.isEmpty() ? -1 : line.charAt(0);
+			switch (channel) {
+			case SideBandInputStream.CH_DATA:
+				return line.substring(1);
+			case SideBandInputStream.CH_PROGRESS:
+				// readString() dropped a trailing LF; a CR is retained.
+				messages.write(line.substring(1));
+				if (!line.endsWith("\r")) { //$NON-NLS-1$
+					messages.write('\n');
+				}
+				messages.flush();
+				continue;
+			case SideBandInputStream.CH_ERROR:
+				throw new TransportException(
+						JGitText.get().prefixRemote + line.substring(1));
+			default:
+				throw new PackProtocolException(
+						MessageFormat.format(JGitText.get().invalidChannel,
+								Integer.valueOf(channel)));
+			}
+		}
+	}
+}
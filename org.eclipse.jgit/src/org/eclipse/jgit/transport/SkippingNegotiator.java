@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.eclipse.jgit.internal.storage.commitgraph.CommitGraph;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevFlag;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Selects the "have" lines of a fetch negotiation like git's
+ * {@code fetch.negotiationAlgorithm=skipping}.
+ * <p>
+ * Commits are visited newest first from all starting points, but after a
+ * commit is sent a growing number of its ancestors is skipped before the next
+ * one on that line of history is sent. A client with many branches the server
+ * has never seen thus reaches a common commit in far fewer rounds, at the cost
+ * of the server possibly sending a few objects the client already has.
+ * <p>
+ * Commits acknowledged as common (flagged with the caller's {@code COMMON}
+ * flag and carried to their parents) are neither sent nor walked any further.
+ * Skipped root commits are sent once everything else is walked, so that a
+ * history only shared at its very beginning is still found.
+ */
+final class SkippingNegotiator {
+	private static final class Entry {
+		final RevCommit commit;
+
+		final int generation;
+
+		int ttl;
+
+		int originalTtl;
+
+		Entry(RevCommit commit, int generation, int ttl, int originalTtl) {
+			this.commit = commit;
+			this.generation = generation;
+			this.ttl = ttl;
+			this.originalTtl = originalTtl;
+		}
+	}
+
+	private final RevWalk walk;
+
+	private final RevFlag common;
+
+	private final RevFlag advertised;
+
+	private final RevFlag seen;
+
+	private final CommitGraph graph;
+
+	private final PriorityQueue<Entry> queue;
+
+	private final Map<RevCommit, Entry> pending = new HashMap<>();
+
+	/** Skipped root commits, in the order they were walked. */
+	private final Deque<RevCommit> skippedRoots = new ArrayDeque<>();
+
+	/**
+	 * Create a negotiator.
+	 *
+	 * @param walk
+	 *            walk used to parse commits; its flag state is shared with the
+	 *            caller.
+	 * @param common
+	 *            flag of commits both sides are known to have.
+	 * @param advertised
+	 *            flag of commits advertised by the remote.
+	 * @param graph
+	 *            commit-graph whose generation numbers order the commits, or
+	 *            {@code null} to order them by commit time only.
+	 */
+	SkippingNegotiator(RevWalk walk, RevFlag common, RevFlag advertised,
+			CommitGraph graph) {
+		this.walk = walk;
+		this.common = common;
+		this.advertised = advertised;
+		this.seen = walk.newFlag("SKIPPING_SEEN"); //$NON-NLS-1$
+		this.graph = graph;
+		queue = new PriorityQueue<>(SkippingNegotiator::compare);
+	}
+
+	private static int compare(Entry a, Entry b) {
+		// Higher generations and newer commits first.
+		int cmp = Integer.compare(b.generation, a.generation);
+		if (cmp != 0) {
+			return cmp;
+		}
+		return Integer.compare(b.commit.getCommitTime(),
+				a.commit.getCommitTime());
+	}
+
+	/**
+	 * Add the commits to start negotiating from.
+	 *
+	 * @param tips
+	 *            local commits.
+	 * @throws IOException
+	 *             a commit could not be parsed.
+	 */
+	void markStart(Collection<RevCommit> tips) throws IOException {
+		for (RevCommit c : tips) {
+			push(c, 0, 0);
+		}
+	}
+
+	/**
+	 * Get the next commit to send as "have".
+	 *
+	 * @return the next commit, or {@code null} if there is nothing more to
+	 *         send.
+	 * @throws IOException
+	 *             a commit could not be parsed.
+	 */
+	RevCommit next() throws IOException {
+		Entry e;
+		while ((e = queue.poll()) != null) {
+			RevCommit c = e.commit;
+			pending.remove(c);
+			boolean remoteKnowsIsCommon = c.has(common);
+			if (c.has(advertised)) {
+				c.add(common);
+			}
+			if (c.has(common)) {
+				// Everything behind a common commit is common as well.
+				c.carry(common);
+				if (remoteKnowsIsCommon) {
+					continue;
+				}
+			}
+
+			int originalTtl = e.ttl > 0 ? e.originalTtl
+					: e.originalTtl * 3 / 2 + 1;
+			int ttl = e.ttl > 0 ? e.ttl - 1 : originalTtl;
+			if (!c.has(common)) {
+				for (RevCommit p : c.getParents()) {
+					push(p, ttl, originalTtl);
+				}
+			}
+			if (!remoteKnowsIsCommon && (e.ttl == 0 || c.has(advertised))) {
+				// The remote doesn't know we have its advertised commits, so
+				// always send them.
+				return c;
+			}
+			if (c.getParentCount() == 0 && !c.has(common)) {
+				skippedRoots.add(c);
+			}
+		}
+		RevCommit c;
+		while ((c = skippedRoots.poll()) != null) {
+			// The commit may have become common through a later commit.
+			if (!c.has(common)) {
+				return c;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Release the flag this negotiator allocated on the walk.
+	 * <p>
+	 * The negotiator must not be used afterwards.
+	 */
+	void dispose() {
+		walk.disposeFlag(seen);
+	}
+
+	private void push(RevCommit c, int ttl, int originalTtl)
+			throws IOException {
+		if (c.has(seen)) {
+			Entry e = pending.get(c);
+			if (e != null && originalTtl < e.originalTtl) {
+				// Reached again on a shorter skip; don't jump as far.
+				e.originalTtl = originalTtl;
+				e.ttl = ttl;
+			}
+			return;
+		}
+		c.add(seen);
+		walk.parseHeaders(c);
+		Entry e = new Entry(c, generation(c), ttl, originalTtl);
+		pending.put(c, e);
+		queue.add(e);
+	}
+
+	private int generation(RevCommit c) {
+		if (graph == null) {
+			return Constants.COMMIT_GENERATION_UNKNOWN;
+		}
+		int pos = graph.findGraphPosition(c);
+		if (pos < 0) {
+			// Commits newer than the graph sort ahead of it.
+			return Constants.COMMIT_GENERATION_UNKNOWN;
+		}
+		return graph.getCommitData(pos).getGeneration();
+	}
+}
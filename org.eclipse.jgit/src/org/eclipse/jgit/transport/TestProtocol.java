@@ -153,7 +153,17 @@ private class TransportInternal extends Transport implements PackTransport {
 		public FetchConnection openFetch() throws NotSupportedException,
 				TransportException {
 			handle.remote.incrementOpen();
-			return new InternalFetchConnection<>(this, uploadPackFactory,
+			UploadPackFactory<C> factory = uploadPackFactory;
+			if (TransferConfig.ProtocolVersion.V2.equals(protocol)) {
+				// Like the git daemon, pass the requested version on.
+				factory = (req, db) -> {
+					UploadPack up = uploadPackFactory.create(req, db);
+					up.setExtraParameters(Collections.singleton(
+							GitProtocolConstants.VERSION_2_REQUEST));
+					return up;
+				};
+			}
+			return new InternalFetchConnection<>(this, factory,
 					handle.req, handle.remote) {
 				@Override
 				FetchConfig getFetchConfig() {
@@ -125,9 +125,16 @@ static ProtocolVersion parse(@Nullable String name) {
 	private final boolean advertiseSidebandAll;
 	private final boolean advertiseWaitForDone;
 	private final boolean advertiseObjectInfo;
+	private final boolean advertiseBundleUris;
 
 	private final boolean allowReceiveClientSID;
 
+	private final int indexThreads;
+
+	private final boolean indexStreaming;
+
+	private final boolean bundleUri;
+
 	final @Nullable ProtocolVersion protocolVersion;
 	final String[] hideRefs;
 
@@ -219,8 +226,13 @@ public TransferConfig(Config rc) {
 				"advertisewaitfordone", false);
 		advertiseObjectInfo = rc.getBoolean("uploadpack",
 				"advertiseobjectinfo", false);
+		advertiseBundleUris = rc.getBoolean("uploadpack",
+				"advertisebundleuris", false);
 		allowReceiveClientSID = rc.getBoolean("transfer", "advertisesid",
 				false);
+		indexThreads = rc.getInt("transfer", "indexthreads", 1);
+		indexStreaming = rc.getBoolean("transfer", "indexstreaming", false);
+		bundleUri = rc.getBoolean("transfer", "bundleuri", false);
 	}
 
 	/**
@@ -357,6 +369,19 @@ public boolean isAdvertiseObjectInfo() {
 		return advertiseObjectInfo;
 	}
 
+	/**
+	 * Whether to advertise bundle-uri to all clients
+	 * <p>
+	 * The bundles are listed in the {@code bundle} section of the repository
+	 * configuration.
+	 *
+	 * @return true to advertise bundle-uri to all clients
+	 * @since 6.9
+	 */
+	public boolean isAdvertiseBundleUris() {
+		return advertiseBundleUris;
+	}
+
 	/**
 	 * Whether to advertise and receive session-id capability
 	 *
@@ -367,6 +392,42 @@ public boolean isAllowReceiveClientSID() {
 		return allowReceiveClientSID;
 	}
 
+	/**
+	 * Get the number of threads resolving deltas of received packs.
+	 *
+	 * @return number of threads resolving deltas of fetched or pushed packs; 0
+	 *         to use one thread per available processor.
+	 * @see PackParser#setDeltaResolutionThreads(int)
+	 * @since 6.9
+	 */
+	public int getIndexThreads() {
+		return indexThreads;
+	}
+
+	/**
+	 * Whether deltas of received packs are resolved while the pack is still
+	 * being received.
+	 *
+	 * @return whether deltas of fetched or pushed packs are resolved while
+	 *         the pack is still being received.
+	 * @see PackParser#setStreamingDeltaResolution(boolean)
+	 * @since 6.9
+	 */
+	public boolean isIndexStreaming() {
+		return indexStreaming;
+	}
+
+	/**
+	 * Whether fetch downloads the bundles a server lists with
+	 * {@code bundle-uri} before fetching the remaining objects.
+	 *
+	 * @return whether to use the bundles advertised by the server.
+	 * @since 6.9
+	 */
+	public boolean isBundleUri() {
+		return bundleUri;
+	}
+
 	/**
 	 * Get {@link org.eclipse.jgit.transport.RefFilter} respecting configured
 	 * hidden refs.
@@ -777,17 +777,38 @@ static String findTrackingRefName(final String remoteName,
 	/** Should push use bitmaps? */
 	private boolean pushUseBitmaps = DEFAULT_PUSH_USE_BITMAPS;
 
+	/** Should push negotiate common commits before sending the pack? */
+	private boolean pushNegotiate;
+
+	/** Should fetch first download the bundles the remote lists? */
+	private boolean bundleUri;
+
+	/** May the remote list bundles on the local file system? */
+	private boolean bundleUriAllowFile;
+
 	/** Should push just check for operation result, not really push. */
 	private boolean dryRun;
 
 	/** Should an incoming (fetch) transfer validate objects? */
 	private ObjectChecker objectChecker;
 
+	/** Number of threads resolving deltas of fetched packs. */
+	private int indexThreads = 1;
+
+	/** Resolve deltas while fetched packs are being received? */
+	private boolean indexStreaming;
+
 	/** Should refs no longer on the source be pruned from the destination? */
 	private boolean removeDeletedRefs;
 
 	private FilterSpec filterSpec = FilterSpec.NO_FILTER;
 
+	/** Tell the remote which objects we have when fetching? */
+	private boolean sendHaves = true;
+
+	/** Run auto gc in the local repository after fetching? */
+	private boolean autoGC = true;
+
 	/** Timeout in seconds to wait before aborting an IO read or write. */
 	private int timeout;
 
@@ -832,6 +853,11 @@ protected Transport(Repository local, URIish uri) {
 		this.uri = uri;
 		this.protocol = tc.protocolVersion;
 		this.objectChecker = tc.newObjectChecker();
+		this.indexThreads = tc.getIndexThreads();
+		this.indexStreaming = tc.isIndexStreaming();
+		this.bundleUri = tc.isBundleUri();
+		this.pushNegotiate = local.getConfig().get(PushConfig::new)
+				.isNegotiate();
 		this.credentialsProvider = CredentialsProvider.getDefault();
 	}
 
@@ -950,6 +976,60 @@ public void setFetchThin(boolean fetchThin) {
 		this.fetchThin = fetchThin;
 	}
 
+	/**
+	 * Get the number of threads resolving deltas of fetched packs.
+	 *
+	 * @return the number of threads resolving deltas of fetched packs; 0 to
+	 *         use one thread per available processor.
+	 * @since 6.9
+	 */
+	public int getIndexThreads() {
+		return indexThreads;
+	}
+
+	/**
+	 * Set the number of threads resolving deltas of fetched packs.
+	 * <p>
+	 * Defaults to {@code transfer.indexThreads}, or 1 if not configured.
+	 *
+	 * @param threads
+	 *            number of threads; 0 to use one thread per available
+	 *            processor.
+	 * @see PackParser#setDeltaResolutionThreads(int)
+	 * @since 6.9
+	 */
+	public void setIndexThreads(int threads) {
+		indexThreads = threads;
+	}
+
+	/**
+	 * Whether deltas are resolved while fetched packs are still being
+	 * received.
+	 *
+	 * @return whether deltas are resolved while fetched packs are still being
+	 *         received.
+	 * @since 6.9
+	 */
+	public boolean isIndexStreaming() {
+		return indexStreaming;
+	}
+
+	/**
+	 * Set whether deltas are resolved while fetched packs are still being
+	 * received.
+	 * <p>
+	 * Defaults to {@code transfer.indexStreaming}, or false if not
+	 * configured.
+	 *
+	 * @param streaming
+	 *            whether to resolve deltas while fetched packs are received.
+	 * @see PackParser#setStreamingDeltaResolution(boolean)
+	 * @since 6.9
+	 */
+	public void setIndexStreaming(boolean streaming) {
+		indexStreaming = streaming;
+	}
+
 	/**
 	 * Whether fetch will verify if received objects are formatted correctly.
 	 *
@@ -1095,6 +1175,92 @@ public void setPushUseBitmaps(boolean useBitmaps) {
 		this.pushUseBitmaps = useBitmaps;
 	}
 
+	/**
+	 * Default setting is the value of {@code push.negotiate}, or false.
+	 *
+	 * @return true if push negotiates the common commits with the remote
+	 *         before sending the pack.
+	 * @since 6.9
+	 */
+	public boolean isPushNegotiate() {
+		return pushNegotiate;
+	}
+
+	/**
+	 * Set whether push negotiates the common commits with the remote before
+	 * sending the pack.
+	 * <p>
+	 * The remote only advertises its refs, but may already have many more of
+	 * the pushed commits, e.g. from hidden refs. When enabled, a fetch-style
+	 * negotiation over a separate upload-pack connection finds these commits
+	 * first, so that the pushed pack leaves them out. Negotiation requires
+	 * protocol V2 and a remote supporting "wait-for-done"; if it fails the push
+	 * proceeds without it.
+	 *
+	 * @param negotiate
+	 *            true to negotiate before pushing.
+	 * @since 6.9
+	 */
+	public void setPushNegotiate(boolean negotiate) {
+		this.pushNegotiate = negotiate;
+	}
+
+	/**
+	 * Whether fetch first downloads the bundles the remote lists.
+	 *
+	 * @return true if fetch downloads the bundles the remote lists with
+	 *         {@code bundle-uri} before fetching from the remote itself.
+	 * @since 6.9
+	 */
+	public boolean isBundleUri() {
+		return bundleUri;
+	}
+
+	/**
+	 * Set whether fetch first downloads the bundles the remote lists.
+	 * <p>
+	 * A remote supporting the protocol V2 command {@code bundle-uri} may list
+	 * pre-generated bundles of its history, served as static files. Fetching
+	 * these first leaves only the objects created since the bundles were
+	 * written to be fetched from the remote. The bundle references are stored
+	 * below {@code refs/bundles/}. Bundles that cannot be downloaded or
+	 * applied are skipped, as are bundles not served over HTTP unless
+	 * allowed by {@link #setBundleUriAllowFile(boolean)}. Defaults to
+	 * {@code transfer.bundleURI}.
+	 *
+	 * @param bundleUri
+	 *            true to download the listed bundles first.
+	 * @since 6.9
+	 */
+	public void setBundleUri(boolean bundleUri) {
+		this.bundleUri = bundleUri;
+	}
+
+	/**
+	 * Whether the remote may list bundles on the local file system.
+	 *
+	 * @return true if fetch also downloads listed {@code file://} bundles.
+	 * @since 6.9
+	 */
+	public boolean isBundleUriAllowFile() {
+		return bundleUriAllowFile;
+	}
+
+	/**
+	 * Set whether the remote may list bundles on the local file system.
+	 * <p>
+	 * By default only {@code http://} and {@code https://} bundles are
+	 * downloaded, so that a remote cannot make the client read arbitrary
+	 * local files. Bundles with other schemes are always skipped.
+	 *
+	 * @param allow
+	 *            true to also download listed {@code file://} bundles.
+	 * @since 6.9
+	 */
+	public void setBundleUriAllowFile(boolean allow) {
+		this.bundleUriAllowFile = allow;
+	}
+
 	/**
 	 * Whether destination refs should be removed if they no longer exist at the
 	 * source repository.
@@ -1166,6 +1332,36 @@ public final void setFilterSpec(@NonNull FilterSpec filter) {
 		filterSpec = requireNonNull(filter);
 	}
 
+	boolean isSendHaves() {
+		return sendHaves;
+	}
+
+	/**
+	 * Set whether fetches negotiate the objects both sides have.
+	 * <p>
+	 * Without haves the remote sends everything asked for, even objects
+	 * reachable from local refs, which a partial clone may lack.
+	 *
+	 * @param send
+	 *            false to send no haves.
+	 */
+	void setSendHaves(boolean send) {
+		sendHaves = send;
+	}
+
+	/**
+	 * Set whether fetch runs auto gc in the local repository afterwards.
+	 * <p>
+	 * Fetches of missing objects happen while the repository is in use, and
+	 * gc itself may look up missing objects again.
+	 *
+	 * @param gc
+	 *            false to never run auto gc after fetching.
+	 */
+	void setAutoGC(boolean gc) {
+		autoGC = gc;
+	}
+
 
 	/**
 	 * Retrieves the depth for a shallow clone.
@@ -1481,7 +1677,9 @@ public FetchResult fetch(final ProgressMonitor monitor,
 		final FetchResult result = new FetchResult();
 		new FetchProcess(this, toFetch).execute(monitor, result, branch);
 
-		local.autoGC(monitor);
+		if (autoGC) {
+			local.autoGC(monitor);
+		}
 
 		return result;
 	}
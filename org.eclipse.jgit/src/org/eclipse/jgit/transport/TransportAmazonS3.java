@@ -266,6 +266,12 @@ FileStream open(String path) throws IOException {
 			return new FileStream(in, raw == in ? len : -1);
 		}
 
+		@Override
+		boolean isConcurrentOpenSupported() {
+			// Every object is read through its own connection.
+			return true;
+		}
+
 		@Override
 		void deleteFile(String path) throws IOException {
 			s3.delete(bucket, resolveKey(path));
@@ -475,6 +475,65 @@ public FetchConnection openFetch(Collection<RefSpec> refSpecs,
 		}
 	}
 
+	/**
+	 * Download the bundle stored at this transport's URI.
+	 * <p>
+	 * Used for the bundles a server lists in response to {@code bundle-uri};
+	 * these are plain files, typically served by a static file server. The
+	 * request uses the proxy, SSL and header settings of this transport.
+	 *
+	 * @return transport fetching from the downloaded bundle.
+	 * @throws IOException
+	 *             if the bundle could not be requested
+	 */
+	Transport openBundle() throws IOException {
+		return new TransportBundleStream(local, uri, download());
+	}
+
+	/**
+	 * Download the plain file stored at this transport's URI.
+	 * <p>
+	 * Redirects are followed as configured by {@code http.followRedirects},
+	 * but never from https to http.
+	 *
+	 * @return stream of the response body.
+	 * @throws IOException
+	 *             if the file could not be requested
+	 */
+	InputStream download() throws IOException {
+		URL u = new URL(uri.toString());
+		for (int redirects = 0;; redirects++) {
+			HttpConnection c = httpOpen(METHOD_GET, u,
+					AcceptEncoding.UNSPECIFIED);
+			int status = HttpSupport.response(c);
+			switch (status) {
+			case HttpConnection.HTTP_OK:
+				return openInputStream(c);
+			case HttpConnection.HTTP_MOVED_PERM:
+			case HttpConnection.HTTP_MOVED_TEMP:
+			case HttpConnection.HTTP_SEE_OTHER:
+			case HttpConnection.HTTP_11_MOVED_PERM:
+			case HttpConnection.HTTP_11_MOVED_TEMP:
+				String location = c.getHeaderField(HDR_LOCATION);
+				if (http.getFollowRedirects() != HttpRedirectMode.FALSE
+						&& redirects < http.getMaxRedirects()
+						&& !StringUtils.isEmptyOrNull(location)) {
+					URL next = new URL(u, location);
+					// Never go from https back to http.
+					if (u.getProtocol().equals(next.getProtocol())
+							|| "https".equals(next.getProtocol())) { //$NON-NLS-1$
+						u = next;
+						continue;
+					}
+				}
+				//$FALL-THROUGH$
+			default:
+				throw new TransportException(uri, status + " " //$NON-NLS-1$
+						+ c.getResponseMessage());
+			}
+		}
+	}
+
 	private WalkFetchConnection newDumbConnection(InputStream in)
 			throws IOException, PackProtocolException {
 		HttpObjectDB d = new HttpObjectDB(objectsUrl);
@@ -1446,6 +1505,12 @@ FileStream open(String path) throws IOException {
 			return open(path, AcceptEncoding.UNSPECIFIED);
 		}
 
+		@Override
+		boolean isConcurrentOpenSupported() {
+			// Every file is read through its own connection.
+			return true;
+		}
+
 		FileStream open(String path, AcceptEncoding acceptEncoding)
 				throws IOException {
 			final URL base = httpObjectsUrl;
@@ -1572,6 +1637,17 @@ protected void doFetch(ProgressMonitor monitor, Collection<Ref> want,
 			}
 		}
 
+		@Override
+		BundleList getBundleList() throws TransportException {
+			if (!isCapableOf(GitProtocolConstants.COMMAND_BUNDLE_URI)) {
+				return null;
+			}
+			LongPollService service = new LongPollService(SVC_UPLOAD_PACK,
+					getProtocolVersion());
+			init(service.getInputStream(), service.getOutputStream());
+			return super.getBundleList();
+		}
+
 		@Override
 		protected void onReceivePack() {
 			svc.finalRequest = true;
@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.eclipse.jgit.transport;
+
+import static java.net.HttpURLConnection.HTTP_UNAVAILABLE;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Limits how many {@link UploadPack} sessions generate packs at the same time.
+ * <p>
+ * Pack generation is the expensive part of a fetch. A server sharing one
+ * instance among all its sessions, see
+ * {@link UploadPack#setAdmissionControl(UploadAdmissionControl)}, caps the
+ * number of packs generated concurrently, both in total and per repository,
+ * so that a clone storm on one large repository cannot take all threads and
+ * memory from fetches of other repositories.
+ * <p>
+ * Sessions above a limit wait in a queue. Incremental fetches, which have
+ * commits in common with the repository, are preferred over clones: a clone
+ * is queued as if it arrived {@link #setClonePenalty(Duration) a little
+ * later} than it did, so fetches arriving meanwhile overtake it, while clones
+ * still cannot starve. A waiting session is admitted as soon as both limits
+ * allow it, even if sessions for other repositories queued before it are
+ * still waiting. Sessions waiting longer than the maximum queue time fail
+ * with a {@link ServiceMayNotContinueException} carrying HTTP status
+ * {@code 503}.
+ * <p>
+ * An instance is thread-safe.
+ *
+ * @since 6.9
+ */
+public class UploadAdmissionControl {
+	private final int maxActive;
+
+	private final int maxActivePerRepository;
+
+	private final long maxQueueNanos;
+
+	private volatile long clonePenaltyNanos = TimeUnit.SECONDS.toNanos(10);
+
+	private final TreeSet<Waiter> queue = new TreeSet<>((a, b) -> {
+		long d = a.order - b.order;
+		return d != 0 ? Long.signum(d) : Long.compare(a.seq, b.seq);
+	});
+
+	private final Map<String, Integer> activeByRepository = new HashMap<>();
+
+	private final Map<String, Integer> queuedByRepository = new HashMap<>();
+
+	private int active;
+
+	private long seq;
+
+	private long admitted;
+
+	private long rejected;
+
+	private long queueNanos;
+
+	/**
+	 * Create an admission control.
+	 *
+	 * @param maxActive
+	 *            maximum number of packs generated at the same time; 0 for
+	 *            no limit.
+	 * @param maxActivePerRepository
+	 *            maximum number of packs generated at the same time for the
+	 *            same repository; 0 for no limit.
+	 * @param maxQueueTime
+	 *            how long a session may wait for admission before it fails.
+	 */
+	public UploadAdmissionControl(int maxActive, int maxActivePerRepository,
+			Duration maxQueueTime) {
+		this.maxActive = Math.max(0, maxActive);
+		this.maxActivePerRepository = Math.max(0, maxActivePerRepository);
+		this.maxQueueNanos = maxQueueTime.toNanos();
+	}
+
+	/**
+	 * Get how much later clones are queued than they arrived.
+	 *
+	 * @return how much later clones are queued than they arrived.
+	 */
+	public Duration getClonePenalty() {
+		return Duration.ofNanos(clonePenaltyNanos);
+	}
+
+	/**
+	 * Set how much later clones are queued than they arrived.
+	 * <p>
+	 * Incremental fetches arriving up to this long after a clone are admitted
+	 * before it. Defaults to 10 seconds; zero serves sessions in arrival
+	 * order.
+	 *
+	 * @param penalty
+	 *            how much later clones are queued than they arrived.
+	 */
+	public void setClonePenalty(Duration penalty) {
+		clonePenaltyNanos = Math.max(0, penalty.toNanos());
+	}
+
+	/**
+	 * Wait until a pack may be generated.
+	 *
+	 * @param db
+	 *            repository the pack is generated from.
+	 * @param clone
+	 *            whether the client has no commits in common with the
+	 *            repository, so that the pack contains its entire history.
+	 * @return ticket to close once the pack was sent.
+	 * @throws ServiceMayNotContinueException
+	 *             the session was not admitted within the maximum queue time.
+	 * @throws InterruptedIOException
+	 *             the thread was interrupted while waiting.
+	 */
+	public Ticket admit(Repository db, boolean clone)
+			throws ServiceMayNotContinueException, InterruptedIOException {
+		String repo = key(db);
+		long start = System.nanoTime();
+		long deadline = start + maxQueueNanos;
+		synchronized (this) {
+			Waiter w = new Waiter(repo, start + (clone ? clonePenaltyNanos : 0),
+					seq++);
+			queue.add(w);
+			queuedByRepository.compute(repo, (k, n) -> increment(n));
+			dispatch();
+			try {
+				while (!w.admitted) {
+					long left = deadline - System.nanoTime();
+					if (left <= 0) {
+						dequeue(w);
+						rejected++;
+						throw new ServiceMayNotContinueException(
+								JGitText.get().serverBusy, HTTP_UNAVAILABLE);
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, left);
+				}
+			} catch (InterruptedException e) {
+				if (w.admitted) {
+					release(repo);
+				} else {
+					dequeue(w);
+				}
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+			long waited = System.nanoTime() - start;
+			admitted++;
+			queueNanos += waited;
+			return new Ticket(repo, waited);
+		}
+	}
+
+	private static String key(Repository db) {
+		String id = db.getIdentifier();
+		return id != null ? id : String.valueOf(db.getDirectory());
+	}
+
+	private boolean hasCapacity(String repo) {
+		return (maxActive == 0 || active < maxActive)
+				&& (maxActivePerRepository == 0
+						|| count(activeByRepository,
+								repo) < maxActivePerRepository);
+	}
+
+	private static int count(Map<String, Integer> counts, String repo) {
+		Integer n = counts.get(repo);
+		return n != null ? n.intValue() : 0;
+	}
+
+	private static Integer increment(Integer n) {
+		return Integer.valueOf(n != null ? n.intValue() + 1 : 1);
+	}
+
+	private static Integer decrement(Integer n) {
+		return n.intValue() > 1 ? Integer.valueOf(n.intValue() - 1) : null;
+	}
+
+	/** Admit all waiting sessions the limits allow, in queue order. */
+	private void dispatch() {
+		boolean any = false;
+		for (Iterator<Waiter> i = queue.iterator(); i.hasNext();) {
+			if (maxActive != 0 && active >= maxActive) {
+				break;
+			}
+			Waiter w = i.next();
+			if (hasCapacity(w.repository)) {
+				i.remove();
+				queuedByRepository.computeIfPresent(w.repository,
+						(k, n) -> decrement(n));
+				active++;
+				activeByRepository.compute(w.repository,
+						(k, n) -> increment(n));
+				w.admitted = true;
+				any = true;
+			}
+		}
+		if (any) {
+			notifyAll();
+		}
+	}
+
+	private void dequeue(Waiter w) {
+		if (queue.remove(w)) {
+			queuedByRepository.computeIfPresent(w.repository,
+					(k, n) -> decrement(n));
+		}
+	}
+
+	private synchronized void release(String repo) {
+		active--;
+		activeByRepository.computeIfPresent(repo,
+				(k, n) -> decrement(n));
+		dispatch();
+	}
+
+	/**
+	 * Get the number of packs being generated.
+	 *
+	 * @return the number of admitted sessions not yet finished.
+	 */
+	public synchronized int getActive() {
+		return active;
+	}
+
+	/**
+	 * Get the number of packs being generated for a repository.
+	 *
+	 * @param db
+	 *            the repository.
+	 * @return the number of admitted sessions of the repository not yet
+	 *         finished.
+	 */
+	public synchronized int getActive(Repository db) {
+		return count(activeByRepository, key(db));
+	}
+
+	/**
+	 * Get the number of sessions waiting for admission.
+	 *
+	 * @return the number of sessions waiting for admission.
+	 */
+	public synchronized int getQueued() {
+		return queue.size();
+	}
+
+	/**
+	 * Get the number of sessions waiting for admission to a repository.
+	 *
+	 * @param db
+	 *            the repository.
+	 * @return the number of sessions of the repository waiting for
+	 *         admission.
+	 */
+	public synchronized int getQueued(Repository db) {
+		return count(queuedByRepository, key(db));
+	}
+
+	/**
+	 * Get the number of admitted sessions.
+	 *
+	 * @return the number of sessions admitted since this instance was
+	 *         created.
+	 */
+	public synchronized long getAdmittedCount() {
+		return admitted;
+	}
+
+	/**
+	 * Get the number of sessions that were not admitted in time.
+	 *
+	 * @return the number of sessions that failed because they waited longer
+	 *         than the maximum queue time.
+	 */
+	public synchronized long getRejectedCount() {
+		return rejected;
+	}
+
+	/**
+	 * Get the total time admitted sessions waited.
+	 *
+	 * @return the total time admitted sessions waited for admission, since
+	 *         this instance was created.
+	 */
+	public synchronized Duration getTotalQueueTime() {
+		return Duration.ofNanos(queueNanos);
+	}
+
+	/** Permission to generate a pack, returned by closing it. */
+	public final class Ticket implements AutoCloseable {
+		private final String repository;
+
+		private final long waitedNanos;
+
+		private boolean closed;
+
+		Ticket(String repository, long waitedNanos) {
+			this.repository = repository;
+			this.waitedNanos = waitedNanos;
+		}
+
+		/**
+		 * Get how long the session waited for this ticket.
+		 *
+		 * @return how long the session waited for admission.
+		 */
+		public Duration getQueueTime() {
+			return Duration.ofNanos(waitedNanos);
+		}
+
+		@Override
+		public void close() {
+			synchronized (UploadAdmissionControl.this) {
+				if (closed) {
+					return;
+				}
+				closed = true;
+				release(repository);
+			}
+		}
+	}
+
+	private static class Waiter {
+		final String repository;
+
+		/** Position in the queue, in {@link System#nanoTime()}. */
+		final long order;
+
+		final long seq;
+
+		boolean admitted;
+
+		Waiter(String repository, long order, long seq) {
+			this.repository = repository;
+			this.order = order;
+			this.seq = seq;
+		}
+	}
+}
@@ -13,9 +13,11 @@
 import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
+import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_BUNDLE_SECTION;
 import static org.eclipse.jgit.lib.Constants.R_TAGS;
 import static org.eclipse.jgit.transport.GitProtocolConstants.CAPABILITY_REF_IN_WANT;
 import static org.eclipse.jgit.transport.GitProtocolConstants.CAPABILITY_SERVER_OPTION;
+import static org.eclipse.jgit.transport.GitProtocolConstants.COMMAND_BUNDLE_URI;
 import static org.eclipse.jgit.transport.GitProtocolConstants.COMMAND_FETCH;
 import static org.eclipse.jgit.transport.GitProtocolConstants.COMMAND_LS_REFS;
 import static org.eclipse.jgit.transport.GitProtocolConstants.COMMAND_OBJECT_INFO;
@@ -53,6 +55,7 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.security.MessageDigest;
 import java.text.MessageFormat;
 import java.time.Duration;
 import java.time.Instant;
@@ -60,6 +63,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -81,6 +85,8 @@
 import org.eclipse.jgit.internal.storage.pack.CachedPackUriProvider;
 import org.eclipse.jgit.internal.storage.pack.PackWriter;
 import org.eclipse.jgit.internal.transport.parser.FirstWant;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
@@ -108,13 +114,18 @@
 import org.eclipse.jgit.transport.TransferConfig.ProtocolVersion;
 import org.eclipse.jgit.util.io.InterruptTimer;
 import org.eclipse.jgit.util.io.NullOutputStream;
+import org.eclipse.jgit.util.io.TeeOutputStream;
 import org.eclipse.jgit.util.io.TimeoutInputStream;
 import org.eclipse.jgit.util.io.TimeoutOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implements the server side of a fetch connection, transmitting objects.
  */
 public class UploadPack implements Closeable {
+	private static final Logger LOG = LoggerFactory.getLogger(UploadPack.class);
+
 	/** Policy the server uses to validate client requests */
 	public enum RequestPolicy {
 		/** Client may only ask for objects the server advertised a reference for. */
@@ -354,6 +365,12 @@ public Set<String> getOptions() {
 
 	private CachedPackUriProvider cachedPackUriProvider;
 
+	private PackResponseCache packResponseCache;
+
+	private RefAdvertisementCache refAdvertisementCache;
+
+	private UploadAdmissionControl admissionControl;
+
 	/**
 	 * Create a new pack upload for an open repository.
 	 *
@@ -751,6 +768,87 @@ public void setCachedPackUriProvider(@Nullable CachedPackUriProvider p) {
 		cachedPackUriProvider = p;
 	}
 
+	/**
+	 * Set the cache of previously sent pack streams.
+	 * <p>
+	 * If set, packs for requests without shallow or packfile URI options are
+	 * replayed from the cache when an identical request was answered before,
+	 * and stored in the cache otherwise.
+	 *
+	 * @param cache
+	 *            cache of pack streams for this repository, or null to always
+	 *            generate the pack.
+	 * @since 6.9
+	 */
+	public void setPackResponseCache(@Nullable PackResponseCache cache) {
+		packResponseCache = cache;
+	}
+
+	/**
+	 * Get the admission control limiting concurrent pack generation.
+	 *
+	 * @return the admission control, or null if packs are always generated
+	 *         right away.
+	 * @since 6.9
+	 */
+	@Nullable
+	public UploadAdmissionControl getAdmissionControl() {
+		return admissionControl;
+	}
+
+	/**
+	 * Set the admission control limiting concurrent pack generation.
+	 * <p>
+	 * If set, this session waits for admission after negotiation, before it
+	 * generates the pack. Packs replayed from the
+	 * {@link #setPackResponseCache(PackResponseCache) pack response cache}
+	 * are sent without waiting.
+	 *
+	 * @param control
+	 *            admission control shared by the sessions of a server, or
+	 *            null to generate packs right away.
+	 * @since 6.9
+	 */
+	public void setAdmissionControl(
+			@Nullable UploadAdmissionControl control) {
+		admissionControl = control;
+	}
+
+	/**
+	 * Get the cache of the references to advertise.
+	 *
+	 * @return the cache of the references of this repository, or null if the
+	 *         reference database is read in every session.
+	 * @since 6.9
+	 */
+	@Nullable
+	public RefAdvertisementCache getRefAdvertisementCache() {
+		return refAdvertisementCache;
+	}
+
+	/**
+	 * Set the cache of the references to advertise.
+	 * <p>
+	 * If set, the references are taken from the cache instead of the
+	 * reference database. Unless an {@link AdvertiseRefsHook} sets the
+	 * advertised references, or references are hidden by a {@link RefFilter}
+	 * or {@code uploadpack.hideRefs}, protocol V2 {@code ls-refs} responses
+	 * are copied from lines the cache formatted before.
+	 *
+	 * @param cache
+	 *            cache of the references of this repository, or null to read
+	 *            the reference database in every session.
+	 * @since 6.9
+	 */
+	public void setRefAdvertisementCache(
+			@Nullable RefAdvertisementCache cache) {
+		if (cache != null && cache.getRepository() != db) {
+			throw new IllegalArgumentException(
+					JGitText.get().refAdvertisementCacheWrongRepository);
+		}
+		refAdvertisementCache = cache;
+	}
+
 	private boolean useProtocolV2() {
 		return (transferConfig.protocolVersion == null
 			|| ProtocolVersion.V2.equals(transferConfig.protocolVersion))
@@ -830,10 +928,8 @@ public void upload(InputStream input, OutputStream output,
 	 * <p>
 	 * If the client passed extra parameters (e.g., "version=2") through a side
 	 * channel, the caller must call setExtraParameters first to supply them.
-	 * Callers of this method should call {@link #close()} to terminate the
-	 * internal interrupt timer thread. If the caller fails to terminate the
-	 * thread, it will (eventually) terminate itself when the InterruptTimer
-	 * instance is garbage collected.
+	 * Callers of this method should call {@link #close()} to disarm the
+	 * internal interrupt timer.
 	 *
 	 * @param input
 	 *            raw input to read client commands from. Caller must ensure the
@@ -912,6 +1008,9 @@ public PackStatistics getStatistics() {
 	 */
 	private Map<String, Ref> getAllRefs() {
 		try {
+			if (refAdvertisementCache != null) {
+				return refAdvertisementCache.getRefs();
+			}
 			return db.getRefDatabase().getRefs().stream().collect(
 					Collectors.toMap(Ref::getName, Function.identity()));
 		} catch (IOException e) {
@@ -930,9 +1029,12 @@ private Map<String, Ref> getAdvertisedOrDefaultRefs() throws IOException {
 		}
 		if (refs == null) {
 			// Fall back to all refs.
-			setAdvertisedRefs(
-					db.getRefDatabase().getRefs().stream()
-							.collect(toRefMap((a, b) -> b)));
+			if (refAdvertisementCache != null) {
+				setAdvertisedRefs(refAdvertisementCache.getRefs());
+			} else {
+				setAdvertisedRefs(db.getRefDatabase().getRefs().stream()
+						.collect(toRefMap((a, b) -> b)));
+			}
 		}
 		return refs;
 	}
@@ -948,10 +1050,15 @@ private Map<String, Ref> getFilteredRefs(Collection<String> refPrefixes)
 		}
 		if (refs == null) {
 			// Fast path: the advertised refs hook did not set advertised refs.
-			String[] prefixes = refPrefixes.toArray(new String[0]);
-			Map<String, Ref> rs =
-					db.getRefDatabase().getRefsByPrefix(prefixes).stream()
-							.collect(toRefMap((a, b) -> b));
+			List<Ref> byPrefix;
+			if (refAdvertisementCache != null) {
+				byPrefix = refAdvertisementCache.getRefsByPrefix(refPrefixes);
+			} else {
+				byPrefix = db.getRefDatabase().getRefsByPrefix(
+						refPrefixes.toArray(new String[0]));
+			}
+			Map<String, Ref> rs = byPrefix.stream()
+					.collect(toRefMap((a, b) -> b));
 			if (refFilter != RefFilter.DEFAULT) {
 				return refFilter.filter(rs);
 			}
@@ -1149,6 +1256,21 @@ private void lsRefsV2(PacketLineOut pckOut) throws IOException {
 		protocolV2Hook.onLsRefs(req);
 
 		rawOut.stopBuffering();
+		if (refAdvertisementCache != null) {
+			if (refs == null && !advertiseRefsHookCalled) {
+				advertiseRefsHook.advertiseRefs(this);
+				advertiseRefsHookCalled = true;
+			}
+			if (refs == null && refFilter == RefFilter.DEFAULT
+					&& transferConfig.hasDefaultRefFilter()) {
+				// Nothing to filter; send the lines formatted before.
+				refAdvertisementCache.writeLsRefs(pckOut,
+						req.getRefPrefixes(), req.getPeel(),
+						req.getSymrefs());
+				pckOut.end();
+				return;
+			}
+		}
 		PacketLineOutRefAdvertiser adv = new PacketLineOutRefAdvertiser(pckOut);
 		adv.init(db);
 		adv.setUseProtocolV2(true);
@@ -1363,6 +1485,34 @@ private void objectInfo(PacketLineOut pckOut) throws IOException {
 		pckOut.end();
 	}
 
+	private void bundleUri(PacketLineOut pckOut) throws IOException {
+		// The request has no arguments the server acts upon.
+		String line = pckIn.readString();
+		while (!PacketLineIn.isEnd(line)) {
+			line = pckIn.readString();
+		}
+
+		// Same as git: send the bundle section of the configuration.
+		Config cfg = db.getConfig();
+		for (String name : cfg.getNames(CONFIG_BUNDLE_SECTION)) {
+			String value = cfg.getString(CONFIG_BUNDLE_SECTION, null, name);
+			if (value != null) {
+				pckOut.writeString(CONFIG_BUNDLE_SECTION + '.'
+						+ name.toLowerCase(Locale.ROOT) + '=' + value);
+			}
+		}
+		for (String id : cfg.getSubsections(CONFIG_BUNDLE_SECTION)) {
+			for (String name : cfg.getNames(CONFIG_BUNDLE_SECTION, id)) {
+				String value = cfg.getString(CONFIG_BUNDLE_SECTION, id, name);
+				if (value != null) {
+					pckOut.writeString(CONFIG_BUNDLE_SECTION + '.' + id + '.'
+							+ name.toLowerCase(Locale.ROOT) + '=' + value);
+				}
+			}
+		}
+		pckOut.end();
+	}
+
 	/*
 	 * Returns true if this is the last command and we should tear down the
 	 * connection.
@@ -1393,6 +1543,11 @@ private boolean serveOneCommandV2(PacketLineOut pckOut) throws IOException {
 			objectInfo(pckOut);
 			return false;
 		}
+		if (transferConfig.isAdvertiseBundleUris()
+				&& command.equals("command=" + COMMAND_BUNDLE_URI)) { //$NON-NLS-1$
+			bundleUri(pckOut);
+			return false;
+		}
 		throw new PackProtocolException(MessageFormat
 				.format(JGitText.get().unknownTransportCommand, command));
 	}
@@ -1423,6 +1578,9 @@ private List<String> getV2CapabilityAdvertisement() {
 		if (transferConfig.isAdvertiseObjectInfo()) {
 			caps.add(COMMAND_OBJECT_INFO);
 		}
+		if (transferConfig.isAdvertiseBundleUris()) {
+			caps.add(COMMAND_BUNDLE_URI);
+		}
 
 		return caps;
 	}
@@ -2090,7 +2248,9 @@ private static void checkNotAdvertisedWants(UploadPack up,
 					.size();
 			boolean repoHasBitmaps = reader.getBitmapIndex() != null;
 
-			if (!allWantsAreCommits) {
+			// With bitmaps all wants are checked against a single bitmap of
+			// what the tips reach, whatever their type.
+			if (!allWantsAreCommits || repoHasBitmaps) {
 				if (!repoHasBitmaps && !up.transferConfig.isAllowFilter()) {
 					// Checking unadvertised non-commits without bitmaps
 					// requires an expensive manual walk. Use allowFilter as an
@@ -2127,7 +2287,8 @@ private static void checkNotAdvertisedWants(UploadPack up,
 				return;
 			}
 
-			// All wants are commits, we can use ReachabilityChecker
+			// All wants are commits and there are no bitmaps, we can use
+			// ReachabilityChecker
 			ReachabilityChecker reachabilityChecker = reader
 					.createReachabilityChecker(walk);
 
@@ -2375,8 +2536,62 @@ private void sendPack(ProgressMonitor pm, PacketLineOut pckOut,
 		} else {
 			preUploadHook.onSendPack(this, wantAll, commonBase);
 		}
-		msgOut.flush();
 
+		boolean usePackfileUris = pckOut.isUsingSideband()
+				&& req instanceof FetchV2Request
+				&& cachedPackUriProvider != null
+				&& !((FetchV2Request) req).getPackfileUriProtocols().isEmpty();
+		ObjectId cacheKey = null;
+		if (packResponseCache != null && !usePackfileUris) {
+			cacheKey = packResponseCacheKey(req, allTags, deepenNots);
+		}
+		if (cacheKey != null
+				&& sendCachedPack(cacheKey, pckOut, packOut, accumulator)) {
+			return;
+		}
+
+		// Only admitted once a pack is to be generated, and by then it is
+		// known whether the client has anything in common with us. Nothing
+		// of the response is flushed yet, so that a session not admitted in
+		// time can still fail with an HTTP status.
+		try (UploadAdmissionControl.Ticket ticket = admissionControl != null
+				? admissionControl.admit(db, commonBase.isEmpty())
+				: null) {
+			msgOut.flush();
+			writePack(pm, pckOut, packOut, req, accumulator, allTags,
+					unshallowCommits, deepenNots, usePackfileUris, cacheKey);
+		}
+	}
+
+	/**
+	 * Resolve the blob-ish of a "sparse:oid" filter to the id of the blob it
+	 * names, which is all {@link PackWriter} understands.
+	 *
+	 * @param filter
+	 *            filter of the request
+	 * @return the filter, with its blob-ish resolved
+	 * @throws IOException
+	 *             if the blob-ish does not name an object.
+	 */
+	private FilterSpec resolveSparseOid(FilterSpec filter) throws IOException {
+		String sparseOid = filter.getSparseOid();
+		if (sparseOid == null || ObjectId.isId(sparseOid)) {
+			return filter;
+		}
+		ObjectId id = db.resolve(sparseOid);
+		if (id == null) {
+			throw new PackProtocolException(MessageFormat.format(
+					JGitText.get().invalidFilter, "sparse:oid=" + sparseOid)); //$NON-NLS-1$
+		}
+		return FilterSpec.withSparseOid(id.name());
+	}
+
+	private void writePack(ProgressMonitor pm, PacketLineOut pckOut,
+			OutputStream packOut, FetchRequest req,
+			PackStatistics.Accumulator accumulator,
+			@Nullable Collection<Ref> allTags, List<ObjectId> unshallowCommits,
+			List<ObjectId> deepenNots, boolean usePackfileUris,
+			@Nullable ObjectId cacheKey) throws IOException {
 		PackConfig cfg = packConfig;
 		if (cfg == null)
 			cfg = new PackConfig(db);
@@ -2384,18 +2599,20 @@ private void sendPack(ProgressMonitor pm, PacketLineOut pckOut,
 										// block, and is closed there
 		final PackWriter pw = new PackWriter(cfg, walk.getObjectReader(),
 				accumulator);
+		PackResponseCache.Writer cacheOut = null;
 		try {
 			pw.setIndexDisabled(true);
 			if (req.getFilterSpec().isNoOp()) {
 				pw.setUseCachedPacks(true);
 			} else {
-				pw.setFilterSpec(req.getFilterSpec());
+				pw.setFilterSpec(resolveSparseOid(req.getFilterSpec()));
 				pw.setUseCachedPacks(false);
 			}
+			// PackWriter falls back to walking trees for filters that
+			// cannot be served from bitmaps.
 			pw.setUseBitmaps(
 					req.getDepth() == 0
-							&& req.getClientShallowCommits().isEmpty()
-							&& req.getFilterSpec().getTreeDepthLimit() == -1);
+							&& req.getClientShallowCommits().isEmpty());
 			pw.setClientShallowCommits(req.getClientShallowCommits());
 			pw.setReuseDeltaCommits(true);
 			pw.setDeltaBaseAsOffset(
@@ -2486,9 +2703,7 @@ else if (ref.getName().startsWith(Constants.R_HEADS))
 			}
 
 			if (pckOut.isUsingSideband()) {
-				if (req instanceof FetchV2Request &&
-						cachedPackUriProvider != null &&
-						!((FetchV2Request) req).getPackfileUriProtocols().isEmpty()) {
+				if (usePackfileUris) {
 					FetchV2Request reqV2 = (FetchV2Request) req;
 					pw.setPackfileUriConfig(new PackWriter.PackfileUriConfig(
 							pckOut,
@@ -2503,8 +2718,23 @@ else if (ref.getName().startsWith(Constants.R_HEADS))
 							GitProtocolConstants.SECTION_PACKFILE + '\n');
 				}
 			}
+			if (cacheKey != null) {
+				accumulator.packResponseCacheMisses = 1;
+				cacheOut = newCacheWriter(cacheKey);
+				if (cacheOut != null) {
+					packOut = new TeeOutputStream(packOut, cacheOut);
+				}
+			}
 			pw.enableSearchForReuseTimeout();
 			pw.writePack(pm, NullProgressMonitor.INSTANCE, packOut);
+			if (cacheOut != null) {
+				try {
+					cacheOut.commit();
+				} catch (IOException e) {
+					// The pack was already sent; only the entry is lost.
+					LOG.warn(JGitText.get().cannotStorePackResponse, e);
+				}
+			}
 
 			if (msgOut != NullOutputStream.INSTANCE) {
 				String msg = pw.getStatistics().getMessage() + '\n';
@@ -2513,6 +2743,9 @@ else if (ref.getName().startsWith(Constants.R_HEADS))
 			}
 
 		} finally {
+			if (cacheOut != null) {
+				cacheOut.abort();
+			}
 			statistics = pw.getStatistics();
 			if (statistics != null) {
 				postUploadHook.onPostUpload(statistics);
@@ -2521,6 +2754,159 @@ else if (ref.getName().startsWith(Constants.R_HEADS))
 		}
 	}
 
+	/**
+	 * Compute the key of a request in the {@link PackResponseCache}.
+	 *
+	 * @param req
+	 *            request being processed
+	 * @param allTags
+	 *            refs to search for annotated tags to include in the pack
+	 * @param deepenNots
+	 *            objects that the client specified using --shallow-exclude
+	 * @return the key, or null if the response to this request must not be
+	 *         cached.
+	 */
+	@Nullable
+	private ObjectId packResponseCacheKey(FetchRequest req,
+			@Nullable Collection<Ref> allTags, List<ObjectId> deepenNots) {
+		if (req.getDepth() != 0 || req.getDeepenSince() != 0
+				|| !deepenNots.isEmpty()
+				|| !req.getClientShallowCommits().isEmpty()) {
+			return null;
+		}
+		// The blob a "sparse:oid" expression such as "master:.sparse" names
+		// changes with the refs.
+		String sparseOid = req.getFilterSpec().getSparseOid();
+		if (sparseOid != null && !ObjectId.isId(sparseOid)) {
+			return null;
+		}
+
+		MessageDigest md = Constants.newMessageDigest();
+		List<ObjectId> wants = new ArrayList<>();
+		if (wantAll.isEmpty()) {
+			wants.addAll(wantIds);
+		} else {
+			for (RevObject o : wantAll) {
+				wants.add(o.copy());
+			}
+		}
+		digestIds(md, "want ", wants); //$NON-NLS-1$
+		List<ObjectId> haves = new ArrayList<>(commonBase.size());
+		for (RevObject o : commonBase) {
+			haves.add(o.copy());
+		}
+		digestIds(md, "have ", haves); //$NON-NLS-1$
+
+		FilterSpec filter = req.getFilterSpec();
+		StringBuilder opts = new StringBuilder();
+		opts.append("filter ").append(filter.getBlobLimit()).append(' ') //$NON-NLS-1$
+				.append(filter.getTreeDepthLimit()).append(' ')
+				.append(filter.getSparseOid());
+		for (int type = Constants.OBJ_COMMIT; type <= Constants.OBJ_TAG; type++) {
+			opts.append(' ').append(filter.allowsType(type));
+		}
+		opts.append('\n');
+		Set<String> caps = req.getClientCapabilities();
+		for (String cap : new String[] { OPTION_OFS_DELTA, OPTION_THIN_PACK,
+				OPTION_INCLUDE_TAG }) {
+			if (caps.contains(cap)) {
+				opts.append("capability ").append(cap).append('\n'); //$NON-NLS-1$
+			}
+		}
+		md.update(Constants.encode(opts.toString()));
+
+		if (caps.contains(OPTION_INCLUDE_TAG) && allTags != null) {
+			// The tags sent along depend on the current tag refs.
+			TreeMap<String, ObjectId> tags = new TreeMap<>();
+			for (Ref ref : allTags) {
+				if (ref.getObjectId() != null) {
+					tags.put(ref.getName(), ref.getObjectId());
+				}
+			}
+			for (Map.Entry<String, ObjectId> e : tags.entrySet()) {
+				md.update(Constants.encode("tag " + e.getValue().name() + ' ' //$NON-NLS-1$
+						+ e.getKey() + '\n'));
+			}
+		}
+		return ObjectId.fromRaw(md.digest());
+	}
+
+	private static void digestIds(MessageDigest md, String prefix,
+			List<ObjectId> ids) {
+		Collections.sort(ids);
+		byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+		for (AnyObjectId id : ids) {
+			md.update(Constants.encodeASCII(prefix));
+			id.copyRawTo(raw, 0);
+			md.update(raw);
+		}
+	}
+
+	/**
+	 * Replay a pack stream from the {@link PackResponseCache}.
+	 *
+	 * @param cacheKey
+	 *            key of the request
+	 * @param pckOut
+	 *            PacketLineOut that shares the output with packOut
+	 * @param packOut
+	 *            packfile output
+	 * @param accumulator
+	 *            where to write statistics about the content of the pack.
+	 * @throws IOException
+	 *             if the cached pack cannot be read or sent.
+	 * @return true if the pack was sent from the cache; false if the key was
+	 *         not found and the pack has to be generated.
+	 */
+	private boolean sendCachedPack(ObjectId cacheKey, PacketLineOut pckOut,
+			OutputStream packOut, PackStatistics.Accumulator accumulator)
+			throws IOException {
+		try (InputStream in = packResponseCache.open(cacheKey)) {
+			if (in == null) {
+				return false;
+			}
+			msgOut.flush();
+			if (pckOut.isUsingSideband()) {
+				pckOut.writeString(
+						GitProtocolConstants.SECTION_PACKFILE + '\n');
+			}
+			long writeStart = System.currentTimeMillis();
+			byte[] buf = new byte[SideBandOutputStream.MAX_BUF];
+			long size = 0;
+			int n;
+			while ((n = in.read(buf)) > 0) {
+				packOut.write(buf, 0, n);
+				size += n;
+			}
+			packOut.flush();
+			accumulator.packResponseCacheHits = 1;
+			accumulator.totalBytes = size;
+			accumulator.timeWriting = System.currentTimeMillis() - writeStart;
+		}
+		statistics = new PackStatistics(accumulator);
+		postUploadHook.onPostUpload(statistics);
+		return true;
+	}
+
+	/**
+	 * Begin storing the generated pack in the pack response cache.
+	 *
+	 * @param cacheKey
+	 *            key of the request.
+	 * @return writer to tee the pack into, or null if the response is not
+	 *         stored.
+	 */
+	@Nullable
+	private PackResponseCache.Writer newCacheWriter(ObjectId cacheKey) {
+		try {
+			return packResponseCache.newWriter(cacheKey);
+		} catch (IOException e) {
+			// The cache never fails the upload.
+			LOG.warn(JGitText.get().cannotStorePackResponse, e);
+			return null;
+		}
+	}
+
 	private static void findSymrefs(
 			final RefAdvertiser adv, final Map<String, Ref> refs) {
 		Ref head = refs.get(Constants.HEAD);
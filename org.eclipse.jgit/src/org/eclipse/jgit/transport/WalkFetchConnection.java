@@ -11,10 +11,15 @@
 
 package org.eclipse.jgit.transport;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -23,7 +28,15 @@
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jgit.errors.CompoundException;
 import org.eclipse.jgit.errors.CorruptObjectException;
@@ -37,6 +50,7 @@
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.MutableObjectId;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectChecker;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectInserter;
@@ -73,10 +87,30 @@
  * Instead it delegates the transfer to a {@link WalkRemoteObjectDatabase},
  * which knows how to read individual files from the remote repository and
  * supply the data as a standard Java InputStream.
+ * <p>
+ * Remote databases supporting it, see
+ * {@link WalkRemoteObjectDatabase#isConcurrentOpenSupported()}, are read by up
+ * to {@code fetch.dumbDownloadThreads} threads at the same time: while the
+ * walk parses objects one after another, the loose objects, pack indexes and
+ * packs the next objects in the work queue need are downloaded ahead of it.
+ * Objects are still checked, inserted and parsed by the calling thread only,
+ * so the walk itself, and the progress it reports, is unchanged.
  *
  * @see WalkRemoteObjectDatabase
  */
 class WalkFetchConnection extends BaseFetchConnection {
+	/** Default for {@code fetch.dumbDownloadThreads}. */
+	static final int DEFAULT_DOWNLOAD_THREADS = 4;
+
+	/** Objects of the work queue per thread considered for download ahead. */
+	private static final int AHEAD_PER_THREAD = 4;
+
+	/** Milliseconds between progress updates while awaiting a download. */
+	private static final long PROGRESS_INTERVAL = 250;
+
+	/** Number of the next thread downloading ahead of the walk. */
+	private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
 	/** The repository this transport fetches into, or pushes out of. */
 	final Repository local;
 
@@ -108,6 +142,9 @@ class WalkFetchConnection extends BaseFetchConnection {
 	/** Commits that have already entered {@link #localCommitQueue}. */
 	private final RevFlag LOCALLY_SEEN;
 
+	/** Objects downloaded ahead of the walk found missing locally. */
+	private final RevFlag MISSING;
+
 	/** Commits already reachable from all local refs. */
 	private final DateRevQueue localCommitQueue;
 
@@ -153,6 +190,15 @@ class WalkFetchConnection extends BaseFetchConnection {
 	/** Inserter to read objects from {@link #local}. */
 	private final ObjectReader reader;
 
+	/** Maximum number of files downloaded at the same time. */
+	private final int downloadThreads;
+
+	/** Threads downloading files ahead of the walk; created on demand. */
+	private ExecutorService pool;
+
+	/** Loose objects being downloaded ahead of the walk. */
+	private final Map<ObjectId, LooseDownload> looseDownloads;
+
 	WalkFetchConnection(WalkTransport t, WalkRemoteObjectDatabase w) {
 		Transport wt = (Transport)t;
 		local = wt.local;
@@ -175,12 +221,17 @@ class WalkFetchConnection extends BaseFetchConnection {
 		fetchErrors = new HashMap<>();
 		packLocks = new ArrayList<>(4);
 
+		downloadThreads = Math.max(1, local.getConfig().getInt("fetch", //$NON-NLS-1$
+				"dumbdownloadthreads", DEFAULT_DOWNLOAD_THREADS)); //$NON-NLS-1$
+		looseDownloads = new HashMap<>();
+
 		revWalk = new RevWalk(reader);
 		revWalk.setRetainBody(false);
 		treeWalk = new TreeWalk(reader);
 		COMPLETE = revWalk.newFlag("COMPLETE"); //$NON-NLS-1$
 		IN_WORK_QUEUE = revWalk.newFlag("IN_WORK_QUEUE"); //$NON-NLS-1$
 		LOCALLY_SEEN = revWalk.newFlag("LOCALLY_SEEN"); //$NON-NLS-1$
+		MISSING = revWalk.newFlag("MISSING"); //$NON-NLS-1$
 
 		localCommitQueue = new DateRevQueue();
 		workQueue = new LinkedList<>();
@@ -199,6 +250,7 @@ protected void doFetch(final ProgressMonitor monitor,
 		queueWants(want);
 
 		while (!monitor.isCancelled() && !workQueue.isEmpty()) {
+			downloadAhead();
 			final ObjectId id = workQueue.removeFirst();
 			if (!(id instanceof RevObject) || !((RevObject) id).has(COMPLETE))
 				downloadObject(monitor, id);
@@ -224,11 +276,20 @@ public void setPackLockMessage(String message) {
 
 	@Override
 	public void close() {
+		if (pool != null) {
+			pool.shutdownNow();
+		}
+		for (LooseDownload d : looseDownloads.values()) {
+			d.data.cancel(true);
+		}
+		looseDownloads.clear();
 		inserter.close();
 		reader.close();
 		for (RemotePack p : unfetchedPacks) {
 			if (p.tmpIdx != null)
 				p.tmpIdx.delete();
+			if (p.tmpPack != null)
+				p.tmpPack.delete();
 		}
 		for (WalkRemoteObjectDatabase r : remotes)
 			r.close();
@@ -261,6 +322,12 @@ private void queueWants(Collection<Ref> want)
 	}
 
 	private void process(ObjectId id) throws TransportException {
+		// A loose copy downloaded ahead of the walk is no longer needed.
+		LooseDownload ahead = looseDownloads.remove(id);
+		if (ahead != null) {
+			ahead.data.cancel(true);
+		}
+
 		final RevObject obj;
 		try {
 			if (id instanceof RevObject) {
@@ -371,6 +438,18 @@ private void downloadObject(ProgressMonitor pm, AnyObjectId id)
 		if (alreadyHave(id))
 			return;
 
+		// Use the loose object downloaded ahead of the walk, if any.
+		//
+		int tried = -1;
+		LooseDownload ahead = looseDownloads.remove(id);
+		if (ahead != null) {
+			if (insertLooseObject(id, ahead)) {
+				lastRemoteIdx = ahead.remote;
+				return;
+			}
+			tried = ahead.remote;
+		}
+
 		for (;;) {
 			// Try a pack file we know about, but don't have yet. Odds are
 			// that if it has this object, it has others related to it so
@@ -382,19 +461,18 @@ private void downloadObject(ProgressMonitor pm, AnyObjectId id)
 			// Search for a loose object over all alternates, starting
 			// from the one we last successfully located an object through.
 			//
-			final String idStr = id.name();
-			final String subdir = idStr.substring(0, 2);
-			final String file = idStr.substring(2);
-			final String looseName = subdir + "/" + file; //$NON-NLS-1$
+			final String looseName = looseName(id);
 
 			for (int i = lastRemoteIdx; i < remotes.size(); i++) {
-				if (downloadLooseObject(id, looseName, remotes.get(i))) {
+				if (i != tried
+						&& downloadLooseObject(id, looseName, remotes.get(i))) {
 					lastRemoteIdx = i;
 					return;
 				}
 			}
 			for (int i = 0; i < lastRemoteIdx; i++) {
-				if (downloadLooseObject(id, looseName, remotes.get(i))) {
+				if (i != tried
+						&& downloadLooseObject(id, looseName, remotes.get(i))) {
 					lastRemoteIdx = i;
 					return;
 				}
@@ -421,8 +499,13 @@ private void downloadObject(ProgressMonitor pm, AnyObjectId id)
 				if (packNameList == null || packNameList.isEmpty())
 					continue;
 				for (String packName : packNameList) {
-					if (packsConsidered.add(packName))
-						unfetchedPacks.add(new RemotePack(wrr, packName));
+					if (packsConsidered.add(packName)) {
+						RemotePack pack = new RemotePack(wrr, packName);
+						unfetchedPacks.add(pack);
+						if (isParallel(wrr)) {
+							pack.startIndexDownload();
+						}
+					}
 				}
 				if (downloadPackedObject(pm, id))
 					return;
@@ -528,6 +611,9 @@ private boolean downloadPackedObject(final ProgressMonitor monitor,
 					if (pack.tmpIdx != null) {
 						FileUtils.delete(pack.tmpIdx);
 					}
+					if (pack.tmpPack != null) {
+						FileUtils.delete(pack.tmpPack, FileUtils.SKIP_MISSING);
+					}
 				} catch (Throwable e) {
 					if (e1 != null) {
 						e.addSuppressed(e1);
@@ -571,6 +657,13 @@ private Iterator<ObjectId> swapFetchQueue() {
 		return r;
 	}
 
+	private static String looseName(AnyObjectId id) {
+		final String idStr = id.name();
+		final String subdir = idStr.substring(0, 2);
+		final String file = idStr.substring(2);
+		return subdir + "/" + file; //$NON-NLS-1$
+	}
+
 	private boolean downloadLooseObject(final AnyObjectId id,
 			final String looseName, final WalkRemoteObjectDatabase remote)
 			throws TransportException {
@@ -589,6 +682,222 @@ private boolean downloadLooseObject(final AnyObjectId id,
 		}
 	}
 
+	private boolean insertLooseObject(AnyObjectId id, LooseDownload ahead)
+			throws TransportException {
+		try {
+			verifyAndInsertLooseObject(id, get(ahead.data));
+			return true;
+		} catch (FileNotFoundException e) {
+			recordError(id, e);
+			return false;
+		} catch (IOException e) {
+			throw new TransportException(MessageFormat.format(
+					JGitText.get().cannotDownload, id.name()), e);
+		}
+	}
+
+	private boolean isParallel(WalkRemoteObjectDatabase remote) {
+		return downloadThreads > 1 && remote.isConcurrentOpenSupported();
+	}
+
+	private ExecutorService pool() {
+		if (pool == null) {
+			pool = Executors.newFixedThreadPool(downloadThreads, r -> {
+				Thread t = new Thread(r, "JGit-WalkFetch-" //$NON-NLS-1$
+						+ threadNumber.getAndIncrement());
+				// Don't prevent the JVM from exiting if a fetch is abandoned.
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return pool;
+	}
+
+	/**
+	 * Start downloading the files the next objects of the work queue are
+	 * likely to come from.
+	 * <p>
+	 * Objects found in the index of a pack not yet fetched have their pack
+	 * downloaded; other objects are downloaded as loose objects from the
+	 * remote the last object was found in, unless the indexes of some packs
+	 * are not known yet.
+	 *
+	 * @throws TransportException
+	 *             the local repository cannot be read.
+	 */
+	private void downloadAhead() throws TransportException {
+		if (downloadThreads <= 1) {
+			return;
+		}
+
+		boolean indexesKnown = true;
+		int packsAhead = 0;
+		for (RemotePack p : unfetchedPacks) {
+			if (p.index == null && isParallel(p.connection)) {
+				if (p.indexDownload == null && p.indexError == null) {
+					p.startIndexDownload();
+				}
+				if (p.indexDownload != null && p.indexDownload.isDone()) {
+					try {
+						p.openIndex(NullProgressMonitor.INSTANCE);
+					} catch (IOException e) {
+						// Reported by downloadPackedObject().
+					}
+				}
+			}
+			if (p.index == null && p.indexError == null) {
+				indexesKnown = false;
+			}
+			if (p.packDownload != null) {
+				packsAhead++;
+			}
+		}
+
+		WalkRemoteObjectDatabase remote = remotes.get(lastRemoteIdx);
+		boolean loose = indexesKnown && isParallel(remote);
+		int window = downloadThreads * AHEAD_PER_THREAD;
+		Iterator<ObjectId> i = workQueue.iterator();
+		for (int n = 0; n < window && i.hasNext(); n++) {
+			ObjectId id = i.next();
+			if (id instanceof RevObject && ((RevObject) id).has(COMPLETE)
+					|| looseDownloads.containsKey(id) || !isMissing(id)) {
+				continue;
+			}
+			RemotePack pack = findUnfetchedPack(id);
+			if (pack != null) {
+				if (pack.packDownload == null && packsAhead < downloadThreads
+						&& isParallel(pack.connection)) {
+					pack.startPackDownload();
+					packsAhead++;
+				}
+			} else if (loose && looseDownloads.size() < window) {
+				String name = looseName(id);
+				looseDownloads.put(id.copy(), new LooseDownload(lastRemoteIdx,
+						pool().submit(() -> remote.open(name).toArray())));
+			}
+		}
+	}
+
+	/**
+	 * Whether an object is not in the local repository, remembering it.
+	 *
+	 * @param id
+	 *            the object.
+	 * @return true if the object is missing locally.
+	 * @throws TransportException
+	 *             the local repository cannot be read.
+	 */
+	private boolean isMissing(ObjectId id) throws TransportException {
+		if (!(id instanceof RevObject)) {
+			return !alreadyHave(id);
+		}
+		RevObject obj = (RevObject) id;
+		if (obj.has(MISSING)) {
+			return true;
+		}
+		if (alreadyHave(obj)) {
+			return false;
+		}
+		obj.add(MISSING);
+		return true;
+	}
+
+	/**
+	 * Find a pack with a known index, but not yet fetched, containing an
+	 * object, preferring packs already being downloaded.
+	 *
+	 * @param id
+	 *            the object.
+	 * @return the pack, or null if no known index lists the object.
+	 */
+	private RemotePack findUnfetchedPack(AnyObjectId id) {
+		RemotePack found = null;
+		for (RemotePack p : unfetchedPacks) {
+			if (p.index != null && p.index.hasObject(id)) {
+				if (p.packDownload != null) {
+					return p;
+				}
+				if (found == null) {
+					found = p;
+				}
+			}
+		}
+		return found;
+	}
+
+	private static <T> T get(Future<T> f) throws IOException {
+		try {
+			return f.get();
+		} catch (InterruptedException e) {
+			f.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(JGitText.get().downloadCancelled);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause.getMessage(), cause);
+		}
+	}
+
+	/**
+	 * Wait for a file downloaded ahead of the walk, reporting its progress.
+	 *
+	 * @param f
+	 *            the download.
+	 * @param pm
+	 *            monitor to report the progress to.
+	 * @param task
+	 *            title of the progress task.
+	 * @param pack
+	 *            the pack the file belongs to, counting the bytes received.
+	 * @return false if the monitor was cancelled meanwhile.
+	 * @throws IOException
+	 *             the download failed or was interrupted.
+	 */
+	private static boolean await(Future<?> f, ProgressMonitor pm, String task,
+			RemotePack pack) throws IOException {
+		long length = pack.length;
+		pm.beginTask(task, length < 0 ? ProgressMonitor.UNKNOWN
+				: (int) (length / 1024));
+		try {
+			long reported = 0;
+			for (;;) {
+				if (pm.isCancelled()) {
+					f.cancel(true);
+					return false;
+				}
+				boolean done;
+				try {
+					f.get(PROGRESS_INTERVAL, MILLISECONDS);
+					done = true;
+				} catch (TimeoutException e) {
+					done = false;
+				} catch (InterruptedException e) {
+					f.cancel(true);
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException(
+							JGitText.get().downloadCancelled);
+				} catch (ExecutionException e) {
+					// Throws the cause.
+					get(f);
+					done = true;
+				}
+				long kb = pack.received.get() / 1024;
+				pm.update((int) (kb - reported));
+				reported = kb;
+				if (done) {
+					return true;
+				}
+			}
+		} finally {
+			pm.endTask();
+		}
+	}
+
 	private void verifyAndInsertLooseObject(final AnyObjectId id,
 			final byte[] compressed) throws IOException {
 		final ObjectLoader uol;
@@ -770,6 +1079,19 @@ private void recordError(AnyObjectId id, Throwable what) {
 		errors.add(what);
 	}
 
+	private static class LooseDownload {
+		/** Index of the remote in {@link #remotes} the object is read from. */
+		final int remote;
+
+		/** The compressed loose object. */
+		final Future<byte[]> data;
+
+		LooseDownload(int remote, Future<byte[]> data) {
+			this.remote = remote;
+			this.data = data;
+		}
+	}
+
 	private class RemotePack {
 		final WalkRemoteObjectDatabase connection;
 
@@ -781,6 +1103,24 @@ private class RemotePack {
 
 		PackIndex index;
 
+		/** Index download started ahead of the walk. */
+		Future<?> indexDownload;
+
+		/** Why the index downloaded ahead of the walk cannot be opened. */
+		IOException indexError;
+
+		/** Pack download started ahead of the walk. */
+		Future<?> packDownload;
+
+		/** Local copy of the pack downloaded ahead of the walk. */
+		File tmpPack;
+
+		/** Length of the file being downloaded ahead, or -1 if unknown. */
+		volatile long length = -1;
+
+		/** Bytes of the file received by the download ahead. */
+		final AtomicLong received = new AtomicLong();
+
 		RemotePack(WalkRemoteObjectDatabase c, String pn) {
 			connection = c;
 			packName = pn;
@@ -799,66 +1139,166 @@ private class RemotePack {
 			}
 		}
 
+		private String indexTask() {
+			return "Get " + idxName.substring(0, 12) + "..idx"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		private String packTask() {
+			return "Get " + packName.substring(0, 12) + "..pack"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
 		void openIndex(ProgressMonitor pm) throws IOException {
 			if (index != null)
 				return;
+			if (indexError != null)
+				throw indexError;
+			if (indexDownload != null) {
+				Future<?> f = indexDownload;
+				indexDownload = null;
+				try {
+					if (!await(f, pm, indexTask(), this)) {
+						FileUtils.delete(tmpIdx, FileUtils.SKIP_MISSING);
+						return;
+					}
+				} catch (IOException e) {
+					indexError = e;
+					throw e;
+				}
+			} else {
+				if (reuseIndex())
+					return;
+				copy("pack/" + idxName, tmpIdx, pm, indexTask()); //$NON-NLS-1$
+				if (pm.isCancelled()) {
+					FileUtils.delete(tmpIdx);
+					return;
+				}
+			}
+
+			try {
+				index = PackIndex.open(tmpIdx);
+			} catch (IOException e) {
+				FileUtils.delete(tmpIdx);
+				indexError = e;
+				throw e;
+			}
+		}
+
+		/**
+		 * Open the index if a previous fetch left it behind.
+		 *
+		 * @return true if the index was opened.
+		 * @throws IOException
+		 *             the temporary file for the index cannot be created, or
+		 *             the index left behind cannot be read.
+		 */
+		private boolean reuseIndex() throws IOException {
 			if (tmpIdx == null)
 				tmpIdx = File.createTempFile("jgit-walk-", ".idx"); //$NON-NLS-1$ //$NON-NLS-2$
 			else if (tmpIdx.isFile()) {
 				try {
 					index = PackIndex.open(tmpIdx);
-					return;
+					return true;
 				} catch (FileNotFoundException err) {
 					// Fall through and get the file.
 				}
 			}
+			return false;
+		}
 
+		/** Start downloading the index on the pool. */
+		void startIndexDownload() {
+			try {
+				if (reuseIndex())
+					return;
+			} catch (IOException e) {
+				// openIndex() fails the same way and reports it.
+				return;
+			}
+			indexDownload = pool().submit(() -> {
+				copy("pack/" + idxName, tmpIdx, NullProgressMonitor.INSTANCE, //$NON-NLS-1$
+						indexTask());
+				return null;
+			});
+		}
+
+		/** Start downloading the pack to a local file on the pool. */
+		void startPackDownload() {
+			File dir = tmpIdx != null ? tmpIdx.getParentFile() : null;
+			try {
+				tmpPack = File.createTempFile("walk-", ".walkpack", dir); //$NON-NLS-1$ //$NON-NLS-2$
+			} catch (IOException e) {
+				// downloadPack() reads the pack directly from the remote.
+				return;
+			}
+			packDownload = pool().submit(() -> {
+				copy("pack/" + packName, tmpPack, NullProgressMonitor.INSTANCE, //$NON-NLS-1$
+						packTask());
+				return null;
+			});
+		}
+
+		/**
+		 * Copy a remote file to a local one, counting the bytes received.
+		 *
+		 * @param path
+		 *            path of the file on the remote.
+		 * @param dst
+		 *            local file to write to.
+		 * @param pm
+		 *            monitor to report the progress to.
+		 * @param task
+		 *            title of the progress task.
+		 * @throws IOException
+		 *             the file cannot be read or written.
+		 */
+		private void copy(String path, File dst, ProgressMonitor pm,
+				String task) throws IOException {
 			final WalkRemoteObjectDatabase.FileStream s;
-			s = connection.open("pack/" + idxName); //$NON-NLS-1$
-			pm.beginTask("Get " + idxName.substring(0, 12) + "..idx", //$NON-NLS-1$ //$NON-NLS-2$
-					s.length < 0 ? ProgressMonitor.UNKNOWN
-							: (int) (s.length / 1024));
-			try (FileOutputStream fos = new FileOutputStream(tmpIdx)) {
+			s = connection.open(path);
+			received.set(0);
+			length = s.length;
+			pm.beginTask(task, s.length < 0 ? ProgressMonitor.UNKNOWN
+					: (int) (s.length / 1024));
+			try (FileOutputStream fos = new FileOutputStream(dst)) {
 				final byte[] buf = new byte[2048];
 				int cnt;
 				while (!pm.isCancelled() && (cnt = s.in.read(buf)) >= 0) {
+					if (Thread.currentThread().isInterrupted()) {
+						throw new InterruptedIOException(
+								JGitText.get().downloadCancelled);
+					}
 					fos.write(buf, 0, cnt);
+					received.addAndGet(cnt);
 					pm.update(cnt / 1024);
 				}
 			} catch (IOException err) {
-				FileUtils.delete(tmpIdx);
+				FileUtils.delete(dst, FileUtils.SKIP_MISSING);
 				throw err;
 			} finally {
 				s.in.close();
 			}
 			pm.endTask();
-
-			if (pm.isCancelled()) {
-				FileUtils.delete(tmpIdx);
-				return;
-			}
-
-			try {
-				index = PackIndex.open(tmpIdx);
-			} catch (IOException e) {
-				FileUtils.delete(tmpIdx);
-				throw e;
-			}
 		}
 
 		void downloadPack(ProgressMonitor monitor) throws IOException {
-			String name = "pack/" + packName; //$NON-NLS-1$
-			WalkRemoteObjectDatabase.FileStream s = connection.open(name);
-			try {
-				PackParser parser = inserter.newPackParser(s.in);
+			boolean downloaded = packDownload != null;
+			if (downloaded) {
+				Future<?> f = packDownload;
+				packDownload = null;
+				if (!await(f, monitor, packTask(), this)) {
+					throw new InterruptedIOException(
+							JGitText.get().downloadCancelled);
+				}
+			}
+			try (InputStream in = downloaded ? new FileInputStream(tmpPack)
+					: connection.open("pack/" + packName).in) { //$NON-NLS-1$
+				PackParser parser = inserter.newPackParser(in);
 				parser.setAllowThin(false);
 				parser.setObjectChecker(objCheck);
 				parser.setLockMessage(lockMessage);
 				PackLock lock = parser.parse(monitor);
 				if (lock != null)
 					packLocks.add(lock);
-			} finally {
-				s.in.close();
 			}
 		}
 	}
@@ -121,6 +121,19 @@ abstract Collection<WalkRemoteObjectDatabase> getAlternates()
 	abstract FileStream open(String path) throws FileNotFoundException,
 			IOException;
 
+	/**
+	 * Whether {@link #open(String)} may be called by several threads at the
+	 * same time.
+	 * <p>
+	 * {@link WalkFetchConnection} downloads files in parallel only from
+	 * databases returning true. The default implementation returns false.
+	 *
+	 * @return true if files can be opened and read concurrently.
+	 */
+	boolean isConcurrentOpenSupported() {
+		return false;
+	}
+
 	/**
 	 * Create a new connection for a discovered alternate object database
 	 * <p>
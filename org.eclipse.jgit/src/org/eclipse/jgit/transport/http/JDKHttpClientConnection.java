@@ -0,0 +1,658 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.transport.http;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.eclipse.jgit.util.HttpSupport.HDR_CONTENT_LENGTH;
+import static org.eclipse.jgit.util.HttpSupport.HDR_CONTENT_TYPE;
+import static org.eclipse.jgit.util.HttpSupport.METHOD_GET;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Proxy;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.internal.JGitText;
+
+/**
+ * A {@link HttpConnection} sending its request with a
+ * {@link java.net.http.HttpClient} shared through a
+ * {@link JDKHttpClientConnectionFactory}.
+ * <p>
+ * The request is sent when {@link #getOutputStream()} is called, or when the
+ * response is first accessed if there is no request body. Bytes written to
+ * the output stream are streamed to the server while the caller continues
+ * writing. The read timeout limits the wait for the response headers once the
+ * request body was written.
+ * <p>
+ * A connection with its own key or trust managers, see
+ * {@link #configure(KeyManager[], TrustManager[], SecureRandom)}, or with a
+ * {@link #setHostnameVerifier(HostnameVerifier) host name verifier} uses a
+ * client of its own and does not share connections with other requests.
+ * <p>
+ * The {@link HttpClient} manages the {@code Connection},
+ * {@code Content-Length}, {@code Expect}, {@code Host} and {@code Upgrade}
+ * headers itself. Values set for them with
+ * {@link #setRequestProperty(String, String)} are not sent.
+ *
+ * @since 6.9
+ */
+public class JDKHttpClientConnection implements HttpConnection {
+	/**
+	 * Headers the {@link HttpClient} sets itself and refuses to accept; they
+	 * are dropped from the request.
+	 */
+	private static final Set<String> RESTRICTED_HEADERS = Set.of(
+			"connection", "content-length", "expect", "host", "upgrade"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+	/** Number of request body bytes buffered for the client. */
+	private static final int PIPE_SIZE = 1024 * 1024;
+
+	private static final int BLOCK = 64 * 1024;
+
+	private final JDKHttpClientConnectionFactory factory;
+
+	private final URL url;
+
+	private final Proxy proxy;
+
+	private final Map<String, String> requestHeaders = new TreeMap<>(
+			String.CASE_INSENSITIVE_ORDER);
+
+	private String method = METHOD_GET;
+
+	private int connectTimeout;
+
+	private int readTimeout;
+
+	private boolean followRedirects = true;
+
+	private boolean insecure;
+
+	private boolean customTls;
+
+	private KeyManager[] keyManagers;
+
+	private TrustManager[] trustManagers;
+
+	private SecureRandom random;
+
+	private HostnameVerifier hostnameVerifier;
+
+	private long contentLength = -1;
+
+	private RequestBody body;
+
+	private CompletableFuture<HttpResponse<InputStream>> pending;
+
+	private HttpResponse<InputStream> response;
+
+	JDKHttpClientConnection(JDKHttpClientConnectionFactory factory, URL url,
+			@Nullable Proxy proxy) {
+		this.factory = factory;
+		this.url = url;
+		this.proxy = proxy;
+	}
+
+	/** Do not verify the server certificate nor the host name. */
+	void setInsecure() {
+		insecure = true;
+	}
+
+	private HttpClient client() throws IOException {
+		try {
+			if (!customTls && hostnameVerifier == null) {
+				return factory.getClient(proxy, connectTimeout,
+						followRedirects, insecure);
+			}
+			TrustManager[] tm;
+			if (insecure) {
+				tm = new TrustManager[] {
+						new JDKHttpClientConnectionFactory.TrustAllManager() };
+			} else if (hostnameVerifier != null) {
+				tm = verifying(trustManagers, hostnameVerifier);
+			} else {
+				tm = trustManagers;
+			}
+			SSLContext ctx = SSLContext.getInstance("TLS"); //$NON-NLS-1$
+			ctx.init(keyManagers, tm, random);
+			return factory.newClient(proxy, connectTimeout, followRedirects,
+					ctx);
+		} catch (GeneralSecurityException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	private static TrustManager[] verifying(@Nullable TrustManager[] tm,
+			HostnameVerifier verifier) throws GeneralSecurityException {
+		TrustManager[] managers = tm != null ? tm : defaultTrustManagers();
+		TrustManager[] result = new TrustManager[managers.length];
+		for (int i = 0; i < managers.length; i++) {
+			result[i] = managers[i] instanceof X509TrustManager
+					? new VerifyingTrustManager(
+							(X509TrustManager) managers[i], verifier)
+					: managers[i];
+		}
+		return result;
+	}
+
+	private static TrustManager[] defaultTrustManagers()
+			throws GeneralSecurityException {
+		TrustManagerFactory tmf = TrustManagerFactory
+				.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+		tmf.init((KeyStore) null);
+		return tmf.getTrustManagers();
+	}
+
+	private void send(HttpRequest.BodyPublisher publisher) throws IOException {
+		HttpRequest.Builder b;
+		try {
+			b = HttpRequest.newBuilder(url.toURI());
+		} catch (URISyntaxException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+		b.method(method, publisher);
+		for (Map.Entry<String, String> h : requestHeaders.entrySet()) {
+			if (!RESTRICTED_HEADERS
+					.contains(h.getKey().toLowerCase(Locale.ROOT))) {
+				b.header(h.getKey(), h.getValue());
+			}
+		}
+		pending = client().sendAsync(b.build(),
+				HttpResponse.BodyHandlers.ofInputStream());
+	}
+
+	private HttpResponse<InputStream> response() throws IOException {
+		if (response != null) {
+			return response;
+		}
+		if (pending == null) {
+			send(HttpRequest.BodyPublishers.noBody());
+		} else if (body != null) {
+			body.close();
+		}
+		try {
+			response = readTimeout > 0 ? pending.get(readTimeout, MILLISECONDS)
+					: pending.get();
+		} catch (InterruptedException e) {
+			pending.cancel(true);
+			throw new InterruptedIOException();
+		} catch (TimeoutException e) {
+			pending.cancel(true);
+			throw new SocketTimeoutException(MessageFormat.format(
+					JGitText.get().readTimedOut, Integer.valueOf(readTimeout)));
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause.getMessage(), cause);
+		}
+		return response;
+	}
+
+	@Override
+	public int getResponseCode() throws IOException {
+		return response().statusCode();
+	}
+
+	@Override
+	public URL getURL() {
+		return url;
+	}
+
+	@Override
+	public String getResponseMessage() throws IOException {
+		// HTTP/2 has no reason phrases, and the HttpClient drops them. Use
+		// the standard one of the status code instead.
+		return reasonPhrase(response().statusCode());
+	}
+
+	@SuppressWarnings("nls")
+	private static String reasonPhrase(int status) {
+		switch (status) {
+		case 200:
+			return "OK";
+		case 201:
+			return "Created";
+		case 202:
+			return "Accepted";
+		case 204:
+			return "No Content";
+		case 206:
+			return "Partial Content";
+		case 301:
+			return "Moved Permanently";
+		case 302:
+			return "Found";
+		case 303:
+			return "See Other";
+		case 304:
+			return "Not Modified";
+		case 307:
+			return "Temporary Redirect";
+		case 308:
+			return "Permanent Redirect";
+		case 400:
+			return "Bad Request";
+		case 401:
+			return "Unauthorized";
+		case 403:
+			return "Forbidden";
+		case 404:
+			return "Not Found";
+		case 405:
+			return "Method Not Allowed";
+		case 407:
+			return "Proxy Authentication Required";
+		case 408:
+			return "Request Timeout";
+		case 409:
+			return "Conflict";
+		case 410:
+			return "Gone";
+		case 411:
+			return "Length Required";
+		case 413:
+			return "Content Too Large";
+		case 414:
+			return "URI Too Long";
+		case 415:
+			return "Unsupported Media Type";
+		case 416:
+			return "Range Not Satisfiable";
+		case 429:
+			return "Too Many Requests";
+		case 500:
+			return "Internal Server Error";
+		case 501:
+			return "Not Implemented";
+		case 502:
+			return "Bad Gateway";
+		case 503:
+			return "Service Unavailable";
+		case 504:
+			return "Gateway Timeout";
+		default:
+			return "";
+		}
+	}
+
+	@Override
+	public Map<String, List<String>> getHeaderFields() {
+		if (response == null) {
+			return Collections.emptyMap();
+		}
+		return response.headers().map();
+	}
+
+	@Override
+	public void setRequestProperty(String key, String value) {
+		requestHeaders.put(key, value);
+	}
+
+	@Override
+	public void setRequestMethod(String requestMethod) {
+		method = requestMethod;
+	}
+
+	@Override
+	public void setUseCaches(boolean usecaches) {
+		// The HttpClient does not cache.
+	}
+
+	@Override
+	public void setConnectTimeout(int timeout) {
+		connectTimeout = timeout;
+	}
+
+	@Override
+	public void setReadTimeout(int timeout) {
+		readTimeout = timeout;
+	}
+
+	@Override
+	public String getContentType() {
+		return getHeaderField(HDR_CONTENT_TYPE);
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return response().body();
+	}
+
+	@Override
+	public String getHeaderField(@NonNull String name) {
+		if (response == null) {
+			return null;
+		}
+		return response.headers().firstValue(name).orElse(null);
+	}
+
+	@Override
+	public List<String> getHeaderFields(@NonNull String name) {
+		if (response == null) {
+			return Collections.emptyList();
+		}
+		return response.headers().allValues(name);
+	}
+
+	@Override
+	public int getContentLength() {
+		if (response == null) {
+			return -1;
+		}
+		long len = response.headers().firstValueAsLong(HDR_CONTENT_LENGTH)
+				.orElse(-1);
+		return len < 0 || len > Integer.MAX_VALUE ? -1 : (int) len;
+	}
+
+	@Override
+	public void setInstanceFollowRedirects(boolean follow) {
+		followRedirects = follow;
+	}
+
+	@Override
+	public void setDoOutput(boolean dooutput) {
+		// The request has a body once getOutputStream() was called.
+	}
+
+	@Override
+	public void setFixedLengthStreamingMode(int len) {
+		contentLength = len;
+	}
+
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		if (body != null) {
+			return body;
+		}
+		if (pending != null) {
+			throw new IllegalStateException();
+		}
+		RequestBody b = new RequestBody();
+		HttpRequest.BodyPublisher publisher;
+		if (contentLength == 0) {
+			publisher = HttpRequest.BodyPublishers.noBody();
+		} else {
+			publisher = HttpRequest.BodyPublishers.ofInputStream(() -> b.in);
+			if (contentLength > 0) {
+				publisher = HttpRequest.BodyPublishers.fromPublisher(publisher,
+						contentLength);
+			}
+		}
+		send(publisher);
+		body = b;
+		pending.whenComplete((rsp, err) -> {
+			// A server answering with an error before reading the request
+			// may never read the rest; don't let the writer wait for it.
+			if (err != null || rsp.statusCode() >= 300) {
+				b.discard();
+			}
+		});
+		return b;
+	}
+
+	@Override
+	public void setChunkedStreamingMode(int chunklen) {
+		contentLength = -1;
+	}
+
+	@Override
+	public String getRequestMethod() {
+		return method;
+	}
+
+	@Override
+	public boolean usingProxy() {
+		return proxy != null && proxy.type() != Proxy.Type.DIRECT;
+	}
+
+	@Override
+	public void connect() throws IOException {
+		// The HttpClient connects when the request is sent.
+	}
+
+	@Override
+	public void configure(KeyManager[] km, TrustManager[] tm,
+			SecureRandom rnd) {
+		keyManagers = km;
+		trustManagers = tm;
+		random = rnd;
+		customTls = true;
+	}
+
+	@Override
+	public void setHostnameVerifier(HostnameVerifier verifier) {
+		hostnameVerifier = verifier;
+	}
+
+	/**
+	 * Bounded pipe from the writer of the request body to the client thread
+	 * sending it.
+	 */
+	private static class RequestBody extends OutputStream {
+		private final Deque<byte[]> blocks = new ArrayDeque<>();
+
+		private int buffered;
+
+		private boolean closed;
+
+		private boolean discarded;
+
+		final InputStream in = new InputStream() {
+			private byte[] current;
+
+			private int pos;
+
+			@Override
+			public int read() throws IOException {
+				byte[] one = new byte[1];
+				return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				if (len == 0) {
+					return 0;
+				}
+				if (current == null || pos == current.length) {
+					current = take();
+					pos = 0;
+					if (current == null) {
+						return -1;
+					}
+				}
+				int n = Math.min(len, current.length - pos);
+				System.arraycopy(current, pos, b, off, n);
+				pos += n;
+				return n;
+			}
+		};
+
+		synchronized byte[] take() throws IOException {
+			for (;;) {
+				if (discarded) {
+					return null;
+				}
+				byte[] b = blocks.poll();
+				if (b != null) {
+					buffered -= b.length;
+					notifyAll();
+					return b;
+				}
+				if (closed) {
+					return null;
+				}
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					throw new InterruptedIOException();
+				}
+			}
+		}
+
+		synchronized void discard() {
+			discarded = true;
+			blocks.clear();
+			buffered = 0;
+			notifyAll();
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len)
+				throws IOException {
+			if (closed) {
+				throw new IOException(JGitText.get().closed);
+			}
+			while (len > 0) {
+				while (buffered >= PIPE_SIZE && !discarded) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						throw new InterruptedIOException();
+					}
+				}
+				int n = Math.min(len, BLOCK);
+				if (!discarded) {
+					blocks.add(Arrays.copyOfRange(b, off, off + n));
+					buffered += n;
+					notifyAll();
+				}
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public synchronized void close() {
+			closed = true;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Checks the server certificate with a delegate, and the host name with a
+	 * {@link HostnameVerifier} instead of the rules of the
+	 * {@link HttpClient}.
+	 */
+	private static class VerifyingTrustManager
+			extends X509ExtendedTrustManager {
+		private final X509TrustManager delegate;
+
+		private final HostnameVerifier verifier;
+
+		VerifyingTrustManager(X509TrustManager delegate,
+				HostnameVerifier verifier) {
+			this.delegate = delegate;
+			this.verifier = verifier;
+		}
+
+		@Override
+		public X509Certificate[] getAcceptedIssuers() {
+			return delegate.getAcceptedIssuers();
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain,
+				String authType) throws CertificateException {
+			delegate.checkClientTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain,
+				String authType) throws CertificateException {
+			delegate.checkServerTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain,
+				String authType, Socket socket) throws CertificateException {
+			delegate.checkClientTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain,
+				String authType, Socket socket) throws CertificateException {
+			delegate.checkServerTrusted(chain, authType);
+			if (socket instanceof SSLSocket) {
+				SSLSession session = ((SSLSocket) socket).getHandshakeSession();
+				verify(session.getPeerHost(), session);
+			}
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain,
+				String authType, SSLEngine engine)
+				throws CertificateException {
+			delegate.checkClientTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain,
+				String authType, SSLEngine engine)
+				throws CertificateException {
+			delegate.checkServerTrusted(chain, authType);
+			verify(engine.getPeerHost(), engine.getHandshakeSession());
+		}
+
+		private void verify(String host, SSLSession session)
+				throws CertificateException {
+			if (!verifier.verify(host, session)) {
+				throw new CertificateException(MessageFormat
+						.format(JGitText.get().httpHostnameNotVerified, host));
+			}
+		}
+	}
+}
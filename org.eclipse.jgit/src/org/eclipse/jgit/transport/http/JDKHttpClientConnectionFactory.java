@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2026, JGit contributors and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+package org.eclipse.jgit.transport.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.Socket;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.annotations.Nullable;
+import org.eclipse.jgit.internal.JGitText;
+
+/**
+ * A factory returning instances of {@link JDKHttpClientConnection}, which use
+ * the {@link java.net.http.HttpClient} of the JDK.
+ * <p>
+ * Unlike {@link JDKHttpConnectionFactory}, connections of this factory speak
+ * HTTP/2 with servers supporting it, multiplexing concurrent requests to the
+ * same server over one connection, and stream request bodies to the server
+ * while they are written. The {@link HttpClient} instances, and thus their
+ * connection pools, are kept by the factory and shared by all connections
+ * with the same proxy, connect timeout, redirect and certificate verification
+ * settings. Installed with
+ * {@link org.eclipse.jgit.transport.HttpTransport#setConnectionFactory(HttpConnectionFactory)}
+ * successive fetches and pushes to the same server reuse the connections
+ * earlier ones opened.
+ * <p>
+ * Only direct connections and HTTP proxies are supported.
+ *
+ * @since 6.9
+ */
+public class JDKHttpClientConnectionFactory implements HttpConnectionFactory2 {
+
+	private final HttpClient.Version version;
+
+	private final Map<ClientKey, HttpClient> clients = new ConcurrentHashMap<>();
+
+	private volatile SSLContext insecureContext;
+
+	/**
+	 * Create a factory preferring HTTP/2.
+	 */
+	public JDKHttpClientConnectionFactory() {
+		this(HttpClient.Version.HTTP_2);
+	}
+
+	/**
+	 * Create a factory.
+	 *
+	 * @param version
+	 *            preferred HTTP version; with {@code HTTP_2} connections fall
+	 *            back to HTTP/1.1 for servers not supporting HTTP/2.
+	 */
+	public JDKHttpClientConnectionFactory(@NonNull HttpClient.Version version) {
+		this.version = version;
+	}
+
+	@Override
+	public HttpConnection create(URL url) throws IOException {
+		return create(url, null);
+	}
+
+	@Override
+	public HttpConnection create(URL url, Proxy proxy) throws IOException {
+		if (proxy != null && proxy.type() == Proxy.Type.SOCKS) {
+			throw new IOException(MessageFormat.format(
+					JGitText.get().httpProxyNotSupported, proxy,
+					getClass().getName()));
+		}
+		return new JDKHttpClientConnection(this, url, proxy);
+	}
+
+	@Override
+	public GitSession newSession() {
+		return new HttpClientSession();
+	}
+
+	/**
+	 * Get the shared client for the given settings.
+	 *
+	 * @param proxy
+	 *            proxy to use, or {@code null} for none.
+	 * @param connectTimeout
+	 *            connect timeout in milliseconds; 0 for none.
+	 * @param followRedirects
+	 *            whether the client follows redirects.
+	 * @param insecure
+	 *            whether server certificates are not verified.
+	 * @return the client
+	 * @throws GeneralSecurityException
+	 *             if the TLS context cannot be created.
+	 */
+	HttpClient getClient(@Nullable Proxy proxy, int connectTimeout,
+			boolean followRedirects, boolean insecure)
+			throws GeneralSecurityException {
+		ClientKey key = new ClientKey(proxy, connectTimeout, followRedirects,
+				insecure);
+		HttpClient client = clients.get(key);
+		if (client == null) {
+			SSLContext ctx = insecure ? getInsecureContext()
+					: SSLContext.getDefault();
+			client = clients.computeIfAbsent(key, k -> newClient(proxy,
+					connectTimeout, followRedirects, ctx));
+		}
+		return client;
+	}
+
+	/**
+	 * Create a client not shared with other connections.
+	 *
+	 * @param proxy
+	 *            proxy to use, or {@code null} for none.
+	 * @param connectTimeout
+	 *            connect timeout in milliseconds; 0 for none.
+	 * @param followRedirects
+	 *            whether the client follows redirects.
+	 * @param ctx
+	 *            TLS context of the client.
+	 * @return the client
+	 */
+	HttpClient newClient(@Nullable Proxy proxy, int connectTimeout,
+			boolean followRedirects, SSLContext ctx) {
+		HttpClient.Builder b = HttpClient.newBuilder().version(version)
+				.followRedirects(followRedirects ? HttpClient.Redirect.NORMAL
+						: HttpClient.Redirect.NEVER)
+				.sslContext(ctx);
+		if (proxy == null || proxy.type() == Proxy.Type.DIRECT) {
+			b.proxy(HttpClient.Builder.NO_PROXY);
+		} else {
+			b.proxy(ProxySelector.of((InetSocketAddress) proxy.address()));
+		}
+		if (connectTimeout > 0) {
+			b.connectTimeout(Duration.ofMillis(connectTimeout));
+		}
+		return b.build();
+	}
+
+	private SSLContext getInsecureContext() throws GeneralSecurityException {
+		SSLContext ctx = insecureContext;
+		if (ctx == null) {
+			ctx = SSLContext.getInstance("TLS"); //$NON-NLS-1$
+			ctx.init(null, new TrustManager[] { new TrustAllManager() }, null);
+			insecureContext = ctx;
+		}
+		return ctx;
+	}
+
+	private class HttpClientSession implements GitSession {
+
+		@Override
+		public JDKHttpClientConnection configure(HttpConnection connection,
+				boolean sslVerify) {
+			if (!(connection instanceof JDKHttpClientConnection)) {
+				throw new IllegalArgumentException(MessageFormat.format(
+						JGitText.get().httpWrongConnectionType,
+						JDKHttpClientConnection.class.getName(),
+						connection.getClass().getName()));
+			}
+			JDKHttpClientConnection conn = (JDKHttpClientConnection) connection;
+			String scheme = conn.getURL().getProtocol();
+			if ("https".equals(scheme) && !sslVerify) { //$NON-NLS-1$
+				conn.setInsecure();
+			}
+			return conn;
+		}
+
+		@Override
+		public void close() {
+			// Connections are pooled by the factory, not by the session.
+		}
+	}
+
+	private static class ClientKey {
+		private final Proxy proxy;
+
+		private final int connectTimeout;
+
+		private final boolean followRedirects;
+
+		private final boolean insecure;
+
+		ClientKey(Proxy proxy, int connectTimeout, boolean followRedirects,
+				boolean insecure) {
+			this.proxy = proxy;
+			this.connectTimeout = connectTimeout;
+			this.followRedirects = followRedirects;
+			this.insecure = insecure;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(proxy, Integer.valueOf(connectTimeout),
+					Boolean.valueOf(followRedirects),
+					Boolean.valueOf(insecure));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ClientKey)) {
+				return false;
+			}
+			ClientKey k = (ClientKey) obj;
+			return Objects.equals(proxy, k.proxy)
+					&& connectTimeout == k.connectTimeout
+					&& followRedirects == k.followRedirects
+					&& insecure == k.insecure;
+		}
+	}
+
+	/**
+	 * Trusts all certificates and host names.
+	 * <p>
+	 * The {@link HttpClient} verifies host names unless the trust manager is
+	 * an {@link X509ExtendedTrustManager}, so a plain
+	 * {@link NoCheckX509TrustManager} does not suffice.
+	 */
+	static class TrustAllManager extends X509ExtendedTrustManager {
+
+		@Override
+		public X509Certificate[] getAcceptedIssuers() {
+			return new X509Certificate[0];
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain,
+				String authType) {
+			// no check
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain,
+				String authType) {
+			// no check
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain,
+				String authType, Socket socket) {
+			// no check
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain,
+				String authType, Socket socket) {
+			// no check
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain,
+				String authType, SSLEngine engine) {
+			// no check
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain,
+				String authType, SSLEngine engine) {
+			// no check
+		}
+	}
+}
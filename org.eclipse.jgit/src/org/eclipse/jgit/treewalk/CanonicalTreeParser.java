@@ -20,8 +20,10 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.jgit.attributes.AttributesNode;
 import org.eclipse.jgit.attributes.AttributesRule;
@@ -189,6 +191,32 @@ public CanonicalTreeParser next() {
 	public void reset(ObjectReader reader, AnyObjectId id)
 			throws IncorrectObjectTypeException, IOException {
 		reset(reader.open(id, OBJ_TREE).getCachedBytes());
+		if (reader.canFetchMissingObjects()) {
+			prefetchSubtrees(reader);
+		}
+	}
+
+	/**
+	 * Fetch the subtrees missing from a partial clone in one request, rather
+	 * than one request per subtree once the walk enters them.
+	 *
+	 * @param reader
+	 *            reader of the repository the tree is from.
+	 * @throws IOException
+	 *             the subtrees could not be fetched.
+	 */
+	private void prefetchSubtrees(ObjectReader reader) throws IOException {
+		List<ObjectId> subtrees = new ArrayList<>();
+		CanonicalTreeParser p = new CanonicalTreeParser();
+		p.reset(raw);
+		for (; !p.eof(); p.next(1)) {
+			if (FileMode.TREE.equals(p.getEntryRawMode())) {
+				subtrees.add(p.getEntryObjectId());
+			}
+		}
+		if (!subtrees.isEmpty()) {
+			reader.prefetch(subtrees);
+		}
 	}
 
 	@Override
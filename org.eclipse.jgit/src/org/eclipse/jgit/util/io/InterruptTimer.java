@@ -11,6 +11,9 @@
 package org.eclipse.jgit.util.io;
 
 import java.text.MessageFormat;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jgit.internal.JGitText;
 
@@ -37,44 +40,59 @@
  * independent InterruptTimer instances are required. A single InterruptTimer
  * may be shared between objects which won't recursively call each other.
  * <p>
- * Each InterruptTimer spawns one background thread to sleep the specified time
- * and interrupt the thread which called {@link #begin(int)}. It is up to the
- * caller to ensure that the operations within the work block between the
- * matched begin and end calls tests the interrupt flag (most IO operations do).
+ * All InterruptTimers of the process share a single background thread which
+ * sleeps until the earliest armed timeout and interrupts the thread which
+ * called {@link #begin(int)}. Creating a timer is therefore cheap, and a
+ * server handling thousands of connections doesn't need one extra thread per
+ * connection. It is up to the caller to ensure that the operations within the
+ * work block between the matched begin and end calls tests the interrupt flag
+ * (most IO operations do).
  * <p>
- * To terminate the background thread, use {@link #terminate()}. If the
- * application fails to terminate the thread, it will (eventually) terminate
- * itself when the InterruptTimer instance is garbage collected.
+ * Use {@link #terminate()} to disarm a timer which is no longer needed.
  *
  * @see TimeoutInputStream
  */
 public final class InterruptTimer {
-	private final AlarmState state;
+	private static final ScheduledThreadPoolExecutor alarms;
+
+	static {
+		alarms = new ScheduledThreadPoolExecutor(1, r -> {
+			Thread thr = new Thread(r, "JGit-InterruptTimer"); //$NON-NLS-1$
+			thr.setContextClassLoader(null);
+			thr.setDaemon(true);
+			return thr;
+		});
+		alarms.setRemoveOnCancelPolicy(true);
+		alarms.setKeepAliveTime(60, TimeUnit.SECONDS);
+		alarms.allowCoreThreadTimeOut(true);
+	}
+
+	private Thread callingThread;
+
+	private ScheduledFuture<?> alarm;
+
+	private long generation;
 
-	private final AlarmThread thread;
+	private boolean fired;
 
-	final AutoKiller autoKiller;
+	private boolean terminated;
 
 	/**
-	 * Create a new timer with a default thread name.
+	 * Create a new timer.
 	 */
 	public InterruptTimer() {
-		this("JGit-InterruptTimer"); //$NON-NLS-1$
+		callingThread = Thread.currentThread();
 	}
 
 	/**
 	 * Create a new timer to signal on interrupt on the caller.
-	 * <p>
-	 * The timer thread is created in the calling thread's ThreadGroup.
 	 *
 	 * @param threadName
-	 *            name of the timer thread.
+	 *            name of the timer. Ignored, all timers are serviced by a
+	 *            single shared thread.
 	 */
 	public InterruptTimer(String threadName) {
-		state = new AlarmState();
-		autoKiller = new AutoKiller(state);
-		thread = new AlarmThread(threadName, state);
-		thread.start();
+		this();
 	}
 
 	/**
@@ -89,123 +107,54 @@ public void begin(int timeout) {
 			throw new IllegalArgumentException(MessageFormat.format(
 					JGitText.get().invalidTimeout, Integer.valueOf(timeout)));
 		Thread.interrupted();
-		state.begin(timeout);
+		synchronized (this) {
+			if (terminated)
+				throw new IllegalStateException(
+						JGitText.get().timerAlreadyTerminated);
+			cancel();
+			callingThread = Thread.currentThread();
+			fired = false;
+			long gen = ++generation;
+			alarm = alarms.schedule(() -> fire(gen), timeout,
+					TimeUnit.MILLISECONDS);
+		}
 	}
 
 	/**
 	 * Disable the interrupt timer, as the operation is complete.
 	 */
-	public void end() {
-		state.end();
+	public synchronized void end() {
+		if (fired) {
+			fired = false;
+			Thread.interrupted();
+		} else {
+			cancel();
+		}
 	}
 
 	/**
-	 * Shutdown the timer thread, and wait for it to terminate.
+	 * Disarm the timer. A terminated timer cannot be armed again.
 	 */
-	public void terminate() {
-		state.terminate();
-		boolean interrupted = false;
-		try {
-			while (true) {
-				try {
-					thread.join();
-					return;
-				} catch (InterruptedException e) {
-					interrupted = true;
-				}
-			}
-		} finally {
-			if (interrupted) {
-				Thread.currentThread().interrupt();
-			}
+	public synchronized void terminate() {
+		if (!terminated) {
+			cancel();
+			terminated = true;
 		}
 	}
 
-	static final class AlarmThread extends Thread {
-		AlarmThread(String name, AlarmState q) {
-			super(q);
-			setName(name);
-			setDaemon(true);
+	private synchronized void fire(long gen) {
+		if (gen == generation && alarm != null) {
+			alarm = null;
+			fired = true;
+			callingThread.interrupt();
 		}
 	}
 
-	// The trick here is, the AlarmThread does not have a reference to the
-	// AutoKiller instance, only the InterruptTimer itself does. Thus when
-	// the InterruptTimer is GC'd, the AutoKiller is also unreachable and
-	// can be GC'd. When it gets finalized, it tells the AlarmThread to
-	// terminate, triggering the thread to exit gracefully.
-	//
-	private static final class AutoKiller {
-		private final AlarmState state;
-
-		AutoKiller(AlarmState s) {
-			state = s;
-		}
-
-		@Override
-		protected void finalize() throws Throwable {
-			state.terminate();
-		}
-	}
-
-	static final class AlarmState implements Runnable {
-		private Thread callingThread;
-
-		private long deadline;
-
-		private boolean terminated;
-
-		AlarmState() {
-			callingThread = Thread.currentThread();
-		}
-
-		@Override
-		public synchronized void run() {
-			while (!terminated && callingThread.isAlive()) {
-				try {
-					if (0 < deadline) {
-						final long delay = deadline - now();
-						if (delay <= 0) {
-							deadline = 0;
-							callingThread.interrupt();
-						} else {
-							wait(delay);
-						}
-					} else {
-						wait(1000);
-					}
-				} catch (InterruptedException e) {
-					// Treat an interrupt as notice to examine state.
-				}
-			}
-		}
-
-		synchronized void begin(int timeout) {
-			if (terminated)
-				throw new IllegalStateException(JGitText.get().timerAlreadyTerminated);
-			callingThread = Thread.currentThread();
-			deadline = now() + timeout;
-			notifyAll();
-		}
-
-		synchronized void end() {
-			if (0 == deadline)
-				Thread.interrupted();
-			else
-				deadline = 0;
-			notifyAll();
-		}
-
-		synchronized void terminate() {
-			if (!terminated) {
-				deadline = 0;
-				terminated = true;
-				notifyAll();
-			}
-		}
-
-		private static long now() {
-			return System.currentTimeMillis();
+	private void cancel() {
+		if (alarm != null) {
+			alarm.cancel(false);
+			alarm = null;
 		}
+		generation++;
 	}
 }
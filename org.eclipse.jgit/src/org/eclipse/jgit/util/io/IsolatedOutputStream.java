@@ -13,17 +13,18 @@
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.jgit.internal.JGitText;
 
@@ -38,13 +39,21 @@
  * Every write (or flush) requires a context switch to another thread. Callers
  * should wrap this stream with {@code BufferedOutputStream} using a suitable
  * buffer size to amortize the cost of context switches.
+ * <p>
+ * The copying threads are pooled and shared by all instances, so an idle
+ * stream doesn't hold on to a thread.
  *
  * @since 4.6
  */
 public class IsolatedOutputStream extends OutputStream {
+	private static final ExecutorService copier = new ThreadPoolExecutor(0,
+			Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+			new NamedThreadFactory());
+
 	private final OutputStream dst;
-	private final ExecutorService copier;
+	private final ReentrantLock inUse = new ReentrantLock();
 	private Future<Void> pending;
+	private boolean closed;
 
 	/**
 	 * Wraps an OutputStream.
@@ -54,8 +63,6 @@ public class IsolatedOutputStream extends OutputStream {
 	 */
 	public IsolatedOutputStream(OutputStream out) {
 		dst = out;
-		copier = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
-				new ArrayBlockingQueue<>(1), new NamedThreadFactory());
 	}
 
 	@Override
@@ -84,7 +91,7 @@ public void flush() throws IOException {
 
 	@Override
 	public void close() throws IOException {
-		if (!copier.isShutdown()) {
+		if (!closed) {
 			try {
 				if (pending == null || tryCleanClose()) {
 					cleanClose();
@@ -92,7 +99,7 @@ public void close() throws IOException {
 					dirtyClose();
 				}
 			} finally {
-				copier.shutdown();
+				closed = true;
 			}
 		}
 	}
@@ -132,10 +139,10 @@ private void dirtyClose() throws IOException {
 
 		Future<Void> close;
 		try {
-			close = copier.submit(() -> {
+			close = copier.submit(exclusive(() -> {
 				dst.close();
 				return null;
-			});
+			}));
 		} catch (RejectedExecutionException e) {
 			throw new IOException(e);
 		}
@@ -150,7 +157,7 @@ private void dirtyClose() throws IOException {
 	}
 
 	private void checkClosed() throws IOException {
-		if (copier.isShutdown()) {
+		if (closed) {
 			throw new IOException(JGitText.get().closed);
 		}
 	}
@@ -161,7 +168,7 @@ private void execute(Callable<Void> task) throws IOException {
 			checkedGet(pending);
 		}
 		try {
-			pending = copier.submit(task);
+			pending = copier.submit(exclusive(task));
 		} catch (RejectedExecutionException e) {
 			throw new IOException(e);
 		}
@@ -169,6 +176,22 @@ private void execute(Callable<Void> task) throws IOException {
 		pending = null;
 	}
 
+	private Callable<Void> exclusive(Callable<Void> task) {
+		/*
+		 * The copier threads are shared, so a close may start on one thread
+		 * while a cancelled write is still returning on another. Run one
+		 * operation at a time, as a single copier thread of our own would.
+		 */
+		return () -> {
+			inUse.lockInterruptibly();
+			try {
+				return task.call();
+			} finally {
+				inUse.unlock();
+			}
+		};
+	}
+
 	private static void checkedGet(Future<Void> future) throws IOException {
 		try {
 			future.get();
@@ -192,7 +215,9 @@ private static class NamedThreadFactory implements ThreadFactory {
 		public Thread newThread(Runnable r) {
 			int n = cnt.incrementAndGet();
 			String name = IsolatedOutputStream.class.getSimpleName() + '-' + n;
-			return new Thread(r, name);
+			Thread thr = new Thread(r, name);
+			thr.setDaemon(true);
+			return thr;
 		}
 	}
 }